@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tools.internal;
+
+/**
+ * Generates the java source of the flyweight accessor of a structure
+ * flagged <code>accessor</code>. The accessor reads the offsets and
+ * sizes of the fields from the <code>&lt;Struct&gt;_offsets</code>
+ * function generated by <code>StructsGenerator</code>. That function
+ * is called through a native that has to be declared in the main class,
+ * in the same way as <code>&lt;Struct&gt;_sizeof</code>.
+ */
+public class AccessorsGenerator extends JNIGenerator {
+
+	static final String SUFFIX = "Accessor";
+
+@Override
+public void generateCopyright() {
+	outputln(fixDelimiter(getMetaData().getCopyright()));
+}
+
+@Override
+public void generate(JNIClass clazz) {
+	String clazzName = clazz.getSimpleName();
+	String mainName = getMainClass().getSimpleName();
+	if (!hasOffsetsNative(clazz)) {
+		System.out.println("Warning: " + mainName + " does not declare " + clazzName + "_offsets(int[])");
+	}
+	generateCopyright();
+	String packageName = getPackageName(clazz);
+	if (packageName.length() != 0) {
+		output("package ");
+		output(packageName);
+		outputln(";");
+		outputln();
+	}
+	JNIClass superclazz = clazz.getSuperclass();
+	boolean hasSuper = !superclazz.getName().equals("java.lang.Object") && superclazz.getFlag(FLAG_ACCESSOR);
+	if (!hasSuper) {
+		outputln("import org.eclipse.swt.internal.*;");
+		outputln();
+	}
+	outputln("/**");
+	output(" * Flyweight accessor of the fields of <code>");
+	output(clazzName);
+	outputln("</code>.");
+	outputln(" * This class is generated by the JNI generator, do not edit it.");
+	outputln(" */");
+	output("public class ");
+	output(clazzName);
+	output(SUFFIX);
+	output(" extends ");
+	output(hasSuper ? superclazz.getSimpleName() + SUFFIX : "StructAccessor");
+	outputln(" {");
+	JNIField[] fields = StructsGenerator.getAccessorFields(clazz);
+	outputln("\tpublic static final int sizeof;");
+	for (int i = 0; i < fields.length; i++) {
+		String name = fields[i].getName();
+		output("\tpublic static final int ");
+		output(name);
+		output("_offset, ");
+		output(name);
+		outputln("_size;");
+	}
+	outputln("\tstatic {");
+	output("\t\tint[] offsets = new int[");
+	output(String.valueOf(1 + fields.length * 2));
+	outputln("];");
+	output("\t\t");
+	output(mainName);
+	output(".");
+	output(clazzName);
+	outputln("_offsets(offsets);");
+	outputln("\t\tsizeof = offsets[0];");
+	for (int i = 0; i < fields.length; i++) {
+		String name = fields[i].getName();
+		output("\t\t");
+		output(name);
+		output("_offset = offsets[");
+		output(String.valueOf(1 + i * 2));
+		outputln("];");
+		output("\t\t");
+		output(name);
+		output("_size = offsets[");
+		output(String.valueOf(2 + i * 2));
+		outputln("];");
+	}
+	outputln("\t}");
+	outputln();
+	outputln("@Override");
+	outputln("public int sizeof() {");
+	outputln("\treturn sizeof;");
+	outputln("}");
+	for (int i = 0; i < fields.length; i++) {
+		JNIField field = fields[i];
+		JNIType type = field.getType(), type64 = field.getType64();
+		/* arrays and embedded structures only have their offset and size */
+		if (!type.isPrimitive()) continue;
+		generateGetter(field, type, type64);
+		generateSetter(field, type, type64);
+	}
+	outputln("}");
+}
+
+void generateGetter(JNIField field, JNIType type, JNIType type64) {
+	String name = field.getName();
+	String args = "(" + name + "_offset, " + name + "_size)";
+	outputln();
+	output("public ");
+	output(getTypeName(type, type64));
+	output(" ");
+	output(name);
+	outputln("() {");
+	output("\treturn ");
+	if (!type.equals(type64)) {
+		/* the cast becomes (int) in the 32-bit source */
+		output("(");
+		output(getTypeName(type, type64));
+		output(")getLong");
+		output(args);
+	} else if (type.isType("long")) {
+		output("getLong");
+		output(args);
+	} else if (type.isType("boolean")) {
+		output("getInt");
+		output(args);
+		output(" != 0");
+	} else if (type.isType("float")) {
+		output("(float)getDouble");
+		output(args);
+	} else if (type.isType("double")) {
+		output("getDouble");
+		output(args);
+	} else if (type.isType("char")) {
+		output("(char)getUnsignedInt");
+		output(args);
+	} else {
+		if (!type.isType("int")) {
+			output("(");
+			output(type.getName());
+			output(")");
+		}
+		output(isUnsigned(field) ? "getUnsignedInt" : "getInt");
+		output(args);
+	}
+	outputln(";");
+	outputln("}");
+}
+
+void generateSetter(JNIField field, JNIType type, JNIType type64) {
+	String name = field.getName();
+	outputln();
+	output("public void ");
+	output(name);
+	output("(");
+	output(getTypeName(type, type64));
+	outputln(" value) {");
+	output("\t");
+	if (!type.equals(type64) || type.isType("long")) {
+		output("setLong");
+	} else if (type.isType("float") || type.isType("double")) {
+		output("setDouble");
+	} else {
+		output("setInt");
+	}
+	output("(");
+	output(name);
+	output("_offset, ");
+	output(name);
+	output("_size, ");
+	output(type.isType("boolean") ? "value ? 1 : 0" : "value");
+	outputln(");");
+	outputln("}");
+}
+
+String getPackageName(JNIClass clazz) {
+	String name = clazz.getName();
+	int index = name.lastIndexOf('.');
+	return index != -1 ? name.substring(0, index) : "";
+}
+
+String getTypeName(JNIType type, JNIType type64) {
+	if (!type.equals(type64)) return type64.getName() + " /*" + type.getName() + "*/";
+	return type.getName();
+}
+
+boolean hasOffsetsNative(JNIClass clazz) {
+	String name = clazz.getSimpleName() + "_offsets";
+	JNIMethod[] methods = getMainClass().getDeclaredMethods();
+	for (int i = 0; i < methods.length; i++) {
+		if (methods[i].getName().equals(name)) return true;
+	}
+	return false;
+}
+
+/*
+ * The sign of the fields narrower than their java type is taken
+ * from their cast, for example (guint16).
+ */
+boolean isUnsigned(JNIField field) {
+	String cast = field.getCast();
+	if (cast == null) return false;
+	return cast.indexOf("uint") != -1 || cast.indexOf("unsigned") != -1 || cast.indexOf("uchar") != -1 || cast.indexOf("(BYTE") != -1 || cast.indexOf("(WORD") != -1;
+}
+
+@Override
+public String getExtension() {
+	return ".java";
+}
+
+public String getFileName(JNIClass clazz) {
+	return clazz.getSimpleName() + SUFFIX + getExtension();
+}
+
+}
@@ -175,6 +175,30 @@ void generateSWT_C(JNIClass[] classes) {
 	}
 }
 
+void generateACCESSORS(JNIClass[] classes) {
+	String root = classesDir != null ? classesDir : new File(outputDir).getParent() + "/";
+	String packageDir = root + getPackageName(mainClassName).replace('.', '/') + "/";
+	for (int i = 0; i < classes.length; i++) {
+		JNIClass clazz = classes[i];
+		if (!clazz.getFlag(Flags.FLAG_ACCESSOR)) continue;
+		try {
+			AccessorsGenerator gen = new AccessorsGenerator();
+			gen.setMainClass(mainClass);
+			gen.setClasses(new JNIClass[]{clazz});
+			gen.setMetaData(metaData);
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			gen.setOutput(new PrintStream(out));
+			String fileName = packageDir + gen.getFileName(clazz);
+			gen.setDelimiter(JNIGenerator.getDelimiter(fileName));
+			gen.generate(clazz);
+			gen.getOutput().flush();
+			if (out.size() > 0) JNIGenerator.output(out.toByteArray(), fileName);
+		} catch (Exception e) {
+			System.out.println("Problem");
+			e.printStackTrace(System.out);
+		}
+	}
+}
 
 void generateMetaData(JNIClass[] classes) {
 	try {
@@ -247,6 +271,8 @@ public void generate(ProgressMonitor progress) {
 	generateSTRUCTS_H(structs);
 	if (progress != null) progress.setMessage("Generating structs.c ...");
 	generateSTRUCTS_C(structs);
+	if (progress != null) progress.setMessage("Generating accessors ...");
+	generateACCESSORS(structs);
 	if (progress != null) progress.setMessage("Generating natives ...");
 	generateSWT_C(natives);
 	if (progress != null) progress.setMessage("Generating stats.h ...");
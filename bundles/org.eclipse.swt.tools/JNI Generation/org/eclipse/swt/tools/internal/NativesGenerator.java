@@ -337,6 +337,39 @@ boolean generateGetParameter(JNIMethod method, JNIParameter param, boolean criti
 	return true;
 }
 
+/*
+* Counts the bytes marshalled for arrays and structures in the stats
+* build. This is done before any getter so that no JNI function is
+* called while a critical array is held.
+*/
+void generateBytesMacro(JNIMethod method, JNIParameter param) {
+	JNIType paramType = param.getType();
+	if (paramType.isPrimitive() || isSystemClass(paramType)) return;
+	if (paramType.isType("java.lang.String")) return;
+	String iStr = String.valueOf(param.getParameter());
+	output("\t");
+	output(method.getDeclaringClass().getSimpleName());
+	output("_NATIVE_BYTES(env, arg");
+	output(iStr);
+	output(", ");
+	if (param.getType().isArray()) {
+		if (getCPP()) {
+			output("env->GetArrayLength(arg");
+		} else {
+			output("(*env)->GetArrayLength(env, arg");
+		}
+		output(iStr);
+		output(") * sizeof(*lparg");
+		output(iStr);
+		output(")");
+	} else {
+		output("sizeof(_arg");
+		output(iStr);
+		output(")");
+	}
+	outputln(");");
+}
+
 void generateSetParameter(JNIParameter param, boolean critical) {
 	JNIType paramType = param.getType(), paramType64 = param.getType64();
 	if (paramType.isPrimitive() || isSystemClass(paramType)) return;
@@ -504,6 +537,11 @@ boolean generateLocalVars(JNIMethod method, JNIParameter[] params, JNIType retur
 boolean generateGetters(JNIMethod method, JNIParameter[] params) {
 	boolean genFailTag = false;
 	int criticalCount = 0;
+	if (enterExitMacro) {
+		for (int i = 0; i < params.length; i++) {
+			generateBytesMacro(method, params[i]);
+		}
+	}
 	for (int i = 0; i < params.length; i++) {
 		JNIParameter param = params[i];
 		if (!isCritical(param)) {
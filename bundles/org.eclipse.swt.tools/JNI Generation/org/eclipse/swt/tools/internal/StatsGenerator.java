@@ -74,14 +74,42 @@ void generateNATIVEMacros(JNIClass clazz) {
 	output("extern char* ");
 	output(className);
 	outputln("_nativeFunctionNames[];");
+	output("extern jlong ");
+	output(className);
+	outputln("_nativeFunctionTime[];");
+	output("extern jlong ");
+	output(className);
+	outputln("_nativeFunctionBytes[];");
+	output("extern int ");
+	output(className);
+	outputln("_nativeFunctionHistogram[];");
+	output("extern int ");
+	output(className);
+	outputln("_nativeFunctionThreadCallCount[];");
+	output("extern jlong ");
+	output(className);
+	outputln("_nativeFunctionThreadTime[];");
 	output("#define ");
 	output(className);
-	output("_NATIVE_ENTER(env, that, func) ");
+	output("_NATIVE_ENTER(env, that, func) jlong stats_bytes = 0, stats_start = (");
 	output(className);
-	outputln("_nativeFunctionCallCount[func]++;");
+	outputln("_nativeFunctionCallCount[func]++, swtStatsTime());");
 	output("#define ");
 	output(className);
-	outputln("_NATIVE_EXIT(env, that, func) ");
+	output("_NATIVE_EXIT(env, that, func) swtStatsRecord(func, stats_start, stats_bytes, ");
+	output(className);
+	output("_nativeFunctionTime, ");
+	output(className);
+	output("_nativeFunctionHistogram, ");
+	output(className);
+	output("_nativeFunctionBytes, ");
+	output(className);
+	output("_nativeFunctionThreadCallCount, ");
+	output(className);
+	outputln("_nativeFunctionThreadTime);");
+	output("#define ");
+	output(className);
+	outputln("_NATIVE_BYTES(env, arg, bytes) if (arg) stats_bytes += (bytes)");
 	outputln("#else");
 	output("#ifndef ");
 	output(className);
@@ -97,6 +125,13 @@ void generateNATIVEMacros(JNIClass clazz) {
 	output(className);
 	outputln("_NATIVE_EXIT(env, that, func) ");
 	outputln("#endif");
+	output("#ifndef ");
+	output(className);
+	outputln("_NATIVE_BYTES");
+	output("#define ");
+	output(className);
+	outputln("_NATIVE_BYTES(env, arg, bytes) ");
+	outputln("#endif");
 	outputln("#endif");
 	outputln();	
 }
@@ -141,6 +176,21 @@ void generateSourceFile(JNIClass clazz) {
 	output("int ");
 	output(className);
 	outputln("_nativeFunctionCallCount[NATIVE_FUNCTION_COUNT];");
+	output("jlong ");
+	output(className);
+	outputln("_nativeFunctionTime[NATIVE_FUNCTION_COUNT];");
+	output("jlong ");
+	output(className);
+	outputln("_nativeFunctionBytes[NATIVE_FUNCTION_COUNT];");
+	output("int ");
+	output(className);
+	outputln("_nativeFunctionHistogram[NATIVE_FUNCTION_COUNT * STATS_HISTOGRAM_SIZE];");
+	output("int ");
+	output(className);
+	outputln("_nativeFunctionThreadCallCount[NATIVE_FUNCTION_COUNT];");
+	output("jlong ");
+	output(className);
+	outputln("_nativeFunctionThreadTime[NATIVE_FUNCTION_COUNT];");
 	outputln();
 	generateStatsNatives(className);
 	outputln();
@@ -179,14 +229,59 @@ void generateStatsNatives(String className) {
 	outputln("}");
 	outputln();
 
+	generateStatsNative(className, "jint", "_GetFunctionCallCount", "_nativeFunctionCallCount[index]");
+	outputln();
+	generateStatsNative(className, "jlong", "_GetFunctionTime", "_nativeFunctionTime[index]");
+	outputln();
+	generateStatsNative(className, "jlong", "_GetFunctionBytes", "_nativeFunctionBytes[index]");
+	outputln();
+	generateStatsNative(className, "jint", "_GetFunctionThreadCallCount", "_nativeFunctionThreadCallCount[index]");
+	outputln();
+	generateStatsNative(className, "jlong", "_GetFunctionThreadTime", "_nativeFunctionThreadTime[index]");
+	outputln();
+
+	output("JNIEXPORT jint JNICALL STATS_NATIVE(");
+	output(toC(className + "_GetFunctionHistogram"));
+	outputln(")");
+	outputln("\t(JNIEnv *env, jclass that, jint index, jint bucket)");
+	outputln("{");
+	outputln("\tif (bucket < 0 || bucket >= STATS_HISTOGRAM_SIZE) return 0;");
+	output("\treturn ");
+	output(className);
+	outputln("_nativeFunctionHistogram[index * STATS_HISTOGRAM_SIZE + bucket];");
+	outputln("}");
+	outputln();
+
 	output("JNIEXPORT jint JNICALL STATS_NATIVE(");
-	output(toC(className + "_GetFunctionCallCount"));
+	output(toC(className + "_GetHistogramSize"));
+	outputln(")");
+	outputln("\t(JNIEnv *env, jclass that)");
+	outputln("{");
+	outputln("\treturn STATS_HISTOGRAM_SIZE;");
+	outputln("}");
+	outputln();
+
+	output("JNIEXPORT void JNICALL STATS_NATIVE(");
+	output(toC(className + "_SetThread"));
+	outputln(")");
+	outputln("\t(JNIEnv *env, jclass that)");
+	outputln("{");
+	outputln("\tswtStatsSetThread();");
+	outputln("}");
+}
+
+void generateStatsNative(String className, String returnType, String name, String value) {
+	output("JNIEXPORT ");
+	output(returnType);
+	output(" JNICALL STATS_NATIVE(");
+	output(toC(className + name));
 	outputln(")");
 	outputln("\t(JNIEnv *env, jclass that, jint index)");
 	outputln("{");
 	output("\treturn ");
 	output(className);
-	outputln("_nativeFunctionCallCount[index];");
+	output(value);
+	outputln(";");
 	outputln("}");
 }
 
@@ -156,6 +156,11 @@ void generateBlankMacros(JNIClass clazz) {
 	output("#define ");
 	output(clazzName);
 	outputln("_sizeof() 0");
+	if (clazz.getFlag(FLAG_ACCESSOR)) {
+		output("#define ");
+		output(clazzName);
+		outputln("_offsets(a)");
+	}
 }
 
 void generatePrototypes(JNIClass clazz) {
@@ -191,6 +196,11 @@ void generatePrototypes(JNIClass clazz) {
 	}
 	output(clazzName);
 	outputln(")");
+	if (clazz.getFlag(FLAG_ACCESSOR)) {
+		output("void ");
+		output(clazzName);
+		outputln("_offsets(jint *offsets);");
+	}
 }
 
 void generateFIDsStructure(JNIClass clazz) {
@@ -577,15 +587,96 @@ void generateSetFunction(JNIClass clazz) {
 	outputln("}");
 }
 
+/*
+ * Generates the function that answers the size of the structure followed
+ * by the offset and size of each field returned by getAccessorFields().
+ * Fields that are excluded at compile time have an offset of -1.
+ */
+void generateOffsetsFunction(JNIClass clazz) {
+	String clazzName = clazz.getSimpleName();
+	String structName = clazz.getFlag(Flags.FLAG_STRUCT) ? "struct " + clazzName : clazzName;
+	output("void ");
+	output(clazzName);
+	outputln("_offsets(jint *offsets)");
+	outputln("{");
+	output("\t");
+	output(structName);
+	outputln(" *lpStruct = NULL;");
+	output("\toffsets[0] = sizeof(");
+	output(structName);
+	outputln(");");
+	JNIField[] fields = getAccessorFields(clazz);
+	for (int i = 0; i < fields.length; i++) {
+		JNIField field = fields[i];
+		String exclude = field.getExclude();
+		boolean noWinCE = field.getFlag(FLAG_NO_WINCE);
+		String index = String.valueOf(1 + i * 2), sizeIndex = String.valueOf(2 + i * 2);
+		if (noWinCE || exclude.length() != 0) {
+			output("\toffsets[");
+			output(index);
+			output("] = -1;");
+			output(" offsets[");
+			output(sizeIndex);
+			outputln("] = 0;");
+		}
+		if (exclude.length() != 0) {
+			outputln(exclude);
+		}
+		if (noWinCE) {
+			outputln("#ifndef _WIN32_WCE");
+		}
+		String accessor = field.getAccessor();
+		if (accessor == null || accessor.length() == 0) accessor = field.getName();
+		output("\toffsets[");
+		output(index);
+		output("] = offsetof(");
+		output(structName);
+		output(", ");
+		output(accessor);
+		outputln(");");
+		output("\toffsets[");
+		output(sizeIndex);
+		output("] = sizeof(lpStruct->");
+		output(accessor);
+		outputln(");");
+		if (noWinCE) {
+			outputln("#endif");
+		}
+		if (exclude.length() != 0) {
+			outputln("#endif");
+		}
+	}
+	outputln("}");
+}
+
 void generateFunctions(JNIClass clazz) {
 	generateCacheFunction(clazz);
 	outputln();
 	generateGetFunction(clazz);
 	outputln();
 	generateSetFunction(clazz);
+	if (clazz.getFlag(FLAG_ACCESSOR)) {
+		outputln();
+		generateOffsetsFunction(clazz);
+	}
+}
+
+/*
+ * Answers the fields that have accessors, in the order of their
+ * offsets and sizes in the array filled by the offsets function.
+ */
+static JNIField[] getAccessorFields(JNIClass clazz) {
+	JNIField[] fields = clazz.getDeclaredFields();
+	int count = 0;
+	for (int i = 0; i < fields.length; i++) {
+		if (!ignoreField(fields[i])) fields[count++] = fields[i];
+	}
+	JNIField[] result = new JNIField[count];
+	System.arraycopy(fields, 0, result, 0, count);
+	return result;
 }
 
-boolean ignoreField(JNIField field) {
+static boolean ignoreField(JNIField field) {
 	int mods = field.getModifiers();
 	return
 		((mods & Modifier.PUBLIC) == 0) ||
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tools.internal;
+
+import java.io.*;
+import java.util.*;
+
+import org.eclipse.swt.internal.*;
+import org.eclipse.swt.widgets.*;
+
+/**
+ * Instructions on how to use the LayoutStats tool with a standlaone SWT example:
+ *
+ * 1) Add the following code around the sections of interest to dump the
+ * layout work done in that section, per widget, most expensive first.
+ *
+ * 		LayoutStats stats = new LayoutStats(display);
+ * 		...
+ * 		<code section>
+ * 		...
+ * 		stats.dump(System.out);
+ * 		stats.dispose();
+ *
+ * 2) Or subclass org.eclipse.swt.internal.LayoutListener and install it with
+ * display.setData(LayoutListener.KEY, listener) to receive every layout
+ * operation as it completes, for example to write them to an event log.
+ */
+public class LayoutStats extends LayoutListener {
+
+	Display display;
+	Map<Object, WidgetStats> stats = new HashMap<Object, WidgetStats>();
+	int maxDepth;
+
+	public static class WidgetStats implements Comparable<Object> {
+		String name;
+		int layoutCount, sizeCount, hitCount, maxDepth;
+		long layoutTime, sizeTime;
+
+	public WidgetStats(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getLayoutCount() {
+		return layoutCount;
+	}
+
+	public long getLayoutTime() {
+		return layoutTime;
+	}
+
+	public int getSizeCount() {
+		return sizeCount;
+	}
+
+	public long getSizeTime() {
+		return sizeTime;
+	}
+
+	public int getCacheHitCount() {
+		return hitCount;
+	}
+
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+
+	@Override
+	public int compareTo(Object func) {
+		WidgetStats other = (WidgetStats)func;
+		long time = layoutTime + sizeTime, otherTime = other.layoutTime + other.sizeTime;
+		return time < otherTime ? 1 : time > otherTime ? -1 : 0;
+	}
+	}
+
+public LayoutStats(Display display) {
+	this.display = display;
+	display.setData(KEY, this);
+}
+
+public void dispose() {
+	if (display.getData(KEY) == this) display.setData(KEY, null);
+}
+
+@Override
+public void layoutEvent(int type, Object widget, int depth, long start, long duration) {
+	WidgetStats widgetStats = stats.get(widget);
+	if (widgetStats == null) {
+		stats.put(widget, widgetStats = new WidgetStats(widget.toString()));
+	}
+	switch (type) {
+		case LAYOUT:
+			widgetStats.layoutCount++;
+			widgetStats.layoutTime += duration;
+			break;
+		case LAYOUT_SIZE:
+		case CONTROL_SIZE:
+			widgetStats.sizeCount++;
+			widgetStats.sizeTime += duration;
+			break;
+		case CACHE_HIT:
+			widgetStats.hitCount++;
+			break;
+	}
+	widgetStats.maxDepth = Math.max(widgetStats.maxDepth, depth);
+	maxDepth = Math.max(maxDepth, depth);
+}
+
+public void dump(PrintStream ps) {
+	WidgetStats[] snapshot = snapshot();
+	Arrays.sort(snapshot);
+	long total = 0;
+	for (int i = 0; i < snapshot.length; i++) {
+		total += snapshot[i].layoutTime;
+	}
+	ps.print("layouts=");
+	ps.print(total / 1000);
+	ps.print("us maxDepth=");
+	ps.print(maxDepth);
+	ps.println();
+	for (int i = 0; i < snapshot.length; i++) {
+		WidgetStats widgetStats = snapshot[i];
+		ps.print("\t");
+		ps.print(widgetStats.name);
+		ps.print(" layout=");
+		ps.print(widgetStats.layoutCount);
+		ps.print("/");
+		ps.print(widgetStats.layoutTime / 1000);
+		ps.print("us size=");
+		ps.print(widgetStats.sizeCount);
+		ps.print("/");
+		ps.print(widgetStats.sizeTime / 1000);
+		ps.print("us hits=");
+		ps.print(widgetStats.hitCount);
+		ps.print(" depth=");
+		ps.print(widgetStats.maxDepth);
+		ps.println();
+	}
+}
+
+public void reset() {
+	stats.clear();
+	maxDepth = 0;
+}
+
+public WidgetStats[] snapshot() {
+	return stats.values().toArray(new WidgetStats[stats.size()]);
+}
+}
@@ -31,17 +31,39 @@ import java.util.*;
  * the native calls done until that point.
  * 
  * 		new NativeStats().dumpSnapshot(System.out); 
+ * 
+ * 4) The time spent in each native, its histogram of times, and the bytes of
+ * the arrays and structures it marshalled are also reported. The report can
+ * be sorted by any of these with setSortBy(). Calling setThread() from the
+ * user-interface thread separates the calls done in that thread from the
+ * calls done in the other threads. The histogram has one bucket per power of
+ * two microseconds.
+ * 
+ * 		NativeStats stats = new NativeStats();
+ * 		stats.setThread();
+ * 		stats.setSortBy(NativeStats.SORT_TIME);
+ * 		...
+ * 		stats.dumpDiff(System.out);
  */
 public class NativeStats {
 	
 	Hashtable<String, NativeFunction[]> snapshot;
+	int sortBy = SORT_CALL_COUNT;
+	
+	public static final int SORT_CALL_COUNT = 0;
+	public static final int SORT_TIME = 1;
+	public static final int SORT_AVERAGE_TIME = 2;
+	public static final int SORT_BYTES = 3;
+	public static final int SORT_THREAD_TIME = 4;
 	
 	final static String[] classes = new String[]{"OS", "ATK", "CDE", "GNOME", "GTK", "XPCOM", "COM", "AGL", "Gdip", "GLX", "Cairo", "WGL"};
 
 	
 	public static class NativeFunction implements Comparable<Object> {
 		String name;
-		int callCount;
+		int callCount, threadCallCount;
+		long time, threadTime, bytes;
+		int[] histogram;
 		
 	public NativeFunction(String name, int callCount) {
 		this.name = name;
@@ -50,12 +72,60 @@ public class NativeStats {
 
 	void subtract(NativeFunction func) {
 		this.callCount -= func.callCount;
+		this.threadCallCount -= func.threadCallCount;
+		this.time -= func.time;
+		this.threadTime -= func.threadTime;
+		this.bytes -= func.bytes;
+		if (histogram != null && func.histogram != null) {
+			for (int i = 0; i < histogram.length; i++) {
+				histogram[i] -= func.histogram[i];
+			}
+		}
 	}
 
 	public int getCallCount() {
 		return callCount;
 	}
 
+	/**
+	 * Returns the number of calls done in the thread given to setThread().
+	 */
+	public int getThreadCallCount() {
+		return threadCallCount;
+	}
+
+	/**
+	 * Returns the time spent in the native in nanoseconds.
+	 */
+	public long getTime() {
+		return time;
+	}
+
+	/**
+	 * Returns the time spent in the native in nanoseconds by the
+	 * calls done in the thread given to setThread().
+	 */
+	public long getThreadTime() {
+		return threadTime;
+	}
+
+	/**
+	 * Returns the bytes of the arrays and structures marshalled
+	 * to and from the native.
+	 */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Returns the number of calls that took less than 1 microsecond
+	 * in the first bucket, and between 2^(i-1) and 2^i microseconds in
+	 * the following buckets, or null if the library does not record times.
+	 */
+	public int[] getHistogram() {
+		return histogram;
+	}
+
 	public String getName() {
 		return name;
 	}
@@ -65,6 +135,31 @@ public class NativeStats {
 	}
 	}
 	
+	static class FunctionComparator implements Comparator<NativeFunction> {
+		int sortBy;
+		
+	FunctionComparator(int sortBy) {
+		this.sortBy = sortBy;
+	}
+	
+	long getValue(NativeFunction func) {
+		switch (sortBy) {
+			case SORT_TIME: return func.time;
+			case SORT_AVERAGE_TIME: return func.callCount > 0 ? func.time / func.callCount : 0;
+			case SORT_BYTES: return func.bytes;
+			case SORT_THREAD_TIME: return func.threadTime;
+		}
+		return func.callCount;
+	}
+	
+	@Override
+	public int compare(NativeFunction func1, NativeFunction func2) {
+		long value1 = getValue(func1), value2 = getValue(func2);
+		if (value1 != value2) return value1 > value2 ? -1 : 1;
+		return func2.callCount - func1.callCount;
+	}
+	}
+	
 public NativeStats() {
 	snapshot = snapshot();
 }
@@ -109,15 +204,26 @@ public void dump(Hashtable<String, NativeFunction[]> snapshot, PrintStream ps) {
 	
 void dump(String className, NativeFunction[] funcs, PrintStream ps) {
 	if (funcs == null) return;
-	Arrays.sort(funcs);
+	Arrays.sort(funcs, new FunctionComparator(sortBy));
 	int total = 0;
+	long totalTime = 0, totalBytes = 0;
+	boolean timed = false;
 	for (int i = 0; i < funcs.length; i++) {
 		NativeFunction func = funcs[i];
 		total += func.getCallCount();
+		totalTime += func.getTime();
+		totalBytes += func.getBytes();
+		timed |= func.getHistogram() != null;
 	}
 	ps.print(className);
 	ps.print("=");
 	ps.print(total);
+	if (timed) {
+		ps.print(" time=");
+		printTime(totalTime, ps);
+		ps.print(" bytes=");
+		ps.print(totalBytes);
+	}
 	ps.println();
 	for (int i = 0; i < funcs.length; i++) {
 		NativeFunction func = funcs[i];
@@ -126,11 +232,75 @@ void dump(String className, NativeFunction[] funcs, PrintStream ps) {
 			ps.print(func.getName());
 			ps.print("=");
 			ps.print(func.getCallCount());
+			if (func.getHistogram() != null) {
+				ps.print(" time=");
+				printTime(func.getTime(), ps);
+				ps.print(" avg=");
+				printTime(func.getTime() / func.getCallCount(), ps);
+				ps.print(" thread=");
+				ps.print(func.getThreadCallCount());
+				ps.print("/");
+				printTime(func.getThreadTime(), ps);
+				if (func.getBytes() > 0) {
+					ps.print(" bytes=");
+					ps.print(func.getBytes());
+				}
+				ps.print(" histogram=");
+				printHistogram(func.getHistogram(), ps);
+			}
 			ps.println();
 		}
 	}
 }
 
+void printTime(long nanos, PrintStream ps) {
+	if (nanos >= 1000000) {
+		ps.print(nanos / 1000000);
+		ps.print("ms");
+	} else {
+		ps.print(nanos / 1000);
+		ps.print("us");
+	}
+}
+
+/* prints the buckets up to the last one used, for example [3 10 0 1] */
+void printHistogram(int[] histogram, PrintStream ps) {
+	int last = histogram.length - 1;
+	while (last > 0 && histogram[last] == 0) last--;
+	ps.print("[");
+	for (int i = 0; i <= last; i++) {
+		if (i > 0) ps.print(" ");
+		ps.print(histogram[i]);
+	}
+	ps.print("]");
+}
+
+/**
+ * Sets the order of the functions in the dumps, one of SORT_CALL_COUNT,
+ * SORT_TIME, SORT_AVERAGE_TIME, SORT_BYTES or SORT_THREAD_TIME.
+ */
+public void setSortBy(int sortBy) {
+	this.sortBy = sortBy;
+}
+
+/**
+ * Separates the calls done in the current thread, usually the
+ * user-interface thread, from the calls done in the other threads.
+ * Only the calls done after this method is invoked are attributed
+ * to the thread.
+ */
+public void setThread() {
+	Class<? extends NativeStats> clazz = getClass();
+	for (int i = 0; i < classes.length; i++) {
+		try {
+			Method setThread = clazz.getMethod(classes[i] + "_SetThread", new Class[0]);
+			setThread.invoke(clazz, new Object[0]);
+		} catch (Throwable e) {
+//			e.printStackTrace(System.out);
+		}
+	}
+}
+
 public void reset() {
 	snapshot = snapshot(); 
 }
@@ -159,59 +329,178 @@ public Hashtable<String, NativeFunction[]> snapshot(String className, Hashtable<
 			String name = (String)functionName.invoke(clazz, index);
 			funcs[i] = new NativeFunction(name, callCount);
 		}
+		snapshotTimes(className, funcs);
 		snapshot.put(className, funcs);
 	} catch (Throwable e) {
 //		e.printStackTrace(System.out);
 	}
 	return snapshot;
 }
+
+/* the times are only recorded by the libraries built with the current generator */
+void snapshotTimes(String className, NativeFunction[] funcs) {
+	try {
+		Class<? extends NativeStats> clazz = getClass();
+		Method functionTime = clazz.getMethod(className + "_GetFunctionTime", new Class[]{int.class});
+		Method functionBytes = clazz.getMethod(className + "_GetFunctionBytes", new Class[]{int.class});
+		Method functionThreadCallCount = clazz.getMethod(className + "_GetFunctionThreadCallCount", new Class[]{int.class});
+		Method functionThreadTime = clazz.getMethod(className + "_GetFunctionThreadTime", new Class[]{int.class});
+		Method functionHistogram = clazz.getMethod(className + "_GetFunctionHistogram", new Class[]{int.class, int.class});
+		Method histogramSize = clazz.getMethod(className + "_GetHistogramSize", new Class[0]);
+		int size = ((Integer)histogramSize.invoke(clazz, new Object[0])).intValue();
+		Object[] index = new Object[1];
+		Object[] bucket = new Object[2];
+		for (int i = 0; i < funcs.length; i++) {
+			NativeFunction func = funcs[i];
+			index[0] = bucket[0] = new Integer(i);
+			func.time = ((Long)functionTime.invoke(clazz, index)).longValue();
+			func.bytes = ((Long)functionBytes.invoke(clazz, index)).longValue();
+			func.threadCallCount = ((Integer)functionThreadCallCount.invoke(clazz, index)).intValue();
+			func.threadTime = ((Long)functionThreadTime.invoke(clazz, index)).longValue();
+			int[] histogram = new int[size];
+			for (int j = 0; j < size; j++) {
+				bucket[1] = new Integer(j);
+				histogram[j] = ((Integer)functionHistogram.invoke(clazz, bucket)).intValue();
+			}
+			func.histogram = histogram;
+		}
+	} catch (Throwable e) {
+		for (int i = 0; i < funcs.length; i++) {
+			funcs[i].histogram = null;
+		}
+	}
+}
 	
 public static final native int OS_GetFunctionCount();
 public static final native String OS_GetFunctionName(int index);
 public static final native int OS_GetFunctionCallCount(int index);
+public static final native long OS_GetFunctionTime(int index);
+public static final native long OS_GetFunctionBytes(int index);
+public static final native int OS_GetFunctionThreadCallCount(int index);
+public static final native long OS_GetFunctionThreadTime(int index);
+public static final native int OS_GetFunctionHistogram(int index, int bucket);
+public static final native int OS_GetHistogramSize();
+public static final native void OS_SetThread();
 
 public static final native int ATK_GetFunctionCount();
 public static final native String ATK_GetFunctionName(int index);
 public static final native int ATK_GetFunctionCallCount(int index);
+public static final native long ATK_GetFunctionTime(int index);
+public static final native long ATK_GetFunctionBytes(int index);
+public static final native int ATK_GetFunctionThreadCallCount(int index);
+public static final native long ATK_GetFunctionThreadTime(int index);
+public static final native int ATK_GetFunctionHistogram(int index, int bucket);
+public static final native int ATK_GetHistogramSize();
+public static final native void ATK_SetThread();
 
 public static final native int AGL_GetFunctionCount();
 public static final native String AGL_GetFunctionName(int index);
 public static final native int AGL_GetFunctionCallCount(int index);
+public static final native long AGL_GetFunctionTime(int index);
+public static final native long AGL_GetFunctionBytes(int index);
+public static final native int AGL_GetFunctionThreadCallCount(int index);
+public static final native long AGL_GetFunctionThreadTime(int index);
+public static final native int AGL_GetFunctionHistogram(int index, int bucket);
+public static final native int AGL_GetHistogramSize();
+public static final native void AGL_SetThread();
 
 public static final native int CDE_GetFunctionCount();
 public static final native String CDE_GetFunctionName(int index);
 public static final native int CDE_GetFunctionCallCount(int index);
+public static final native long CDE_GetFunctionTime(int index);
+public static final native long CDE_GetFunctionBytes(int index);
+public static final native int CDE_GetFunctionThreadCallCount(int index);
+public static final native long CDE_GetFunctionThreadTime(int index);
+public static final native int CDE_GetFunctionHistogram(int index, int bucket);
+public static final native int CDE_GetHistogramSize();
+public static final native void CDE_SetThread();
 
 public static final native int Gdip_GetFunctionCount();
 public static final native String Gdip_GetFunctionName(int index);
 public static final native int Gdip_GetFunctionCallCount(int index);
+public static final native long Gdip_GetFunctionTime(int index);
+public static final native long Gdip_GetFunctionBytes(int index);
+public static final native int Gdip_GetFunctionThreadCallCount(int index);
+public static final native long Gdip_GetFunctionThreadTime(int index);
+public static final native int Gdip_GetFunctionHistogram(int index, int bucket);
+public static final native int Gdip_GetHistogramSize();
+public static final native void Gdip_SetThread();
 
 public static final native int GLX_GetFunctionCount();
 public static final native String GLX_GetFunctionName(int index);
 public static final native int GLX_GetFunctionCallCount(int index);
+public static final native long GLX_GetFunctionTime(int index);
+public static final native long GLX_GetFunctionBytes(int index);
+public static final native int GLX_GetFunctionThreadCallCount(int index);
+public static final native long GLX_GetFunctionThreadTime(int index);
+public static final native int GLX_GetFunctionHistogram(int index, int bucket);
+public static final native int GLX_GetHistogramSize();
+public static final native void GLX_SetThread();
 
 public static final native int GNOME_GetFunctionCount();
 public static final native String GNOME_GetFunctionName(int index);
 public static final native int GNOME_GetFunctionCallCount(int index);
+public static final native long GNOME_GetFunctionTime(int index);
+public static final native long GNOME_GetFunctionBytes(int index);
+public static final native int GNOME_GetFunctionThreadCallCount(int index);
+public static final native long GNOME_GetFunctionThreadTime(int index);
+public static final native int GNOME_GetFunctionHistogram(int index, int bucket);
+public static final native int GNOME_GetHistogramSize();
+public static final native void GNOME_SetThread();
 
 public static final native int GTK_GetFunctionCount();
 public static final native String GTK_GetFunctionName(int index);
 public static final native int GTK_GetFunctionCallCount(int index);
+public static final native long GTK_GetFunctionTime(int index);
+public static final native long GTK_GetFunctionBytes(int index);
+public static final native int GTK_GetFunctionThreadCallCount(int index);
+public static final native long GTK_GetFunctionThreadTime(int index);
+public static final native int GTK_GetFunctionHistogram(int index, int bucket);
+public static final native int GTK_GetHistogramSize();
+public static final native void GTK_SetThread();
 
 public static final native int XPCOM_GetFunctionCount();
 public static final native String XPCOM_GetFunctionName(int index);
 public static final native int XPCOM_GetFunctionCallCount(int index);
+public static final native long XPCOM_GetFunctionTime(int index);
+public static final native long XPCOM_GetFunctionBytes(int index);
+public static final native int XPCOM_GetFunctionThreadCallCount(int index);
+public static final native long XPCOM_GetFunctionThreadTime(int index);
+public static final native int XPCOM_GetFunctionHistogram(int index, int bucket);
+public static final native int XPCOM_GetHistogramSize();
+public static final native void XPCOM_SetThread();
 
 public static final native int COM_GetFunctionCount();
 public static final native String COM_GetFunctionName(int index);
 public static final native int COM_GetFunctionCallCount(int index);
+public static final native long COM_GetFunctionTime(int index);
+public static final native long COM_GetFunctionBytes(int index);
+public static final native int COM_GetFunctionThreadCallCount(int index);
+public static final native long COM_GetFunctionThreadTime(int index);
+public static final native int COM_GetFunctionHistogram(int index, int bucket);
+public static final native int COM_GetHistogramSize();
+public static final native void COM_SetThread();
 
 public static final native int WGL_GetFunctionCount();
 public static final native String WGL_GetFunctionName(int index);
 public static final native int WGL_GetFunctionCallCount(int index);
+public static final native long WGL_GetFunctionTime(int index);
+public static final native long WGL_GetFunctionBytes(int index);
+public static final native int WGL_GetFunctionThreadCallCount(int index);
+public static final native long WGL_GetFunctionThreadTime(int index);
+public static final native int WGL_GetFunctionHistogram(int index, int bucket);
+public static final native int WGL_GetHistogramSize();
+public static final native void WGL_SetThread();
 
 public static final native int Cairo_GetFunctionCount();
 public static final native String Cairo_GetFunctionName(int index);
 public static final native int Cairo_GetFunctionCallCount(int index);
+public static final native long Cairo_GetFunctionTime(int index);
+public static final native long Cairo_GetFunctionBytes(int index);
+public static final native int Cairo_GetFunctionThreadCallCount(int index);
+public static final native long Cairo_GetFunctionThreadTime(int index);
+public static final native int Cairo_GetFunctionHistogram(int index, int bucket);
+public static final native int Cairo_GetHistogramSize();
+public static final native void Cairo_SetThread();
 
 }
@@ -610,6 +610,86 @@ public Object evaluate (String script) throws SWTException {
 	return webBrowser.evaluate (script);
 }
 
+/**
+ * Returns the results of executing the specified scripts.
+ * <p>
+ * The scripts are evaluated one after the other, as with
+ * <code>evaluate(String)</code>, but they are shipped to the browser
+ * in a single execution and all of their results are returned to
+ * java at once. This is considerably faster than evaluating the
+ * scripts one at a time when many values are read from the document.
+ * </p><p>
+ * An <code>SWTException</code> is thrown if any of the scripts returns
+ * a value with an unsupported type, or causes a javascript error to
+ * be thrown. A script causing a javascript error to be thrown does
+ * not prevent the following scripts from being evaluated.
+ * </p>
+ *
+ * @param scripts the scripts with javascript commands
+ *
+ * @return the return values, if any, of executing the scripts,
+ * in the same order as the scripts
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the scripts array or any of its elements is null</li>
+ * </ul>
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_FAILED_EVALUATE when the evaluation of a script causes a javascript error to be thrown</li>
+ *    <li>ERROR_INVALID_RETURN_VALUE when a script returns a value of unsupported type</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS when called from the wrong thread</li>
+ *    <li>ERROR_WIDGET_DISPOSED when the widget has been disposed</li>
+ * </ul>
+ *
+ * @see #evaluate(String)
+ *
+ * @since 3.104
+ */
+public Object[] evaluate (String[] scripts) throws SWTException {
+	checkWidget();
+	if (scripts == null) SWT.error (SWT.ERROR_NULL_ARGUMENT);
+	for (int i = 0; i < scripts.length; i++) {
+		if (scripts[i] == null) SWT.error (SWT.ERROR_NULL_ARGUMENT);
+	}
+	return webBrowser.evaluate (scripts);
+}
+
+/**
+ * Evaluates the specified script without waiting for it and notifies
+ * the callback of its result.
+ * <p>
+ * The script is only scheduled to run in the browser, and this method
+ * returns before it has run. The script is then evaluated as with
+ * <code>evaluate(String)</code> and the callback is invoked from the
+ * event loop with its result. If the browser goes to another page
+ * before the script has run, or if javascript is disabled, the script
+ * does not run and the callback is notified of a failure. The callback
+ * is not notified if the receiver is disposed before the script has run.
+ * </p>
+ *
+ * @param script the script with javascript commands
+ * @param callback the callback to notify of the result
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the script or the callback is null</li>
+ * </ul>
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS when called from the wrong thread</li>
+ *    <li>ERROR_WIDGET_DISPOSED when the widget has been disposed</li>
+ * </ul>
+ *
+ * @see #evaluate(String)
+ * @see EvaluateCallback
+ *
+ * @since 3.104
+ */
+public void evaluateAsync (String script, EvaluateCallback callback) {
+	checkWidget();
+	if (script == null || callback == null) SWT.error (SWT.ERROR_NULL_ARGUMENT);
+	webBrowser.evaluateAsync (script, callback);
+}
+
 /**
  * Navigate to the next session history item.
  *
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.browser;
+
+import org.eclipse.swt.*;
+
+/**
+ * This interface may be implemented in order to receive the
+ * result of a script evaluated with
+ * {@link Browser#evaluateAsync(String, EvaluateCallback)}.
+ * One of its methods is called, in the user-interface thread,
+ * once the evaluation has finished, unless the browser is
+ * disposed first.
+ *
+ * @see Browser#evaluateAsync(String, EvaluateCallback)
+ *
+ * @since 3.104
+ */
+public interface EvaluateCallback {
+
+/**
+ * This method is called when the script has been evaluated.
+ *
+ * @param result the java representation of the value returned
+ * by the script, as described in {@link Browser#evaluate(String)}
+ */
+public void completed (Object result);
+
+/**
+ * This method is called when the evaluation of the script
+ * caused a javascript error to be thrown, when the script
+ * returned a value of unsupported type, or when the script
+ * could not run because javascript is disabled or the browser
+ * went to another page.
+ *
+ * @param exception the exception that <code>Browser.evaluate()</code>
+ * would have thrown for the script
+ */
+public void failed (SWTException exception);
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.browser;
+
+import java.util.*;
+
+/**
+ * Maps the indices of the functions registered in a browser
+ * to the functions, without allocating a key object for every
+ * lookup done when javascript calls back into java.
+ */
+class FunctionTable {
+	int [] keys = new int [16];
+	BrowserFunction [] values = new BrowserFunction [16];
+	int size;
+
+BrowserFunction get (int key) {
+	int mask = keys.length - 1;
+	for (int i = key & mask; values [i] != null; i = (i + 1) & mask) {
+		if (keys [i] == key) return values [i];
+	}
+	return null;
+}
+
+void put (int key, BrowserFunction function) {
+	if ((size + 1) * 4 > keys.length * 3) {
+		int [] oldKeys = keys;
+		BrowserFunction [] oldValues = values;
+		keys = new int [oldKeys.length * 2];
+		values = new BrowserFunction [oldKeys.length * 2];
+		size = 0;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldValues [i] != null) put (oldKeys [i], oldValues [i]);
+		}
+	}
+	int mask = keys.length - 1;
+	int i = key & mask;
+	while (values [i] != null) {
+		if (keys [i] == key) {
+			values [i] = function;
+			return;
+		}
+		i = (i + 1) & mask;
+	}
+	keys [i] = key;
+	values [i] = function;
+	size++;
+}
+
+BrowserFunction remove (int key) {
+	int mask = keys.length - 1;
+	int i = key & mask;
+	while (values [i] != null && keys [i] != key) i = (i + 1) & mask;
+	BrowserFunction function = values [i];
+	if (function == null) return null;
+	values [i] = null;
+	size--;
+	/* Move back the entries that probed past the removed one */
+	int j = i;
+	while (true) {
+		j = (j + 1) & mask;
+		if (values [j] == null) break;
+		int home = keys [j] & mask;
+		if (i <= j ? (i < home && home <= j) : (i < home || home <= j)) continue;
+		keys [i] = keys [j];
+		values [i] = values [j];
+		values [j] = null;
+		i = j;
+	}
+	return function;
+}
+
+int size () {
+	return size;
+}
+
+/**
+ * Returns the registered functions. The enumeration is a snapshot,
+ * so functions can be removed while it is traversed.
+ */
+Enumeration<BrowserFunction> elements () {
+	Vector<BrowserFunction> result = new Vector<BrowserFunction> (size);
+	for (int i = 0; i < values.length; i++) {
+		if (values [i] != null) result.addElement (values [i]);
+	}
+	return result.elements ();
+}
+}
@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.browser;
+
+/**
+ * Decodes a javascript value serialized with <code>JSON.stringify()</code>
+ * into the java values used for the arguments of browser functions,
+ * in a single pass over the string. Only the values that can be
+ * converted to java are accepted: <code>null</code>, booleans, numbers,
+ * strings and arrays of these. An <code>IllegalArgumentException</code>
+ * is thrown for anything else.
+ * <p>
+ * Arrays are decoded as <code>Object[]</code>, except that nested arrays
+ * holding only numbers are decoded as <code>double[]</code> when
+ * primitive arrays are requested.
+ * </p>
+ */
+class JSONDecoder {
+	String json;
+	int index;
+	boolean primitiveArrays;
+
+JSONDecoder (String json, boolean primitiveArrays) {
+	this.json = json;
+	this.primitiveArrays = primitiveArrays;
+}
+
+/**
+ * Decodes the string. The depth is the number of arrays enclosing
+ * the serialized value, primitive arrays are never returned for the
+ * outermost array of the arguments.
+ */
+static Object decode (String json, boolean primitiveArrays, int depth) {
+	JSONDecoder decoder = new JSONDecoder (json, primitiveArrays);
+	Object result = decoder.readValue (depth);
+	decoder.skipWhitespace ();
+	if (decoder.index != json.length ()) throw new IllegalArgumentException ();
+	return result;
+}
+
+Object readValue (int depth) {
+	skipWhitespace ();
+	if (index >= json.length ()) throw new IllegalArgumentException ();
+	char ch = json.charAt (index);
+	switch (ch) {
+		case '[': return readArray (depth);
+		case '"': return readString ();
+		case 't': readLiteral ("true"); return Boolean.TRUE; //$NON-NLS-1$
+		case 'f': readLiteral ("false"); return Boolean.FALSE; //$NON-NLS-1$
+		case 'n': readLiteral ("null"); return null; //$NON-NLS-1$
+	}
+	if (ch == '-' || ('0' <= ch && ch <= '9')) return new Double (readNumber ());
+	throw new IllegalArgumentException ();
+}
+
+Object readArray (int depth) {
+	index++;
+	double[] numbers = new double[16];
+	Object[] values = null;
+	int count = 0;
+	skipWhitespace ();
+	if (index < json.length () && json.charAt (index) == ']') {
+		index++;
+		return new Object[0];
+	}
+	while (true) {
+		skipWhitespace ();
+		if (index >= json.length ()) throw new IllegalArgumentException ();
+		char ch = json.charAt (index);
+		if (values == null && (ch == '-' || ('0' <= ch && ch <= '9'))) {
+			/* keep numbers unboxed until a value of another type is found */
+			if (count == numbers.length) {
+				double[] newNumbers = new double[count * 2];
+				System.arraycopy (numbers, 0, newNumbers, 0, count);
+				numbers = newNumbers;
+			}
+			numbers[count++] = readNumber ();
+		} else {
+			if (values == null) {
+				values = new Object[Math.max (16, numbers.length)];
+				for (int i = 0; i < count; i++) {
+					values[i] = new Double (numbers[i]);
+				}
+				numbers = null;
+			}
+			if (count == values.length) {
+				Object[] newValues = new Object[count * 2];
+				System.arraycopy (values, 0, newValues, 0, count);
+				values = newValues;
+			}
+			values[count++] = readValue (depth + 1);
+		}
+		skipWhitespace ();
+		if (index >= json.length ()) throw new IllegalArgumentException ();
+		ch = json.charAt (index++);
+		if (ch == ']') break;
+		if (ch != ',') throw new IllegalArgumentException ();
+	}
+	if (values == null) {
+		if (primitiveArrays && depth > 0) {
+			if (count == numbers.length) return numbers;
+			double[] result = new double[count];
+			System.arraycopy (numbers, 0, result, 0, count);
+			return result;
+		}
+		Object[] result = new Object[count];
+		for (int i = 0; i < count; i++) {
+			result[i] = new Double (numbers[i]);
+		}
+		return result;
+	}
+	if (count == values.length) return values;
+	Object[] result = new Object[count];
+	System.arraycopy (values, 0, result, 0, count);
+	return result;
+}
+
+void readLiteral (String literal) {
+	if (!json.startsWith (literal, index)) throw new IllegalArgumentException ();
+	index += literal.length ();
+}
+
+double readNumber () {
+	int start = index;
+	boolean negative = json.charAt (index) == '-';
+	if (negative) index++;
+	long value = 0;
+	int digits = 0;
+	while (index < json.length ()) {
+		char ch = json.charAt (index);
+		if (ch < '0' || ch > '9') break;
+		value = value * 10 + (ch - '0');
+		digits++;
+		index++;
+	}
+	if (digits == 0) throw new IllegalArgumentException ();
+	boolean integer = true;
+	while (index < json.length ()) {
+		char ch = json.charAt (index);
+		if (('0' <= ch && ch <= '9') || ch == '.' || ch == 'e' || ch == 'E' || ch == '+' || ch == '-') {
+			integer = false;
+			index++;
+		} else {
+			break;
+		}
+	}
+	/* integers of up to 15 digits are exact in a double */
+	if (integer && digits <= 15) return negative ? -value : value;
+	try {
+		return Double.parseDouble (json.substring (start, index));
+	} catch (NumberFormatException e) {
+		throw new IllegalArgumentException ();
+	}
+}
+
+String readString () {
+	int start = ++index;
+	/* strings without escapes are copied in one step */
+	while (index < json.length ()) {
+		char ch = json.charAt (index);
+		if (ch == '"') return json.substring (start, index++);
+		if (ch == '\\') break;
+		index++;
+	}
+	StringBuffer buffer = new StringBuffer ();
+	buffer.append (json, start, index);
+	while (index < json.length ()) {
+		char ch = json.charAt (index++);
+		if (ch == '"') return buffer.toString ();
+		if (ch != '\\') {
+			buffer.append (ch);
+			continue;
+		}
+		if (index >= json.length ()) break;
+		ch = json.charAt (index++);
+		switch (ch) {
+			case 'b': buffer.append ('\b'); break;
+			case 'f': buffer.append ('\f'); break;
+			case 'n': buffer.append ('\n'); break;
+			case 'r': buffer.append ('\r'); break;
+			case 't': buffer.append ('\t'); break;
+			case 'u': {
+				if (index + 4 > json.length ()) throw new IllegalArgumentException ();
+				try {
+					buffer.append ((char)Integer.parseInt (json.substring (index, index + 4), 16));
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException ();
+				}
+				index += 4;
+				break;
+			}
+			default: buffer.append (ch);
+		}
+	}
+	throw new IllegalArgumentException ();
+}
+
+void skipWhitespace () {
+	while (index < json.length ()) {
+		char ch = json.charAt (index);
+		if (ch != ' ' && ch != '\t' && ch != '\n' && ch != '\r') break;
+		index++;
+	}
+}
+}
@@ -18,7 +18,7 @@ import org.eclipse.swt.widgets.*;
 @SuppressWarnings({"rawtypes", "unchecked"})
 abstract class WebBrowser {
 	Browser browser;
-	Hashtable functions = new Hashtable ();
+	FunctionTable functions = new FunctionTable ();
 	AuthenticationListener[] authenticationListeners = new AuthenticationListener[0];
 	CloseWindowListener[] closeWindowListeners = new CloseWindowListener[0];
 	LocationListener[] locationListeners = new LocationListener[0];
@@ -29,10 +29,12 @@ abstract class WebBrowser {
 	VisibilityWindowListener[] visibilityWindowListeners = new VisibilityWindowListener[0];
 	boolean jsEnabledOnNextPage = true, jsEnabled = true;
 	int nextFunctionIndex = 1;
-	Object evaluateResult;
+	Vector pendingEvaluations = new Vector ();
+	LocationListener evaluateLocationListener;
 
 	static final String ERROR_ID = "org.eclipse.swt.browser.error"; // $NON-NLS-1$
 	static final String EXECUTE_ID = "SWTExecuteTemporaryFunction"; // $NON-NLS-1$
+	static final Object NO_RESULT = new Object ();
 
 	static Vector NativePendingCookies = new Vector ();
 	static Vector MozillaPendingCookies = new Vector ();
@@ -179,6 +181,8 @@ abstract class WebBrowser {
 	};
 
 public class EvaluateFunction extends BrowserFunction {
+	Object result = NO_RESULT;
+
 	public EvaluateFunction (Browser browser, String name) {
 		super (browser, name, true, new String[0], false);
 	}
@@ -187,18 +191,60 @@ public class EvaluateFunction extends BrowserFunction {
 		if (arguments[0] instanceof String) {
 			String string = (String)arguments[0];
 			if (string.startsWith (ERROR_ID)) {
-				String errorString = ExtractError (string);
-				if (errorString.length () > 0) {
-					evaluateResult = new SWTException (SWT.ERROR_FAILED_EVALUATE, errorString);
-				} else {
-					evaluateResult = new SWTException (SWT.ERROR_FAILED_EVALUATE);
-				}
+				result = CreateEvaluateException (string);
 				return null;
 			}
 		}
-		evaluateResult = arguments[0];
+		result = arguments[0];
+		return null;
+	}
+	Object getResult () {
+		/* the script did not run at all, typically because of a syntax error */
+		if (result == NO_RESULT) throw new SWTException (SWT.ERROR_FAILED_EVALUATE);
+		if (result instanceof SWTException) throw (SWTException)result;
+		return result;
+	}
+}
+
+class AsyncEvaluateFunction extends EvaluateFunction {
+	EvaluateCallback callback;
+
+	AsyncEvaluateFunction (Browser browser, EvaluateCallback callback) {
+		super (browser, ""); // $NON-NLS-1$
+		this.callback = callback;
+		/* the function stays registered until the script has run, it must not be installed in new pages */
+		functionString = ""; // $NON-NLS-1$
+	}
+	@Override
+	public Object function (Object[] arguments) {
+		super.function (arguments);
+		finish ();
 		return null;
 	}
+	void finish () {
+		deregisterFunction (this);
+		pendingEvaluations.removeElement (this);
+		Object value = null;
+		SWTException exception = null;
+		try {
+			value = getResult ();
+		} catch (SWTException e) {
+			exception = e;
+		}
+		final Object finalValue = value;
+		final SWTException finalException = exception;
+		/* notify the callback from the event loop rather than from within the javascript call */
+		browser.getDisplay ().asyncExec (new Runnable () {
+			@Override
+			public void run () {
+				if (finalException != null) {
+					callback.failed (finalException);
+				} else {
+					callback.completed (finalValue);
+				}
+			}
+		});
+	}
 }
 
 public void addAuthenticationListener (AuthenticationListener listener) {
@@ -308,6 +354,14 @@ static String CreateErrorString (String error) {
 	return ERROR_ID + error;
 }
 
+static SWTException CreateEvaluateException (String error) {
+	String errorString = ExtractError (error);
+	if (errorString.length () > 0) {
+		return new SWTException (SWT.ERROR_FAILED_EVALUATE, errorString);
+	}
+	return new SWTException (SWT.ERROR_FAILED_EVALUATE);
+}
+
 static String ExtractError (String error) {
 	return error.substring (ERROR_ID.length ());
 }
@@ -322,10 +376,9 @@ public void createFunction (BrowserFunction function) {
 	 * remove it so that it is not recreated on subsequent pages
 	 * (the new function overwrites the old one).
 	 */
-	Enumeration keys = functions.keys ();
-	while (keys.hasMoreElements ()) {
-		Object key = keys.nextElement ();
-		BrowserFunction current = (BrowserFunction)functions.get (key);
+	Enumeration elements = functions.elements ();
+	while (elements.hasMoreElements ()) {
+		BrowserFunction current = (BrowserFunction)elements.nextElement ();
 		if (current.name.equals (function.name)) {
 			deregisterFunction (current);
 			break;
@@ -378,7 +431,7 @@ public void createFunction (BrowserFunction function) {
 }
 
 void deregisterFunction (BrowserFunction function) {
-	functions.remove (new Integer (function.index));
+	functions.remove (function.index);
 }
 
 public void destroyFunction (BrowserFunction function) {
@@ -394,51 +447,124 @@ public void destroyFunction (BrowserFunction function) {
 public abstract boolean execute (String script);
 
 public Object evaluate (String script) throws SWTException {
-	BrowserFunction function = new EvaluateFunction (browser, ""); // $NON-NLS-1$
-	int index = getNextFunctionIndex ();
-	function.index = index;
+	EvaluateFunction function = createEvaluateFunction ();
+	/*
+	* Define, run and report the result of the script in a single
+	* execution rather than installing a temporary window function,
+	* calling it and deleting it with three separate executions.
+	*/
+	StringBuffer buffer = new StringBuffer ("(function () {try {var result = (function () {\n"); // $NON-NLS-1$
+	buffer.append (script);
+	buffer.append ("\n})(); "); // $NON-NLS-1$
+	appendCallJava (buffer, function, "[result]"); // $NON-NLS-1$
+	buffer.append ("} catch (e) {"); // $NON-NLS-1$
+	appendCallJava (buffer, function, "['" + ERROR_ID + "' + e.message]"); // $NON-NLS-1$ // $NON-NLS-2$
+	buffer.append ("}})();"); // $NON-NLS-1$
+	execute (buffer.toString ());
+	deregisterFunction (function);
+	return function.getResult ();
+}
+
+public Object[] evaluate (String[] scripts) throws SWTException {
+	if (scripts.length == 0) return new Object[0];
+	EvaluateFunction function = createEvaluateFunction ();
+	StringBuffer buffer = new StringBuffer ("(function () {var results = [];"); // $NON-NLS-1$
+	for (int i = 0; i < scripts.length; i++) {
+		buffer.append ("try {results.push((function () {\n"); // $NON-NLS-1$
+		buffer.append (scripts[i]);
+		buffer.append ("\n})());} catch (e) {results.push('"); // $NON-NLS-1$
+		buffer.append (ERROR_ID);
+		buffer.append ("' + e.message);}\n"); // $NON-NLS-1$
+	}
+	appendCallJava (buffer, function, "[results]"); // $NON-NLS-1$
+	buffer.append ("})();"); // $NON-NLS-1$
+	execute (buffer.toString ());
+	deregisterFunction (function);
+	Object result = function.getResult ();
+	if (!(result instanceof Object[]) || ((Object[])result).length != scripts.length) {
+		throw new SWTException (SWT.ERROR_FAILED_EVALUATE);
+	}
+	Object[] results = (Object[])result;
+	for (int i = 0; i < results.length; i++) {
+		if (results[i] instanceof String && ((String)results[i]).startsWith (ERROR_ID)) {
+			throw CreateEvaluateException ((String)results[i]);
+		}
+	}
+	return results;
+}
+
+public void evaluateAsync (String script, EvaluateCallback callback) {
+	AsyncEvaluateFunction function = new AsyncEvaluateFunction (browser, callback);
+	function.index = getNextFunctionIndex ();
 	function.isEvaluate = true;
 	registerFunction (function);
-	String functionName = EXECUTE_ID + index;
-
-	StringBuffer buffer = new StringBuffer ("window."); // $NON-NLS-1$
-	buffer.append (functionName);
-	buffer.append (" = function "); // $NON-NLS-1$
-	buffer.append (functionName);
-	buffer.append ("() {\n"); // $NON-NLS-1$
-	buffer.append (script);
-	buffer.append ("\n};"); // $NON-NLS-1$
+	pendingEvaluations.addElement (function);
+	if (evaluateLocationListener == null) {
+		evaluateLocationListener = new LocationAdapter () {
+			@Override
+			public void changed (LocationEvent event) {
+				if (!event.top) return;
+				/* the scripts that have not run yet were dropped with the previous page */
+				Object[] pending = pendingEvaluations.toArray ();
+				for (int i = 0; i < pending.length; i++) {
+					((AsyncEvaluateFunction)pending[i]).finish ();
+				}
+			}
+		};
+		browser.addLocationListener (evaluateLocationListener);
+	}
+	if (!jsEnabled) {
+		function.finish ();
+		return;
+	}
+	/*
+	* Only schedule the script so that execute() returns without waiting
+	* for it. The script is compiled when it runs, so that a syntax error
+	* is reported through callJava like any other error.
+	*/
+	StringBuffer buffer = new StringBuffer ("window.setTimeout(function () {try {var result = new Function("); // $NON-NLS-1$
+	appendLiteral (buffer, script);
+	buffer.append (")(); "); // $NON-NLS-1$
+	appendCallJava (buffer, function, "[result]"); // $NON-NLS-1$
+	buffer.append ("} catch (e) {"); // $NON-NLS-1$
+	appendCallJava (buffer, function, "['" + ERROR_ID + "' + e.message]"); // $NON-NLS-1$ // $NON-NLS-2$
+	buffer.append ("}}, 0);"); // $NON-NLS-1$
 	execute (buffer.toString ());
+}
 
-	buffer = new StringBuffer ("if (window."); // $NON-NLS-1$
-	buffer.append (functionName);
-	buffer.append (" == undefined) {window.external.callJava("); // $NON-NLS-1$
-	buffer.append (index);
-	buffer.append (",'"); //$NON-NLS-1$
-	buffer.append (function.token);
-	buffer.append ("', ['"); // $NON-NLS-1$
-	buffer.append (ERROR_ID);
-	buffer.append ("']);} else {try {var result = "); // $NON-NLS-1$
-	buffer.append (functionName);
-	buffer.append ("(); window.external.callJava("); // $NON-NLS-1$
-	buffer.append (index);
+void appendCallJava (StringBuffer buffer, BrowserFunction function, String arguments) {
+	buffer.append ("window.external.callJava("); // $NON-NLS-1$
+	buffer.append (function.index);
 	buffer.append (",'"); //$NON-NLS-1$
 	buffer.append (function.token);
-	buffer.append ("', [result]);} catch (e) {window.external.callJava("); // $NON-NLS-1$
-	buffer.append (index);
-	buffer.append (",'"); //$NON-NLS-1$
-	buffer.append (function.token);
-	buffer.append ("', ['"); // $NON-NLS-1$
-	buffer.append (ERROR_ID);
-	buffer.append ("' + e.message]);}}"); // $NON-NLS-1$
-	execute (buffer.toString ());
-	execute (getDeleteFunctionString (functionName));
-	deregisterFunction (function);
+	buffer.append ("', "); // $NON-NLS-1$
+	buffer.append (arguments);
+	buffer.append (");"); // $NON-NLS-1$
+}
+
+static void appendLiteral (StringBuffer buffer, String string) {
+	buffer.append ('\'');
+	for (int i = 0; i < string.length (); i++) {
+		char ch = string.charAt (i);
+		switch (ch) {
+			case '\\': buffer.append ("\\\\"); break; // $NON-NLS-1$
+			case '\'': buffer.append ("\\'"); break; // $NON-NLS-1$
+			case '\n': buffer.append ("\\n"); break; // $NON-NLS-1$
+			case '\r': buffer.append ("\\r"); break; // $NON-NLS-1$
+			case '\u2028': buffer.append ("\\u2028"); break; // $NON-NLS-1$
+			case '\u2029': buffer.append ("\\u2029"); break; // $NON-NLS-1$
+			default: buffer.append (ch);
+		}
+	}
+	buffer.append ('\'');
+}
 
-	Object result = evaluateResult;
-	evaluateResult = null;
-	if (result instanceof SWTException) throw (SWTException)result;
-	return result;
+EvaluateFunction createEvaluateFunction () {
+	EvaluateFunction function = new EvaluateFunction (browser, ""); // $NON-NLS-1$
+	function.index = getNextFunctionIndex ();
+	function.isEvaluate = true;
+	registerFunction (function);
+	return function;
 }
 
 public abstract boolean forward ();
@@ -472,7 +598,7 @@ public abstract boolean isForwardEnabled ();
 public abstract void refresh ();
 
 void registerFunction (BrowserFunction function) {
-	functions.put (new Integer (function.index), function);
+	functions.put (function.index, function);
 }
 
 public void removeAuthenticationListener (AuthenticationListener listener) {
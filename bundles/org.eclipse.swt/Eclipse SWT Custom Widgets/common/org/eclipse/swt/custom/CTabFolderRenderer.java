@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.swt.custom;
 
+import java.util.*;
+
 import org.eclipse.swt.*;
 import org.eclipse.swt.graphics.*;
 import org.eclipse.swt.widgets.*;
@@ -53,6 +55,10 @@ public class CTabFolderRenderer {
 	 */
 	Color lastBorderColor = null;
 	
+	/* Image of the tab area reused across paints, see TAB_AREA_CACHE_KEY */
+	Image tabAreaImage;
+	Object[] tabAreaKey;
+	
 	//TOP_LEFT_CORNER_HILITE is laid out in reverse (ie. top to bottom)
 	//so can fade in same direction as right swoop curve
 	static final int[] TOP_LEFT_CORNER_HILITE = new int[] {5,2, 4,2, 3,3, 2,4, 2,5, 1,6};
@@ -94,6 +100,7 @@ public class CTabFolderRenderer {
 	static final int INTERNAL_SPACING = 4;
 	static final int FLAGS = SWT.DRAW_TRANSPARENT | SWT.DRAW_MNEMONIC;
 	static final String ELLIPSIS = "..."; //$NON-NLS-1$ 
+	static final String TAB_AREA_CACHE_KEY = "org.eclipse.swt.internal.ctabfolder.tabAreaCache"; //$NON-NLS-1$
 	
 	//Part constants
 	/**
@@ -331,14 +338,15 @@ public class CTabFolderRenderer {
 					}
 					if (text != null) {
 						if (width > 0) width += INTERNAL_SPACING;
+						boolean minimum = (state & MINIMUM_SIZE) != 0;
 						if (item.font == null) {
-							Point size = gc.textExtent(text, FLAGS);
+							Point size = textExtent(gc, item, text, minimum);
 							width += size.x;
 							height = Math.max(height, size.y);
 						} else {
 							Font gcFont = gc.getFont();
 							gc.setFont(item.font);
-							Point size = gc.textExtent(text, FLAGS);
+							Point size = textExtent(gc, item, text, minimum);
 							width += size.x;
 							height = Math.max(height, size.y);
 							gc.setFont(gcFont);
@@ -530,6 +538,7 @@ public class CTabFolderRenderer {
 	protected void dispose() {
 		disposeAntialiasColors();
 		disposeSelectionHighlightGradientColors();
+		disposeTabAreaImage();
 		if (fillColor != null) {
 		    fillColor.dispose();
 		    fillColor = null;
@@ -543,6 +552,12 @@ public class CTabFolderRenderer {
 	    tabAreaColor = selectedInnerColor = selectedOuterColor = null;
 	}
 
+	void disposeTabAreaImage() {
+		if (tabAreaImage != null) tabAreaImage.dispose();
+		tabAreaImage = null;
+		tabAreaKey = null;
+	}
+
 	void disposeSelectionHighlightGradientColors() {
 		if(selectionHighlightGradientColorsCache == null)
 			return;
@@ -593,7 +608,12 @@ public class CTabFolderRenderer {
 				drawBody(gc, bounds, state);
 				break;
 			case PART_HEADER:
-				drawTabArea(gc, bounds, state);
+				if (Boolean.TRUE.equals(parent.getData(TAB_AREA_CACHE_KEY))) {
+					drawCachedTabArea(gc, bounds, state);
+				} else {
+					disposeTabAreaImage();
+					drawTabArea(gc, bounds, state);
+				}
 				break;
 			case PART_MAX_BUTTON:
 				drawMaximize(gc, bounds, state);
@@ -1457,13 +1477,16 @@ public class CTabFolderRenderer {
 			if (!parent.single && item.closeRect.width > 0) textWidth -= item.closeRect.width + INTERNAL_SPACING;
 			if (textWidth > 0) {
 				Font gcFont = gc.getFont();
-				gc.setFont(item.font == null ? parent.getFont() : item.font);
+				Font font = item.font == null ? parent.getFont() : item.font;
+				gc.setFont(font);
 				
-				if (item.shortenedText == null || item.shortenedTextWidth != textWidth) {
+				if (item.shortenedText == null || item.shortenedTextWidth != textWidth || !font.equals(item.shortenedTextFont)) {
 					item.shortenedText = shortenText(gc, item.getText(), textWidth);
 					item.shortenedTextWidth = textWidth;
+					item.shortenedTextFont = font;
+					item.shortenedTextExtent = gc.textExtent(item.shortenedText, FLAGS);
 				}
-				Point extent = gc.textExtent(item.shortenedText, FLAGS);	
+				Point extent = item.shortenedTextExtent;
 				int textY = y + (height - extent.y) / 2;
 				textY += parent.onBottom ? -1 : 1;
 				
@@ -1488,6 +1511,67 @@ public class CTabFolderRenderer {
 		}
 	}
 
+	/*
+	* Setting the data of the internal key TAB_AREA_CACHE_KEY to Boolean.TRUE
+	* keeps the background, the curves and the border of the tab area in an
+	* image that is copied on every paint. The image is drawn again when the
+	* size, the tab height, the appearance or the colors of the folder change.
+	*/
+	void drawCachedTabArea(GC gc, Rectangle bounds, int state) {
+		Point size = parent.getSize();
+		int tabHeight = parent.tabHeight;
+		int highlight_header = (parent.getStyle() & SWT.FLAT) != 0 ? 1 : 3;
+		int height = parent.onBottom ? tabHeight + highlight_header : tabHeight + highlight_header + 1;
+		if (tabHeight == 0 || size.x <= 0 || height > size.y) {
+			disposeTabAreaImage();
+			drawTabArea(gc, bounds, state);
+			return;
+		}
+		int y = parent.onBottom ? size.y - height : 0;
+		Color borderColor = parent.getDisplay().getSystemColor(BORDER1_COLOR);
+		Object[] key = new Object[] {
+			size,
+			new Integer(tabHeight),
+			new Integer(parent.getStyle()),
+			new Boolean(parent.onBottom),
+			new Boolean(parent.simple),
+			new Boolean(parent.single),
+			new Boolean(parent.borderVisible),
+			new Boolean(parent.selectedIndex == -1),
+			parent.getBackground(),
+			parent.getParent().getBackground(),
+			parent.selectionBackground,
+			parent.selectionBgImage,
+			parent.gradientColors,
+			parent.gradientPercents,
+			new Boolean(parent.gradientVertical),
+			parent.selectionGradientColors,
+			parent.selectionGradientPercents,
+			new Boolean(parent.selectionGradientVertical),
+			borderColor,
+		};
+		if (tabAreaImage == null || !Arrays.equals(key, tabAreaKey)) {
+			disposeTabAreaImage();
+			Display display = parent.getDisplay();
+			Image image = new Image(display, size.x, height);
+			GC imageGC = new GC(image);
+			imageGC.setBackground(parent.getBackground());
+			imageGC.fillRectangle(0, 0, size.x, height);
+			Transform transform = null;
+			if (y != 0) {
+				transform = new Transform(display);
+				transform.translate(0, -y);
+				imageGC.setTransform(transform);
+			}
+			drawTabArea(imageGC, bounds, state);
+			imageGC.dispose();
+			if (transform != null) transform.dispose();
+			tabAreaImage = image;
+			tabAreaKey = key;
+		}
+		gc.drawImage(tabAreaImage, 0, y);
+	}
+
 	void drawTabArea(GC gc, Rectangle bounds, int state) {
 		Point size = parent.getSize();
 		int[] shape = null;
@@ -1668,12 +1752,15 @@ public class CTabFolderRenderer {
 			}
 			if (textWidth > 0) {
 				Font gcFont = gc.getFont();
-				gc.setFont(item.font == null ? parent.getFont() : item.font);
-				if (item.shortenedText == null || item.shortenedTextWidth != textWidth) {
+				Font font = item.font == null ? parent.getFont() : item.font;
+				gc.setFont(font);
+				if (item.shortenedText == null || item.shortenedTextWidth != textWidth || !font.equals(item.shortenedTextFont)) {
 					item.shortenedText = shortenText(gc, item.getText(), textWidth);
 					item.shortenedTextWidth = textWidth;
+					item.shortenedTextFont = font;
+					item.shortenedTextExtent = gc.textExtent(item.shortenedText, FLAGS);
 				}	
-				Point extent = gc.textExtent(item.shortenedText, FLAGS);
+				Point extent = item.shortenedTextExtent;
 				int textY = y + (height - extent.y) / 2;
 				textY += parent.onBottom ? -1 : 1;
 				gc.setForeground(parent.getForeground());
@@ -1769,17 +1856,50 @@ public class CTabFolderRenderer {
 		int length = text.length();
 		TextLayout layout = new TextLayout(parent.getDisplay());
 		layout.setText(text);
-		int end = layout.getPreviousOffset(length, SWT.MOVEMENT_CLUSTER);
-		while (end > 0) {
-			text = text.substring(0, end);
-			int l = gc.textExtent(text, FLAGS).x;
-			if (l + ellipseWidth <= width) {
-				break;
-			}
-			end = layout.getPreviousOffset(end, SWT.MOVEMENT_CLUSTER);
+		/*
+		* The width of a prefix grows with its length, so the longest prefix
+		* that fits is found with a binary search over the cluster boundaries
+		* instead of measuring every prefix from the end of the text.
+		*/
+		int[] offsets = new int[length + 1];
+		int count = 0, offset = 0;
+		while (offset < length) {
+			offsets[count++] = offset;
+			offset = layout.getNextOffset(offset, SWT.MOVEMENT_CLUSTER);
 		}
 		layout.dispose();
-		return end == 0 ? text.substring(0, 1) : text + ellipses;
+		int low = 0, high = count;
+		while (high - low > 1) {
+			int index = (low + high) >>> 1;
+			if (gc.textExtent(text.substring(0, offsets[index]), FLAGS).x + ellipseWidth <= width) {
+				low = index;
+			} else {
+				high = index;
+			}
+		}
+		return low == 0 ? text.substring(0, 1) : text.substring(0, offsets[low]) + ellipses;
+	}
+	
+	/*
+	* Returns the extent of the text of the item, or of the minimum text
+	* shown when the tabs are shrunk, in the font of the gc. The extents are
+	* kept by the item until its text or the font changes.
+	*/
+	Point textExtent(GC gc, CTabItem item, String text, boolean minimum) {
+		Font font = gc.getFont();
+		if (!font.equals(item.textFont)) {
+			item.textFont = font;
+			item.textExtent = item.minTextExtent = null;
+		}
+		if (minimum) {
+			if (item.minTextExtent == null || !text.equals(item.minText)) {
+				item.minTextExtent = gc.textExtent(text, FLAGS);
+				item.minText = text;
+			}
+			return item.minTextExtent;
+		}
+		if (item.textExtent == null) item.textExtent = gc.textExtent(text, FLAGS);
+		return item.textExtent;
 	}
 	
 	void updateCurves () {
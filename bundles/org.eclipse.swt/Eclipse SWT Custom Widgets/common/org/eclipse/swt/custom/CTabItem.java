@@ -41,6 +41,14 @@ public class CTabItem extends Item {
 	String toolTipText;
 	String shortenedText;
 	int shortenedTextWidth;
+	Font shortenedTextFont;
+	Point shortenedTextExtent;
+	
+	// Measurements of the text, valid for textFont
+	Font textFont;
+	Point textExtent;
+	String minText;
+	Point minTextExtent;
 	
 	// Appearance
 	Font font;
@@ -130,6 +138,11 @@ public void dispose() {
 	control = null;
 	toolTipText = null;
 	shortenedText = null;
+	shortenedTextFont = null;
+	shortenedTextExtent = null;
+	textFont = null;
+	textExtent = minTextExtent = null;
+	minText = null;
 	font = null;
 }
 
@@ -356,6 +369,7 @@ public void setFont (Font font){
 	if (font == null && this.font == null) return;
 	if (font != null && font.equals(this.font)) return;
 	this.font = font;
+	textExtent = minTextExtent = null;
 	parent.updateFolder(CTabFolder.UPDATE_TAB_HEIGHT | CTabFolder.REDRAW_TABS);
 }
 @Override
@@ -398,6 +412,7 @@ public void setText (String string) {
 	super.setText(string);
 	shortenedText = null;
 	shortenedTextWidth = 0;
+	textExtent = minTextExtent = null;
 	parent.updateFolder(CTabFolder.UPDATE_TAB_HEIGHT | CTabFolder.REDRAW_TABS);
 }
 /**
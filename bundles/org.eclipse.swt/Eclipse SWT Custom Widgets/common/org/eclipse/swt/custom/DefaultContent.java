@@ -17,7 +17,7 @@ import org.eclipse.swt.widgets.*;
 import java.util.Vector;
 
 @SuppressWarnings({"rawtypes", "unchecked"})
-class DefaultContent implements StyledTextContent {
+class DefaultContent implements StyledTextContentExtended {
 	private final static String LineDelimiter = System.getProperty("line.separator");
 
 	Vector textListeners = new Vector(); // stores text listeners for event sending
@@ -32,6 +32,48 @@ class DefaultContent implements StyledTextContent {
 	int lineCount = 0;	// the number of lines of text	
 	int expandExp = 1; 	// the expansion exponent, used to increase the lines array exponentially
 	int replaceExpandExp = 1; 	// the expansion exponent, used to increase the lines array exponentially
+	boolean shared;	// whether snapshots read the text store outside of the shared gap
+	int sharedGapStart, sharedGapEnd;	// the part of the gap that no snapshot reads
+
+	/*
+	 * A view of the logical content between two offsets. The characters are
+	 * read in the text store around the gap as it was when the view was
+	 * created, nothing is copied.
+	 */
+	static class TextSequence implements CharSequence {
+		char[] text;
+		int gapStart, gapLength, start, length;
+
+	TextSequence(char[] text, int gapStart, int gapEnd, int start, int length) {
+		this.text = text;
+		this.gapStart = gapStart;
+		this.gapLength = gapEnd - gapStart;
+		this.start = start;
+		this.length = length;
+	}
+	public char charAt(int index) {
+		if (index < 0 || index >= length) throw new IndexOutOfBoundsException();
+		int position = start + index;
+		return text[position < gapStart ? position : position + gapLength];
+	}
+	public int length() {
+		return length;
+	}
+	public CharSequence subSequence(int start, int end) {
+		if (start < 0 || start > end || end > length) throw new IndexOutOfBoundsException();
+		return new TextSequence(text, gapStart, gapStart + gapLength, this.start + start, end - start);
+	}
+	@Override
+	public String toString() {
+		int end = start + length;
+		if (end <= gapStart) return new String(text, start, length);
+		if (start >= gapStart) return new String(text, start + gapLength, length);
+		StringBuffer buffer = new StringBuffer(length);
+		buffer.append(text, start, gapStart - start);
+		buffer.append(text, gapStart + gapLength, end - gapStart);
+		return buffer.toString();
+	}
+	}
 
 /** 
  * Creates a new DefaultContent and initializes it.  A <code>StyledTextContent</> will always have
@@ -275,9 +317,16 @@ void insert(int position, String text) {
 	int startLineOffset = getOffsetAtLine(startLine);
 	// at this point, startLineLength will include the start line
 	// and all of the newly inserted text
-	int	startLineLength = getPhysicalLine(startLine).length();
+	int	startLineLength = lines[startLine][1];
 	
 	if (change > 0) {
+		if (shared && (position < sharedGapStart || position + change > sharedGapEnd)) {
+			// a snapshot reads the characters that are about to be overwritten
+			char[] content = new char[textStore.length];
+			System.arraycopy(textStore, 0, content, 0, textStore.length);
+			textStore = content;
+			shared = false;
+		}
 		// shrink gap 
 		gapStart += (change);
 		for (int i = 0; i < text.length(); i++) {
@@ -357,6 +406,7 @@ void moveAndResizeGap(int position, int size, int newGapLine) {
 			System.arraycopy(textStore, 0, content, 0, gapStart);
 			System.arraycopy(textStore, gapEnd, content, gapStart, content.length - gapStart);
 			textStore = content;
+			shared = false;
 		}
 		gapStart = gapEnd = position;
 		return;
@@ -379,6 +429,7 @@ void moveAndResizeGap(int position, int size, int newGapLine) {
 		System.arraycopy(textStore, gapEnd + delta, content, newGapEnd, content.length - newGapEnd);
 	}
 	textStore = content;
+	shared = false;
 	gapStart = newGapStart;
 	gapEnd = newGapEnd;
 	
@@ -479,27 +530,46 @@ public int getCharCount() {
 public String getLine(int index) {
 	if ((index >= lineCount) || (index < 0)) error(SWT.ERROR_INVALID_ARGUMENT);
 	int start = lines[index][0];
-	int length = lines[index][1];
-	int end = start + length - 1;
+	int length = getLineLength(index);
+	int end = start + lines[index][1] - 1;
 	if (!gapExists() || (end < gapStart) || (start >= gapEnd)) {
 		// line is before or after the gap
-		while ((length - 1 >= 0) && isDelimiter(textStore[start+length-1])) {
-			length--;
-		}
 		return new String(textStore, start, length);
 	} else {
 		// gap is in the specified range, strip out the gap
-		StringBuffer buf = new StringBuffer();
-		int gapLength = gapEnd - gapStart;
-		buf.append(textStore, start, gapStart - start);
-		buf.append(textStore, gapEnd, length - gapLength - (gapStart - start));
-		length = buf.length();
-		while ((length - 1 >=0) && isDelimiter(buf.charAt(length - 1))) {
-			length--;
-		}
-		return buf.toString().substring(0, length);
+		char[] chars = new char[length];
+		int count = Math.min(length, gapStart - start);
+		System.arraycopy(textStore, start, chars, 0, count);
+		System.arraycopy(textStore, gapEnd, chars, count, length - count);
+		return new String(chars);
 	}
 }
+/**
+ * Returns the length of the line at <code>index</code> without delimiters,
+ * without creating a String for the line.
+ * <p>
+ *
+ * @param index	the index of the line
+ * @return the logical length of the line (i.e., without the gap)
+ * @exception IllegalArgumentException <ul>
+ *   <li>ERROR_INVALID_ARGUMENT when index is out of range</li>
+ * </ul>
+ */
+int getLineLength(int index) {
+	if ((index >= lineCount) || (index < 0)) error(SWT.ERROR_INVALID_ARGUMENT);
+	int start = lines[index][0];
+	int length = lines[index][1];
+	int last = start + length;	// the physical offset after the last character
+	boolean hasGap = gapExists() && (last - 1 >= gapStart) && (start < gapEnd);
+	if (hasGap) length -= gapEnd - gapStart;
+	while (length > 0) {
+		if (hasGap && last == gapEnd) last = gapStart;
+		if (!isDelimiter(textStore[last - 1])) break;
+		last--;
+		length--;
+	}
+	return length;
+}
 /**
  * Returns the line delimiter that should be used by the StyledText 
  * widget when inserting new lines.  This delimiter may be different than the
@@ -713,10 +783,74 @@ public String getTextRange(int start, int length) {
 		int gapLength= gapEnd - gapStart;
 		return new String(textStore, start + gapLength , length);
 	}
-	StringBuffer buf = new StringBuffer();
-	buf.append(textStore, start, gapStart - start);
-	buf.append(textStore, gapEnd, end - gapStart);
-	return buf.toString();
+	char[] chars = new char[length];
+	getChars(start, end, chars, 0);
+	return new String(chars);
+}
+/**
+ * Copies the logical content between the given offsets into the
+ * destination array.
+ * <p>
+ *
+ * @param start the logical offset of the first character to copy
+ * @param end the logical offset after the last character to copy
+ * @param dst the destination array
+ * @param dstBegin the index of the first character in the destination array
+ * @exception IllegalArgumentException <ul>
+ *   <li>ERROR_INVALID_ARGUMENT when the offsets are out of range</li>
+ * </ul>
+ */
+public void getChars(int start, int end, char[] dst, int dstBegin) {
+	if (start < 0 || start > end || end > getCharCount()) error(SWT.ERROR_INVALID_ARGUMENT);
+	int length = end - start;
+	if (!gapExists() || (end <= gapStart)) {
+		System.arraycopy(textStore, start, dst, dstBegin, length);
+	} else if (gapStart <= start) {
+		System.arraycopy(textStore, start + gapEnd - gapStart, dst, dstBegin, length);
+	} else {
+		int count = gapStart - start;
+		System.arraycopy(textStore, start, dst, dstBegin, count);
+		System.arraycopy(textStore, gapEnd, dst, dstBegin + count, length - count);
+	}
+}
+/**
+ * Returns a snapshot of the logical content. The snapshot is not a copy,
+ * it reads the text store around the gap. Changes are inserted in the gap
+ * or replace the text store, so the snapshot keeps the characters of the
+ * text at the time of the call and can be read from another thread.
+ * Inserting text outside of the gap of the snapshot copies the text store
+ * once.
+ * <p>
+ *
+ * @return the snapshot of the text
+ */
+CharSequence getSnapshot() {
+	if (!shared) {
+		shared = true;
+		sharedGapStart = gapStart;
+		sharedGapEnd = gapEnd;
+	} else {
+		sharedGapStart = Math.max(sharedGapStart, gapStart);
+		sharedGapEnd = Math.max(sharedGapStart, Math.min(sharedGapEnd, gapEnd));
+	}
+	return new TextSequence(textStore, gapStart, gapEnd, 0, getCharCount());
+}
+/**
+ * Returns a view of the logical content between the given offsets,
+ * without copying the characters. The view is only valid until the
+ * next change.
+ * <p>
+ *
+ * @param start the logical start offset of the view
+ * @param end the logical end offset of the view
+ * @return the view of the text
+ * @exception IllegalArgumentException <ul>
+ *   <li>ERROR_INVALID_ARGUMENT when the offsets are out of range</li>
+ * </ul>
+ */
+public CharSequence subSequence(int start, int end) {
+	if (start < 0 || start > end || end > getCharCount()) error(SWT.ERROR_INVALID_ARGUMENT);
+	return new TextSequence(textStore, gapStart, gapEnd, start, end - start);
 }
 /**
  * Removes the specified <code>TextChangeListener</code>.
@@ -806,6 +940,7 @@ void sendTextEvent(StyledTextEvent event) {
  */
 public void setText (String text){
 	textStore = text.toCharArray();
+	shared = false;
 	gapStart = -1;
 	gapEnd = -1;
 	expandExp = 1;
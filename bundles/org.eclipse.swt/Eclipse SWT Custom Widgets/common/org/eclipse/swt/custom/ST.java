@@ -67,6 +67,22 @@ public class ST {
 	public static final int DELETE_WORD_PREVIOUS = 262152;	// binding = SWT.BS | SWT.MOD1;
 	public static final int DELETE_WORD_NEXT = 262271;	// binding = SWT.DEL | SWT.MOD1;
 
+	/**
+	 * Undo key action, undoes the last edit of the undo history.
+	 * 
+	 * @see StyledText#setUndoLimit(int)
+	 * @since 3.104
+	 */
+	public static final int UNDO = 262234;	// binding = 'Z' | SWT.MOD1;
+
+	/**
+	 * Redo key action, redoes the last edit that was undone.
+	 * 
+	 * @see StyledText#setUndoLimit(int)
+	 * @since 3.104
+	 */
+	public static final int REDO = 262233;	// binding = 'Y' | SWT.MOD1;
+
 	/* 
 	 * Miscellaneous Key Actions 
 	 */
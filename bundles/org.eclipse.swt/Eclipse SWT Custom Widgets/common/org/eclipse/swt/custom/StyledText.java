@@ -12,6 +12,8 @@ package org.eclipse.swt.custom;
 
 
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.eclipse.swt.*;
 import org.eclipse.swt.accessibility.*;
@@ -90,6 +92,7 @@ public class StyledText extends Canvas {
 	static final int H_SCROLL_RATE = 10;
 	static final int PREVIOUS_OFFSET_TRAILING = 0;
 	static final int OFFSET_LEADING = 1;
+	static final int CLIPBOARD_SNAPSHOT_LENGTH = 64 * 1024;	// minimum length of the text that is put on the clipboard from a snapshot
 	
 	Color selectionBackground;	// selection background color
 	Color selectionForeground;	// selection foreground color
@@ -163,6 +166,8 @@ public class StyledText extends Canvas {
 	AccessibleEditableTextListener accEditableTextListener;
 	AccessibleTextExtendedAdapter accTextExtendedAdapter;
 	AccessibleAdapter accAdapter;
+	StyledTextSearch[] searches = new StyledTextSearch[0];	// searches whose matches are moved by text changes
+	StyledTextUndoHistory undoHistory;	// null when the undo history is disabled
 	
 	//block selection
 	boolean blockSelection;
@@ -178,6 +183,61 @@ public class StyledText extends Canvas {
 		IS_MOTIF = "motif".equals(platform);
 	}
 
+	/**
+	 * A <code>ClipboardText</code> is one flavour of the text that is put on
+	 * the clipboard. The text is written from a snapshot of the content when
+	 * the clipboard requests it for the first time, so that a flavour that is
+	 * never pasted is never created.
+	 */
+	static class ClipboardText implements CharSequence {
+		TextWriter writer;
+		CharSequence snapshot;
+		int snapshotOffset;
+		int lineIndex;
+		String text;
+
+	/**
+	 * Creates the text of a writer. The writer is detached from the widget,
+	 * so that the clipboard does not keep a disposed widget reachable.
+	 *
+	 * @param writer the writer of the flavour
+	 * @param snapshot the snapshot of the content
+	 * @param snapshotOffset the offset of the snapshot in the content
+	 * @param lineIndex the index of the line at the start offset of the writer
+	 */
+	ClipboardText(TextWriter writer, CharSequence snapshot, int snapshotOffset, int lineIndex) {
+		writer.styledText = null;
+		this.writer = writer;
+		this.snapshot = snapshot;
+		this.snapshotOffset = snapshotOffset;
+		this.lineIndex = lineIndex;
+	}
+	public char charAt(int index) {
+		return getText().charAt(index);
+	}
+	/**
+	 * Returns the text, which is written on the first call.
+	 */
+	String getText() {
+		if (text == null) {
+			text = getPlatformDelimitedText(writer, snapshot, snapshotOffset, lineIndex);
+			writer = null;
+			snapshot = null;
+		}
+		return text;
+	}
+	public int length() {
+		return getText().length();
+	}
+	public CharSequence subSequence(int start, int end) {
+		return getText().subSequence(start, end);
+	}
+	@Override
+	public String toString() {
+		return getText();
+	}
+	}
+
 	/**
 	 * The Printing class implements printing of a range of text.
 	 * An instance of <code>Printing</code> is returned in the 
@@ -429,14 +489,10 @@ public class StyledText extends Canvas {
 			clientArea.height -= lineHeight * 2;
 		}
 		
-		// TODO not wrapped
 		StyledTextContent content = printerRenderer.content;
 		startLine = 0;
 		endLine = singleLine ? 0 : content.getLineCount() - 1;
-		if (scope == PrinterData.PAGE_RANGE) {
-			int pageSize = clientArea.height / lineHeight;//WRONG
-			startLine = (startPage - 1) * pageSize;
-		} else if (scope == PrinterData.SELECTION) {
+		if (scope == PrinterData.SELECTION) {
 			startLine = content.getLineAtOffset(selection.x);
 			if (selection.y > 0) {
 				endLine = content.getLineAtOffset(selection.x + selection.y - 1);
@@ -447,14 +503,17 @@ public class StyledText extends Canvas {
 	}
 	/**
 	 * Prints the lines in the specified page range.
+	 *
+	 * @return <code>false</code> if the print job was cancelled by the 
+	 * 	listener of the print options, <code>true</code> otherwise
 	 */
-	void print() {
+	boolean print() {
 		Color background = gc.getBackground();
 		Color foreground = gc.getForeground();
 		int paintY = clientArea.y;
 		int paintX = clientArea.x;
 		int width = clientArea.width;
-		int page = startPage;
+		int page = 1;
 		int pageBottom = clientArea.y + clientArea.height;
 		int orientation =  gc.getStyle() & (SWT.RIGHT_TO_LEFT | SWT.LEFT_TO_RIGHT);
 		TextLayout printLayout = null;
@@ -485,65 +544,73 @@ public class StyledText extends Canvas {
 			paintX += numberingWidth;
 			width -= numberingWidth;
 		}
-		for (int i = startLine; i <= endLine && page <= endPage; i++) {
-			if (paintY == clientArea.y) {
+		/*
+		 * Each page is paginated before it is drawn. The pages before the
+		 * start page are only paginated and the layout of a line that is
+		 * continued on the next page is kept for that page.
+		 */
+		int lineCount = endLine - startLine + 1;
+		int lineIndex = startLine;
+		int visualLine = 0;								// first visual line of lineIndex on the page
+		TextLayout layout = null;
+		boolean completed = true;
+		while (lineIndex <= endLine && page <= endPage) {
+			boolean draw = page >= startPage;
+			if (draw) {
 				printer.startPage();
 				printDecoration(page, true, printLayout);
 			}
-			TextLayout layout = printerRenderer.getTextLayout(i, orientation, width, lineSpacing);
-			Color lineBackground = printerRenderer.getLineBackground(i, background);
-			int paragraphBottom = paintY + layout.getBounds().height; 
-			if (paragraphBottom <= pageBottom) {
-				//normal case, the whole paragraph fits in the current page
-				printLine(paintX, paintY, gc, foreground, lineBackground, layout, printLayout, i);
-				paintY = paragraphBottom;
-			} else {
-				int lineCount = layout.getLineCount();
-				while (paragraphBottom > pageBottom && lineCount > 0) {
-					lineCount--;
-					paragraphBottom -= layout.getLineBounds(lineCount).height + layout.getSpacing();
-				}
-				if (lineCount == 0) {
-					//the whole paragraph goes to the next page
-					printDecoration(page, false, printLayout);
-					printer.endPage();
-					page++;
-					if (page <= endPage) {
-						printer.startPage();
-						printDecoration(page, true, printLayout);
-						paintY = clientArea.y;
-						printLine(paintX, paintY, gc, foreground, lineBackground, layout, printLayout, i);
-						paintY += layout.getBounds().height;
+			paintY = clientArea.y;
+			while (lineIndex <= endLine) {
+				if (layout == null) layout = printerRenderer.getTextLayout(lineIndex, orientation, width, lineSpacing);
+				Color lineBackground = printerRenderer.getLineBackground(lineIndex, background);
+				int offset = visualLine > 0 ? layout.getLineBounds(visualLine).y : 0;
+				int height = layout.getBounds().height - offset;
+				int paragraphBottom = paintY + height;
+				if (paragraphBottom > pageBottom) {
+					int lastLine = layout.getLineCount();
+					while (paragraphBottom > pageBottom && lastLine > visualLine) {
+						lastLine--;
+						paragraphBottom -= layout.getLineBounds(lastLine).height + layout.getSpacing();
 					}
-				} else {
-					//draw paragraph top in the current page and paragraph bottom in the next
-					int height = paragraphBottom - paintY;
-					gc.setClipping(clientArea.x, paintY, clientArea.width, height);
-					printLine(paintX, paintY, gc, foreground, lineBackground, layout, printLayout, i);
-					gc.setClipping((Rectangle)null);
-					printDecoration(page, false, printLayout);
-					printer.endPage();					
-					page++;
-					if (page <= endPage) {
-						printer.startPage();
-						printDecoration(page, true, printLayout);
-						paintY = clientArea.y - height;
-						int layoutHeight = layout.getBounds().height;
-						gc.setClipping(clientArea.x, clientArea.y, clientArea.width, layoutHeight - height);
-						printLine(paintX, paintY, gc, foreground, lineBackground, layout, printLayout, i);
-						gc.setClipping((Rectangle)null);
-						paintY += layoutHeight;
+					if (lastLine > visualLine) {
+						//draw paragraph top in the current page and paragraph bottom in the next
+						if (draw) {
+							gc.setClipping(clientArea.x, paintY, clientArea.width, paragraphBottom - paintY);
+							printLine(paintX, paintY - offset, gc, foreground, lineBackground, layout, printLayout, lineIndex);
+							gc.setClipping((Rectangle)null);
+						}
+						visualLine = lastLine;
+						break;
 					}
+					//the rest of the paragraph goes to the next page, unless it does not fit on an empty page
+					if (paintY > clientArea.y) break;
+				}
+				if (draw) {
+					if (offset > 0) gc.setClipping(clientArea.x, paintY, clientArea.width, height);
+					printLine(paintX, paintY - offset, gc, foreground, lineBackground, layout, printLayout, lineIndex);
+					if (offset > 0) gc.setClipping((Rectangle)null);
 				}
+				paintY += height;
+				printerRenderer.disposeTextLayout(layout);
+				layout = null;
+				visualLine = 0;
+				lineIndex++;
+			}
+			if (draw) {
+				printDecoration(page, false, printLayout);
+				printer.endPage();
+			}
+			StyledTextPrintListener listener = printOptions.listener;
+			if (listener != null && !listener.pageCompleted(page, lineIndex - startLine, lineCount)) {
+				completed = false;
+				break;
 			}
-			printerRenderer.disposeTextLayout(layout);
-		}
-		if (page <= endPage && paintY > clientArea.y) {
-			// close partial page
-			printDecoration(page, false, printLayout);
-			printer.endPage();
+			page++;
 		}
+		if (layout != null) printerRenderer.disposeTextLayout(layout);
 		if (printLayout != null) printLayout.dispose();
+		return completed;
 	}
 	/**
 	 * Print header or footer decorations.
@@ -647,6 +714,8 @@ public class StyledText extends Canvas {
 	}
 	/**
 	 * Starts a print job and prints the pages specified in the constructor.
+	 * The listener of the print options is notified after each page and
+	 * can cancel the print job.
 	 */
 	public void run() {
 		String jobName = printOptions.jobName;
@@ -655,9 +724,13 @@ public class StyledText extends Canvas {
 		}
 		if (printer.startJob(jobName)) {
 			init();
-			print();
+			boolean completed = print();
 			dispose();
-			printer.endJob();
+			if (completed) {
+				printer.endJob();
+			} else {
+				printer.cancelJob();
+			}
 		}
 	}	
 	}
@@ -676,29 +749,67 @@ public class StyledText extends Canvas {
 	 * widget font name and size is used for the whole text.
 	 * </p>
 	 */
-	class RTFWriter extends TextWriter {
+	static class RTFWriter extends TextWriter {
 		static final int DEFAULT_FOREGROUND = 0;
 		static final int DEFAULT_BACKGROUND = 1;
-		Vector colorTable, fontTable;
+		Vector colorTable, fontTable;	// RGB and FontData of the written colors and fonts
 		boolean WriteUnicode;
+		int[] ranges;					// ranges and styles of the written text
+		StyleRange[] styles;
+		int[] styleAttributes;			// foreground, background and font table indices of the styles
+		int[] lineBackgrounds;			// color table indices of the line backgrounds, -1 for none
+		int styleIndex;					// first style that does not end before the current line
+		StyledTextRenderer.LineInfo[] lines;	// attributes of the written lines, null when no line has attributes
+		int firstLine;
+		int defaultAlignment, defaultIndent;
+		boolean defaultJustify, lineStyleListener, lineBackgroundListener;
 		
 	/**
 	 * Creates a RTF writer that writes content starting at offset "start"
 	 * in the document.  <code>start</code> and <code>length</code>can be set to specify partial 
 	 * lines.
+	 * <p>
+	 * The styles and the line attributes of the range are read once, when the
+	 * writer is created, so that the lines can also be written later from a 
+	 * snapshot of the content. Their colors and fonts are resolved to RGB and 
+	 * FontData at the same time, so that they may be disposed before then.
+	 * </p>
 	 *
+	 * @param styledText the widget
 	 * @param start start offset of content to write, 0 based from 
 	 * 	beginning of document
 	 * @param length length of content to write
 	 */
-	public RTFWriter(int start, int length) {
-		super(start, length);
+	public RTFWriter(StyledText styledText, int start, int length) {
+		super(styledText, start, length);
+		StyledTextContent content = styledText.content;
+		StyledTextRenderer renderer = styledText.renderer;
 		colorTable = new Vector();
 		fontTable = new Vector();
-		colorTable.addElement(getForeground());
-		colorTable.addElement(getBackground());
-		fontTable.addElement(getFont());
+		colorTable.addElement(styledText.getForeground().getRGB());
+		colorTable.addElement(styledText.getBackground().getRGB());
+		fontTable.addElement(styledText.getFont().getFontData()[0]);
 		setUnicode();
+		defaultAlignment = styledText.alignment;
+		defaultIndent = styledText.indent;
+		defaultJustify = styledText.justify;
+		lineStyleListener = styledText.isListening(ST.LineGetStyle);
+		lineBackgroundListener = styledText.isListening(ST.LineGetBackground);
+		ranges = renderer.getRanges(start, length);
+		styles = renderer.getStyleRanges(start, length, false);
+		if (styles != null) styleAttributes = getStyleAttributes(styles);
+		firstLine = content.getLineAtOffset(start);
+		if (renderer.lines != null) {
+			int lastLine = content.getLineAtOffset(start + length);
+			lines = new StyledTextRenderer.LineInfo[lastLine - firstLine + 1];
+			lineBackgrounds = new int[lines.length];
+			for (int i = 0; i < lines.length; i++) {
+				StyledTextRenderer.LineInfo info = renderer.lines[firstLine + i];
+				if (info != null) lines[i] = new StyledTextRenderer.LineInfo(info);
+				info = getLineInfo(firstLine + i, StyledTextRenderer.BACKGROUND);
+				lineBackgrounds[i] = info != null ? getColorIndex(info.background, -1) : -1;
+			}
+		}
 	}
 	/**
 	 * Closes the RTF writer. Once closed no more content can be written.
@@ -723,10 +834,11 @@ public class StyledText extends Canvas {
 	 */
 	int getColorIndex(Color color, int defaultIndex) {
 		if (color == null) return defaultIndex;
-		int index = colorTable.indexOf(color);
+		RGB rgb = color.getRGB();
+		int index = colorTable.indexOf(rgb);
 		if (index == -1) {
 			index = colorTable.size();
-			colorTable.addElement(color);
+			colorTable.addElement(rgb);
 		}
 		return index;
 	}
@@ -739,13 +851,45 @@ public class StyledText extends Canvas {
 	 * 	or "defaultIndex" if "color" is null.
 	 */
 	int getFontIndex(Font font) {
-		int index = fontTable.indexOf(font);
+		FontData fontData = font.getFontData()[0];
+		int index = fontTable.indexOf(fontData);
 		if (index == -1) {
 			index = fontTable.size();
-			fontTable.addElement(font);
+			fontTable.addElement(fontData);
 		}
 		return index;
 	}
+	/**
+	 * Returns the attributes of the line at the specified index if they
+	 * include the specified attribute.
+	 *
+	 * @param lineIndex the index of the line
+	 * @param flag the attribute
+	 * @return the attributes of the line or null
+	 */
+	StyledTextRenderer.LineInfo getLineInfo(int lineIndex, int flag) {
+		if (lines == null || lineIndex < firstLine || lineIndex - firstLine >= lines.length) return null;
+		StyledTextRenderer.LineInfo info = lines[lineIndex - firstLine];
+		return info != null && (info.flags & flag) != 0 ? info : null;
+	}
+	/**
+	 * Returns the color and font table indices of the specified styles, three
+	 * for each style: the foreground, the background and the font, which is
+	 * -1 when the style does not set a font.
+	 *
+	 * @param styles the styles
+	 * @return the table indices of the colors and fonts of the styles
+	 */
+	int[] getStyleAttributes(StyleRange[] styles) {
+		int[] attributes = new int[styles.length * 3];
+		for (int i = 0; i < styles.length; i++) {
+			StyleRange style = styles[i];
+			attributes[i * 3] = getColorIndex(style.foreground, DEFAULT_FOREGROUND);
+			attributes[i * 3 + 1] = getColorIndex(style.background, DEFAULT_BACKGROUND);
+			attributes[i * 3 + 2] = style.font != null ? getFontIndex(style.font) : -1;
+		}
+		return attributes;
+	}
 	/**
 	 * Determines if Unicode RTF should be written.
 	 * Don't write Unicode RTF on Windows 95/98/ME or NT.
@@ -785,14 +929,15 @@ public class StyledText extends Canvas {
 	 * @param start start offset of segment. 0 based.
 	 * @param end end offset of segment
 	 */
-	void write(String string, int start, int end) {
+	@Override
+	void write(CharSequence string, int start, int end) {
 		for (int index = start; index < end; index++) {
 			char ch = string.charAt(index);
 			if (ch > 0x7F && WriteUnicode) {
 				// write the sub string from the last escaped character 
 				// to the current one. Fixes bug 21698.
 				if (index > start) {
-					write(string.substring(start, index));
+					super.write(string, start, index);
 				}
 				write("\\u");
 				write(Integer.toString((short) ch));
@@ -802,7 +947,7 @@ public class StyledText extends Canvas {
 				// write the sub string from the last escaped character 
 				// to the current one. Fixes bug 21698.
 				if (index > start) {
-					write(string.substring(start, index));
+					super.write(string, start, index);
 				}
 				write('\\');
 				write(ch);
@@ -812,7 +957,7 @@ public class StyledText extends Canvas {
 		// write from the last escaped character to the end.
 		// Fixes bug 21698.
 		if (start < end) {
-			write(string.substring(start, end));
+			super.write(string, start, end);
 		}
 	}
 	/**
@@ -820,7 +965,7 @@ public class StyledText extends Canvas {
 	 */
 	void writeHeader() {
 		StringBuffer header = new StringBuffer();
-		FontData fontData = getFont().getFontData()[0];
+		FontData fontData = (FontData)fontTable.elementAt(0);
 		header.append("{\\rtf1\\ansi");
 		// specify code page, necessary for copy to work in bidi 
 		// systems that don't support Unicode RTF.
@@ -837,19 +982,19 @@ public class StyledText extends Canvas {
 			header.append("\\f");
 			header.append(i);
 			header.append(" ");
-			FontData fd = ((Font)fontTable.elementAt(i)).getFontData()[0];
+			FontData fd = (FontData)fontTable.elementAt(i);
 			header.append(fd.getName());
 			header.append(";");			
 		}
 		header.append("}}\n{\\colortbl");
 		for (int i = 0; i < colorTable.size(); i++) {
-			Color color = (Color) colorTable.elementAt(i);
+			RGB rgb = (RGB) colorTable.elementAt(i);
 			header.append("\\red");
-			header.append(color.getRed());
+			header.append(rgb.red);
 			header.append("\\green");
-			header.append(color.getGreen());
+			header.append(rgb.green);
 			header.append("\\blue");
-			header.append(color.getBlue());
+			header.append(rgb.blue);
 			header.append(";");
 		}
 		// some RTF readers ignore the deff0 font tag. Explicitly 
@@ -860,6 +1005,15 @@ public class StyledText extends Canvas {
 		header.append(" ");
 		write(header.toString(), 0);
 	}
+	@Override
+	void writeLine(int lineIndex) {
+		StyledTextContent content = styledText.content;
+		writeLine(content.getLine(lineIndex), content.getOffsetAtLine(lineIndex), lineIndex);
+	}
+	@Override
+	public void writeLine(String line, int lineOffset) {
+		writeLine(line, lineOffset, styledText.content.getLineAtOffset(lineOffset));
+	}
 	/**
 	 * Appends the specified line text to the RTF data.  Lines will be formatted 
 	 * using the styles queried from the LineStyleListener, if set, or those set 
@@ -870,39 +1024,48 @@ public class StyledText extends Canvas {
 	 * @param lineOffset offset of the line. 0 based from the start of the 
 	 * 	widget document. Any text occurring before the start offset or after the 
 	 * 	end offset specified during object creation is ignored.
+	 * @param lineIndex index of the line
 	 * @exception SWTException <ul>
 	 *   <li>ERROR_IO when the writer is closed.</li>
 	 * </ul>
 	 */
 	@Override
-	public void writeLine(String line, int lineOffset) {
+	void writeLine(CharSequence line, int lineOffset, int lineIndex) {
 		if (isClosed()) {
 			SWT.error(SWT.ERROR_IO);
 		}
-		int lineIndex = content.getLineAtOffset(lineOffset);
-		int lineAlignment, lineIndent;
-		boolean lineJustify;
-		int[] ranges;
-		StyleRange[] styles;
-		StyledTextEvent event = getLineStyleData(lineOffset, line);
+		StyledTextRenderer.LineInfo info = getLineInfo(lineIndex, StyledTextRenderer.ALIGNMENT);
+		int lineAlignment = info != null ? info.alignment : defaultAlignment;
+		info = getLineInfo(lineIndex, StyledTextRenderer.INDENT);
+		int lineIndent = info != null ? info.indent : defaultIndent;
+		info = getLineInfo(lineIndex, StyledTextRenderer.JUSTIFY);
+		boolean lineJustify = info != null ? info.justify : defaultJustify;
+		// skip the styles that end before the line, the styles are read in a single pass
+		while (styles != null && styleIndex < styles.length && ranges[styleIndex << 1] + ranges[(styleIndex << 1) + 1] <= lineOffset) {
+			styleIndex++;
+		}
+		int[] lineRanges = ranges;
+		StyleRange[] lineStyles = line.length() > 0 ? styles : null;
+		int[] lineAttributes = styleAttributes;
+		int firstStyle = styleIndex;
+		StyledTextEvent event = lineStyleListener ? styledText.getLineStyleData(lineOffset, line.toString()) : null;
 		if (event != null) {
 			lineAlignment = event.alignment;
 			lineIndent = event.indent;
 			lineJustify = event.justify;
-			ranges = event.ranges;
-			styles = event.styles;
-		} else {
-			lineAlignment = renderer.getLineAlignment(lineIndex, alignment);
-			lineIndent =  renderer.getLineIndent(lineIndex, indent);			
-			lineJustify = renderer.getLineJustify(lineIndex, justify);
-			ranges = renderer.getRanges(lineOffset, line.length());
-			styles = renderer.getStyleRanges(lineOffset, line.length(), false);
-		}
-		if (styles == null) styles = new StyleRange[0];		
-		Color lineBackground = renderer.getLineBackground(lineIndex, null);
-		event = getLineBackgroundData(lineOffset, line);
-		if (event != null && event.lineBackground != null) lineBackground = event.lineBackground;
-		writeStyledLine(line, lineOffset, ranges, styles, lineBackground, lineIndent, lineAlignment, lineJustify);
+			lineRanges = event.ranges;
+			lineStyles = event.styles;
+			lineAttributes = null;
+			firstStyle = 0;
+		}
+		if (lineStyles == null) lineStyles = new StyleRange[0];
+		int lineBackground = -1;
+		if (lineBackgrounds != null && firstLine <= lineIndex && lineIndex - firstLine < lineBackgrounds.length) {
+			lineBackground = lineBackgrounds[lineIndex - firstLine];
+		}
+		event = lineBackgroundListener ? styledText.getLineBackgroundData(lineOffset, line.toString()) : null;
+		if (event != null && event.lineBackground != null) lineBackground = getColorIndex(event.lineBackground, -1);
+		writeStyledLine(line, lineOffset, lineRanges, lineStyles, lineAttributes, firstStyle, lineBackground, lineIndent, lineAlignment, lineJustify);
 	}
 	/**
 	 * Appends the specified line delimiter to the RTF data.
@@ -935,10 +1098,13 @@ public class StyledText extends Canvas {
 	 * 	widget document. Any text occurring before the start offset or after the 
 	 * 	end offset specified during object creation is ignored.
 	 * @param styles styles to use for formatting. Must not be null.
-	 * @param lineBackground line background color to use for formatting. 
-	 * 	May be null.
+	 * @param attributes color and font table indices of the styles as returned
+	 * 	by getStyleAttributes(), or null to look them up as the styles are written
+	 * @param firstStyle index of the first style that may intersect the line
+	 * @param lineBackground color table index of the line background color 
+	 * 	to use for formatting. May be -1.
 	 */
-	void writeStyledLine(String line, int lineOffset, int ranges[], StyleRange[] styles, Color lineBackground, int indent, int alignment, boolean justify) {
+	void writeStyledLine(CharSequence line, int lineOffset, int ranges[], StyleRange[] styles, int[] attributes, int firstStyle, int lineBackground, int indent, int alignment, boolean justify) {
 		int lineLength = line.length();
 		int startOffset = getStart();
 		int writeOffset = startOffset - lineOffset;
@@ -955,14 +1121,14 @@ public class StyledText extends Canvas {
 		if (justify) write("\\qj");
 		write(" ");
 		
-		if (lineBackground != null) {
+		if (lineBackground != -1) {
 			write("{\\highlight");
-			write(getColorIndex(lineBackground, DEFAULT_BACKGROUND));
+			write(lineBackground);
 			write(" "); 
 		}
 		int endOffset = startOffset + super.getCharCount();
 		int lineEndOffset = Math.min(lineLength, endOffset - lineOffset);
-		for (int i = 0; i < styles.length; i++) {
+		for (int i = firstStyle; i < styles.length; i++) {
 			StyleRange style = styles[i];
 			int start, end;
 			if (ranges != null) {
@@ -990,19 +1156,27 @@ public class StyledText extends Canvas {
 			}
 			// write styled text
 			write("{\\cf");
-			write(getColorIndex(style.foreground, DEFAULT_FOREGROUND));
-			int colorIndex = getColorIndex(style.background, DEFAULT_BACKGROUND);
+			if (attributes != null) {
+				write(attributes[i * 3]);
+			} else {
+				write(getColorIndex(style.foreground, DEFAULT_FOREGROUND));
+			}
+			int colorIndex = attributes != null ? attributes[i * 3 + 1] : getColorIndex(style.background, DEFAULT_BACKGROUND);
 			if (colorIndex != DEFAULT_BACKGROUND) {
 				write("\\highlight");
 				write(colorIndex);
 			}
 			int fontStyle = style.fontStyle;
-			Font font = style.font;
-			if (font != null) {
-				int fontIndex = getFontIndex(font);
+			int fontIndex = -1;
+			if (attributes != null) {
+				fontIndex = attributes[i * 3 + 2];
+			} else if (style.font != null) {
+				fontIndex = getFontIndex(style.font);
+			}
+			if (fontIndex != -1) {
 				write("\\f");
 				write(fontIndex);
-				FontData fontData = font.getFontData()[0];
+				FontData fontData = (FontData)fontTable.elementAt(fontIndex);
 				write("\\fs");
 				write(fontData.getHeight() * 2);
 				fontStyle = fontData.getStyle();
@@ -1044,7 +1218,7 @@ public class StyledText extends Canvas {
 		if (lineIndex < lineEndOffset) {
 			write(line, lineIndex, lineEndOffset);
 		}
-		if (lineBackground != null) write("}");
+		if (lineBackground != -1) write("}");
 	}
 	}
 	/**
@@ -1057,8 +1231,10 @@ public class StyledText extends Canvas {
 	 * has been called.
 	 * </p>
 	 */
-	class TextWriter {
+	static class TextWriter {
+		StyledText styledText;		// the widget, null once the writer only writes from a snapshot
 		private StringBuffer buffer;
+		private char[] chunk;		// characters copied from the content
 		private int startOffset;	// offset of first character that will be written
 		private int endOffset;		// offset of last character that will be written. 
 									// 0 based from the beginning of the widget text. 
@@ -1068,11 +1244,12 @@ public class StyledText extends Canvas {
 	 * Creates a writer that writes content starting at offset "start"
 	 * in the document.  <code>start</code> and <code>length</code> can be set to specify partial lines.
 	 *
+	 * @param styledText the widget
 	 * @param start start offset of content to write, 0 based from beginning of document
 	 * @param length length of content to write
 	 */
-	public TextWriter(int start, int length) {
-		buffer = new StringBuffer(length);
+	public TextWriter(StyledText styledText, int start, int length) {
+		this.styledText = styledText;
 		startOffset = start;
 		endOffset = start + length;
 	}
@@ -1086,6 +1263,17 @@ public class StyledText extends Canvas {
 			isClosed = true;
 		}
 	}
+	/**
+	 * Returns the buffer of the data. The buffer is created on the first
+	 * write, so that a writer that is kept to write the data later does not
+	 * hold a buffer.
+	 *
+	 * @return the buffer
+	 */
+	StringBuffer getBuffer() {
+		if (buffer == null) buffer = new StringBuffer(getCharCount());
+		return buffer;
+	}
 	/** 
 	 * Returns the number of characters to write.
 	 * @return the integer number of characters to write
@@ -1116,13 +1304,23 @@ public class StyledText extends Canvas {
 	 */
 	@Override
 	public String toString() {
-		return buffer.toString();
+		return buffer != null ? buffer.toString() : "";
 	}
 	/**
 	 * Appends the given string to the data.
 	 */
 	void write(String string) {
-		buffer.append(string);
+		getBuffer().append(string);
+	}
+	/**
+	 * Appends the specified segment of the given text to the data.
+	 *
+	 * @param text text to copy a segment from
+	 * @param start start offset of the segment
+	 * @param end end offset of the segment
+	 */
+	void write(CharSequence text, int start, int end) {
+		getBuffer().append(text, start, end);
 	}
 	/**
 	 * Inserts the given string to the data at the specified offset.
@@ -1134,7 +1332,7 @@ public class StyledText extends Canvas {
 	 * @param offset offset in the existing data to insert "string" at.
 	 */
 	void write(String string, int offset) {
-		if (offset < 0 || offset > buffer.length()) {
+		if (offset < 0 || offset > getBuffer().length()) {
 			return;
 		}
 		buffer.insert(offset, string);
@@ -1143,13 +1341,13 @@ public class StyledText extends Canvas {
 	 * Appends the given int to the data.
 	 */
 	void write(int i) {
-		buffer.append(i);
+		getBuffer().append(i);
 	}
 	/**
 	 * Appends the given character to the data.
 	 */
 	void write(char i) {
-		buffer.append(i);
+		getBuffer().append(i);
 	}
 	/**
 	 * Appends the specified line text to the data.
@@ -1182,6 +1380,64 @@ public class StyledText extends Canvas {
 			write(line.substring(lineIndex, copyEnd));
 		}
 	}
+	/**
+	 * Appends the text of the line at the specified index to the data.
+	 * The text is copied from a <code>StyledTextContentExtended</code> in
+	 * chunks, without creating a String for the line.
+	 *
+	 * @param lineIndex index of the line to write. Any text occurring before 
+	 * 	the start offset or after the end offset specified during object 
+	 * 	creation is ignored.
+	 * @exception SWTException <ul>
+	 *   <li>ERROR_IO when the writer is closed.</li>
+	 * </ul>
+	 */
+	void writeLine(int lineIndex) {
+		StyledTextContent content = styledText.content;
+		int lineOffset = content.getOffsetAtLine(lineIndex);
+		if (!(content instanceof StyledTextContentExtended)) {
+			writeLine(content.getLine(lineIndex), lineOffset);
+			return;
+		}
+		if (isClosed) {
+			SWT.error(SWT.ERROR_IO);
+		}
+		int start = Math.max(startOffset, lineOffset);
+		int end = Math.min(endOffset, lineOffset + styledText.getLineLength(lineIndex));
+		if (start >= end) return;
+		if (chunk == null) chunk = new char[Math.min(getCharCount(), 4096)];
+		StyledTextContentExtended extended = (StyledTextContentExtended)content;
+		while (start < end) {
+			int count = Math.min(end - start, chunk.length);
+			extended.getChars(start, start + count, chunk, 0);
+			getBuffer().append(chunk, 0, count);
+			start += count;
+		}
+	}
+	/**
+	 * Appends the part of the specified line that is inside the write range
+	 * to the data. The line is read from a snapshot of the content.
+	 *
+	 * @param line line text to write. Must not contain line breaks
+	 * 	Line breaks should be written using writeLineDelimiter()
+	 * @param lineOffset offset of the line in the snapshot. Any text occurring 
+	 * 	before the start offset or after the end offset specified during object 
+	 * 	creation is ignored.
+	 * @param lineIndex index of the line in the snapshot
+	 * @exception SWTException <ul>
+	 *   <li>ERROR_IO when the writer is closed.</li>
+	 * </ul>
+	 */
+	void writeLine(CharSequence line, int lineOffset, int lineIndex) {
+		if (isClosed) {
+			SWT.error(SWT.ERROR_IO);
+		}
+		int start = Math.max(0, startOffset - lineOffset);
+		int end = Math.min(line.length(), endOffset - lineOffset);
+		if (start < end) {
+			write(line, start, end);
+		}
+	}
 	/**
 	 * Appends the specified line delimiter to the data.
 	 *
@@ -1598,9 +1854,13 @@ void calculateTopIndex(int delta) {
 			delta -= topIndexY;
 			int lineIndex = topIndex;
 			int lineCount = content.getLineCount();
-			while (lineIndex < lineCount) {
-				if (delta <= 0) break;
-				delta -= renderer.getLineHeight(lineIndex++);
+			if (delta > 0) {
+				lineIndex = renderer.getLineIndex(topIndex, delta);
+				int height = renderer.getLinesHeight(topIndex, lineIndex);
+				if (height < delta) {
+					height += renderer.getLineHeight(lineIndex++);
+				}
+				delta -= height;
 			}
 			if (lineIndex < lineCount && -delta + renderer.getLineHeight(lineIndex) <= clientAreaHeight - topMargin - bottomMargin) {
 				topIndex = lineIndex;
@@ -1612,11 +1872,13 @@ void calculateTopIndex(int delta) {
 		} else {
 			delta -= topIndexY;
 			int lineIndex = topIndex;
-			while (lineIndex > 0) {
-				int lineHeight = renderer.getLineHeight(lineIndex - 1);
-				if (delta + lineHeight > 0) break;
-				delta += lineHeight;
-				lineIndex--;
+			if (delta < 0) {
+				lineIndex = renderer.getLineIndex(topIndex, delta);
+				int height = renderer.getLinesHeight(lineIndex, topIndex);
+				if (height > -delta) {
+					height -= renderer.getLineHeight(lineIndex++);
+				}
+				delta += height;
 			}
 			if (lineIndex == 0 || -delta + renderer.getLineHeight(lineIndex) <= clientAreaHeight - topMargin - bottomMargin) {
 				topIndex = lineIndex;
@@ -1635,6 +1897,57 @@ void calculateTopIndex(int delta) {
 		}
 	}
 }
+/**
+ * Returns <code>true</code> if the undo history of the receiver has an
+ * edit that can be redone, and <code>false</code> otherwise.
+ *
+ * @return whether an edit can be redone
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #redo()
+ * @see #setUndoLimit(int)
+ *
+ * @since 3.104
+ */
+public boolean canRedo() {
+	checkWidget();
+	return undoHistory != null && undoHistory.canRedo();
+}
+/**
+ * Returns <code>true</code> if the undo history of the receiver has an
+ * edit that can be undone, and <code>false</code> otherwise.
+ *
+ * @return whether an edit can be undone
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #undo()
+ * @see #setUndoLimit(int)
+ *
+ * @since 3.104
+ */
+public boolean canUndo() {
+	checkWidget();
+	return undoHistory != null && undoHistory.canUndo();
+}
+/**
+ * Cancels the searches, when the content is replaced or the widget
+ * is disposed.
+ */
+void cancelSearches() {
+	StyledTextSearch[] oldSearches = searches;
+	for (int i = 0; i < oldSearches.length; i++) {
+		oldSearches[i].cancel();
+	}
+	searches = new StyledTextSearch[0];
+}
 /**
  * Hides the scroll bars if widget is created in single line mode.
  */
@@ -2048,6 +2361,13 @@ void createKeyBindings() {
 	setKeyBinding('X' | SWT.MOD1, ST.CUT);
 	setKeyBinding('C' | SWT.MOD1, ST.COPY);
 	setKeyBinding('V' | SWT.MOD1, ST.PASTE);
+	// Undo, Redo
+	setKeyBinding('Z' | SWT.MOD1, ST.UNDO);
+	if (IS_MAC) {
+		setKeyBinding('Z' | SWT.MOD1 | SWT.MOD2, ST.REDO);
+	} else {
+		setKeyBinding('Y' | SWT.MOD1, ST.REDO);
+	}
 	if (IS_MAC) {
 		setKeyBinding(SWT.DEL | SWT.MOD2, ST.DELETE_NEXT);
 		setKeyBinding(SWT.BS | SWT.MOD3, ST.DELETE_WORD_PREVIOUS);
@@ -2290,7 +2610,7 @@ void doBackspace() {
 		int lineOffset = content.getOffsetAtLine(lineIndex);
 		if (caretOffset == lineOffset) {
 			lineOffset = content.getOffsetAtLine(lineIndex - 1);
-			event.start = lineOffset + content.getLine(lineIndex - 1).length();
+			event.start = lineOffset + getLineLength(lineIndex - 1);
 			event.end = caretOffset;
 		} else {
 			boolean isSurrogate = false;
@@ -2571,7 +2891,7 @@ void doDelete() {
 	} else if (caretOffset < content.getCharCount()) {
 		int line = content.getLineAtOffset(caretOffset);
 		int lineOffset = content.getOffsetAtLine(line);
-		int lineLength = content.getLine(line).length();
+		int lineLength = getLineLength(line);
 		if (caretOffset == lineOffset + lineLength) {
 			event.start = caretOffset;
 			event.end = content.getOffsetAtLine(line + 1);
@@ -2676,7 +2996,7 @@ void doLineEnd() {
 		lineEndOffset = lineOffset + offsets[lineIndex + 1];
 		renderer.disposeTextLayout(layout);
 	} else {
-		int lineLength = content.getLine(caretLine).length();
+		int lineLength = getLineLength(caretLine);
 		lineEndOffset = lineOffset + lineLength;
 	}
 	setCaretOffset(lineEndOffset, PREVIOUS_OFFSET_TRAILING);
@@ -3050,14 +3370,14 @@ void doPageEnd() {
 				index--;
 			}
 			if (index == -1 && lineIndex > 0) {
-				bottomOffset = content.getOffsetAtLine(lineIndex - 1) + content.getLine(lineIndex - 1).length();
+				bottomOffset = content.getOffsetAtLine(lineIndex - 1) + getLineLength(lineIndex - 1);
 			} else {
 				bottomOffset = content.getOffsetAtLine(lineIndex) + Math.max(0, layout.getLineOffsets()[index + 1] - 1);
 			}
 			renderer.disposeTextLayout(layout);
 		} else {
 			int lineIndex = getBottomIndex();
-			bottomOffset = content.getOffsetAtLine(lineIndex) + content.getLine(lineIndex).length();
+			bottomOffset = content.getOffsetAtLine(lineIndex) + getLineLength(lineIndex);
 		}
 		if (caretOffset < bottomOffset) {
 			setCaretOffset(bottomOffset, OFFSET_LEADING);
@@ -3267,7 +3587,7 @@ void doSelectionCursorNext() {
 	int lineOffset = content.getOffsetAtLine(caretLine);
 	int offsetInLine = caretOffset - lineOffset;
 	int offset, alignment;
-	if (offsetInLine < content.getLine(caretLine).length()) {
+	if (offsetInLine < getLineLength(caretLine)) {
 		TextLayout layout = renderer.getTextLayout(caretLine);
 		offsetInLine = layout.getNextOffset(offsetInLine, SWT.MOVEMENT_CLUSTER);
 		int lineStart = layout.getLineOffsets()[layout.getLineIndex(offsetInLine)];
@@ -3299,7 +3619,7 @@ void doSelectionCursorPrevious() {
 	} else if (caretLine > 0) {
 		caretLine--;
 		lineOffset = content.getOffsetAtLine(caretLine);
-		int offset = lineOffset + content.getLine(caretLine).length();
+		int offset = lineOffset + getLineLength(caretLine);
 		setCaretOffset(offset, OFFSET_LEADING);
 		showCaret();
 	}
@@ -3448,6 +3768,71 @@ void doWordPrevious() {
 void endAutoScroll() {
 	autoScrollDirection = SWT.NULL;
 }
+/**
+ * Returns the range of the first match of the regular expression in the
+ * widget content at or after the given offset. The default content is
+ * matched in place, without being copied into a <code>String</code>.
+ *
+ * @param pattern the regular expression
+ * @param start the offset at which the search starts
+ * @return a point where x is the offset of the first character of the
+ *  match and y is the offset after its last character, or null if there
+ *  is no match
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ * @exception IllegalArgumentException <ul>
+ *   <li>ERROR_NULL_ARGUMENT when pattern is null</li>
+ *   <li>ERROR_INVALID_RANGE when start is outside the widget content</li>
+ * </ul>
+ * 
+ * @see #findAll(Pattern, StyledTextSearchListener)
+ * @since 3.104
+ */
+public Point find(Pattern pattern, int start) {
+	checkWidget();
+	if (pattern == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (start < 0 || start > getCharCount()) SWT.error(SWT.ERROR_INVALID_RANGE);
+	Matcher matcher = pattern.matcher(getTextSequence(false));
+	if (!matcher.find(start)) return null;
+	return new Point(matcher.start(), matcher.end());
+}
+/**
+ * Searches all the matches of the regular expression in the widget
+ * content in a background thread. The listener is notified in the
+ * user-interface thread as matches are found, so that they can be
+ * highlighted while the user keeps typing. The matches are moved by
+ * the subsequent changes of the content until the search is cancelled.
+ * The search is cancelled when the content is replaced or when the
+ * receiver is disposed.
+ *
+ * @param pattern the regular expression
+ * @param listener the listener to notify when matches are found or null
+ * @return the search
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ * @exception IllegalArgumentException <ul>
+ *   <li>ERROR_NULL_ARGUMENT when pattern is null</li>
+ * </ul>
+ * 
+ * @see StyledTextSearch
+ * @see #find(Pattern, int)
+ * @since 3.104
+ */
+public StyledTextSearch findAll(Pattern pattern, StyledTextSearchListener listener) {
+	checkWidget();
+	if (pattern == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	StyledTextSearch search = new StyledTextSearch(this, pattern, listener);
+	StyledTextSearch[] newSearches = new StyledTextSearch[searches.length + 1];
+	System.arraycopy(searches, 0, newSearches, 0, searches.length);
+	newSearches[searches.length] = search;
+	searches = newSearches;
+	search.start(getTextSequence(true));
+	return search;
+}
 @Override
 public Color getBackground() {
 	checkWidget();
@@ -4178,6 +4563,19 @@ public boolean getLineJustify(int index) {
 	}
 	return isListening(ST.LineGetStyle) ? false : renderer.getLineJustify(index, justify);	
 }
+/**
+ * Returns the length of the line at the given index, without delimiters.
+ * No String is created for the line of the default content.
+ *
+ * @param lineIndex the index of the line
+ * @return the length of the line
+ */
+int getLineLength(int lineIndex) {
+	if (content instanceof DefaultContent) {
+		return ((DefaultContent)content).getLineLength(lineIndex);
+	}
+	return content.getLine(lineIndex).length();
+}
 /**
  * Returns the line spacing of the widget.
  * 
@@ -4235,13 +4633,9 @@ public int getLinePixel(int lineIndex) {
 	if (lineIndex == topIndex) return topIndexY + topMargin;
 	int height = topIndexY;
 	if (lineIndex > topIndex) {
-		for (int i = topIndex; i < lineIndex; i++) {
-			height += renderer.getLineHeight(i);
-		}
+		height += renderer.getLinesHeight(topIndex, lineIndex);
 	} else {
-		for (int i = topIndex - 1; i >= lineIndex; i--) {
-			height -= renderer.getLineHeight(i);
-		}
+		height -= renderer.getLinesHeight(lineIndex, topIndex);
 	}
 	return height + topMargin;
 }
@@ -4266,20 +4660,7 @@ public int getLineIndex(int y) {
 		return lineIndex;
 	}
 	if (y == topIndexY) return topIndex;
-	int line = topIndex;
-	if (y < topIndexY) {
-		while (y < topIndexY && line > 0) {
-			y += renderer.getLineHeight(--line);
-		}
-	} else {
-		int lineCount = content.getLineCount();
-		int lineHeight = renderer.getLineHeight(line);
-		while (y - lineHeight >= topIndexY && line < lineCount - 1) {
-			y -= lineHeight;
-			lineHeight = renderer.getLineHeight(++line);
-		}
-	}
-	return line;
+	return renderer.getLineIndex(topIndex, y - topIndexY);
 }
 /**
  * Returns the tab stops of the line at the given <code>index</code>.
@@ -4559,21 +4940,51 @@ String getPlatformDelimitedText(TextWriter writer) {
 	int end = writer.getStart() + writer.getCharCount();
 	int startLine = content.getLineAtOffset(writer.getStart());
 	int endLine = content.getLineAtOffset(end);
-	String endLineText = content.getLine(endLine);
+	int endLineLength = getLineLength(endLine);
 	int endLineOffset = content.getOffsetAtLine(endLine);
 	
 	for (int i = startLine; i <= endLine; i++) {
-		writer.writeLine(content.getLine(i), content.getOffsetAtLine(i));
+		writer.writeLine(i);
 		if (i < endLine) {
 			writer.writeLineDelimiter(PlatformLineDelimiter);
 		}
 	}
-	if (end > endLineOffset + endLineText.length()) {
+	if (end > endLineOffset + endLineLength) {
 		writer.writeLineDelimiter(PlatformLineDelimiter);
 	}
 	writer.close();
 	return writer.toString();
 }
+/**
+ * Returns the text in the range of the writer read from a snapshot of the
+ * content, using the platform line delimiter to separate lines.
+ *
+ * @param writer the TextWriter to write line text into
+ * @param text the snapshot of the content
+ * @param textOffset the offset of the snapshot in the content
+ * @param lineIndex the index of the line at the start offset of the writer
+ * @return the text in the specified range using the platform line 
+ * 	delimiter to separate lines as written by the specified TextWriter.
+ */
+static String getPlatformDelimitedText(TextWriter writer, CharSequence text, int textOffset, int lineIndex) {
+	int start = writer.getStart();
+	int end = start + writer.getCharCount();
+	int lineStart = start;
+	for (int i = start; i < end; i++) {
+		char ch = text.charAt(i - textOffset);
+		if (ch == SWT.CR || ch == SWT.LF) {
+			writer.writeLine(text.subSequence(lineStart - textOffset, i - textOffset), lineStart, lineIndex++);
+			writer.writeLineDelimiter(PlatformLineDelimiter);
+			if (ch == SWT.CR && i + 1 - textOffset < text.length() && text.charAt(i + 1 - textOffset) == SWT.LF) i++;
+			lineStart = i + 1;
+		}
+	}
+	if (lineStart <= end) {
+		writer.writeLine(text.subSequence(lineStart - textOffset, end - textOffset), lineStart, lineIndex);
+	}
+	writer.close();
+	return writer.toString();
+}
 /**
  * Returns all the ranges of text that have an associated StyleRange.
  * Returns an empty array if a LineStyleListener has been set. 
@@ -5206,6 +5617,25 @@ public Rectangle getTextBounds(int start, int end) {
 	rect.x += leftMargin - horizontalScrollOffset;
 	return rect;
 }
+/**
+ * Returns the widget content as a <code>CharSequence</code>. A content
+ * that implements <code>StyledTextContentExtended</code> is not copied.
+ * A snapshot keeps the characters it had when the content changes and
+ * can be read from another thread, it is only a view for the default
+ * content.
+ *
+ * @param snapshot whether a snapshot is required
+ * @return the widget content
+ */
+CharSequence getTextSequence(boolean snapshot) {
+	if (snapshot && content instanceof DefaultContent) {
+		return ((DefaultContent)content).getSnapshot();
+	}
+	if (!snapshot && content instanceof StyledTextContentExtended) {
+		return ((StyledTextContentExtended)content).subSequence(0, content.getCharCount());
+	}
+	return content.getTextRange(0, content.getCharCount());
+}
 /**
  * Returns the widget content starting at start for length characters.
  *
@@ -5296,6 +5726,26 @@ public int getTopPixel() {
 	checkWidget();
 	return getVerticalScrollOffset();
 }
+/**
+ * Returns the maximum number of characters of removed and inserted
+ * text that the undo history of the receiver keeps, or 0 if the undo
+ * history is disabled.
+ *
+ * @return the undo limit
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #setUndoLimit(int)
+ *
+ * @since 3.104
+ */
+public int getUndoLimit() {
+	checkWidget();
+	return undoHistory != null ? undoHistory.limit : 0;
+}
 /** 
  * Returns the vertical scroll increment.
  *
@@ -5885,6 +6335,8 @@ void handleDispose(Event event) {
 		content.removeTextChangeListener(textChangeListener);
 		content = null;
 	}
+	cancelSearches();
+	undoHistory = null;
 	if (defaultCaret != null) {
 		defaultCaret.dispose();
 		defaultCaret = null;
@@ -6086,7 +6538,7 @@ void handleMouseDown(Event event) {
 			int lineOffset = content.getOffsetAtLine(lineIndex);
 			if (wordSelect) {
 				int min = blockSelection ? lineOffset : 0;
-				int max = blockSelection ? lineOffset + content.getLine(lineIndex).length() : content.getCharCount();
+				int max = blockSelection ? lineOffset + getLineLength(lineIndex) : content.getCharCount();
 				int start = Math.max(min, getWordPrevious(offset, SWT.MOVEMENT_WORD_START));
 				int end = Math.min(max, getWordNext(start, SWT.MOVEMENT_WORD_END));
 				setSelection(start, end - start, false, true);
@@ -6320,6 +6772,12 @@ void handleTextChanging(TextChangingEvent event) {
 	}
 	sendAccessibleTextChanged(lastTextChangeStart, 0, lastTextChangeReplaceCharCount);
 	renderer.textChanging(event);
+	for (int i = 0; i < searches.length; i++) {
+		searches[i].textChanging(event.start, event.replaceCharCount, event.newCharCount);
+	}
+	if (undoHistory != null) {
+		undoHistory.textChanging(content, event.start, event.replaceCharCount, event.newText);
+	}
 	
 	// Update the caret offset if it is greater than the length of the content.
 	// This is necessary since style range API may be called between the
@@ -7103,6 +7561,12 @@ public void invokeAction(int action) {
 		case ST.PASTE:
 			paste();
 			break;
+		case ST.UNDO:
+			if (editable) undo();
+			break;
+		case ST.REDO:
+			if (editable) redo();
+			break;
 		case ST.DELETE_PREVIOUS:
 			doBackspace();
 			break;
@@ -7226,7 +7690,7 @@ boolean isLineDelimiter(int offset) {
 	// offsetInLine will be greater than line length if the line 
 	// delimiter is longer than one character and the offset is set
 	// in between parts of the line delimiter.
-	return offsetInLine > content.getLine(line).length();
+	return offsetInLine > getLineLength(line);
 }
 /**
  * Returns whether the widget is mirrored (right oriented/right to left 
@@ -7459,6 +7923,25 @@ public Runnable print(Printer printer, StyledTextPrintOptions options) {
 	}
 	return new Printing(this, printer, options);
 }
+/**
+ * Redoes the last edit that was undone. The caret is placed after
+ * the redone text.
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #canRedo()
+ * @see #undo()
+ * @see #setUndoLimit(int)
+ *
+ * @since 3.104
+ */
+public void redo() {
+	checkWidget();
+	if (undoHistory != null) undoHistory.redo();
+}
 /**
  * Causes the entire bounds of the receiver to be marked
  * as needing to be redrawn. The next time a paint request
@@ -7754,6 +8237,20 @@ public void removePaintObjectListener(PaintObjectListener listener) {
 	if (listener == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
 	removeListener(ST.PaintObject, listener);
 }
+/**
+ * Removes a search that has been cancelled.
+ */
+void removeSearch(StyledTextSearch search) {
+	for (int i = 0; i < searches.length; i++) {
+		if (searches[i] == search) {
+			StyledTextSearch[] newSearches = new StyledTextSearch[searches.length - 1];
+			System.arraycopy(searches, 0, newSearches, 0, i);
+			System.arraycopy(searches, i + 1, newSearches, i, searches.length - i - 1);
+			searches = newSearches;
+			return;
+		}
+	}
+}
 /**
  * Removes the listener from the collection of listeners who will
  * be notified when the user changes the receiver's selection.
@@ -7926,6 +8423,17 @@ public void replaceTextRange(int start, int length, String text) {
 	event.text = text;
 	modifyContent(event, false);
 }
+/**
+ * Replaces the given text range with the text of an edit that is undone
+ * or redone, the same way as a key action.
+ */
+void replaceUndoText(int start, int length, String text) {
+	Event event = new Event();
+	event.start = start;
+	event.end = start + length;
+	event.text = text;
+	modifyContent(event, true);
+}
 /**
  * Resets the caret position, selection and scroll offsets. Recalculate
  * the content width and scroll bars. Redraw the widget.
@@ -7933,6 +8441,8 @@ public void replaceTextRange(int start, int length, String text) {
 void reset() {
 	ScrollBar verticalBar = getVerticalBar();
 	ScrollBar horizontalBar = getHorizontalBar();
+	cancelSearches();
+	if (undoHistory != null) undoHistory.clear();
 	setCaretOffset(0, SWT.DEFAULT);
 	topIndex = 0;
 	topIndexY = 0;
@@ -8216,7 +8726,7 @@ int sendTextEvent(int left, int right, int lineIndex, String text, boolean fillW
 		start = getOffsetAtPoint(left, getLinePixel(lineIndex), trailing, true);
 		if (start == -1) {
 			int lineOffset = content.getOffsetAtLine(lineIndex);
-			int lineLegth = content.getLine(lineIndex).length();
+			int lineLegth = getLineLength(lineIndex);
 			start = end = lineOffset + lineLegth;
 			if (fillWithSpaces) {
 				TextLayout layout = renderer.getTextLayout(lineIndex);
@@ -8669,9 +9179,39 @@ void setCaretOffset(int offset, int alignment) {
  */
 void setClipboardContent(int start, int length, int clipboardType) throws SWTError {
 	if (clipboardType == DND.SELECTION_CLIPBOARD && !(IS_MOTIF || IS_GTK)) return;
+	/*
+	 * Large ranges of the default content are put on the clipboard as
+	 * ClipboardText, which is written from a snapshot of the content when
+	 * the clipboard requests it. RTF is only written this way when no line
+	 * listener must be asked for the styles. The writers read the styles and
+	 * resolve their colors and fonts when they are created, so the text can
+	 * still be written after the widget or the styles are disposed.
+	 * 
+	 * A range that is less than half of the content is copied instead, along
+	 * with the character after it for a CR LF at its end, so that the
+	 * clipboard never keeps a text store much larger than the text alive.
+	 */
+	CharSequence snapshot = null;
+	int snapshotOffset = 0;
+	int lineIndex = 0;
+	if (length >= CLIPBOARD_SNAPSHOT_LENGTH && content instanceof DefaultContent) {
+		int charCount = content.getCharCount();
+		if (length < charCount / 2) {
+			snapshot = content.getTextRange(start, Math.min(length + 1, charCount - start));
+			snapshotOffset = start;
+		} else {
+			snapshot = getTextSequence(true);
+		}
+		lineIndex = content.getLineAtOffset(start);
+	}
 	TextTransfer plainTextTransfer = TextTransfer.getInstance();
-	TextWriter plainTextWriter = new TextWriter(start, length);
-	String plainText = getPlatformDelimitedText(plainTextWriter);
+	TextWriter plainTextWriter = new TextWriter(this, start, length);
+	Object plainText;
+	if (snapshot != null) {
+		plainText = new ClipboardText(plainTextWriter, snapshot, snapshotOffset, lineIndex);
+	} else {
+		plainText = getPlatformDelimitedText(plainTextWriter);
+	}
 	Object[] data;
 	Transfer[] types;
 	if (clipboardType == DND.SELECTION_CLIPBOARD) {
@@ -8679,8 +9219,13 @@ void setClipboardContent(int start, int length, int clipboardType) throws SWTErr
 		types = new Transfer[]{plainTextTransfer};
 	} else {
 		RTFTransfer rtfTransfer = RTFTransfer.getInstance();
-		RTFWriter rtfWriter = new RTFWriter(start, length);
-		String rtfText = getPlatformDelimitedText(rtfWriter);
+		RTFWriter rtfWriter = new RTFWriter(this, start, length);
+		Object rtfText;
+		if (snapshot != null && !rtfWriter.lineStyleListener && !rtfWriter.lineBackgroundListener) {
+			rtfText = new ClipboardText(rtfWriter, snapshot, snapshotOffset, lineIndex);
+		} else {
+			rtfText = getPlatformDelimitedText(rtfWriter);
+		}
 		data = new Object[]{rtfText, plainText};
 		types = new Transfer[]{rtfTransfer, plainTextTransfer};
 	}
@@ -10245,6 +10790,46 @@ public void setTopPixel(int pixel) {
 	}
 	scrollVertical(pixel, true);
 }
+/**
+ * Sets the maximum number of characters of removed and inserted text
+ * that the undo history of the receiver keeps. The oldest edits are
+ * discarded when the limit is exceeded, and an edit that exceeds the
+ * limit by itself clears the history. A limit of 0, the default,
+ * disables the undo history.
+ * <p>
+ * Characters that are typed, deleted or backspaced at the same place
+ * are undone together. The history is cleared when the text or the
+ * content of the receiver is set.
+ * </p>
+ *
+ * @param limit the new undo limit
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ * @exception IllegalArgumentException <ul>
+ *   <li>ERROR_INVALID_ARGUMENT when limit is negative</li>
+ * </ul>
+ *
+ * @see #undo()
+ * @see #redo()
+ *
+ * @since 3.104
+ */
+public void setUndoLimit(int limit) {
+	checkWidget();
+	if (limit < 0) {
+		SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	}
+	if (limit == 0) {
+		undoHistory = null;
+	} else if (undoHistory == null) {
+		undoHistory = new StyledTextUndoHistory(this, limit);
+	} else {
+		undoHistory.setLimit(limit);
+	}
+}
 /**
  * Sets whether the widget wraps lines.
  * <p>
@@ -10381,6 +10966,25 @@ public void showSelection() {
 		showLocation(endBounds, true);
 	}
 }
+/**
+ * Undoes the last edit of the undo history. The caret is placed after
+ * the restored text.
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ *
+ * @see #canUndo()
+ * @see #redo()
+ * @see #setUndoLimit(int)
+ *
+ * @since 3.104
+ */
+public void undo() {
+	checkWidget();
+	if (undoHistory != null) undoHistory.undo();
+}
 void updateCaretVisibility() {
 	Caret caret = getCaret();
 	if (caret != null) {
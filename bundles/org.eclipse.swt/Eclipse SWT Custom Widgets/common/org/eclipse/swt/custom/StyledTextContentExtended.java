@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.custom;
+
+/**
+ * Clients may implement this interface in addition to the methods of
+ * <code>StyledTextContent</code> to give the <code>StyledText</code> widget
+ * access to the text without creating a <code>String</code> for every line
+ * or range that is read. The widget uses these methods when it paints,
+ * copies and exports text of a content that implements them.
+ *
+ * @see StyledTextContent
+ * @see StyledText#setContent(StyledTextContent)
+ *
+ * @since 3.104
+ */
+public interface StyledTextContentExtended extends StyledTextContent {
+
+/**
+ * Copies the text between the given offsets into the destination array.
+ * <p>
+ *
+ * @param start the offset of the first character to copy
+ * @param end the offset after the last character to copy
+ * @param dst the destination array
+ * @param dstBegin the index of the first character in the destination array
+ * @exception IllegalArgumentException <ul>
+ *   <li>ERROR_INVALID_ARGUMENT when the offsets are outside the text</li>
+ * </ul>
+ */
+public void getChars(int start, int end, char[] dst, int dstBegin);
+
+/**
+ * Returns the text between the given offsets. Implementors should
+ * return a view of the text rather than a copy. The view is only
+ * valid until the text changes and must not be kept.
+ * <p>
+ *
+ * @param start the offset of the first character
+ * @param end the offset after the last character
+ * @return the text between the offsets
+ * @exception IllegalArgumentException <ul>
+ *   <li>ERROR_INVALID_ARGUMENT when the offsets are outside the text</li>
+ * </ul>
+ */
+public CharSequence subSequence(int start, int end);
+}
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.custom;
+
+/**
+ * This interface may be implemented in order to be notified of the
+ * progress of a print job started with the runnable returned by
+ * {@link StyledText#print(org.eclipse.swt.printing.Printer, StyledTextPrintOptions)}
+ * and to cancel it.
+ *
+ * @see StyledTextPrintOptions#listener
+ *
+ * @since 3.104
+ */
+public interface StyledTextPrintListener {
+
+/**
+ * This method is called in the thread that runs the print job after
+ * each page. The pages before the start page of a page range are only
+ * paginated, they are reported but not printed. When the method returns
+ * <code>false</code> the print job is cancelled and no more pages are
+ * printed.
+ *
+ * @param page the number of the page, starting at 1
+ * @param linesCompleted the number of lines that have been completely paginated
+ * @param lineCount the number of lines of the print job
+ * @return <code>true</code> to continue the print job and <code>false</code> to cancel it
+ */
+public boolean pageCompleted(int page, int linesCompleted, int lineCount);
+}
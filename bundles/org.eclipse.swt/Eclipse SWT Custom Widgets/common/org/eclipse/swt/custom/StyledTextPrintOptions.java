@@ -101,4 +101,12 @@ public class StyledTextPrintOptions {
 	 */
 	public String[] lineLabels = null;
 	
+	/**
+	 * Listener notified of the progress of the print job, which can
+	 * cancel the print job. Default value is <code>null</code>.
+	 * 
+	 * @since 3.104
+	 */
+	public StyledTextPrintListener listener = null;
+	
 }
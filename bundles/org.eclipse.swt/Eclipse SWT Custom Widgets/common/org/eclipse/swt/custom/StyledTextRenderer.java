@@ -36,6 +36,7 @@ class StyledTextRenderer {
 	int lineCount;
 	int[] lineWidth;
 	int[] lineHeight;
+	int[] heightTree, unknownTree;
 	LineInfo[] lines;
 	int maxWidth;
 	int maxWidthLineIndex;
@@ -211,7 +212,7 @@ void calculate(int startLine, int lineCount) {
 			TextLayout layout = getTextLayout(i);
 			Rectangle rect = layout.getBounds();
 			lineWidth[i] = rect.width + hTrim;
-			lineHeight[i] = rect.height;
+			setLineHeight(i, rect.height);
 			disposeTextLayout(layout);
 		}
 		if (lineWidth[i] > maxWidth) {
@@ -301,6 +302,32 @@ void copyInto(StyledTextRenderer renderer) {
 		renderer.lineCount = lineCount;
 	}
 }
+/*
+ * The heights of the lines are indexed by two Fenwick trees, one holding
+ * the sums of the calculated heights and the other the number of lines
+ * not calculated yet. The height of a range of calculated lines and the
+ * line at a given pixel are found in O(log n) instead of walking the lines.
+ * The trees are created lazily. A change within lines updates them in place,
+ * a change that inserts or removes lines rebuilds the nodes from its line on.
+ */
+void createHeightTree() {
+	int[] heights = new int[lineCount + 1], unknown = new int[lineCount + 1];
+	for (int i = 1; i <= lineCount; i++) {
+		int height = lineHeight[i - 1];
+		if (height == -1) {
+			unknown[i]++;
+		} else {
+			heights[i] += height;
+		}
+		int parent = i + (i & -i);
+		if (parent <= lineCount) {
+			heights[parent] += heights[i];
+			unknown[parent] += unknown[i];
+		}
+	}
+	heightTree = heights;
+	unknownTree = unknown;
+}
 void dispose() {
 	if (boldFont != null) boldFont.dispose();
 	if (italicFont != null) italicFont.dispose();
@@ -362,7 +389,7 @@ void drawBullet(Bullet bullet, GC gc, int paintX, int paintY, int index, int lin
 }
 int drawLine(int lineIndex, int paintX, int paintY, GC gc, Color widgetBackground, Color widgetForeground) {
 	TextLayout layout = getTextLayout(lineIndex);
-	String line = content.getLine(lineIndex);
+	String line = layout.getText();
 	int lineOffset = content.getOffsetAtLine(lineIndex);
 	int lineLength = line.length();
 	Point selection = styledText.getSelection();
@@ -480,13 +507,19 @@ int getHeight () {
 	if (styledText.isFixedLineHeight()) {
 		return lineCount * defaultLineHeight + styledText.topMargin + styledText.bottomMargin;
 	}
-	int totalHeight = 0;
+	if (heightTree == null) createHeightTree();
+	int unknownCount = sum(unknownTree, lineCount);
 	int width = styledText.getWrapWidth();
+	if (unknownCount == 0 || width <= 0) {
+		int totalHeight = sum(heightTree, lineCount) + unknownCount * defaultLineHeight;
+		return totalHeight + styledText.topMargin + styledText.bottomMargin;
+	}
+	int totalHeight = 0;
 	for (int i = 0; i < lineCount; i++) {
 		int height = lineHeight[i];
 		if (height == -1) {
 			if (width > 0) {
-				int length = content.getLine(i).length();
+				int length = styledText.getLineLength(i);
 				height = ((length * averageCharWidth / width) + 1) * defaultLineHeight;
 			} else {
 				height = defaultLineHeight;
@@ -570,6 +603,53 @@ int getLineHeight(int lineIndex) {
 	}
 	return lineHeight[lineIndex];
 }
+/*
+ * Returns the height of the lines from startLine to endLine, exclusive.
+ */
+int getLinesHeight(int startLine, int endLine) {
+	if (heightTree == null) createHeightTree();
+	if (sum(unknownTree, endLine) - sum(unknownTree, startLine) == 0) {
+		return sum(heightTree, endLine) - sum(heightTree, startLine);
+	}
+	int height = 0;
+	for (int i = startLine; i < endLine; i++) {
+		height += getLineHeight(i);
+	}
+	return height;
+}
+/*
+ * Returns the line that contains the given pixel, relative to the top of
+ * startLine, clamped to the range of lines. The line is found in the tree
+ * when the heights of the lines in between are known.
+ */
+int getLineIndex(int startLine, int pixel) {
+	if (heightTree == null) createHeightTree();
+	int target = sum(heightTree, startLine) + pixel;
+	int lineIndex = 0, height = 0;
+	for (int bit = Integer.highestOneBit(lineCount); bit > 0; bit >>= 1) {
+		int index = lineIndex + bit;
+		if (index <= lineCount && height + heightTree[index] <= target) {
+			lineIndex = index;
+			height += heightTree[index];
+		}
+	}
+	lineIndex = Math.min(lineIndex, lineCount - 1);
+	int start = Math.min(startLine, lineIndex), end = Math.max(startLine, lineIndex) + 1;
+	if (sum(unknownTree, end) - sum(unknownTree, start) == 0) return lineIndex;
+	lineIndex = startLine;
+	if (pixel < 0) {
+		while (pixel < 0 && lineIndex > 0) {
+			pixel += getLineHeight(--lineIndex);
+		}
+	} else {
+		int lineHeight = getLineHeight(lineIndex);
+		while (pixel - lineHeight >= 0 && lineIndex < lineCount - 1) {
+			pixel -= lineHeight;
+			lineHeight = getLineHeight(++lineIndex);
+		}
+	}
+	return lineIndex;
+}
 int getLineIndent(int index, int defaultIndent) {
 	if (lines == null) return defaultIndent;
 	LineInfo info = lines[index];
@@ -1043,6 +1123,7 @@ void reset() {
 	lines = null;
 	lineWidth = null;
 	lineHeight = null;
+	heightTree = unknownTree = null;
 	bullets = null;
 	bulletsIndices = null;
 	redrawLines = null;
@@ -1051,9 +1132,10 @@ void reset() {
 void reset(int startLine, int lineCount) {
 	int endLine = startLine + lineCount;
 	if (startLine < 0 || endLine > lineWidth.length) return;
+	if (lineCount == this.lineCount) heightTree = unknownTree = null;
 	for (int i = startLine; i < endLine; i++) {
 		lineWidth[i] = -1;
-		lineHeight[i] = -1;
+		setLineHeight(i, -1);
 	}
 	if (startLine <= maxWidthLineIndex && maxWidthLineIndex < endLine) {
 		maxWidth = 0;
@@ -1074,6 +1156,7 @@ void setContent(StyledTextContent content) {
 	lineCount = content.getLineCount();
 	lineWidth = new int[lineCount];
 	lineHeight = new int[lineCount];
+	heightTree = unknownTree = null;
 	maxWidth = 0;
 	maxWidthLineIndex = -1;
 	reset(0, lineCount);
@@ -1167,6 +1250,26 @@ void setLineBullet(int startLine, int count, Bullet bullet) {
 		redrawLines = null;
 	}
 }
+void setLineHeight(int lineIndex, int height) {
+	int oldHeight = lineHeight[lineIndex];
+	lineHeight[lineIndex] = height;
+	if (heightTree == null || oldHeight == height) return;
+	int heightDelta = 0, unknownDelta = 0;
+	if (oldHeight == -1) {
+		unknownDelta--;
+	} else {
+		heightDelta -= oldHeight;
+	}
+	if (height == -1) {
+		unknownDelta++;
+	} else {
+		heightDelta += height;
+	}
+	for (int i = lineIndex + 1; i < heightTree.length; i += i & -i) {
+		heightTree[i] += heightDelta;
+		unknownTree[i] += unknownDelta;
+	}
+}
 void setLineIndent(int startLine, int count, int indent) {
 	if (lines == null) lines = new LineInfo[lineCount];
 	for (int i = startLine; i < startLine + count; i++) {
@@ -1380,6 +1483,13 @@ void setStyleRanges (int[] newRanges, StyleRange[] newStyles) {
 		}
 	}
 }
+int sum(int[] tree, int count) {
+	int sum = 0;
+	for (int i = count; i > 0; i -= i & -i) {
+		sum += tree[i];
+	}
+	return sum;
+}
 void textChanging(TextChangingEvent event) {
 	int start = event.start;
 	int newCharCount = event.newCharCount, replaceCharCount = event.replaceCharCount;
@@ -1393,6 +1503,7 @@ void textChanging(TextChangingEvent event) {
 		lineCount = newLineCount;
 		lineWidth = new int[lineCount];
 		lineHeight = new int[lineCount];
+		heightTree = unknownTree = null;
 		reset(0, lineCount);
 	} else {
 		int delta = newLineCount - replaceLineCount;
@@ -1416,11 +1527,17 @@ void textChanging(TextChangingEvent event) {
 		System.arraycopy(lineWidth, startIndex, lineWidth, endIndex, lineCount - startIndex);
 		System.arraycopy(lineHeight, startIndex, lineHeight, endIndex, lineCount - startIndex);
 		for (int i = startLine; i < endIndex; i++) {
-			lineWidth[i] = lineHeight[i] = -1;
+			lineWidth[i] = -1;
+			if (delta == 0) {
+				setLineHeight(i, -1);
+			} else {
+				lineHeight[i] = -1;
+			}
 		}
 		for (int i = lineCount + delta; i < lineCount; i++) {
 			lineWidth[i] = lineHeight[i] = -1;
 		}
+		if (delta != 0) updateHeightTree(startLine, lineCount + delta);
 		if (layouts != null) {
 			int layoutStartLine = startLine - topIndex;
 			int layoutEndLine = layoutStartLine + replaceLineCount + 1;
@@ -1534,6 +1651,34 @@ void updateBullets(int startLine, int replaceLineCount, int newLineCount, boolea
 		}
 	}
 }
+/*
+ * Rebuilds the nodes of the height trees that cover the lines from startLine
+ * on, once lines were inserted or removed there. The nodes up to startLine
+ * only cover the lines before it and are kept.
+ */
+void updateHeightTree(int startLine, int newLineCount) {
+	if (heightTree == null) return;
+	int[] heights = heightTree, unknown = unknownTree;
+	if (heights.length != newLineCount + 1) {
+		heights = new int[newLineCount + 1];
+		unknown = new int[newLineCount + 1];
+		System.arraycopy(heightTree, 0, heights, 0, startLine + 1);
+		System.arraycopy(unknownTree, 0, unknown, 0, startLine + 1);
+	}
+	for (int i = startLine + 1; i <= newLineCount; i++) {
+		int height = lineHeight[i - 1];
+		heights[i] = height == -1 ? 0 : height;
+		unknown[i] = height == -1 ? 1 : 0;
+		/* add the nodes of the lines before i that the node of line i covers */
+		int range = i & -i;
+		for (int j = 1; j < range; j <<= 1) {
+			heights[i] += heights[i - j];
+			unknown[i] += unknown[i - j];
+		}
+	}
+	heightTree = heights;
+	unknownTree = unknown;
+}
 void updateRanges(int start, int replaceCharCount, int newCharCount) {
 	if (styleCount == 0 || (replaceCharCount == 0 && newCharCount == 0)) return;
 	if (ranges != null) {
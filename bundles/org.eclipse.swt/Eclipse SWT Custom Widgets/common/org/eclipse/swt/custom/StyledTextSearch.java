@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.custom;
+
+import java.util.regex.*;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.widgets.*;
+
+/**
+ * Instances of this class represent a search for all the matches of a
+ * regular expression in the content of a <code>StyledText</code>.
+ * <p>
+ * The content is searched in a background thread, so that the user can
+ * keep typing. The matches are added in the user-interface thread, in
+ * the order of their offsets, and are kept up to date when the content
+ * changes. The matches that follow a change are moved and the matches
+ * that overlap a change are removed. Text that is inserted after the
+ * search started is not searched.
+ * </p>
+ *
+ * @see StyledText#findAll(Pattern, StyledTextSearchListener)
+ * @see StyledTextSearchListener
+ *
+ * @since 3.104
+ */
+public class StyledTextSearch {
+	StyledText parent;
+	Display display;
+	Pattern pattern;
+	StyledTextSearchListener listener;
+	int[] matches = new int[64];	// start and length of each match
+	int matchCount;
+	int[] changes;	// start, replaced and new character counts of the changes since the search started
+	int changeCount;
+	boolean done;
+	volatile boolean cancelled;
+
+	static final int BATCH_TIME = 100;	// maximum time between two notifications in ms
+
+StyledTextSearch(StyledText parent, Pattern pattern, StyledTextSearchListener listener) {
+	this.parent = parent;
+	this.display = parent.getDisplay();
+	this.pattern = pattern;
+	this.listener = listener;
+	changes = new int[12];
+}
+void addMatches(int[] batch, int count, boolean last) {
+	if (cancelled) return;
+	int oldCount = matchCount;
+	for (int i = 0; i < count; i += 2) {
+		int start = batch[i], length = batch[i + 1];
+		for (int j = 0; j < changeCount && start != -1; j += 3) {
+			start = moveMatch(start, length, changes[j], changes[j + 1], changes[j + 2]);
+		}
+		if (start != -1) {
+			if (2 * matchCount == matches.length) {
+				int[] newMatches = new int[matches.length * 2];
+				System.arraycopy(matches, 0, newMatches, 0, matches.length);
+				matches = newMatches;
+			}
+			matches[2 * matchCount] = start;
+			matches[2 * matchCount + 1] = length;
+			matchCount++;
+		}
+	}
+	if (last) {
+		done = true;
+		changes = null;
+		changeCount = 0;
+	}
+	if (listener != null) listener.matchesFound(this, matchCount - oldCount);
+}
+/**
+ * Cancels the search. The matches that have already been found are
+ * kept but they are no longer updated when the content changes.
+ * A search that is not needed anymore should be cancelled.
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the parent</li>
+ * </ul>
+ */
+public void cancel() {
+	checkThread();
+	if (cancelled) return;
+	cancelled = true;
+	done = true;
+	changes = null;
+	changeCount = 0;
+	if (!parent.isDisposed()) parent.removeSearch(this);
+}
+void checkThread() {
+	if (display.getThread() != Thread.currentThread()) SWT.error(SWT.ERROR_THREAD_INVALID_ACCESS);
+}
+/**
+ * Returns the number of matches.
+ *
+ * @return the number of matches
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the parent</li>
+ * </ul>
+ */
+public int getMatchCount() {
+	checkThread();
+	return matchCount;
+}
+/**
+ * Returns the start offset and the length of each match, in the
+ * format of the ranges of {@link StyledText#setStyleRanges(int[], StyleRange[])}.
+ *
+ * @return the ranges of the matches
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the parent</li>
+ * </ul>
+ */
+public int[] getMatches() {
+	checkThread();
+	int[] result = new int[2 * matchCount];
+	System.arraycopy(matches, 0, result, 0, result.length);
+	return result;
+}
+/**
+ * Returns the start offset and the length of the matches that
+ * intersect the given range, for example the visible lines.
+ *
+ * @param start the start offset of the range
+ * @param length the length of the range
+ * @return the ranges of the matches
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the parent</li>
+ * </ul>
+ */
+public int[] getMatches(int start, int length) {
+	checkThread();
+	int first = indexOf(start);
+	int last = first;
+	int end = start + length;
+	while (last < matchCount && matches[2 * last] < end) last++;
+	int[] result = new int[2 * (last - first)];
+	System.arraycopy(matches, 2 * first, result, 0, result.length);
+	return result;
+}
+/**
+ * Returns the regular expression that is searched.
+ *
+ * @return the regular expression
+ */
+public Pattern getPattern() {
+	return pattern;
+}
+/* Returns the index of the first match that ends after the offset */
+int indexOf(int offset) {
+	int low = 0, high = matchCount;
+	while (low < high) {
+		int index = (low + high) >>> 1;
+		if (matches[2 * index] + matches[2 * index + 1] <= offset) {
+			low = index + 1;
+		} else {
+			high = index;
+		}
+	}
+	return low;
+}
+/**
+ * Returns <code>true</code> if the whole content has been searched or
+ * if the search has been cancelled, and <code>false</code> otherwise.
+ *
+ * @return whether the search is done
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the parent</li>
+ * </ul>
+ */
+public boolean isDone() {
+	checkThread();
+	return done;
+}
+/*
+ * Returns the start of the match after the given change, or -1 when the
+ * match overlaps the replaced text.
+ */
+static int moveMatch(int start, int length, int changeStart, int replaceCharCount, int newCharCount) {
+	if (start + length <= changeStart) return start;
+	if (start >= changeStart + replaceCharCount) return start + newCharCount - replaceCharCount;
+	return -1;
+}
+void post(final int[] batch, final int count, final boolean last) {
+	if (display.isDisposed()) return;
+	display.asyncExec(new Runnable() {
+		public void run() {
+			addMatches(batch, count, last);
+		}
+	});
+}
+void search(final CharSequence text) {
+	/* the text is read through a sequence that stops a match in progress when the search is cancelled */
+	CharSequence input = new CharSequence() {
+		public char charAt(int index) {
+			if (cancelled) throw new IllegalStateException();
+			return text.charAt(index);
+		}
+		public int length() {
+			return text.length();
+		}
+		public CharSequence subSequence(int start, int end) {
+			return text.subSequence(start, end);
+		}
+		@Override
+		public String toString() {
+			return text.toString();
+		}
+	};
+	int[] batch = new int[64];
+	int count = 0;
+	long time = System.currentTimeMillis();
+	try {
+		Matcher matcher = pattern.matcher(input);
+		while (!cancelled && matcher.find()) {
+			if (count == batch.length) {
+				int[] newBatch = new int[batch.length * 2];
+				System.arraycopy(batch, 0, newBatch, 0, batch.length);
+				batch = newBatch;
+			}
+			batch[count++] = matcher.start();
+			batch[count++] = matcher.end() - matcher.start();
+			long now = System.currentTimeMillis();
+			if (now - time >= BATCH_TIME) {
+				post(batch, count, false);
+				batch = new int[batch.length];
+				count = 0;
+				time = now;
+			}
+		}
+	} catch (IllegalStateException e) {
+		if (!cancelled) throw e;
+	} finally {
+		post(batch, count, true);
+	}
+}
+void start(final CharSequence text) {
+	Thread thread = new Thread(new Runnable() {
+		public void run() {
+			search(text);
+		}
+	}, "StyledText search"); //$NON-NLS-1$
+	thread.setDaemon(true);
+	thread.start();
+}
+void textChanging(int start, int replaceCharCount, int newCharCount) {
+	if (!done) {
+		if (changeCount == changes.length) {
+			int[] newChanges = new int[changes.length * 2];
+			System.arraycopy(changes, 0, newChanges, 0, changes.length);
+			changes = newChanges;
+		}
+		changes[changeCount++] = start;
+		changes[changeCount++] = replaceCharCount;
+		changes[changeCount++] = newCharCount;
+	}
+	int first = indexOf(start), index = first;
+	for (int i = first; i < matchCount; i++) {
+		int matchStart = moveMatch(matches[2 * i], matches[2 * i + 1], start, replaceCharCount, newCharCount);
+		if (matchStart == -1) continue;
+		matches[2 * index] = matchStart;
+		matches[2 * index + 1] = matches[2 * i + 1];
+		index++;
+	}
+	matchCount = index;
+}
+}
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.custom;
+
+/**
+ * This interface may be implemented in order to be notified of the
+ * progress of a search started with
+ * {@link StyledText#findAll(java.util.regex.Pattern, StyledTextSearchListener)}.
+ *
+ * @see StyledTextSearch
+ *
+ * @since 3.104
+ */
+public interface StyledTextSearchListener {
+
+/**
+ * This method is called in the user-interface thread when matches
+ * have been added to the search, and once more when the search is
+ * done. The new matches are the last <code>count</code> matches of
+ * the search.
+ *
+ * @param search the search
+ * @param count the number of matches that have been added
+ *
+ * @see StyledTextSearch#isDone()
+ */
+public void matchesFound(StyledTextSearch search, int count);
+}
@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.custom;
+
+/**
+ * The undo history of a <code>StyledText</code>.
+ * <p>
+ * An edit is recorded as its offset and the positions of the removed and
+ * the inserted text in a buffer that is only appended to. The text of an
+ * edit is copied once, when the edit is made, and undoing or redoing an
+ * edit only replaces the text of that edit. Typing, deleting and
+ * backspacing at the same place extends the last edit instead of adding
+ * a new one. The oldest edits are discarded when the removed and inserted
+ * text of the kept edits exceeds the limit.
+ * </p>
+ */
+class StyledTextUndoHistory {
+	StyledText parent;
+	int limit;
+	char[] text = new char[INITIAL_TEXT_LENGTH];
+	int textBase;	// position of the first character of the buffer
+	int textStart, textEnd;	// positions of the text of the kept edits
+	int[] edits = new int[EDIT_SIZE * INITIAL_EDIT_COUNT];
+	int editStart, editEnd;	// indices of the kept edits
+	int undoEnd;	// the edits before this index can be undone, the following ones redone
+	boolean merge;	// whether the next edit may extend the last one
+	boolean applying, applied;
+	int expectedStart, expectedLength;
+	String expectedText;
+
+	static final int OFFSET = 0;
+	static final int REMOVED_START = 1;
+	static final int REMOVED_LENGTH = 2;
+	static final int INSERTED_START = 3;
+	static final int INSERTED_LENGTH = 4;
+	static final int FLAGS = 5;
+	static final int EDIT_SIZE = 6;
+	static final int REVERSED = 1 << 0;	// the removed text was recorded backwards, by backspacing
+	static final int INITIAL_TEXT_LENGTH = 256;
+	static final int INITIAL_EDIT_COUNT = 16;
+
+StyledTextUndoHistory(StyledText parent, int limit) {
+	this.parent = parent;
+	this.limit = limit;
+}
+void append(char ch) {
+	ensureText(1);
+	text[textEnd++ - textBase] = ch;
+}
+void append(String string) {
+	int length = string.length();
+	ensureText(length);
+	string.getChars(0, length, text, textEnd - textBase);
+	textEnd += length;
+}
+void append(StyledTextContent content, int start, int length) {
+	ensureText(length);
+	if (content instanceof StyledTextContentExtended) {
+		((StyledTextContentExtended)content).getChars(start, start + length, text, textEnd - textBase);
+	} else {
+		content.getTextRange(start, length).getChars(0, length, text, textEnd - textBase);
+	}
+	textEnd += length;
+}
+boolean canRedo() {
+	return undoEnd < editEnd;
+}
+boolean canUndo() {
+	return undoEnd > editStart;
+}
+void clear() {
+	if (text.length > INITIAL_TEXT_LENGTH) text = new char[INITIAL_TEXT_LENGTH];
+	if (edits.length > EDIT_SIZE * INITIAL_EDIT_COUNT) edits = new int[EDIT_SIZE * INITIAL_EDIT_COUNT];
+	textBase = textStart = textEnd = 0;
+	editStart = editEnd = undoEnd = 0;
+	merge = false;
+}
+/* Makes room for the given number of characters at the end of the buffer, dropping the text of the discarded edits */
+void ensureText(int count) {
+	if (textEnd - textBase + count <= text.length) return;
+	int length = textEnd - textStart;
+	char[] newText = text;
+	if (length + count > text.length / 2) {
+		newText = new char[Math.max(text.length * 2, length + count)];
+	}
+	System.arraycopy(text, textStart - textBase, newText, 0, length);
+	text = newText;
+	textBase = textStart;
+}
+/* Makes room for one edit at the end of the edits, dropping the discarded edits */
+void ensureEdit() {
+	if (editEnd + EDIT_SIZE <= edits.length) return;
+	int length = editEnd - editStart;
+	int[] newEdits = edits;
+	if (length + EDIT_SIZE > edits.length / 2) {
+		newEdits = new int[edits.length * 2];
+	}
+	System.arraycopy(edits, editStart, newEdits, 0, length);
+	edits = newEdits;
+	undoEnd -= editStart;
+	editEnd = length;
+	editStart = 0;
+}
+String getText(int start, int length, boolean reversed) {
+	char[] chars = new char[length];
+	System.arraycopy(text, start - textBase, chars, 0, length);
+	if (reversed) {
+		for (int i = 0, j = length - 1; i < j; i++, j--) {
+			char ch = chars[i];
+			chars[i] = chars[j];
+			chars[j] = ch;
+		}
+	}
+	return new String(chars);
+}
+static boolean isLineDelimiter(char ch) {
+	return ch == '\r' || ch == '\n';
+}
+/*
+ * Extends the last edit with the given change when the change continues
+ * typing, deleting or backspacing at the place of the last edit.
+ */
+boolean mergeEdit(StyledTextContent content, int start, int replaceCharCount, String newText) {
+	if (!merge || editEnd == editStart) return false;
+	int index = editEnd - EDIT_SIZE;
+	int offset = edits[index + OFFSET];
+	int removedStart = edits[index + REMOVED_START];
+	int removedLength = edits[index + REMOVED_LENGTH];
+	int insertedStart = edits[index + INSERTED_START];
+	int insertedLength = edits[index + INSERTED_LENGTH];
+	int flags = edits[index + FLAGS];
+	int newCharCount = newText.length();
+	if (replaceCharCount == 0 && newCharCount == 1) {
+		char ch = newText.charAt(0);
+		if (insertedLength == 0 || insertedStart + insertedLength != textEnd) return false;
+		if (start != offset + insertedLength) return false;
+		if (isLineDelimiter(ch) || isLineDelimiter(text[textEnd - 1 - textBase])) return false;
+		append(ch);
+		edits[index + INSERTED_LENGTH]++;
+		return true;
+	}
+	if (replaceCharCount == 1 && newCharCount == 0) {
+		if (insertedLength != 0 || removedLength == 0 || removedStart + removedLength != textEnd) return false;
+		boolean reversed = (flags & REVERSED) != 0;
+		if (start == offset && !reversed) {
+			append(content, start, 1);
+			edits[index + REMOVED_LENGTH]++;
+			edits[index + INSERTED_START] = textEnd;
+			return true;
+		}
+		if (start + 1 == offset && (reversed || removedLength == 1)) {
+			append(content, start, 1);
+			edits[index + OFFSET] = start;
+			edits[index + REMOVED_LENGTH]++;
+			edits[index + INSERTED_START] = textEnd;
+			edits[index + FLAGS] |= REVERSED;
+			return true;
+		}
+	}
+	return false;
+}
+void redo() {
+	if (!canRedo()) return;
+	int index = undoEnd;
+	String inserted = getText(edits[index + INSERTED_START], edits[index + INSERTED_LENGTH], false);
+	if (replace(edits[index + OFFSET], edits[index + REMOVED_LENGTH], inserted)) {
+		undoEnd += EDIT_SIZE;
+	}
+}
+boolean replace(int start, int length, String newText) {
+	expectedStart = start;
+	expectedLength = length;
+	expectedText = newText;
+	applying = true;
+	applied = false;
+	try {
+		parent.replaceUndoText(start, length, newText);
+	} finally {
+		applying = false;
+		expectedText = null;
+	}
+	merge = false;
+	return applied;
+}
+void setLimit(int limit) {
+	this.limit = limit;
+	trim();
+}
+/* Records the change before the content is changed */
+void textChanging(StyledTextContent content, int start, int replaceCharCount, String newText) {
+	if (applying) {
+		applied = start == expectedStart && replaceCharCount == expectedLength && newText.equals(expectedText);
+		if (!applied) clear();
+		return;
+	}
+	int newCharCount = newText.length();
+	if (replaceCharCount + newCharCount == 0) return;
+	if (replaceCharCount + newCharCount > limit) {
+		clear();
+		return;
+	}
+	if (undoEnd < editEnd) {
+		editEnd = undoEnd;
+		if (editEnd > editStart) {
+			int index = editEnd - EDIT_SIZE;
+			textEnd = edits[index + INSERTED_START] + edits[index + INSERTED_LENGTH];
+		} else {
+			textEnd = textStart;
+		}
+	}
+	if (!mergeEdit(content, start, replaceCharCount, newText)) {
+		ensureEdit();
+		int index = editEnd;
+		edits[index + OFFSET] = start;
+		edits[index + REMOVED_START] = textEnd;
+		edits[index + REMOVED_LENGTH] = replaceCharCount;
+		append(content, start, replaceCharCount);
+		edits[index + INSERTED_START] = textEnd;
+		edits[index + INSERTED_LENGTH] = newCharCount;
+		append(newText);
+		edits[index + FLAGS] = 0;
+		editEnd += EDIT_SIZE;
+		merge = true;
+	}
+	undoEnd = editEnd;
+	trim();
+}
+/* Discards the oldest edits until the text of the kept edits fits in the limit */
+void trim() {
+	while (editStart < editEnd && textEnd - textStart > limit) {
+		editStart += EDIT_SIZE;
+		textStart = editStart < editEnd ? edits[editStart + REMOVED_START] : textEnd;
+	}
+	if (undoEnd < editStart) undoEnd = editStart;
+	if (editStart == editEnd) clear();
+}
+void undo() {
+	if (!canUndo()) return;
+	int index = undoEnd - EDIT_SIZE;
+	int offset = edits[index + OFFSET];
+	String removed = getText(edits[index + REMOVED_START], edits[index + REMOVED_LENGTH], (edits[index + FLAGS] & REVERSED) != 0);
+	if (replace(offset, edits[index + INSERTED_LENGTH], removed)) {
+		undoEnd -= EDIT_SIZE;
+	}
+}
+}
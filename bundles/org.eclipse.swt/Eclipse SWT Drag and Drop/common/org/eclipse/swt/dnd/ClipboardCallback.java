@@ -0,0 +1,33 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.dnd;
+
+/**
+ * This interface may be implemented in order to receive the data
+ * requested with {@link Clipboard#getContentsAsync(Transfer, ClipboardCallback)}.
+ *
+ * @see Clipboard#getContentsAsync(Transfer, ClipboardCallback)
+ * @see Clipboard#getContentsAsync(Transfer, int, ClipboardCallback)
+ *
+ * @since 3.104
+ */
+public interface ClipboardCallback {
+
+/**
+ * This method is called in the user-interface thread once the
+ * requested data has been received from the clipboard, or once it
+ * is known that no data of the requested type is available.
+ *
+ * @param contents the data obtained from the clipboard or null if no
+ * data of the requested type is available
+ */
+public void contentsReceived (Object contents);
+}
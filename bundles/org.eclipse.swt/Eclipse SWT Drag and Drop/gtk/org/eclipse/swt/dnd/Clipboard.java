@@ -290,7 +290,7 @@ public Object getContents(Transfer transfer, int clipboards) {
 	long /*int*/ selection_data = 0;
 	int[] typeIds = transfer.getTypeIds();
 	for (int i = 0; i < typeIds.length; i++) {
-		if ((clipboards & DND.CLIPBOARD) != 0) {
+		if ((clipboards & DND.CLIPBOARD) != 0 && isTargetAvailable(GTKCLIPBOARD, typeIds[i])) {
 			selection_data = gtk_clipboard_wait_for_contents(GTKCLIPBOARD, typeIds[i]);
 			/*
 			* This call to gdk_threads_leave() is a temporary work around
@@ -301,7 +301,7 @@ public Object getContents(Transfer transfer, int clipboards) {
 			OS.gdk_threads_leave();
 		}
 		if (selection_data != 0) break;
-		if ((clipboards & DND.SELECTION_CLIPBOARD) != 0) {
+		if ((clipboards & DND.SELECTION_CLIPBOARD) != 0 && isTargetAvailable(GTKPRIMARYCLIPBOARD, typeIds[i])) {
 			selection_data = gtk_clipboard_wait_for_contents(GTKPRIMARYCLIPBOARD, typeIds[i]);
 			/*
 			* This call to gdk_threads_leave() is a temporary work around
@@ -313,6 +313,82 @@ public Object getContents(Transfer transfer, int clipboards) {
 		}
 	}
 	if (selection_data == 0) return null;
+	TransferData tdata = getTransferData(selection_data);
+	Object result = transfer.nativeToJava(tdata);
+	OS.gtk_selection_data_free(selection_data);
+	return result;
+}
+
+/**
+ * Retrieve the data of the specified type currently available on the system
+ * clipboard without waiting for it, and notify the callback once it has been
+ * received. Refer to the specific subclass of <code>Transfer</code> to
+ * determine the type of object received.
+ *
+ * @param transfer the transfer agent for the type of data being requested
+ * @param callback the callback notified with the data obtained from the clipboard,
+ * or null if no data of this type is available
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if transfer or callback is null</li>
+ * </ul>
+ *
+ * @see #getContents(Transfer)
+ * @see ClipboardCallback
+ *
+ * @since 3.104
+ */
+public void getContentsAsync(Transfer transfer, ClipboardCallback callback) {
+	getContentsAsync(transfer, DND.CLIPBOARD, callback);
+}
+
+/**
+ * Retrieve the data of the specified type currently available on the specified
+ * clipboard without waiting for it, and notify the callback once it has been
+ * received. Refer to the specific subclass of <code>Transfer</code> to
+ * determine the type of object received.
+ * <p>
+ * Unlike <code>getContents()</code>, this method returns immediately, so a
+ * slow clipboard owner does not block the user interface. The callback is
+ * always notified after this method has returned, from the event loop.
+ * </p>
+ *
+ * <p>The clipboards value is either one of the clipboard constants defined in
+ * class <code>DND</code>, or must be built by <em>bitwise OR</em>'ing together
+ * (that is, using the <code>int</code> "|" operator) two or more
+ * of those <code>DND</code> clipboard constants.</p>
+ *
+ * @param transfer the transfer agent for the type of data being requested
+ * @param clipboards on which to look for data
+ * @param callback the callback notified with the data obtained from the clipboard,
+ * or null if no data of this type is available
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if transfer or callback is null</li>
+ * </ul>
+ *
+ * @see #getContents(Transfer, int)
+ * @see ClipboardCallback
+ * @see DND#CLIPBOARD
+ * @see DND#SELECTION_CLIPBOARD
+ *
+ * @since 3.104
+ */
+public void getContentsAsync(Transfer transfer, int clipboards, ClipboardCallback callback) {
+	checkWidget();
+	if (transfer == null || callback == null) DND.error(SWT.ERROR_NULL_ARGUMENT);
+	ClipboardProxy._getInstance(display).getContents(transfer, clipboards, callback);
+}
+
+static TransferData getTransferData(long /*int*/ selection_data) {
 	TransferData tdata = new TransferData();
 	if (OS.GTK_VERSION >= OS.VERSION(2, 14, 0)) {
 		tdata.type = OS.gtk_selection_data_get_data_type(selection_data);
@@ -327,9 +403,7 @@ public Object getContents(Transfer transfer, int clipboards) {
 		tdata.length = gtkSelectionData.length;
 		tdata.format = gtkSelectionData.format;
 	}
-	Object result = transfer.nativeToJava(tdata);
-	OS.gtk_selection_data_free(selection_data);
-	return result;
+	return tdata;
 }
 
 /**
@@ -598,44 +672,27 @@ public String[] getAvailableTypeNames() {
 }
 
 private  int[] getAvailablePrimaryTypes() {
-	int[] types = new int[0];
-	long /*int*/ selection_data = gtk_clipboard_wait_for_contents(GTKPRIMARYCLIPBOARD, TARGET);
-	/*
-	* This call to gdk_threads_leave() is a temporary work around
-	* to avoid deadlocks when gdk_threads_init() is called by native
-	* code outside of SWT (i.e AWT, etc). It ensures that the current
-	* thread leaves the GTK lock acquired by the function above.
-	*/
-	OS.gdk_threads_leave();
-	if (selection_data != 0) {
-		try {
-			int length;
-			int format;
-			long /*int*/ data;
-			if (OS.GTK_VERSION >= OS.VERSION(2, 14, 0)) {
-				length = OS.gtk_selection_data_get_length(selection_data);
-				format = OS.gtk_selection_data_get_format(selection_data);
-				data = OS.gtk_selection_data_get_data(selection_data);
-			} else {
-				GtkSelectionData gtkSelectionData = new GtkSelectionData();
-				OS.memmove(gtkSelectionData, selection_data, GtkSelectionData.sizeof);
-				length = gtkSelectionData.length;
-				format = gtkSelectionData.format;
-				data = gtkSelectionData.data;
-			}
-			if (length != 0) {
-				types = new int[length * 8 / format];
-				OS.memmove(types, data, length);
-			}
-		} finally {
-			OS.gtk_selection_data_free(selection_data);
-		}
-	}
-	return types;
+	int[] types = getTargets(GTKPRIMARYCLIPBOARD);
+	return types != null ? types : new int[0];
 }
+
 private int[] getAvailableClipboardTypes () {
-	int[] types = new int[0];
-	long /*int*/ selection_data  = gtk_clipboard_wait_for_contents(GTKCLIPBOARD, TARGET);
+	int[] types = getTargets(GTKCLIPBOARD);
+	return types != null ? types : new int[0];
+}
+
+/*
+* Returns the TARGETS of the clipboard, or null if its owner did not
+* answer. The result is shared with the clipboard proxy and must not
+* be modified.
+*/
+int[] getTargets(long /*int*/ clipboard) {
+	ClipboardProxy proxy = ClipboardProxy._getInstance(display);
+	int[] types = proxy.getTargets(clipboard);
+	if (types != null) return types;
+	/* the owner can change while waiting, the reply is only cached if it did not */
+	int generation = proxy.getTargetsGeneration(clipboard);
+	long /*int*/ selection_data = gtk_clipboard_wait_for_contents(clipboard, TARGET);
 	/*
 	* This call to gdk_threads_leave() is a temporary work around
 	* to avoid deadlocks when gdk_threads_init() is called by native
@@ -643,33 +700,34 @@ private int[] getAvailableClipboardTypes () {
 	* thread leaves the GTK lock acquired by the function above.
 	*/
 	OS.gdk_threads_leave();
-	if (selection_data != 0) {
-		try {
-			int length;
-			int format;
-			long /*int*/ data;
-			if (OS.GTK_VERSION >= OS.VERSION(2, 14, 0)) {
-				length = OS.gtk_selection_data_get_length(selection_data);
-				format = OS.gtk_selection_data_get_format(selection_data);
-				data = OS.gtk_selection_data_get_data(selection_data);
-			} else {
-				GtkSelectionData gtkSelectionData = new GtkSelectionData();
-				OS.memmove(gtkSelectionData, selection_data, GtkSelectionData.sizeof);
-				length = gtkSelectionData.length;
-				format = gtkSelectionData.format;
-				data = gtkSelectionData.data;
-			}
-			if (length != 0) {
-				types = new int[length * 8 / format];
-				OS.memmove(types, data, length);
-			}
-		} finally {
-			OS.gtk_selection_data_free(selection_data);
+	if (selection_data == 0) return null;
+	types = new int[0];
+	try {
+		TransferData tdata = getTransferData(selection_data);
+		if (tdata.length > 0 && tdata.format > 0) {
+			types = new int[tdata.length * 8 / tdata.format];
+			OS.memmove(types, tdata.pValue, tdata.length);
 		}
+	} finally {
+		OS.gtk_selection_data_free(selection_data);
 	}
+	proxy.setTargets(clipboard, types, generation);
 	return types;
 }
 
+/*
+* Returns false when the TARGETS of the clipboard are known not to include
+* the type. The TARGETS are only asked for when they can be cached, since
+* asking for them costs as much as asking for the type itself.
+*/
+boolean isTargetAvailable(long /*int*/ clipboard, int type) {
+	ClipboardProxy proxy = ClipboardProxy._getInstance(display);
+	if (!proxy.cacheTargets) return true;
+	/* only trust the TARGETS that were cached, a reply that came from a previous owner is not */
+	getTargets(clipboard);
+	return proxy.isTargetAvailable(clipboard, type);
+}
+
 long /*int*/ gtk_clipboard_wait_for_contents(long /*int*/ clipboard, long /*int*/ target) {
 	long startTime = System.currentTimeMillis();
 	String key = "org.eclipse.swt.internal.gtk.dispatchEvent";
@@ -29,6 +29,8 @@ class ClipboardProxy {
 	Transfer[] clipboardDataTypes;
 	Object[] primaryClipboardData;
 	Transfer[] primaryClipboardDataTypes;
+	/* The encoded forms of the images of each clipboard, kept while it owns them */
+	ImageTransfer.Encodings clipboardImages, primaryImages;
 
 	long /*int*/ clipboardOwner = OS.gtk_window_new(0);
 	Display display;
@@ -36,9 +38,28 @@ class ClipboardProxy {
 	Clipboard activePrimaryClipboard = null;
 	Callback getFunc;
 	Callback clearFunc;
+	Callback ownerChangeFunc;
+	Callback receivedFunc;
+	int clipboardOwnerChangeId, primaryOwnerChangeId;
+
+	/* The TARGETS of each clipboard, cached until its owner changes */
+	boolean cacheTargets;
+	int[] clipboardTargets, primaryTargets;
+	int clipboardGeneration, primaryGeneration;	// incremented when the TARGETS of the clipboard become invalid
+
+	/* The requests made with Clipboard.getContentsAsync() that have not been answered yet */
+	ContentsRequest[] requests = new ContentsRequest[0];
+	int nextRequestId = 1;
 
 	static String ID = "CLIPBOARD PROXY OBJECT"; //$NON-NLS-1$
 
+	static class ContentsRequest {
+		int id, step, clipboards;
+		int[] typeIds;
+		Transfer transfer;
+		ClipboardCallback callback;
+	}
+
 static ClipboardProxy _getInstance(final Display display) {
 	ClipboardProxy proxy = (ClipboardProxy) display.getData(ID);
 	if (proxy != null) return proxy;
@@ -61,9 +82,24 @@ ClipboardProxy(Display display) {
 	if (getFunc.getAddress() == 0) SWT.error(SWT.ERROR_NO_MORE_CALLBACKS);
 	clearFunc = new Callback( this, "clearFunc", 2); //$NON-NLS-1$
 	if (clearFunc.getAddress() == 0) SWT.error(SWT.ERROR_NO_MORE_CALLBACKS);
+	receivedFunc = new Callback( this, "receivedFunc", 3); //$NON-NLS-1$
+	if (receivedFunc.getAddress() == 0) SWT.error(SWT.ERROR_NO_MORE_CALLBACKS);
+	/*
+	* The TARGETS can only be cached when the display notifies the
+	* changes of clipboard owner, otherwise they must be asked every time.
+	*/
+	if (OS.gdk_display_supports_selection_notification(OS.gdk_display_get_default())) {
+		ownerChangeFunc = new Callback( this, "ownerChangeFunc", 3); //$NON-NLS-1$
+		if (ownerChangeFunc.getAddress() == 0) SWT.error(SWT.ERROR_NO_MORE_CALLBACKS);
+		byte[] buffer = Converter.wcsToMbcs(null, "owner-change", true); //$NON-NLS-1$
+		clipboardOwnerChangeId = OS.g_signal_connect(Clipboard.GTKCLIPBOARD, buffer, ownerChangeFunc.getAddress(), 0);
+		primaryOwnerChangeId = OS.g_signal_connect(Clipboard.GTKPRIMARYCLIPBOARD, buffer, ownerChangeFunc.getAddress(), 0);
+		cacheTargets = true;
+	}
 }
 
 void clear (Clipboard owner, int clipboards) {
+	invalidateTargets(clipboards);
 	if ((clipboards & DND.CLIPBOARD) != 0 && activeClipboard == owner) {
 		OS.gtk_clipboard_clear(Clipboard.GTKCLIPBOARD);
 	}
@@ -77,11 +113,13 @@ long /*int*/ clearFunc(long /*int*/ clipboard,long /*int*/ user_data_or_owner){
 		activeClipboard = null;
 		clipboardData = null;
 		clipboardDataTypes = null;
+		clipboardImages = null;
 	}
 	if (clipboard == Clipboard.GTKPRIMARYCLIPBOARD) {
 		activePrimaryClipboard = null;
 		primaryClipboardData = null;
 		primaryClipboardDataTypes = null;
+		primaryImages = null;
 	}
 	return 1;
 }
@@ -95,6 +133,19 @@ void dispose () {
 		OS.gtk_clipboard_store(Clipboard.GTKPRIMARYCLIPBOARD);
 	}
 	display = null;
+	if (clipboardOwnerChangeId != 0) OS.g_signal_handler_disconnect(Clipboard.GTKCLIPBOARD, clipboardOwnerChangeId);
+	if (primaryOwnerChangeId != 0) OS.g_signal_handler_disconnect(Clipboard.GTKPRIMARYCLIPBOARD, primaryOwnerChangeId);
+	clipboardOwnerChangeId = primaryOwnerChangeId = 0;
+	if (ownerChangeFunc != null) ownerChangeFunc.dispose();
+	ownerChangeFunc = null;
+	/*
+	* GTK still calls receivedFunc for the requests that have not been
+	* answered, so the callback can only be released when there are none.
+	*/
+	if (receivedFunc != null && requests.length == 0) receivedFunc.dispose();
+	receivedFunc = null;
+	requests = new ContentsRequest[0];
+	clipboardTargets = primaryTargets = null;
 	if (getFunc != null ) getFunc.dispose();
 	getFunc = null;
 	if (clearFunc != null) clearFunc.dispose();
@@ -103,6 +154,7 @@ void dispose () {
 	clipboardDataTypes = null;
 	primaryClipboardData = null;
 	primaryClipboardDataTypes = null;
+	clipboardImages = primaryImages = null;
 	if (clipboardOwner != 0) OS.gtk_widget_destroy (clipboardOwner);
 	clipboardOwner = 0;
 }
@@ -133,7 +185,19 @@ long /*int*/ getFunc(long /*int*/ clipboard, long /*int*/ selection_data, long /
 	}
 	if (index == -1) return 0;
 	Object[] data = (clipboard == Clipboard.GTKCLIPBOARD) ? clipboardData : primaryClipboardData;
-	types[index].javaToNative(data[index], tdata);
+	if (types[index] instanceof ImageTransfer) {
+		ImageTransfer.Encodings encodings;
+		if (clipboard == Clipboard.GTKCLIPBOARD) {
+			if (clipboardImages == null) clipboardImages = new ImageTransfer.Encodings();
+			encodings = clipboardImages;
+		} else {
+			if (primaryImages == null) primaryImages = new ImageTransfer.Encodings();
+			encodings = primaryImages;
+		}
+		((ImageTransfer)types[index]).javaToNative(data[index], tdata, encodings);
+	} else {
+		types[index].javaToNative(data[index], tdata);
+	}
 	if (tdata.format < 8 || tdata.format % 8 != 0) {
 		return 0;
 	}
@@ -142,7 +206,142 @@ long /*int*/ getFunc(long /*int*/ clipboard, long /*int*/ selection_data, long /
 	return 1;
 }
 
+void getContents(Transfer transfer, int clipboards, ClipboardCallback callback) {
+	ContentsRequest request = new ContentsRequest();
+	request.id = nextRequestId++;
+	request.transfer = transfer;
+	request.typeIds = transfer.getTypeIds();
+	request.clipboards = clipboards;
+	request.callback = callback;
+	ContentsRequest[] newRequests = new ContentsRequest[requests.length + 1];
+	System.arraycopy(requests, 0, newRequests, 0, requests.length);
+	newRequests[requests.length] = request;
+	requests = newRequests;
+	if (!requestNext(request)) {
+		/* Nothing to ask, notify the callback once this method has returned */
+		final ContentsRequest finalRequest = request;
+		display.asyncExec(new Runnable() {
+			public void run() {
+				if (removeRequest(finalRequest.id) != null) {
+					finalRequest.callback.contentsReceived(null);
+				}
+			}
+		});
+	}
+}
+
+int[] getTargets(long /*int*/ clipboard) {
+	return clipboard == Clipboard.GTKCLIPBOARD ? clipboardTargets : primaryTargets;
+}
+
+int getTargetsGeneration(long /*int*/ clipboard) {
+	return clipboard == Clipboard.GTKCLIPBOARD ? clipboardGeneration : primaryGeneration;
+}
+
+void invalidateTargets(int clipboards) {
+	if ((clipboards & DND.CLIPBOARD) != 0) {
+		clipboardTargets = null;
+		clipboardGeneration++;
+	}
+	if ((clipboards & DND.SELECTION_CLIPBOARD) != 0) {
+		primaryTargets = null;
+		primaryGeneration++;
+	}
+}
+
+/**
+ * Returns false if the TARGETS of the clipboard are known and do not
+ * include the type, so that it is not worth asking the owner for it.
+ */
+boolean isTargetAvailable(long /*int*/ clipboard, int type) {
+	int[] targets = getTargets(clipboard);
+	if (targets == null) return true;
+	for (int i = 0; i < targets.length; i++) {
+		if (targets[i] == type) return true;
+	}
+	return false;
+}
+
+long /*int*/ ownerChangeFunc(long /*int*/ clipboard, long /*int*/ event, long /*int*/ user_data) {
+	invalidateTargets(clipboard == Clipboard.GTKCLIPBOARD ? DND.CLIPBOARD : DND.SELECTION_CLIPBOARD);
+	return 0;
+}
+
+long /*int*/ receivedFunc(long /*int*/ clipboard, long /*int*/ selection_data, long /*int*/ user_data) {
+	if (display == null) return 0;
+	ContentsRequest request = null;
+	for (int i = 0; i < requests.length; i++) {
+		if (requests[i].id == (int)/*64*/user_data) {
+			request = requests[i];
+			break;
+		}
+	}
+	if (request == null) return 0;
+	/* The selection data belongs to GTK, it is freed when this function returns */
+	TransferData tdata = selection_data != 0 ? Clipboard.getTransferData(selection_data) : null;
+	if (tdata != null && tdata.length >= 0) {
+		removeRequest(request.id);
+		request.callback.contentsReceived(request.transfer.nativeToJava(tdata));
+		return 0;
+	}
+	if (!requestNext(request)) {
+		removeRequest(request.id);
+		request.callback.contentsReceived(null);
+	}
+	return 0;
+}
+
+ContentsRequest removeRequest(int id) {
+	for (int i = 0; i < requests.length; i++) {
+		if (requests[i].id == id) {
+			ContentsRequest request = requests[i];
+			ContentsRequest[] newRequests = new ContentsRequest[requests.length - 1];
+			System.arraycopy(requests, 0, newRequests, 0, i);
+			System.arraycopy(requests, i + 1, newRequests, i, requests.length - i - 1);
+			requests = newRequests;
+			return request;
+		}
+	}
+	return null;
+}
+
+/**
+ * Asks the owner of a clipboard for the next type of the request, in the
+ * same order as Clipboard.getContents(), and returns false when there
+ * is nothing left to ask.
+ */
+boolean requestNext(ContentsRequest request) {
+	while (request.step < request.typeIds.length * 2) {
+		int type = request.typeIds[request.step / 2];
+		boolean primary = request.step % 2 != 0;
+		request.step++;
+		if ((request.clipboards & (primary ? DND.SELECTION_CLIPBOARD : DND.CLIPBOARD)) == 0) continue;
+		long /*int*/ clipboard = primary ? Clipboard.GTKPRIMARYCLIPBOARD : Clipboard.GTKCLIPBOARD;
+		if (!isTargetAvailable(clipboard, type)) continue;
+		OS.gtk_clipboard_request_contents(clipboard, type, receivedFunc.getAddress(), request.id);
+		return true;
+	}
+	return false;
+}
+
+/**
+ * Caches the TARGETS of a clipboard that were asked for when the targets
+ * had the given generation. They are dropped if the owner changed while
+ * they were asked for, and an empty reply is not kept since it does not
+ * tell which types the owner offers.
+ */
+void setTargets(long /*int*/ clipboard, int[] targets, int generation) {
+	if (!cacheTargets) return;
+	if (targets.length == 0 || generation != getTargetsGeneration(clipboard)) return;
+	if (clipboard == Clipboard.GTKCLIPBOARD) {
+		clipboardTargets = targets;
+	} else {
+		primaryTargets = targets;
+	}
+}
+
 boolean setData(Clipboard owner, Object[] data, Transfer[] dataTypes, int clipboards) {
+	invalidateTargets(clipboards);
 	GtkTargetEntry[] entries = new  GtkTargetEntry [0];
 	long /*int*/ pTargetsList = 0;
 	try {
@@ -173,6 +372,8 @@ boolean setData(Clipboard owner, Object[] data, Transfer[] dataTypes, int clipbo
 		if ((clipboards & DND.CLIPBOARD) != 0) {
 			clipboardData = data;
 			clipboardDataTypes = dataTypes;
+			/* set with owner does not call clearFunc when the contents are replaced */
+			clipboardImages = null;
 			long /*int*/ getFuncProc = getFunc.getAddress();
 			long /*int*/ clearFuncProc = clearFunc.getAddress();
 			/*
@@ -194,6 +395,7 @@ boolean setData(Clipboard owner, Object[] data, Transfer[] dataTypes, int clipbo
 		if ((clipboards & DND.SELECTION_CLIPBOARD) != 0) {
 			primaryClipboardData = data;
 			primaryClipboardDataTypes = dataTypes;
+			primaryImages = null;
 			long /*int*/ getFuncProc = getFunc.getAddress();
 			long /*int*/ clearFuncProc = clearFunc.getAddress();
 			if (!OS.gtk_clipboard_set_with_owner (Clipboard.GTKPRIMARYCLIPBOARD, pTargetsList, entries.length, getFuncProc, clearFuncProc, clipboardOwner)) {
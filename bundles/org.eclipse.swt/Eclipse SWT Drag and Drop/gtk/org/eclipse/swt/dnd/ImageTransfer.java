@@ -10,7 +10,10 @@
  *******************************************************************************/
 package org.eclipse.swt.dnd;
 
+import java.io.*;
+
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
 import org.eclipse.swt.graphics.*;
 import org.eclipse.swt.internal.*;
 import org.eclipse.swt.internal.gtk.*;
@@ -59,6 +62,42 @@ public class ImageTransfer extends ByteArrayTransfer {
 	private static final String XV = "image/xv"; //$NON-NLS-1$
 	private static final int XV_ID = registerType(XV);
 
+	/*
+	* The encoded forms of the image on a clipboard, kept by the clipboard
+	* while it owns the image so that every paste does not encode it again.
+	* The image is encoded when a form is first requested.
+	*/
+	static class Encodings {
+		ImageData image;
+		long /*int*/ [] types = new long /*int*/ [0];
+		byte[][] data = new byte[0][];
+
+		byte[] get(ImageData imgData, long /*int*/ type) {
+			if (imgData != image) return null;
+			for (int i = 0; i < types.length; i++) {
+				if (types[i] == type) return data[i];
+			}
+			return null;
+		}
+
+		void put(ImageData imgData, long /*int*/ type, byte[] bytes) {
+			if (imgData != image) {
+				image = imgData;
+				types = new long /*int*/ [0];
+				data = new byte[0][];
+			}
+			int length = types.length;
+			long /*int*/ [] newTypes = new long /*int*/ [length + 1];
+			System.arraycopy(types, 0, newTypes, 0, length);
+			newTypes[length] = type;
+			types = newTypes;
+			byte[][] newData = new byte[length + 1][];
+			System.arraycopy(data, 0, newData, 0, length);
+			newData[length] = bytes;
+			data = newData;
+		}
+	}
+
 private ImageTransfer() {}
 
 /**
@@ -82,38 +121,87 @@ public static ImageTransfer getInstance () {
  */
 @Override
 public void javaToNative(Object object, TransferData transferData) {
+	javaToNative(object, transferData, null);
+}
+
+/*
+* Converts the image, reusing and adding to the given encoded forms
+* of the image when they are not null.
+*/
+void javaToNative(Object object, TransferData transferData, Encodings encodings) {
 	if (!checkImage(object) || !isSupportedType(transferData)) {
 		DND.error(DND.ERROR_INVALID_DATA);
 	}
 	ImageData imgData = (ImageData)object;
 	if (imgData == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	byte[] bytes = getEncodedData(imgData, transferData.type, encodings);
+	if (bytes == null) return;
+	int length = (bytes.length + 3) / 4 * 4;
+	long /*int*/ pValue = OS.g_malloc(length);
+	if (pValue == 0) return;
+	OS.memmove(pValue, bytes, bytes.length);
+	transferData.pValue = pValue;
+	transferData.length = length;
+	transferData.result = 1;
+	transferData.format = 32;
+}
+
+byte[] encode(ImageData imgData, int format) {
+	try {
+		ImageLoader loader = new ImageLoader();
+		loader.data = new ImageData[] {imgData};
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		loader.save(stream, format);
+		return stream.toByteArray();
+	} catch (SWTException e) {
+		/* the image is encoded with GdkPixbuf instead */
+		return null;
+	}
+}
+
+byte[] encodePixbuf(ImageData imgData, long /*int*/ type) {
+	byte[] result = null;
 	Image image = new Image(Display.getCurrent(), imgData);
- 	long /*int*/ pixbuf = ImageList.createPixbuf(image);
+	long /*int*/ pixbuf = ImageList.createPixbuf(image);
 	if (pixbuf != 0) {
 		String typeStr = "";
-		if (transferData.type ==  JPEG_ID) typeStr = "jpeg";
-		else if (transferData.type ==  PNG_ID) typeStr = "png";
-		else if (transferData.type ==  BMP_ID) typeStr = "bmp";
-		else if (transferData.type ==  EPS_ID) typeStr = "eps";
-		else if (transferData.type ==  PCX_ID) typeStr = "pcx";
-		else if (transferData.type ==  PPM_ID) typeStr = "ppm";
-		else if (transferData.type ==  RGB_ID) typeStr = "rgb";
-		else if (transferData.type ==  TGA_ID) typeStr = "tga";
-		else if (transferData.type ==  XBM_ID) typeStr = "xbm";
-		else if (transferData.type ==  XPM_ID) typeStr = "xpm";
-		else if (transferData.type ==  XV_ID) typeStr = "xv";
-		byte[] type = Converter.wcsToMbcs(null, typeStr , true);
+		if (type ==  JPEG_ID) typeStr = "jpeg";
+		else if (type ==  PNG_ID) typeStr = "png";
+		else if (type ==  BMP_ID) typeStr = "bmp";
+		else if (type ==  EPS_ID) typeStr = "eps";
+		else if (type ==  PCX_ID) typeStr = "pcx";
+		else if (type ==  PPM_ID) typeStr = "ppm";
+		else if (type ==  RGB_ID) typeStr = "rgb";
+		else if (type ==  TGA_ID) typeStr = "tga";
+		else if (type ==  XBM_ID) typeStr = "xbm";
+		else if (type ==  XPM_ID) typeStr = "xpm";
+		else if (type ==  XV_ID) typeStr = "xv";
+		byte[] typeBytes = Converter.wcsToMbcs(null, typeStr , true);
 		long /*int*/ [] buffer = new long /*int*/ [1];
 		long /*int*/ [] len = new long /*int*/ [1];
-		if (type == null) return;
-		OS.gdk_pixbuf_save_to_bufferv(pixbuf, buffer, len, type, null, null, null);
+		if (typeBytes != null && OS.gdk_pixbuf_save_to_bufferv(pixbuf, buffer, len, typeBytes, null, null, null) && buffer[0] != 0) {
+			result = new byte[(int)/*64*/len[0]];
+			OS.memmove(result, buffer[0], len[0]);
+			OS.g_free(buffer[0]);
+		}
 		OS.g_object_unref(pixbuf);
-		transferData.pValue = buffer[0];
-		transferData.length = (int)(len[0] + 3) / 4 * 4;
-		transferData.result = 1;
-		transferData.format = 32;
 	}
 	image.dispose();
+	return result;
+}
+
+byte[] getEncodedData(ImageData imgData, long /*int*/ type, Encodings encodings) {
+	byte[] bytes = encodings != null ? encodings.get(imgData, type) : null;
+	if (bytes != null) return bytes;
+	/* PNG and BMP are encoded in java, BMP is uncompressed and cheap to produce */
+	if (type == PNG_ID) {
+		bytes = encode(imgData, SWT.IMAGE_PNG);
+	} else if (type == BMP_ID) {
+		bytes = encode(imgData, SWT.IMAGE_BMP);
+	}
+	if (bytes == null) bytes = encodePixbuf(imgData, type);
+	if (bytes != null && encodings != null) encodings.put(imgData, type, bytes);
+	return bytes;
 }
 
 /**
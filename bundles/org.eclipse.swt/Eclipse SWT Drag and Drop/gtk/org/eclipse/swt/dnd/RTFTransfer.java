@@ -25,6 +25,14 @@ import org.eclipse.swt.internal.gtk.*;
  *     String rtfData = "{\\rtf1{\\colortbl;\\red255\\green0\\blue0;}\\uc1\\b\\i Hello World}";
  * </code></pre>
  *
+ * <p>The data may also be given as a <code>CharSequence</code> that is
+ * converted to a <code>String</code> when the data is requested. On the
+ * platforms that render the clipboard contents on request, this allows
+ * the RTF text to be created only when it is pasted. Unlike a <code>String</code>,
+ * such a <code>CharSequence</code> is not rejected when it is empty, since its
+ * length is only known once its text is created.
+ * </p>
+ *
  * @see Transfer
  */
 public class RTFTransfer extends ByteArrayTransfer {
@@ -52,7 +60,7 @@ public static RTFTransfer getInstance () {
  * This implementation of <code>javaToNative</code> converts RTF-formatted text
  * represented by a java <code>String</code> to a platform specific representation.
  *
- * @param object a java <code>String</code> containing RTF text
+ * @param object a java <code>String</code> or <code>CharSequence</code> containing RTF text
  * @param transferData an empty <code>TransferData</code> object that will
  *  	be filled in on return with the platform specific format of the data
  *
@@ -64,7 +72,7 @@ public void javaToNative (Object object, TransferData transferData){
 	if (!checkRTF(object) || !isSupportedType(transferData)) {
 		DND.error(DND.ERROR_INVALID_DATA);
 	}
-	String string = (String)object;
+	String string = object.toString();
 	byte [] buffer = Converter.wcsToMbcs (null, string, true);
 	long /*int*/ pValue = OS.g_malloc(buffer.length);
 	if (pValue == 0) return;
@@ -109,7 +117,9 @@ protected String[] getTypeNames() {
 }
 
 boolean checkRTF(Object object) {
-	return (object != null && object instanceof String && ((String)object).length() > 0);
+	if (object instanceof String) return ((String)object).length() > 0;
+	/* the length of other sequences is not checked, it may only be known once their text is created */
+	return object instanceof CharSequence;
 }
 
 @Override
@@ -31,6 +31,14 @@ import org.eclipse.swt.internal.gtk.*;
  * platform.
  * </p>
  *
+ * <p>The data may also be given as a <code>CharSequence</code> that is
+ * converted to a <code>String</code> when the data is requested. On the
+ * platforms that render the clipboard contents on request, this allows
+ * the text to be created only when it is pasted. Unlike a <code>String</code>,
+ * such a <code>CharSequence</code> is not rejected when it is empty, since its
+ * length is only known once its text is created.
+ * </p>
+ *
  * @see Transfer
  */
 public class TextTransfer extends ByteArrayTransfer {
@@ -58,7 +66,7 @@ public static TextTransfer getInstance () {
  * This implementation of <code>javaToNative</code> converts plain text
  * represented by a java <code>String</code> to a platform specific representation.
  *
- * @param object a java <code>String</code> containing text
+ * @param object a java <code>String</code> or <code>CharSequence</code> containing text
  * @param transferData an empty <code>TransferData</code> object that will
  *  	be filled in on return with the platform specific format of the data
  *
@@ -70,7 +78,7 @@ public void javaToNative (Object object, TransferData transferData) {
 	if (!checkText(object) || !isSupportedType(transferData)) {
 		DND.error(DND.ERROR_INVALID_DATA);
 	}
-	String string = (String)object;
+	String string = object.toString();
 	byte[] utf8 = Converter.wcsToMbcs (null, string, true);
 	if  (transferData.type ==  COMPOUND_TEXT_ID) {
 		long /*int*/[] encoding = new long /*int*/[1];
@@ -150,7 +158,9 @@ protected String[] getTypeNames() {
 }
 
 boolean checkText(Object object) {
-	return (object != null && object instanceof String && ((String)object).length() > 0);
+	if (object instanceof String) return ((String)object).length() > 0;
+	/* the length of other sequences is not checked, it may only be known once their text is created */
+	return object instanceof CharSequence;
 }
 
 @Override
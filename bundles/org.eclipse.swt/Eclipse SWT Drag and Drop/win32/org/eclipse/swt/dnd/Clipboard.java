@@ -343,6 +343,81 @@ public Object getContents(Transfer transfer, int clipboards) {
 	}
 	return null; // No data available for this transfer
 }
+
+/**
+ * Retrieve the data of the specified type currently available on the system
+ * clipboard without waiting for it, and notify the callback once it has been
+ * received. Refer to the specific subclass of <code>Transfer</code> to
+ * determine the type of object received.
+ *
+ * @param transfer the transfer agent for the type of data being requested
+ * @param callback the callback notified with the data obtained from the clipboard,
+ * or null if no data of this type is available
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if transfer or callback is null</li>
+ * </ul>
+ *
+ * @see #getContents(Transfer)
+ * @see ClipboardCallback
+ *
+ * @since 3.104
+ */
+public void getContentsAsync(Transfer transfer, ClipboardCallback callback) {
+	getContentsAsync(transfer, DND.CLIPBOARD, callback);
+}
+
+/**
+ * Retrieve the data of the specified type currently available on the specified
+ * clipboard without waiting for it, and notify the callback once it has been
+ * received. Refer to the specific subclass of <code>Transfer</code> to
+ * determine the type of object received.
+ * <p>
+ * The callback is always notified after this method has returned, from
+ * the event loop. On platforms where the clipboard can only be read
+ * synchronously, the data is read before this method returns.
+ * </p>
+ *
+ * <p>The clipboards value is either one of the clipboard constants defined in
+ * class <code>DND</code>, or must be built by <em>bitwise OR</em>'ing together
+ * (that is, using the <code>int</code> "|" operator) two or more
+ * of those <code>DND</code> clipboard constants.</p>
+ *
+ * @param transfer the transfer agent for the type of data being requested
+ * @param clipboards on which to look for data
+ * @param callback the callback notified with the data obtained from the clipboard,
+ * or null if no data of this type is available
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_WIDGET_DISPOSED - if the receiver has been disposed</li>
+ *    <li>ERROR_THREAD_INVALID_ACCESS - if not called from the thread that created the receiver</li>
+ * </ul>
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if transfer or callback is null</li>
+ * </ul>
+ *
+ * @see #getContents(Transfer, int)
+ * @see ClipboardCallback
+ * @see DND#CLIPBOARD
+ * @see DND#SELECTION_CLIPBOARD
+ *
+ * @since 3.104
+ */
+public void getContentsAsync(Transfer transfer, int clipboards, final ClipboardCallback callback) {
+	checkWidget();
+	if (transfer == null || callback == null) DND.error(SWT.ERROR_NULL_ARGUMENT);
+	final Object contents = getContents(transfer, clipboards);
+	display.asyncExec(new Runnable() {
+		public void run() {
+			callback.contentsReceived(contents);
+		}
+	});
+}
+
 /**
  * Returns <code>true</code> if the clipboard has been disposed,
  * and <code>false</code> otherwise.
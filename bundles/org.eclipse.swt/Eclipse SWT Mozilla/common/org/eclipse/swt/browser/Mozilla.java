@@ -63,7 +63,7 @@ class Mozilla extends WebBrowser {
 	static AppFileLocProvider LocationProvider;
 	static WindowCreator2 WindowCreator;
 	static int BrowserCount, NextJSFunctionIndex = 1;
-	static Hashtable AllFunctions = new Hashtable ();
+	static FunctionTable AllFunctions = new FunctionTable ();
 	static Listener DisplayListener;
 	static boolean Initialized, IsXULRunner, PerformedVersionCheck, XPCOMWasGlued, XPCOMInitWasGlued;
 	static boolean IsGettingSiteWindow;
@@ -1325,7 +1325,7 @@ void createCOMInterfaces () {
 @Override
 void deregisterFunction (BrowserFunction function) {
 	super.deregisterFunction (function);
-	AllFunctions.remove (new Integer (function.index));
+	AllFunctions.remove (function.index);
 }
 
 void disposeCOMInterfaces () {
@@ -2850,7 +2850,7 @@ void onDispose (Display display) {
 	elements = functions.elements ();
 	while (elements.hasMoreElements ()) {
 		BrowserFunction function = ((BrowserFunction)elements.nextElement ());
-		AllFunctions.remove (new Integer (function.index));
+		AllFunctions.remove (function.index);
 		function.dispose (false);
 	}
 	functions = null;
@@ -3102,7 +3102,7 @@ public void refresh () {
 @Override
 void registerFunction (BrowserFunction function) {
 	super.registerFunction (function);
-	AllFunctions.put (new Integer (function.index), function);
+	AllFunctions.put (function.index, function);
 }
 
 boolean sendChangingEvent (String url) {
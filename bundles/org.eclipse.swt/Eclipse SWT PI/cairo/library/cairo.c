@@ -1449,6 +1449,30 @@ JNIEXPORT jint JNICALL Cairo_NATIVE(cairo_1version)
 }
 #endif
 
+#if (!defined(NO_memmove__ILorg_eclipse_swt_internal_cairo_cairo_1path_1t_2I) && !defined(JNI64)) || (!defined(NO_memmove__JLorg_eclipse_swt_internal_cairo_cairo_1path_1t_2J) && defined(JNI64))
+#ifndef JNI64
+JNIEXPORT void JNICALL Cairo_NATIVE(memmove__ILorg_eclipse_swt_internal_cairo_cairo_1path_1t_2I)(JNIEnv *env, jclass that, jintLong arg0, jobject arg1, jintLong arg2)
+#else
+JNIEXPORT void JNICALL Cairo_NATIVE(memmove__JLorg_eclipse_swt_internal_cairo_cairo_1path_1t_2J)(JNIEnv *env, jclass that, jintLong arg0, jobject arg1, jintLong arg2)
+#endif
+{
+	cairo_path_t _arg1, *lparg1=NULL;
+#ifndef JNI64
+	Cairo_NATIVE_ENTER(env, that, memmove__ILorg_eclipse_swt_internal_cairo_cairo_1path_1t_2I_FUNC);
+#else
+	Cairo_NATIVE_ENTER(env, that, memmove__JLorg_eclipse_swt_internal_cairo_cairo_1path_1t_2J_FUNC);
+#endif
+	if (arg1) if ((lparg1 = getcairo_path_tFields(env, arg1, &_arg1)) == NULL) goto fail;
+	memmove((void *)arg0, (const void *)lparg1, (size_t)arg2);
+fail:
+#ifndef JNI64
+	Cairo_NATIVE_EXIT(env, that, memmove__ILorg_eclipse_swt_internal_cairo_cairo_1path_1t_2I_FUNC);
+#else
+	Cairo_NATIVE_EXIT(env, that, memmove__JLorg_eclipse_swt_internal_cairo_cairo_1path_1t_2J_FUNC);
+#endif
+}
+#endif
+
 #if (!defined(NO_memmove__Lorg_eclipse_swt_internal_cairo_cairo_1path_1data_1t_2II) && !defined(JNI64)) || (!defined(NO_memmove__Lorg_eclipse_swt_internal_cairo_cairo_1path_1data_1t_2JJ) && defined(JNI64))
 #ifndef JNI64
 JNIEXPORT void JNICALL Cairo_NATIVE(memmove__Lorg_eclipse_swt_internal_cairo_cairo_1path_1data_1t_2II)(JNIEnv *env, jclass that, jobject arg0, jintLong arg1, jintLong arg2)
@@ -139,6 +139,11 @@ char * Cairo_nativeFunctionNames[] = {
 	"cairo_1path_1data_1t_1sizeof",
 	"cairo_1path_1t_1sizeof",
 	"cairo_1version",
+#ifndef JNI64
+	"memmove__ILorg_eclipse_swt_internal_cairo_cairo_1path_1t_2I",
+#else
+	"memmove__JLorg_eclipse_swt_internal_cairo_cairo_1path_1t_2J",
+#endif
 #ifndef JNI64
 	"memmove__Lorg_eclipse_swt_internal_cairo_cairo_1path_1data_1t_2II",
 #else
@@ -149,6 +149,11 @@ typedef enum {
 	cairo_1path_1data_1t_1sizeof_FUNC,
 	cairo_1path_1t_1sizeof_FUNC,
 	cairo_1version_FUNC,
+#ifndef JNI64
+	memmove__ILorg_eclipse_swt_internal_cairo_cairo_1path_1t_2I_FUNC,
+#else
+	memmove__JLorg_eclipse_swt_internal_cairo_cairo_1path_1t_2J_FUNC,
+#endif
 #ifndef JNI64
 	memmove__Lorg_eclipse_swt_internal_cairo_cairo_1path_1data_1t_2II_FUNC,
 #else
@@ -1270,6 +1270,12 @@ public static final void cairo_region_get_rectangle(long /*int*/ region, int nth
 		lock.unlock();
 	}
 }
+/**
+ * @param dest cast=(void *)
+ * @param src cast=(const void *),flags=no_out
+ * @param size cast=(size_t)
+ */
+public static final native void memmove(long /*int*/ dest, cairo_path_t src, long /*int*/ size);
 /**
  * @param dest cast=(void *)
  * @param src cast=(const void *)
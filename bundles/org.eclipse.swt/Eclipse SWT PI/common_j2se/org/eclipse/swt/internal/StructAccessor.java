@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal;
+
+import java.nio.*;
+
+/**
+ * Superclass of the flyweight accessors that the JNI generator creates
+ * for the structures flagged <code>accessor</code>.
+ * <p>
+ * An accessor reads and writes the fields of a structure in place, in a
+ * <code>ByteBuffer</code>, at the offsets and sizes computed by the C
+ * compiler. A structure in native memory is copied into the buffer and
+ * back with one <code>memmove</code>. The generated natives instead
+ * allocate a java object and copy the structure one field at a time.
+ * A single accessor can be positioned on every element of an array of
+ * structures.
+ * </p>
+ */
+public abstract class StructAccessor {
+	ByteBuffer buffer;
+	byte[] bytes;
+	int base;
+
+/**
+ * Returns the size of the structure in bytes.
+ */
+public abstract int sizeof ();
+
+/**
+ * Returns the buffer that holds the structures.
+ */
+public ByteBuffer getBuffer () {
+	return buffer;
+}
+
+/**
+ * Uses the given buffer, direct or not, to hold the structures and
+ * positions the accessor on the first one. The byte order of the
+ * buffer is changed to the native order.
+ */
+public StructAccessor setBuffer (ByteBuffer buffer) {
+	this.buffer = buffer.order (ByteOrder.nativeOrder ());
+	bytes = buffer.hasArray () ? buffer.array () : null;
+	base = 0;
+	return this;
+}
+
+/**
+ * Positions the accessor on the structure at the given index
+ * of the array of structures held by the buffer.
+ */
+public StructAccessor setIndex (int index) {
+	base = index * sizeof ();
+	return this;
+}
+
+/**
+ * Copies <code>count</code> structures from native memory to the buffer
+ * and positions the accessor on the first one. A heap buffer is
+ * allocated when the current buffer is too small or is a direct buffer.
+ */
+public StructAccessor read (long /*int*/ ptr, int count) {
+	int size = sizeof () * count;
+	if (bytes == null || buffer.arrayOffset () != 0 || bytes.length < size) {
+		setBuffer (ByteBuffer.wrap (new byte [size]));
+	}
+	C.memmove (bytes, ptr, size);
+	base = 0;
+	return this;
+}
+
+/**
+ * Copies one structure from native memory to the buffer.
+ */
+public StructAccessor read (long /*int*/ ptr) {
+	return read (ptr, 1);
+}
+
+/**
+ * Copies the structure at the current position back to native memory.
+ */
+public void write (long /*int*/ ptr) {
+	if (bytes == null) throw new IllegalStateException ();
+	int size = sizeof ();
+	if (base == 0 && buffer.arrayOffset () == 0) {
+		C.memmove (ptr, bytes, size);
+	} else {
+		byte[] struct = new byte [size];
+		System.arraycopy (bytes, buffer.arrayOffset () + base, struct, 0, size);
+		C.memmove (ptr, struct, size);
+	}
+}
+
+protected final int getInt (int offset, int size) {
+	int index = base + offset;
+	switch (size) {
+		case 1: return buffer.get (index);
+		case 2: return buffer.getShort (index);
+		case 8: return (int)buffer.getLong (index);
+	}
+	return buffer.getInt (index);
+}
+
+protected final int getUnsignedInt (int offset, int size) {
+	int index = base + offset;
+	switch (size) {
+		case 1: return buffer.get (index) & 0xFF;
+		case 2: return buffer.getShort (index) & 0xFFFF;
+		case 8: return (int)buffer.getLong (index);
+	}
+	return buffer.getInt (index);
+}
+
+protected final long getLong (int offset, int size) {
+	int index = base + offset;
+	switch (size) {
+		case 1: return buffer.get (index);
+		case 2: return buffer.getShort (index);
+		case 4: return buffer.getInt (index);
+	}
+	return buffer.getLong (index);
+}
+
+protected final double getDouble (int offset, int size) {
+	int index = base + offset;
+	return size == 4 ? buffer.getFloat (index) : buffer.getDouble (index);
+}
+
+protected final void setInt (int offset, int size, int value) {
+	setLong (offset, size, value);
+}
+
+protected final void setLong (int offset, int size, long value) {
+	int index = base + offset;
+	switch (size) {
+		case 1: buffer.put (index, (byte)value); break;
+		case 2: buffer.putShort (index, (short)value); break;
+		case 4: buffer.putInt (index, (int)value); break;
+		default: buffer.putLong (index, value);
+	}
+}
+
+protected final void setDouble (int offset, int size, double value) {
+	int index = base + offset;
+	if (size == 4) {
+		buffer.putFloat (index, (float)value);
+	} else {
+		buffer.putDouble (index, value);
+	}
+}
+}
@@ -5839,6 +5839,18 @@ JNIEXPORT jboolean JNICALL OS_NATIVE(_1gdk_1display_1supports_1cursor_1color)
 }
 #endif
 
+#ifndef NO__1gdk_1display_1supports_1selection_1notification
+JNIEXPORT jboolean JNICALL OS_NATIVE(_1gdk_1display_1supports_1selection_1notification)
+	(JNIEnv *env, jclass that, jintLong arg0)
+{
+	jboolean rc = 0;
+	OS_NATIVE_ENTER(env, that, _1gdk_1display_1supports_1selection_1notification_FUNC);
+	rc = (jboolean)gdk_display_supports_selection_notification((GdkDisplay *)arg0);
+	OS_NATIVE_EXIT(env, that, _1gdk_1display_1supports_1selection_1notification_FUNC);
+	return rc;
+}
+#endif
+
 #ifndef NO__1gdk_1drag_1context_1get_1actions
 JNIEXPORT jint JNICALL OS_NATIVE(_1gdk_1drag_1context_1get_1actions)
 	(JNIEnv *env, jclass that, jintLong arg0)
@@ -9609,6 +9621,16 @@ JNIEXPORT jintLong JNICALL OS_NATIVE(_1gtk_1clipboard_1get)
 }
 #endif
 
+#ifndef NO__1gtk_1clipboard_1request_1contents
+JNIEXPORT void JNICALL OS_NATIVE(_1gtk_1clipboard_1request_1contents)
+	(JNIEnv *env, jclass that, jintLong arg0, jintLong arg1, jintLong arg2, jintLong arg3)
+{
+	OS_NATIVE_ENTER(env, that, _1gtk_1clipboard_1request_1contents_FUNC);
+	gtk_clipboard_request_contents((GtkClipboard *)arg0, (GdkAtom)arg1, (GtkClipboardReceivedFunc)arg2, (gpointer)arg3);
+	OS_NATIVE_EXIT(env, that, _1gtk_1clipboard_1request_1contents_FUNC);
+}
+#endif
+
 #ifndef NO__1gtk_1clipboard_1set_1can_1store
 JNIEXPORT void JNICALL OS_NATIVE(_1gtk_1clipboard_1set_1can_1store)
 	(JNIEnv *env, jclass that, jintLong arg0, jintLong arg1, jint arg2)
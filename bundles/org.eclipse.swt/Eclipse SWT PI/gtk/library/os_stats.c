@@ -471,6 +471,7 @@ char * OS_nativeFunctionNames[] = {
 	"_1gdk_1display_1get_1default",
 	"_1gdk_1display_1get_1device_1manager",
 	"_1gdk_1display_1supports_1cursor_1color",
+	"_1gdk_1display_1supports_1selection_1notification",
 	"_1gdk_1drag_1context_1get_1actions",
 	"_1gdk_1drag_1context_1get_1dest_1window",
 	"_1gdk_1drag_1context_1get_1selected_1action",
@@ -701,6 +702,7 @@ char * OS_nativeFunctionNames[] = {
 	"_1gtk_1check_1version",
 	"_1gtk_1clipboard_1clear",
 	"_1gtk_1clipboard_1get",
+	"_1gtk_1clipboard_1request_1contents",
 	"_1gtk_1clipboard_1set_1can_1store",
 	"_1gtk_1clipboard_1set_1with_1owner",
 	"_1gtk_1clipboard_1store",
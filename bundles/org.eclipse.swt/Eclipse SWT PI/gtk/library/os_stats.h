@@ -481,6 +481,7 @@ typedef enum {
 	_1gdk_1display_1get_1default_FUNC,
 	_1gdk_1display_1get_1device_1manager_FUNC,
 	_1gdk_1display_1supports_1cursor_1color_FUNC,
+	_1gdk_1display_1supports_1selection_1notification_FUNC,
 	_1gdk_1drag_1context_1get_1actions_FUNC,
 	_1gdk_1drag_1context_1get_1dest_1window_FUNC,
 	_1gdk_1drag_1context_1get_1selected_1action_FUNC,
@@ -711,6 +712,7 @@ typedef enum {
 	_1gtk_1check_1version_FUNC,
 	_1gtk_1clipboard_1clear_FUNC,
 	_1gtk_1clipboard_1get_FUNC,
+	_1gtk_1clipboard_1request_1contents_FUNC,
 	_1gtk_1clipboard_1set_1can_1store_FUNC,
 	_1gtk_1clipboard_1set_1with_1owner_FUNC,
 	_1gtk_1clipboard_1store_FUNC,
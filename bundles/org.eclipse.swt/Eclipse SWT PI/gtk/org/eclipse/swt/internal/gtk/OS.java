@@ -4216,6 +4216,16 @@ public static final boolean gdk_display_supports_cursor_color(long /*int*/ displ
 		lock.unlock();
 	}
 }
+/** @param display cast=(GdkDisplay *) */
+public static final native boolean _gdk_display_supports_selection_notification(long /*int*/ display);
+public static final boolean gdk_display_supports_selection_notification(long /*int*/ display) {
+	lock.lock();
+	try {
+		return _gdk_display_supports_selection_notification(display);
+	} finally {
+		lock.unlock();
+	}
+}
 /**
  * @method flags=dynamic
  * @param context cast=(GdkDragContext *)
@@ -6856,6 +6866,21 @@ public static final long /*int*/ gtk_clipboard_get(long /*int*/ selection) {
 		lock.unlock();
 	}
 }
+/**
+ * @param clipboard cast=(GtkClipboard *)
+ * @param target cast=(GdkAtom)
+ * @param callback cast=(GtkClipboardReceivedFunc)
+ * @param user_data cast=(gpointer)
+ */
+public static final native void _gtk_clipboard_request_contents(long /*int*/ clipboard, long /*int*/ target, long /*int*/ callback, long /*int*/ user_data);
+public static final void gtk_clipboard_request_contents(long /*int*/ clipboard, long /*int*/ target, long /*int*/ callback, long /*int*/ user_data) {
+	lock.lock();
+	try {
+		_gtk_clipboard_request_contents(clipboard, target, callback, user_data);
+	} finally {
+		lock.unlock();
+	}
+}
 /**
  * @param clipboard cast=(GtkClipboard *)
  * @param target cast=(const GtkTargetEntry *)
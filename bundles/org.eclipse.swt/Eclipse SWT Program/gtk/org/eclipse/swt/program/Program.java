@@ -43,8 +43,28 @@ public final class Program {
 	 */
 	boolean gnomeExpectUri;
 
-	static long /*int*/ modTime;
+	/* GIO specific, the icon is loaded the first time it is requested */
+	ImageData imageData;
+	boolean imageLoaded;
+
+	/*
+	* GIO specific index of the mime database and of the default programs.
+	* It is built lazily and discarded when the modification time of the
+	* mime database or of the application directories changes, which is
+	* checked at most once every CHECK_INTERVAL milliseconds.
+	*/
+	static long modTime;
 	static Hashtable mimeTable;
+	static String[] allExtensions;
+	static long applicationsTime;
+	static Display programsDisplay;
+	static Hashtable programTable;
+	static Program[] allPrograms;
+	static String[] applicationPaths;
+	static long lastCheckTime;
+	static final Object NO_PROGRAM = new Object();
+	static final int CHECK_INTERVAL = 1000;
+	static final String MIME_GLOBS = "/usr/share/mime/globs"; //$NON-NLS-1$
 
 	static long /*int*/ cdeShell;
 
@@ -526,7 +546,7 @@ static Program findProgram(Display display, String extension) {
 	int desktop = getDesktop(display);
 	String mimeType = null;
 	switch (desktop) {
-		case DESKTOP_GIO: mimeType = gio_getMimeType(extension); break;
+		case DESKTOP_GIO: mimeType = gio_getMimeType(display, extension); break;
 		case DESKTOP_GNOME: mimeType = gnome_getMimeType(extension); break;
 		case DESKTOP_CDE: mimeType = cde_getMimeType(extension); break;
 	}
@@ -559,7 +579,7 @@ static String[] getExtensions(Display display) {
 	int desktop = getDesktop(display);
 	Hashtable mimeInfo = null;
 	switch (desktop) {
-		case DESKTOP_GIO: return gio_getExtensions();
+		case DESKTOP_GIO: return gio_getExtensions(display);
 		case DESKTOP_GNOME: break;
 		case DESKTOP_CDE: mimeInfo = cde_getDataTypeInfo(); break;
 	}
@@ -628,6 +648,14 @@ static Program[] getPrograms(Display display) {
 }
 
 ImageData gio_getImageData() {
+	if (!imageLoaded) {
+		imageData = gio_loadImageData();
+		imageLoaded = true;
+	}
+	return imageData != null ? (ImageData)imageData.clone() : null;
+}
+
+ImageData gio_loadImageData() {
 	if (iconPath == null) return null;
 	ImageData data = null;
 	long /*int*/ icon_theme =OS.gtk_icon_theme_get_default();
@@ -673,8 +701,87 @@ ImageData gio_getImageData() {
 	return data;
 }
 
+/*
+ * Discards the parts of the index that are out of date. The programs
+ * are also discarded when they are requested for a different display,
+ * and when their display is disposed, so that the static fields do not
+ * keep the disposed display reachable.
+ */
+static void gio_checkIndex(final Display display) {
+	if (display != programsDisplay) {
+		programsDisplay = display;
+		programTable = null;
+		allPrograms = null;
+		display.disposeExec(new Runnable() {
+			public void run() {
+				if (programsDisplay == display) {
+					programsDisplay = null;
+					programTable = null;
+					allPrograms = null;
+				}
+			}
+		});
+	}
+	long time = System.currentTimeMillis();
+	if (lastCheckTime != 0 && time >= lastCheckTime && time - lastCheckTime < CHECK_INTERVAL) return;
+	lastCheckTime = time;
+	long mimeTime = new File(MIME_GLOBS).lastModified();
+	if (mimeTime != modTime) {
+		modTime = mimeTime;
+		mimeTable = null;
+		allExtensions = null;
+		programTable = null;
+	}
+	long appTime = gio_getApplicationsTime();
+	if (appTime != applicationsTime) {
+		applicationsTime = appTime;
+		programTable = null;
+		allPrograms = null;
+	}
+}
+
+/*
+ * Returns the directories holding the desktop files of the applications
+ * and the file that overrides the default applications, as described
+ * by the XDG base directory specification.
+ */
+static String[] gio_getApplicationPaths() {
+	if (applicationPaths != null) return applicationPaths;
+	String home = System.getProperty("user.home"); //$NON-NLS-1$
+	String dataHome = System.getenv("XDG_DATA_HOME"); //$NON-NLS-1$
+	if (dataHome == null || dataHome.length() == 0) dataHome = home + "/.local/share"; //$NON-NLS-1$
+	String configHome = System.getenv("XDG_CONFIG_HOME"); //$NON-NLS-1$
+	if (configHome == null || configHome.length() == 0) configHome = home + "/.config"; //$NON-NLS-1$
+	String dataDirs = System.getenv("XDG_DATA_DIRS"); //$NON-NLS-1$
+	if (dataDirs == null || dataDirs.length() == 0) dataDirs = "/usr/local/share:/usr/share"; //$NON-NLS-1$
+	Vector paths = new Vector();
+	paths.addElement(configHome + "/mimeapps.list"); //$NON-NLS-1$
+	paths.addElement(dataHome + "/applications"); //$NON-NLS-1$
+	StringTokenizer tokenizer = new StringTokenizer(dataDirs, ":"); //$NON-NLS-1$
+	while (tokenizer.hasMoreTokens()) {
+		paths.addElement(tokenizer.nextToken() + "/applications"); //$NON-NLS-1$
+	}
+	String[] result = new String[paths.size()];
+	paths.copyInto(result);
+	return applicationPaths = result;
+}
+
+/*
+ * Combines the modification times of the application directories so
+ * that installing or removing an application changes the result.
+ */
+static long gio_getApplicationsTime() {
+	String[] paths = gio_getApplicationPaths();
+	long time = 0;
+	for (int i = 0; i < paths.length; i++) {
+		time = time * 31 + new File(paths[i]).lastModified();
+	}
+	return time;
+}
+
 static Hashtable gio_getMimeInfo() {
-	long /*int*/ mimeDatabase = 0, fileInfo = 0;
+	if (mimeTable != null) return mimeTable;
+	long /*int*/ mimeDatabase = 0;
 	/*
 	* The file 'globs' contain the file extensions
 	* associated to the mime-types. Each line that has
@@ -682,84 +789,83 @@ static Hashtable gio_getMimeInfo() {
 	* of a mime-type. The template of such line is -
 	* application/pdf:*.pdf
 	*/
-	byte[] buffer = Converter.wcsToMbcs (null, "/usr/share/mime/globs", true);
+	byte[] buffer = Converter.wcsToMbcs (null, MIME_GLOBS, true);
 	mimeDatabase = OS.g_file_new_for_path (buffer);
 	long /*int*/ fileInputStream = OS.g_file_read (mimeDatabase, 0, 0);
 	try {
 		if (fileInputStream != 0) {
-			long /*int*/ [] modTimestamp = new long /*int*/ [2];
-			buffer = Converter.wcsToMbcs (null, "*", true);
-			fileInfo = OS.g_file_query_info(mimeDatabase, buffer, 0, 0, 0);
-			OS.g_file_info_get_modification_time(fileInfo, modTimestamp);
-			if (modTime != 0 && modTimestamp[0] == modTime) {
-				return mimeTable;
-			} else {
-				mimeTable = new Hashtable();
-				modTime = modTimestamp[0];
-				long /*int*/ reader = OS.g_data_input_stream_new (fileInputStream);
-				long /*int*/ [] length = new long /*int*/ [1];
-
-				if (reader != 0) {
-					long /*int*/ linePtr = OS.g_data_input_stream_read_line (reader, length, 0, 0);
-					while (linePtr != 0) {
-						byte[] lineBytes = new byte[(int) length[0]];
-						OS.memmove(lineBytes, linePtr, (int) length[0]);
-						String line = new String (Converter.mbcsToWcs (null, lineBytes));
-
-						int separatorIndex = line.indexOf (':');
-						if (separatorIndex > 0) {
-							Vector mimeTypes = new Vector ();
-						    String mimeType = line.substring (0, separatorIndex);
-							String extensionFormat = line.substring (separatorIndex+1);
-							int extensionIndex = extensionFormat.indexOf (".");
-							if (extensionIndex > 0) {
-								String extension = extensionFormat.substring (extensionIndex);
-								if (mimeTable.containsKey (extension)) {
-									/*
-									 * If mimeType already exists, it is required to update
-									 * the existing key (mime-type) with the new extension.
-									 */
-									Vector value = (Vector) mimeTable.get (extension);
-									mimeTypes.addAll (value);
-								}
-								mimeTypes.add (mimeType);
-								mimeTable.put (extension, mimeTypes);
+			Hashtable table = new Hashtable();
+			long /*int*/ reader = OS.g_data_input_stream_new (fileInputStream);
+			long /*int*/ [] length = new long /*int*/ [1];
+
+			if (reader != 0) {
+				long /*int*/ linePtr = OS.g_data_input_stream_read_line (reader, length, 0, 0);
+				while (linePtr != 0) {
+					byte[] lineBytes = new byte[(int) length[0]];
+					OS.memmove(lineBytes, linePtr, (int) length[0]);
+					String line = new String (Converter.mbcsToWcs (null, lineBytes));
+
+					int separatorIndex = line.indexOf (':');
+					if (separatorIndex > 0) {
+						String mimeType = line.substring (0, separatorIndex);
+						String extensionFormat = line.substring (separatorIndex+1);
+						int extensionIndex = extensionFormat.indexOf (".");
+						if (extensionIndex > 0) {
+							String extension = extensionFormat.substring (extensionIndex);
+							/*
+							 * If the extension already exists, the mime-type is
+							 * appended to the mime-types of the existing key.
+							 */
+							Vector mimeTypes = (Vector) table.get (extension);
+							if (mimeTypes == null) {
+								mimeTypes = new Vector ();
+								table.put (extension, mimeTypes);
 							}
+							mimeTypes.add (mimeType);
 						}
-						OS.g_free(linePtr);
-						linePtr = OS.g_data_input_stream_read_line (reader, length, 0, 0);
 					}
+					OS.g_free(linePtr);
+					linePtr = OS.g_data_input_stream_read_line (reader, length, 0, 0);
 				}
-				if (reader != 0) OS.g_object_unref (reader);
-				return mimeTable;
 			}
+			if (reader != 0) OS.g_object_unref (reader);
+			return mimeTable = table;
 		}
 		return null;
 	} finally {
-		if (fileInfo != 0) OS.g_object_unref(fileInfo);
 		if (fileInputStream != 0) OS.g_object_unref(fileInputStream);
 		if (mimeDatabase != 0) 	OS.g_object_unref (mimeDatabase);
 	}
 }
 
-static String gio_getMimeType(String extension) {
+static String gio_getMimeType(Display display, String extension) {
+	gio_checkIndex(display);
 	String mimeType = null;
 	Hashtable h = gio_getMimeInfo();
-	if (h != null && h.containsKey(extension)) {
+	if (h != null) {
 		Vector mimeTypes = (Vector) h.get(extension);
-		mimeType = (String) mimeTypes.get(0);
+		if (mimeTypes != null) mimeType = (String) mimeTypes.get(0);
 	}
 	return mimeType;
 }
 
 static Program gio_getProgram(Display display, String mimeType) {
-	Program program = null;
-	byte[] mimeTypeBuffer = Converter.wcsToMbcs (null, mimeType, true);
-	long /*int*/ application = OS.g_app_info_get_default_for_type (mimeTypeBuffer, false);
-	if (application != 0) {
-		program = gio_getProgram(display, application);
+	gio_checkIndex(display);
+	if (programTable == null) programTable = new Hashtable();
+	Object result = programTable.get(mimeType);
+	if (result == null) {
+		Program program = null;
+		byte[] mimeTypeBuffer = Converter.wcsToMbcs (null, mimeType, true);
+		long /*int*/ application = OS.g_app_info_get_default_for_type (mimeTypeBuffer, false);
+		if (application != 0) {
+			program = gio_getProgram(display, application);
+			OS.g_object_unref(application);
+		}
+		/* mime-types without a default program are remembered as well */
+		result = program != null ? program : NO_PROGRAM;
+		programTable.put(mimeType, result);
 	}
-	return program;
+	return result != NO_PROGRAM ? (Program)result : null;
 }
 
 static Program gio_getProgram (Display display, long /*int*/ application) {
@@ -804,6 +910,14 @@ static Program gio_getProgram (Display display, long /*int*/ application) {
 }
 
 static Program[] gio_getPrograms(Display display) {
+	gio_checkIndex(display);
+	if (allPrograms == null) allPrograms = gio_loadPrograms(display);
+	Program[] result = new Program[allPrograms.length];
+	System.arraycopy(allPrograms, 0, result, 0, allPrograms.length);
+	return result;
+}
+
+static Program[] gio_loadPrograms(Display display) {
 	long /*int*/ applicationList = OS.g_app_info_get_all ();
 	long /*int*/ list = applicationList;
 	Program program;
@@ -816,6 +930,7 @@ static Program[] gio_getPrograms(Display display) {
 				program = gio_getProgram(display, application);
 				if (program != null) programs.addElement(program);
 //			}
+			OS.g_object_unref(application);
 		}
 		list = OS.g_list_next(list);
 	}
@@ -902,21 +1017,23 @@ boolean gio_execute(String fileName) {
 	return result;
 }
 
-static String[] gio_getExtensions() {
-	Hashtable mimeInfo = gio_getMimeInfo();
-	if (mimeInfo == null) return new String[0];
-	/* Create a unique set of the file extensions. */
-	Vector extensions = new Vector();
-	Enumeration keys = mimeInfo.keys();
-	while (keys.hasMoreElements()) {
-		String extension = (String)keys.nextElement();
-		extensions.add(extension);
-	}
-	/* Return the list of extensions. */
-	String [] extStrings = new String[extensions.size()];
-	for (int index = 0; index < extensions.size(); index++) {
-		extStrings[index] = (String)extensions.elementAt(index);
+static String[] gio_getExtensions(Display display) {
+	gio_checkIndex(display);
+	if (allExtensions == null) {
+		Hashtable mimeInfo = gio_getMimeInfo();
+		if (mimeInfo == null) return new String[0];
+		/* Create a unique set of the file extensions. */
+		String[] extStrings = new String[mimeInfo.size()];
+		Enumeration keys = mimeInfo.keys();
+		int index = 0;
+		while (keys.hasMoreElements()) {
+			extStrings[index++] = (String)keys.nextElement();
+		}
+		allExtensions = extStrings;
 	}
+	/* Return a copy of the list of extensions. */
+	String[] extStrings = new String[allExtensions.length];
+	System.arraycopy(allExtensions, 0, extStrings, 0, allExtensions.length);
 	return extStrings;
 }
 
@@ -1764,12 +1764,12 @@ NSObject callJava (long /*int*/ index, long /*int*/ token, long /*int*/ args, lo
 	long /*int*/ clazz = OS.objc_lookUpClass ("NSNumber"); //$NON-NLS-1$
 	if (object.isKindOfClass (clazz)) {
 		NSNumber number = new NSNumber (index);
-		Object key = new Integer (number.intValue ());
+		int key = number.intValue ();
 		object = new NSObject (token);
 		clazz = OS.objc_lookUpClass ("NSString"); //$NON-NLS-1$
 		if (object.isKindOfClass (clazz)) {
 			NSString tokenString = new NSString (token);
-			BrowserFunction function = (BrowserFunction)functions.get (key);
+			BrowserFunction function = functions.get (key);
 			if (function != null && tokenString.getString ().equals (function.token)) {
 				try {
 					Object temp = convertToJava (args);
@@ -57,7 +57,7 @@ class WebKit extends WebBrowser {
 	BrowserFunction eventFunction;
 
 	static int DisabledJSCount;
-	static long /*int*/ ExternalClass, PostString, WebViewType;
+	static long /*int*/ ExternalClass, JSONScript, PostString, WebViewType;
 	static boolean IsWebKit14orNewer, LibraryLoaded;
 	static Hashtable WindowMappings = new Hashtable ();
 
@@ -116,6 +116,22 @@ class WebKit extends WebBrowser {
 	static final int AUTHENTICATE = 20;
 
 	static final String KEY_CHECK_SUBWINDOW = "org.eclipse.swt.internal.control.checksubwindow"; //$NON-NLS-1$
+	static final String KEY_PRIMITIVE_ARRAYS = "org.eclipse.swt.internal.browser.primitiveArrays"; //$NON-NLS-1$
+
+	/*
+	* Arrays with at least this many elements are serialized to JSON
+	* by javascript and decoded in a single pass, rather than reading
+	* their elements one at a time. The replacer checks the original
+	* value, this[k], since JSON.stringify has already replaced objects
+	* such as dates by the result of their toJSON() method in v. The
+	* serialization is abandoned for the values that would not convert
+	* to what the per-element conversion returns: non-finite numbers
+	* and -0, functions, and objects other than plain arrays.
+	*/
+	static final int JSON_THRESHOLD = 8;
+	static final String JSON_SCRIPT = "(function (a) {try {return JSON.stringify(a, function (k, v) {var o = this[k];" //$NON-NLS-1$
+		+ "if (typeof o == 'number' ? !isFinite(o) || (o === 0 && 1 / o < 0) : typeof o == 'function' || (o !== null && typeof o == 'object' && (!Array.isArray(o) || typeof o.toJSON == 'function'))) throw 0;" //$NON-NLS-1$
+		+ "return v;});} catch (e) {return null;}})(this)"; //$NON-NLS-1$
 
 	/* the following Callbacks are never freed */
 	static Callback Proc2, Proc3, Proc4, Proc5, Proc6;
@@ -2341,16 +2357,16 @@ long /*int*/ callJava (long /*int*/ ctx, long /*int*/ func, long /*int*/ thisObj
 		if (type == WebKitGTK.kJSTypeNumber) {
 			int index = ((Double)convertToJava (ctx, result[0])).intValue ();
 			result[0] = 0;
-			Object key = new Integer (index);
 			C.memmove (result, arguments + C.PTR_SIZEOF, C.PTR_SIZEOF);
 			type = WebKitGTK.JSValueGetType (ctx, result[0]);
 			if (type == WebKitGTK.kJSTypeString) {
 				String token = (String)convertToJava (ctx, result[0]);
-				BrowserFunction function = (BrowserFunction)functions.get (key);
+				BrowserFunction function = functions.get (index);
 				if (function != null && token.equals (function.token)) {
 					try {
 						C.memmove (result, arguments + 2 * C.PTR_SIZEOF, C.PTR_SIZEOF);
-						Object temp = convertToJava (ctx, result[0]);
+						boolean primitiveArrays = browser.getData (KEY_PRIMITIVE_ARRAYS) != null;
+						Object temp = convertToJava (ctx, result[0], primitiveArrays, 0);
 						if (temp instanceof Object[]) {
 							Object[] args = (Object[])temp;
 							try {
@@ -2413,6 +2429,10 @@ long /*int*/ convertToJS (long /*int*/ ctx, Object value) {
 }
 
 Object convertToJava (long /*int*/ ctx, long /*int*/ value) {
+	return convertToJava (ctx, value, false, 0);
+}
+
+Object convertToJava (long /*int*/ ctx, long /*int*/ value, boolean primitiveArrays, int depth) {
 	int type = WebKitGTK.JSValueGetType (ctx, value);
 	switch (type) {
 		case WebKitGTK.kJSTypeBoolean: {
@@ -2426,16 +2446,7 @@ Object convertToJava (long /*int*/ ctx, long /*int*/ value) {
 		case WebKitGTK.kJSTypeString: {
 			long /*int*/ string = WebKitGTK.JSValueToStringCopy (ctx, value, null);
 			if (string == 0) return ""; //$NON-NLS-1$
-			long /*int*/ length = WebKitGTK.JSStringGetMaximumUTF8CStringSize (string);
-			byte[] bytes = new byte[(int)/*64*/length];
-			length = WebKitGTK.JSStringGetUTF8CString (string, bytes, length);
-			WebKitGTK.JSStringRelease (string);
-			try {
-				/* length-1 is needed below to exclude the terminator character */
-				return new String (bytes, 0, (int)/*64*/length - 1, CHARSET_UTF8);
-			} catch (UnsupportedEncodingException e) {
-				return new String (Converter.mbcsToWcs (null, bytes));
-			}
+			return getJSString (string);
 		}
 		case WebKitGTK.kJSTypeNull:
 			// FALL THROUGH
@@ -2453,12 +2464,25 @@ Object convertToJava (long /*int*/ ctx, long /*int*/ value) {
 			type = WebKitGTK.JSValueGetType (ctx, valuePtr);
 			if (type == WebKitGTK.kJSTypeNumber) {
 				int length = (int)WebKitGTK.JSValueToNumber (ctx, valuePtr, null);
+				if (length >= JSON_THRESHOLD) {
+					Object result = convertToJavaFromJSON (ctx, value, primitiveArrays, depth);
+					if (result != null) return result;
+				}
 				Object[] result = new Object[length];
+				boolean numbers = primitiveArrays && depth > 0;
 				for (int i = 0; i < length; i++) {
 					long /*int*/ current = WebKitGTK.JSObjectGetPropertyAtIndex (ctx, value, i, null);
 					if (current != 0) {
-						result[i] = convertToJava (ctx, current);
+						result[i] = convertToJava (ctx, current, primitiveArrays, depth + 1);
+					}
+					numbers = numbers && result[i] instanceof Double;
+				}
+				if (numbers && length > 0) {
+					double[] doubles = new double[length];
+					for (int i = 0; i < length; i++) {
+						doubles[i] = ((Double)result[i]).doubleValue ();
 					}
+					return doubles;
 				}
 				return result;
 			}
@@ -2468,4 +2492,47 @@ Object convertToJava (long /*int*/ ctx, long /*int*/ value) {
 	return null;
 }
 
+/*
+* Serializes an array to JSON in javascript and decodes the result, which
+* costs a constant number of native calls instead of several per element.
+* Returns null if the array holds values that JSON cannot represent exactly,
+* or if the decoder rejects the serialized string, in which case the elements
+* must be converted one at a time.
+*/
+Object convertToJavaFromJSON (long /*int*/ ctx, long /*int*/ value, boolean primitiveArrays, int depth) {
+	if (JSONScript == 0) {
+		byte[] bytes = null;
+		try {
+			bytes = (JSON_SCRIPT + '\0').getBytes (CHARSET_UTF8); //$NON-NLS-1$
+		} catch (UnsupportedEncodingException e) {
+			bytes = Converter.wcsToMbcs (null, JSON_SCRIPT, true);
+		}
+		JSONScript = WebKitGTK.JSStringCreateWithUTF8CString (bytes);
+	}
+	long /*int*/ json = WebKitGTK.JSEvaluateScript (ctx, JSONScript, value, 0, 0, null);
+	if (json == 0 || WebKitGTK.JSValueGetType (ctx, json) != WebKitGTK.kJSTypeString) return null;
+	long /*int*/ string = WebKitGTK.JSValueToStringCopy (ctx, json, null);
+	if (string == 0) return null;
+	/* the decoder treats the array itself as nested when it is an element of another array */
+	try {
+		return JSONDecoder.decode (getJSString (string), primitiveArrays, depth);
+	} catch (IllegalArgumentException e) {
+		return null;
+	}
+}
+
+/* Returns the contents of a JSStringRef and releases it. */
+String getJSString (long /*int*/ string) {
+	long /*int*/ length = WebKitGTK.JSStringGetMaximumUTF8CStringSize (string);
+	byte[] bytes = new byte[(int)/*64*/length];
+	length = WebKitGTK.JSStringGetUTF8CString (string, bytes, length);
+	WebKitGTK.JSStringRelease (string);
+	try {
+		/* length-1 is needed below to exclude the terminator character */
+		return new String (bytes, 0, (int)/*64*/length - 1, CHARSET_UTF8);
+	} catch (UnsupportedEncodingException e) {
+		return new String (Converter.mbcsToWcs (null, bytes));
+	}
+}
+
 }
@@ -405,12 +405,11 @@ long /*int*/ callJava (long /*int*/ ctx, long /*int*/ func, long /*int*/ thisObj
 			int index = ((Double)convertToJava (ctx, result[0])).intValue ();
 			result[0] = 0;
 			if (index > 0) {
-				Object key = new Integer (index);
 				C.memmove (result, arguments + C.PTR_SIZEOF, C.PTR_SIZEOF);
 				type = WebKit_win32.JSValueGetType (ctx, result[0]);
 				if (type == WebKit_win32.kJSTypeString) {
 					String token = (String)convertToJava (ctx, result[0]);
-					BrowserFunction function = (BrowserFunction)functions.get (key);
+					BrowserFunction function = functions.get (index);
 					if (function != null && token.equals (function.token)) {
 						try {
 							C.memmove (result, arguments + 2 * C.PTR_SIZEOF, C.PTR_SIZEOF);
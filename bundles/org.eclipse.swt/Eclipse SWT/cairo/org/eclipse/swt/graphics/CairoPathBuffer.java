@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.graphics;
+
+import java.nio.*;
+
+import org.eclipse.swt.*;
+import org.eclipse.swt.internal.*;
+import org.eclipse.swt.internal.cairo.*;
+
+/**
+ * Accumulates cairo path elements in Java memory and hands them to
+ * cairo with one <code>cairo_append_path()</code> call per chunk,
+ * instead of one native call per <code>cairo_move_to()</code> or
+ * <code>cairo_line_to()</code>.
+ * <p>
+ * The elements are laid out as <code>cairo_path_data_t</code> unions:
+ * a header holding the element type and length followed by one entry
+ * per point, each entry being 16 bytes wide.
+ * </p>
+ */
+final class CairoPathBuffer {
+	long /*int*/ cairo;
+	long [] data;
+	int count;
+	long /*int*/ nativeData, nativePath;
+
+	static final int CHUNK_SIZE = 8192;
+	static final int ENTRY_SIZE = 16;
+	static final boolean BIG_ENDIAN = ByteOrder.nativeOrder () == ByteOrder.BIG_ENDIAN;
+	static final long MOVE_TO = header (Cairo.CAIRO_PATH_MOVE_TO, 2);
+	static final long LINE_TO = header (Cairo.CAIRO_PATH_LINE_TO, 2);
+	static final long CLOSE_PATH = header (Cairo.CAIRO_PATH_CLOSE_PATH, 1);
+
+/**
+ * Creates a buffer appending to the path of the given cairo context.
+ *
+ * @param cairo the cairo context
+ * @param entries the expected number of path data entries, used to
+ * avoid allocating a full chunk for small paths
+ */
+CairoPathBuffer (long /*int*/ cairo, int entries) {
+	this.cairo = cairo;
+	int size = Math.max (16, Math.min (entries, CHUNK_SIZE));
+	data = new long [size * 2];
+}
+
+static long header (int type, int length) {
+	/* The header is two ints sharing the first 8 bytes of the union */
+	if (BIG_ENDIAN) return ((long) type << 32) | (length & 0xFFFFFFFFL);
+	return ((long) length << 32) | (type & 0xFFFFFFFFL);
+}
+
+void ensure (int entries) {
+	if ((count + entries) * 2 > data.length) flush ();
+}
+
+void point (long header, double x, double y) {
+	ensure (2);
+	int index = count * 2;
+	data [index] = header;
+	data [index + 2] = Double.doubleToRawLongBits (x);
+	data [index + 3] = Double.doubleToRawLongBits (y);
+	count += 2;
+}
+
+void moveTo (double x, double y) {
+	point (MOVE_TO, x, y);
+}
+
+void lineTo (double x, double y) {
+	point (LINE_TO, x, y);
+}
+
+void closePath () {
+	ensure (1);
+	data [count * 2] = CLOSE_PATH;
+	count++;
+}
+
+void rectangle (double x, double y, double width, double height) {
+	ensure (9);
+	moveTo (x, y);
+	lineTo (x + width, y);
+	lineTo (x + width, y + height);
+	lineTo (x, y + height);
+	closePath ();
+}
+
+/**
+ * Appends the pending elements to the cairo context.
+ */
+void flush () {
+	if (count == 0) return;
+	int capacity = data.length / 2;
+	if (nativeData == 0) {
+		nativeData = C.malloc (capacity * ENTRY_SIZE);
+		nativePath = C.malloc (cairo_path_t.sizeof);
+		if (nativeData == 0 || nativePath == 0) SWT.error (SWT.ERROR_NO_HANDLES);
+	}
+	C.memmove (nativeData, data, count * ENTRY_SIZE);
+	cairo_path_t path = new cairo_path_t ();
+	path.status = Cairo.CAIRO_STATUS_SUCCESS;
+	path.data = nativeData;
+	path.num_data = count;
+	Cairo.memmove (nativePath, path, cairo_path_t.sizeof);
+	Cairo.cairo_append_path (cairo, nativePath);
+	count = 0;
+}
+
+/**
+ * Appends the pending elements and releases the native buffers.
+ */
+void dispose () {
+	try {
+		flush ();
+	} finally {
+		if (nativeData != 0) C.free (nativeData);
+		if (nativePath != 0) C.free (nativePath);
+		nativeData = nativePath = 0;
+		data = null;
+	}
+}
+}
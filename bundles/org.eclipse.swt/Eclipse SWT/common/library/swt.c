@@ -11,6 +11,19 @@
  
 #include "swt.h"
 
+#ifdef NATIVE_STATS
+#if defined (_WIN32) || defined (_WIN32_WCE)
+#include <windows.h>
+#else
+#include <pthread.h>
+#ifdef __APPLE__
+#include <mach/mach_time.h>
+#else
+#include <time.h>
+#endif
+#endif
+#endif
+
 int IS_JNI_1_2 = 0;
 
 #ifdef JNI_VERSION_1_2
@@ -26,3 +39,69 @@ void throwOutOfMemory(JNIEnv *env) {
 		(*env)->ThrowNew(env, clazz, "");
 	}
 }
+
+#ifdef NATIVE_STATS
+
+/* The thread whose native calls are also counted apart, usually the user-interface thread */
+#if defined (_WIN32) || defined (_WIN32_WCE)
+static DWORD statsThread;
+#else
+static pthread_t statsThread;
+#endif
+static int statsThreadSet = 0;
+
+/* Answers a monotonic time in nanoseconds */
+jlong swtStatsTime() {
+#if defined (_WIN32) || defined (_WIN32_WCE)
+	static LARGE_INTEGER frequency;
+	LARGE_INTEGER counter;
+	if (frequency.QuadPart == 0) QueryPerformanceFrequency(&frequency);
+	QueryPerformanceCounter(&counter);
+	return (jlong)(counter.QuadPart / frequency.QuadPart * 1000000000 + counter.QuadPart % frequency.QuadPart * 1000000000 / frequency.QuadPart);
+#elif defined (__APPLE__)
+	static mach_timebase_info_data_t timebase;
+	if (timebase.denom == 0) mach_timebase_info(&timebase);
+	return (jlong)(mach_absolute_time() * timebase.numer / timebase.denom);
+#else
+	struct timespec time;
+	clock_gettime(CLOCK_MONOTONIC, &time);
+	return (jlong)time.tv_sec * 1000000000 + time.tv_nsec;
+#endif
+}
+
+void swtStatsSetThread() {
+#if defined (_WIN32) || defined (_WIN32_WCE)
+	statsThread = GetCurrentThreadId();
+#else
+	statsThread = pthread_self();
+#endif
+	statsThreadSet = 1;
+}
+
+static int swtStatsIsThread() {
+	if (!statsThreadSet) return 0;
+#if defined (_WIN32) || defined (_WIN32_WCE)
+	return statsThread == GetCurrentThreadId();
+#else
+	return pthread_equal(statsThread, pthread_self());
+#endif
+}
+
+void swtStatsRecord(int func, jlong start, jlong bytes, jlong *time, int *histogram, jlong *bytesCount, int *threadCallCount, jlong *threadTime) {
+	jlong elapsed = swtStatsTime() - start;
+	jlong micros = elapsed / 1000;
+	int bucket = 0;
+	while (micros > 0 && bucket < STATS_HISTOGRAM_SIZE - 1) {
+		micros >>= 1;
+		bucket++;
+	}
+	time[func] += elapsed;
+	histogram[func * STATS_HISTOGRAM_SIZE + bucket]++;
+	bytesCount[func] += bytes;
+	if (swtStatsIsThread()) {
+		threadCallCount[func]++;
+		threadTime[func] += elapsed;
+	}
+}
+
+#endif
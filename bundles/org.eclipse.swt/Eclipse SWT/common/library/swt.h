@@ -150,6 +150,14 @@ extern int IS_JNI_1_2;
 
 void throwOutOfMemory(JNIEnv *env);
 
+#ifdef NATIVE_STATS
+/* number of buckets of the histograms of the time spent in natives, in powers of two microseconds */
+#define STATS_HISTOGRAM_SIZE 16
+jlong swtStatsTime();
+void swtStatsSetThread();
+void swtStatsRecord(int func, jlong start, jlong bytes, jlong *time, int *histogram, jlong *bytesCount, int *threadCallCount, jlong *threadTime);
+#endif
+
 #define CHECK_NULL_VOID(ptr) \
 	if ((ptr) == NULL) { \
 		throwOutOfMemory(env); \
@@ -0,0 +1,519 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal;
+
+/**
+ * An area made of non-overlapping rectangles kept in the y-x banded
+ * form used by the X11 region code. The rectangles are sorted by their
+ * top edge and then by their left edge. All the rectangles of a band
+ * share the same top and bottom edges, bands do not overlap, rectangles
+ * in the same band do not touch and vertically adjacent bands covering
+ * the same spans are merged into one.
+ * <p>
+ * Point containment is a binary search. Union, intersection and
+ * subtraction walk the bands of both operands once.
+ * </p>
+ * <p>
+ * <b>IMPORTANT:</b> This class is <em>not</em> part of the SWT
+ * public API. It is marked public only so that it can be shared
+ * within the packages provided by SWT.
+ * </p>
+ *
+ * @noreference This class is not intended to be referenced by clients.
+ */
+public final class BandedRegion {
+	/* x1, y1, x2, y2 of each rectangle, the right and bottom edges are exclusive */
+	int [] rects;
+	int count;
+	int left, top, right, bottom;
+
+	/* Output of the operation in progress */
+	int [] work, spans;
+	int workCount, prevBand, prevBandSize;
+
+	static final int UNION = 0;
+	static final int INTERSECT = 1;
+	static final int SUBTRACT = 2;
+
+/**
+ * Constructs a new empty region.
+ */
+public BandedRegion () {
+	rects = new int [16];
+}
+
+/**
+ * Constructs a new region covering the same area as the argument.
+ *
+ * @param region the region to copy
+ */
+public BandedRegion (BandedRegion region) {
+	rects = new int [Math.max (16, region.count * 4)];
+	set (region);
+}
+
+/**
+ * Adds the rectangle to the area of the receiver.
+ */
+public void add (int x, int y, int width, int height) {
+	if (width <= 0 || height <= 0) return;
+	int x2 = x + width, y2 = y + height;
+	if (count == 0 || (x <= left && y <= top && x2 >= right && y2 >= bottom)) {
+		setRectangle (x, y, x2, y2);
+		return;
+	}
+	if (y >= bottom) {
+		/* Common when damage is accumulated top to bottom, no need to walk the bands */
+		prepare (count + 1);
+		System.arraycopy (rects, 0, work, 0, count * 4);
+		workCount = count;
+		int last = count - 1;
+		prevBand = last;
+		while (prevBand > 0 && rects [(prevBand - 1) * 4 + 1] == rects [last * 4 + 1]) prevBand--;
+		prevBandSize = count - prevBand;
+		spans [0] = x;
+		spans [1] = x2;
+		emitSpans (1, y, y2);
+		finish ();
+		return;
+	}
+	op (new int [] {x, y, x2, y2}, 1, UNION);
+}
+
+/**
+ * Adds the area of the argument to the area of the receiver.
+ */
+public void add (BandedRegion region) {
+	if (region.count == 0) return;
+	if (count == 0) {
+		set (region);
+		return;
+	}
+	op (region.rects, region.count, UNION);
+}
+
+int bandEnd (int [] rects, int count, int index) {
+	int y1 = rects [index * 4 + 1];
+	int end = index + 1;
+	while (end < count && rects [end * 4 + 1] == y1) end++;
+	return end;
+}
+
+/**
+ * Makes the receiver empty.
+ */
+public void clear () {
+	count = 0;
+	left = top = right = bottom = 0;
+}
+
+/**
+ * Returns whether the point is inside the area of the receiver.
+ */
+public boolean contains (int x, int y) {
+	if (count == 0 || x < left || x >= right || y < top || y >= bottom) return false;
+	int index = firstBelow (y);
+	if (index == count) return false;
+	int y1 = rects [index * 4 + 1];
+	if (y1 > y) return false;
+	/* Find the last rectangle of the band whose left edge is not past x */
+	int low = index, high = index;
+	while (high + 1 < count && rects [(high + 1) * 4 + 1] == y1) {
+		int step = 1;
+		while (high + step < count && rects [(high + step) * 4 + 1] == y1) step <<= 1;
+		high += step >> 1;
+	}
+	while (low < high) {
+		int mid = (low + high + 1) >>> 1;
+		if (rects [mid * 4] <= x) {
+			low = mid;
+		} else {
+			high = mid - 1;
+		}
+	}
+	return rects [low * 4] <= x && x < rects [low * 4 + 2];
+}
+
+void emitBand (int [] rects, int start, int end, int y1, int y2) {
+	int size = 0;
+	for (int i = start; i < end; i++) {
+		spans [size * 2] = rects [i * 4];
+		spans [size * 2 + 1] = rects [i * 4 + 2];
+		size++;
+	}
+	emitSpans (size, y1, y2);
+}
+
+void emitSpans (int size, int y1, int y2) {
+	if (size == 0 || y1 >= y2) return;
+	if (prevBand != -1 && prevBandSize == size && work [prevBand * 4 + 3] == y1) {
+		boolean same = true;
+		for (int i = 0; i < size && same; i++) {
+			int index = (prevBand + i) * 4;
+			same = work [index] == spans [i * 2] && work [index + 2] == spans [i * 2 + 1];
+		}
+		if (same) {
+			for (int i = 0; i < size; i++) {
+				work [(prevBand + i) * 4 + 3] = y2;
+			}
+			return;
+		}
+	}
+	if ((workCount + size) * 4 > work.length) {
+		int [] newWork = new int [Math.max (work.length * 2, (workCount + size) * 4)];
+		System.arraycopy (work, 0, newWork, 0, workCount * 4);
+		work = newWork;
+	}
+	prevBand = workCount;
+	prevBandSize = size;
+	for (int i = 0; i < size; i++) {
+		int index = workCount++ * 4;
+		work [index] = spans [i * 2];
+		work [index + 1] = y1;
+		work [index + 2] = spans [i * 2 + 1];
+		work [index + 3] = y2;
+	}
+}
+
+void finish () {
+	int [] temp = rects;
+	rects = work;
+	count = workCount;
+	work = temp;
+	if (count == 0) {
+		clear ();
+		return;
+	}
+	top = rects [1];
+	bottom = rects [count * 4 - 1];
+	left = rects [0];
+	right = rects [2];
+	for (int i = 1; i < count; i++) {
+		left = Math.min (left, rects [i * 4]);
+		right = Math.max (right, rects [i * 4 + 2]);
+	}
+}
+
+int firstBelow (int y) {
+	/* The bottom edges never decrease, find the first rectangle whose bottom edge is past y */
+	int low = 0, high = count;
+	while (low < high) {
+		int mid = (low + high) >>> 1;
+		if (rects [mid * 4 + 3] <= y) {
+			low = mid + 1;
+		} else {
+			high = mid;
+		}
+	}
+	return low;
+}
+
+/**
+ * Stores the bounding box of the receiver as x, y, width and height
+ * into the first four elements of the array.
+ */
+public void getBounds (int [] bounds) {
+	bounds [0] = left;
+	bounds [1] = top;
+	bounds [2] = right - left;
+	bounds [3] = bottom - top;
+}
+
+/**
+ * Returns the number of rectangles making up the receiver.
+ */
+public int getRectangleCount () {
+	return count;
+}
+
+/**
+ * Stores the rectangles of the receiver as x, y, width and height
+ * into the array, which must hold four values per rectangle.
+ */
+public void getRectangles (int [] rectangles) {
+	for (int i = 0; i < count; i++) {
+		int index = i * 4;
+		rectangles [index] = rects [index];
+		rectangles [index + 1] = rects [index + 1];
+		rectangles [index + 2] = rects [index + 2] - rects [index];
+		rectangles [index + 3] = rects [index + 3] - rects [index + 1];
+	}
+}
+
+/**
+ * Intersects the area of the receiver with the rectangle.
+ */
+public void intersect (int x, int y, int width, int height) {
+	if (count == 0) return;
+	if (width <= 0 || height <= 0) {
+		clear ();
+		return;
+	}
+	int x2 = x + width, y2 = y + height;
+	if (x <= left && y <= top && x2 >= right && y2 >= bottom) return;
+	op (new int [] {x, y, x2, y2}, 1, INTERSECT);
+}
+
+/**
+ * Intersects the area of the receiver with the area of the argument.
+ */
+public void intersect (BandedRegion region) {
+	if (count == 0) return;
+	if (region.count == 0) {
+		clear ();
+		return;
+	}
+	op (region.rects, region.count, INTERSECT);
+}
+
+/**
+ * Returns whether the rectangle overlaps the area of the receiver.
+ */
+public boolean intersects (int x, int y, int width, int height) {
+	if (count == 0 || width <= 0 || height <= 0) return false;
+	int x2 = x + width, y2 = y + height;
+	if (x2 <= left || x >= right || y2 <= top || y >= bottom) return false;
+	for (int i = firstBelow (y); i < count; i++) {
+		int index = i * 4;
+		if (rects [index + 1] >= y2) break;
+		if (rects [index] < x2 && rects [index + 2] > x) return true;
+	}
+	return false;
+}
+
+/**
+ * Returns whether the receiver covers no area.
+ */
+public boolean isEmpty () {
+	return count == 0;
+}
+
+void op (int [] other, int otherCount, int kind) {
+	int [] rects = this.rects;
+	int count = this.count;
+	prepare (count + otherCount);
+	int ia = 0, ib = 0, y = Integer.MIN_VALUE;
+	while (ia < count && ib < otherCount) {
+		int aEnd = bandEnd (rects, count, ia), bEnd = bandEnd (other, otherCount, ib);
+		int aTop = Math.max (rects [ia * 4 + 1], y), aBottom = rects [ia * 4 + 3];
+		int bTop = Math.max (other [ib * 4 + 1], y), bBottom = other [ib * 4 + 3];
+		if (aTop < bTop) {
+			int y2 = Math.min (aBottom, bTop);
+			if (kind != INTERSECT) emitBand (rects, ia, aEnd, aTop, y2);
+			y = y2;
+		} else if (bTop < aTop) {
+			int y2 = Math.min (bBottom, aTop);
+			if (kind == UNION) emitBand (other, ib, bEnd, bTop, y2);
+			y = y2;
+		} else {
+			int y2 = Math.min (aBottom, bBottom);
+			int size;
+			switch (kind) {
+				case UNION: size = unionSpans (rects, ia, aEnd, other, ib, bEnd); break;
+				case INTERSECT: size = intersectSpans (rects, ia, aEnd, other, ib, bEnd); break;
+				default: size = subtractSpans (rects, ia, aEnd, other, ib, bEnd); break;
+			}
+			emitSpans (size, aTop, y2);
+			y = y2;
+		}
+		if (aBottom <= y) ia = aEnd;
+		if (bBottom <= y) ib = bEnd;
+	}
+	if (kind != INTERSECT) {
+		while (ia < count) {
+			int aEnd = bandEnd (rects, count, ia);
+			emitBand (rects, ia, aEnd, Math.max (rects [ia * 4 + 1], y), rects [ia * 4 + 3]);
+			ia = aEnd;
+		}
+	}
+	if (kind == UNION) {
+		while (ib < otherCount) {
+			int bEnd = bandEnd (other, otherCount, ib);
+			emitBand (other, ib, bEnd, Math.max (other [ib * 4 + 1], y), other [ib * 4 + 3]);
+			ib = bEnd;
+		}
+	}
+	finish ();
+}
+
+void prepare (int size) {
+	if (work == null || work.length < size * 4) work = new int [Math.max (16, size * 4)];
+	if (spans == null || spans.length < size * 2) spans = new int [Math.max (16, size * 2)];
+	workCount = 0;
+	prevBand = -1;
+	prevBandSize = 0;
+}
+
+int intersectSpans (int [] a, int ia, int aEnd, int [] b, int ib, int bEnd) {
+	int size = 0;
+	while (ia < aEnd && ib < bEnd) {
+		int x1 = Math.max (a [ia * 4], b [ib * 4]);
+		int x2 = Math.min (a [ia * 4 + 2], b [ib * 4 + 2]);
+		if (x1 < x2) {
+			spans [size * 2] = x1;
+			spans [size * 2 + 1] = x2;
+			size++;
+		}
+		if (a [ia * 4 + 2] < b [ib * 4 + 2]) {
+			ia++;
+		} else {
+			ib++;
+		}
+	}
+	return size;
+}
+
+/**
+ * Makes the receiver cover the same area as the argument.
+ */
+public void set (BandedRegion region) {
+	if (rects.length < region.count * 4) rects = new int [region.count * 4];
+	System.arraycopy (region.rects, 0, rects, 0, region.count * 4);
+	count = region.count;
+	left = region.left;
+	top = region.top;
+	right = region.right;
+	bottom = region.bottom;
+}
+
+void setRectangle (int x1, int y1, int x2, int y2) {
+	rects [0] = left = x1;
+	rects [1] = top = y1;
+	rects [2] = right = x2;
+	rects [3] = bottom = y2;
+	count = 1;
+}
+
+/**
+ * Makes the receiver cover the union of the given rectangles, which are
+ * stored as x, y, width and height. Rectangles already in banded order,
+ * such as the ones returned by the native region of the platform, are
+ * copied without walking the bands.
+ */
+public void setRectangles (int [] rectangles, int rectangleCount) {
+	clear ();
+	if (rectangleCount == 0) return;
+	prepare (rectangleCount);
+	boolean banded = true;
+	for (int i = 0; i < rectangleCount && banded; i++) {
+		int index = i * 4;
+		int x1 = rectangles [index], y1 = rectangles [index + 1];
+		int x2 = x1 + rectangles [index + 2], y2 = y1 + rectangles [index + 3];
+		banded = x1 < x2 && y1 < y2;
+		if (banded && i > 0) {
+			int prev = (i - 1) * 4;
+			int prevY1 = work [prev + 1], prevY2 = work [prev + 3];
+			if (prevY1 == y1) {
+				banded = prevY2 == y2 && work [prev + 2] < x1;
+			} else {
+				banded = prevY2 <= y1;
+			}
+		}
+		work [index] = x1;
+		work [index + 1] = y1;
+		work [index + 2] = x2;
+		work [index + 3] = y2;
+	}
+	if (banded) {
+		workCount = rectangleCount;
+		finish ();
+		return;
+	}
+	for (int i = 0; i < rectangleCount; i++) {
+		int index = i * 4;
+		add (rectangles [index], rectangles [index + 1], rectangles [index + 2], rectangles [index + 3]);
+	}
+}
+
+/**
+ * Removes the rectangle from the area of the receiver.
+ */
+public void subtract (int x, int y, int width, int height) {
+	if (count == 0 || width <= 0 || height <= 0) return;
+	int x2 = x + width, y2 = y + height;
+	if (x2 <= left || x >= right || y2 <= top || y >= bottom) return;
+	op (new int [] {x, y, x2, y2}, 1, SUBTRACT);
+}
+
+/**
+ * Removes the area of the argument from the area of the receiver.
+ */
+public void subtract (BandedRegion region) {
+	if (count == 0 || region.count == 0) return;
+	if (region.right <= left || region.left >= right || region.bottom <= top || region.top >= bottom) return;
+	op (region.rects, region.count, SUBTRACT);
+}
+
+int subtractSpans (int [] a, int ia, int aEnd, int [] b, int ib, int bEnd) {
+	int size = 0;
+	for (; ia < aEnd; ia++) {
+		int x1 = a [ia * 4], x2 = a [ia * 4 + 2];
+		while (ib < bEnd && b [ib * 4 + 2] <= x1) ib++;
+		int x = x1;
+		for (int i = ib; i < bEnd && b [i * 4] < x2; i++) {
+			if (b [i * 4] > x) {
+				spans [size * 2] = x;
+				spans [size * 2 + 1] = b [i * 4];
+				size++;
+			}
+			x = Math.max (x, b [i * 4 + 2]);
+		}
+		if (x < x2) {
+			spans [size * 2] = x;
+			spans [size * 2 + 1] = x2;
+			size++;
+		}
+	}
+	return size;
+}
+
+/**
+ * Moves the receiver by the given offsets.
+ */
+public void translate (int dx, int dy) {
+	if (count == 0) return;
+	for (int i = 0; i < count; i++) {
+		int index = i * 4;
+		rects [index] += dx;
+		rects [index + 1] += dy;
+		rects [index + 2] += dx;
+		rects [index + 3] += dy;
+	}
+	left += dx;
+	right += dx;
+	top += dy;
+	bottom += dy;
+}
+
+int unionSpans (int [] a, int ia, int aEnd, int [] b, int ib, int bEnd) {
+	int size = 0;
+	while (ia < aEnd || ib < bEnd) {
+		int x1, x2;
+		if (ib == bEnd || (ia < aEnd && a [ia * 4] <= b [ib * 4])) {
+			x1 = a [ia * 4];
+			x2 = a [ia * 4 + 2];
+			ia++;
+		} else {
+			x1 = b [ib * 4];
+			x2 = b [ib * 4 + 2];
+			ib++;
+		}
+		if (size > 0 && x1 <= spans [size * 2 - 1]) {
+			spans [size * 2 - 1] = Math.max (spans [size * 2 - 1], x2);
+		} else {
+			spans [size * 2] = x1;
+			spans [size * 2 + 1] = x2;
+			size++;
+		}
+	}
+	return size;
+}
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal;
+
+/**
+ * Receives the layout work done by the widgets while it is installed
+ * with <code>Display.setData(LayoutListener.KEY, listener)</code>.
+ * <p>
+ * Every operation is reported once it completes, with its start time
+ * and duration in nanoseconds and the number of enclosing operations,
+ * so that the events can be aggregated per widget or written to an
+ * event stream as they arrive. Nothing is measured while no listener
+ * is installed.
+ * </p>
+ * <p>
+ * <b>IMPORTANT:</b> This class is <em>not</em> part of the SWT
+ * public API. It is marked public only so that it can be shared
+ * within the packages provided by SWT.
+ * </p>
+ *
+ * @noreference This class is not intended to be referenced by clients.
+ */
+public abstract class LayoutListener {
+	int depth;
+
+	/** The display data key used to install or remove the listener. */
+	public static final String KEY = "org.eclipse.swt.internal.layoutListener"; //$NON-NLS-1$
+
+	/** A composite ran its layout, the widget is the composite. */
+	public static final int LAYOUT = 1;
+	/** A layout computed the preferred size of its composite, the widget is the composite. */
+	public static final int LAYOUT_SIZE = 2;
+	/** A layout asked a child for its preferred size, the widget is the child. */
+	public static final int CONTROL_SIZE = 3;
+	/** A size was answered from a cache, the widget is the control whose size was asked. */
+	public static final int CACHE_HIT = 4;
+
+	/**
+	 * The installed listener, or <code>null</code> when layout
+	 * operations are not being traced.
+	 */
+	public static LayoutListener listener;
+
+/**
+ * Marks the start of an operation and returns its start time.
+ */
+public long enter () {
+	depth++;
+	return System.nanoTime ();
+}
+
+/**
+ * Marks the end of an operation started with {@link #enter()} and
+ * reports it.
+ */
+public void exit (int type, Object widget, long start) {
+	long end = System.nanoTime ();
+	depth--;
+	layoutEvent (type, widget, depth, start, end - start);
+}
+
+/**
+ * Reports an operation that took no measurable time, such as a cache hit.
+ */
+public void hit (Object widget) {
+	layoutEvent (CACHE_HIT, widget, depth, System.nanoTime (), 0);
+}
+
+/**
+ * Called when a layout operation completes.
+ *
+ * @param type the kind of operation, one of <code>LAYOUT</code>, <code>LAYOUT_SIZE</code>,
+ * <code>CONTROL_SIZE</code> or <code>CACHE_HIT</code>
+ * @param widget the widget the operation applies to
+ * @param depth the number of operations enclosing this one
+ * @param start the value of <code>System.nanoTime()</code> when the operation started
+ * @param duration the duration of the operation in nanoseconds
+ */
+public abstract void layoutEvent (int type, Object widget, int depth, long start, long duration);
+}
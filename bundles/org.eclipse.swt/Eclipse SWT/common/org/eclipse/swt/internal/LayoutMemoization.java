@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal;
+
+/**
+ * Tells the layouts whether a display memoizes the sizes computed by the
+ * layouts of its composites.
+ * <p>
+ * The flag is set by the platforms that support the memoization, when it
+ * is turned on with the display data <code>"org.eclipse.swt.internal.gtk.memoizeLayout"</code>.
+ * It is never set on the other platforms, so that the layout data of the
+ * common layouts only read a field to find out.
+ * </p>
+ * <p>
+ * <b>IMPORTANT:</b> This class is <em>not</em> part of the SWT
+ * public API. It is marked public only so that it can be shared
+ * within the packages provided by SWT.
+ * </p>
+ *
+ * @noreference This class is not intended to be referenced by clients.
+ */
+public class LayoutMemoization {
+
+	/**
+	 * Whether layout sizes are memoized.
+	 */
+	public static boolean enabled;
+}
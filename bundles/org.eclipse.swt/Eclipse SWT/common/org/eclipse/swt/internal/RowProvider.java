@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.internal;
+
+import org.eclipse.swt.graphics.*;
+
+/**
+ * Supplies the cells of the rows of an <code>SWT.VIRTUAL</code> table
+ * that is installed with <code>Table.setData(RowProvider.KEY, provider)</code>.
+ * <p>
+ * The table asks for the cells of a row when the row is painted or
+ * requested, instead of sending <code>SWT.SetData</code>. Since no item
+ * is handed to a listener, the row cache of the table can dispose the
+ * rows that are scrolled out of view. A <code>null</code> value leaves
+ * the cell attribute at its default.
+ * </p>
+ * <p>
+ * <b>IMPORTANT:</b> This class is <em>not</em> part of the SWT
+ * public API. It is marked public only so that it can be shared
+ * within the packages provided by SWT.
+ * </p>
+ *
+ * @noreference This class is not intended to be referenced by clients.
+ */
+public interface RowProvider {
+
+	/** The widget data key used to install or remove the provider. */
+	public static final String KEY = "org.eclipse.swt.internal.table.rowProvider"; //$NON-NLS-1$
+
+/**
+ * Returns the text of the cell, or <code>null</code>.
+ */
+public String getText (int row, int column);
+
+/**
+ * Returns the image of the cell, or <code>null</code>.
+ */
+public Image getImage (int row, int column);
+
+/**
+ * Returns the foreground color of the cell, or <code>null</code>.
+ */
+public Color getForeground (int row, int column);
+
+/**
+ * Returns the background color of the cell, or <code>null</code>.
+ */
+public Color getBackground (int row, int column);
+
+/**
+ * Returns the font of the cell, or <code>null</code>.
+ */
+public Font getFont (int row, int column);
+}
@@ -399,6 +399,7 @@ public final class GridData {
 	int cacheWidth = -1, cacheHeight = -1;
 	int defaultWhint, defaultHhint, defaultWidth = -1, defaultHeight = -1;
 	int currentWhint, currentHhint, currentWidth = -1, currentHeight = -1;
+	SizeCache sizeCache;
 
 /**
  * Constructs a new instance of GridData using
@@ -486,24 +487,38 @@ public GridData (int width, int height) {
 
 void computeSize (Control control, int wHint, int hHint, boolean flushCache) {
 	if (cacheWidth != -1 && cacheHeight != -1) return;
+	/* The sizes kept in one mode are not updated in the other one and may be stale */
+	if (SizeCache.isEnabled ()) {
+		defaultWidth = currentWidth = -1;
+		if (sizeCache == null) sizeCache = new SizeCache ();
+		int index = sizeCache.computeSize (control, wHint, hHint, flushCache);
+		cacheWidth = sizeCache.getWidth (index);
+		cacheHeight = sizeCache.getHeight (index);
+		return;
+	}
+	sizeCache = null;
 	if (wHint == this.widthHint && hHint == this.heightHint) {
 		if (defaultWidth == -1 || defaultHeight == -1 || wHint != defaultWhint || hHint != defaultHhint) {
-			Point size = control.computeSize (wHint, hHint, flushCache);
+			Point size = SizeCache.computeControlSize (control, wHint, hHint, flushCache);
 			defaultWhint = wHint;
 			defaultHhint = hHint;
 			defaultWidth = size.x;
 			defaultHeight = size.y;
+		} else {
+			SizeCache.hit (control);
 		}
 		cacheWidth = defaultWidth;
 		cacheHeight = defaultHeight;
 		return;
 	}
 	if (currentWidth == -1 || currentHeight == -1 || wHint != currentWhint || hHint != currentHhint) {
-		Point size = control.computeSize (wHint, hHint, flushCache);
+		Point size = SizeCache.computeControlSize (control, wHint, hHint, flushCache);
 		currentWhint = wHint;
 		currentHhint = hHint;
 		currentWidth = size.x;
 		currentHeight = size.y;
+	} else {
+		SizeCache.hit (control);
 	}
 	cacheWidth = currentWidth;
 	cacheHeight = currentHeight;
@@ -513,6 +528,7 @@ void flushCache () {
 	cacheWidth = cacheHeight = -1;
 	defaultWidth = defaultHeight = -1;
 	currentWidth = currentHeight = -1;
+	if (sizeCache != null) sizeCache.flush ();
 }
 
 String getName () {
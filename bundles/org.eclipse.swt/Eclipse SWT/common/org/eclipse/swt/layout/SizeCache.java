@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.layout;
+
+import org.eclipse.swt.graphics.*;
+import org.eclipse.swt.internal.*;
+import org.eclipse.swt.widgets.*;
+
+/**
+ * Remembers the sizes computed by a control for the last few
+ * width and height hints, so that layouts asking for the same
+ * hints again, for example while wrapping controls to a column
+ * width, do not ask the control to compute its size again.
+ * <p>
+ * The cache is only used when layout memoization is turned on
+ * for the display, since a layout that is not flushed then gets
+ * the remembered size for more hints than the two that layout
+ * data otherwise keeps.
+ * </p>
+ */
+class SizeCache {
+	/* wHint, hHint, width, height and last use of each entry */
+	int [] entries = new int [ENTRIES * 5];
+	int count, clock;
+
+	static final int ENTRIES = 4;
+
+/**
+ * Returns the index of the entry holding the size of the control
+ * for the hints, computing the size only if it is not cached.
+ */
+int computeSize (Control control, int wHint, int hHint, boolean flushCache) {
+	int index = indexOf (wHint, hHint);
+	if (index == -1) {
+		Point size = computeControlSize (control, wHint, hHint, flushCache);
+		if (count < ENTRIES) {
+			index = count++ * 5;
+		} else {
+			/* Replace the least recently used entry */
+			index = 0;
+			for (int i = 5; i < entries.length; i += 5) {
+				if (entries [i + 4] < entries [index + 4]) index = i;
+			}
+		}
+		entries [index] = wHint;
+		entries [index + 1] = hHint;
+		entries [index + 2] = size.x;
+		entries [index + 3] = size.y;
+	} else {
+		hit (control);
+	}
+	entries [index + 4] = ++clock;
+	return index;
+}
+
+/**
+ * Asks the control for its size, reporting the computation to
+ * the layout listener when one is installed.
+ */
+static Point computeControlSize (Control control, int wHint, int hHint, boolean flushCache) {
+	LayoutListener listener = LayoutListener.listener;
+	if (listener == null) return control.computeSize (wHint, hHint, flushCache);
+	long start = listener.enter ();
+	try {
+		return control.computeSize (wHint, hHint, flushCache);
+	} finally {
+		listener.exit (LayoutListener.CONTROL_SIZE, control, start);
+	}
+}
+
+int getWidth (int index) {
+	return entries [index + 2];
+}
+
+int getHeight (int index) {
+	return entries [index + 3];
+}
+
+void flush () {
+	count = 0;
+}
+
+static boolean isEnabled () {
+	return LayoutMemoization.enabled;
+}
+
+/**
+ * Reports to the layout listener, when one is installed, that the
+ * size of the control was answered without computing it.
+ */
+static void hit (Control control) {
+	LayoutListener listener = LayoutListener.listener;
+	if (listener != null) listener.hit (control);
+}
+
+int indexOf (int wHint, int hHint) {
+	for (int i = 0; i < count * 5; i += 5) {
+		if (entries [i] == wHint && entries [i + 1] == hHint) return i;
+	}
+	return -1;
+}
+}
@@ -202,6 +202,38 @@ public void addPath(Path path) {
 	if (path.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 }
 
+/**
+ * Adds to the receiver a new sub path connecting <code>count</code>
+ * points of the specified array of floating point coordinates, starting
+ * at <code>offset</code>. The array contains alternating x and y values.
+ * This is equivalent to calling <code>moveTo</code> for the first point
+ * and <code>lineTo</code> for each of the following points.
+ *
+ * @param points an array of alternating x and y values
+ * @param offset the index of the x coordinate of the first point
+ * @param count the number of points to add
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the point array is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if offset or count are negative or the range is outside of the array</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @since 3.104
+ */
+public void addPolyline(float[] points, int offset, int count) {
+	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (points == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (offset < 0 || count < 0 || offset > points.length || count > (points.length - offset) / 2) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	if (count == 0) return;
+	moveTo(points[offset], points[offset + 1]);
+	for (int i = offset + 2, end = offset + count * 2; i < end; i += 2) {
+		lineTo(points[i], points[i + 1]);
+	}
+}
+
 /**
  * Adds to the receiver the rectangle specified by x, y, width and height.
  *
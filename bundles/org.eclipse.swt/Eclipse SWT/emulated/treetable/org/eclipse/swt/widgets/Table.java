@@ -70,7 +70,12 @@ public class Table extends Composite {
 	TableColumn[] columns = new TableColumn [0];
 	TableColumn[] orderedColumns;
 	TableItem[] items = new TableItem [0];
-	TableItem[] selectedItems = new TableItem [0];
+	long[] selection = new long [0];	/* one bit per item index */
+	int selectionCount;
+	int firstStaleIndex = Integer.MAX_VALUE;	/* items from this position have a stale index */
+	TableItem[] rows;	/* items created on demand, see _getItem(int) */
+	int rowsCount, rowStamp;
+	RowProvider rowProvider;
 	TableItem focusItem, anchorItem, lastClickedItem;
 	Color cachedBackground, cachedForeground;
 	Event lastSelectionEvent;
@@ -106,6 +111,7 @@ public class Table extends Composite {
 	static final String ID_CHECKMARK = "CHECKMARK";			//$NON-NLS-1$
 	static final String ID_ARROWUP = "ARROWUP";				//$NON-NLS-1$
 	static final String ID_ARROWDOWN = "ARROWDOWN";			//$NON-NLS-1$
+	static final String ROW_CACHE_KEY = "org.eclipse.swt.internal.table.rowCache";	//$NON-NLS-1$
 	
 //TEMPORARY CODE
 boolean hasFocus;
@@ -216,6 +222,78 @@ public Table (Composite parent, int style) {
 		vBar.addListener (SWT.Selection, listener);
 	}
 }
+/*
+ * Returns the item at the given index. When the row cache of an SWT.VIRTUAL
+ * table is enabled, the items are only created when they are requested and
+ * the least recently used ones are disposed when the cache is full.
+ */
+TableItem _getItem (int index) {
+	return _getItem (index, true);
+}
+/*
+ * An item that is requested with cache set to false is kept until it is
+ * removed, like the items created by setItemCount(int) without a row cache.
+ * The items that are returned by the public API are requested this way.
+ */
+TableItem _getItem (int index, boolean cache) {
+	TableItem item = items [index];
+	if (item == null) {
+		item = items [index] = new TableItem (this, SWT.NONE, index, false);
+		if (cache && rows != null) addRow (item);
+	} else if (item.rowStamp > 0) {
+		item.rowStamp = cache ? ++rowStamp : 0;
+	} else if (item.rowStamp == -1) {
+		/* a row that was cleared by the row cache */
+		item.rowStamp = 0;
+		if (cache && rows != null) addRow (item);
+	}
+	return item;
+}
+/*
+ * Adds an item created on demand to the row cache. When the cache is full,
+ * the least recently used row that is not visible and is neither the focus,
+ * the anchor nor the last clicked item is released. The cache grows when
+ * every row in it is in use. A row that was never passed to a listener is
+ * disposed. A row that was, for example in a SetData event, is only cleared
+ * so that no listener holds a disposed item, and it is filled again when it
+ * is needed.
+ */
+void addRow (TableItem item) {
+	if (rowsCount == rows.length) {
+		int victim = -1, count = 0;
+		for (int i = 0; i < rowsCount; i++) {
+			TableItem row = rows [i];
+			if (row.rowStamp == 0) continue;	/* kept by _getItem(int, boolean) */
+			rows [count] = row;
+			if (row != focusItem && row != anchorItem && row != lastClickedItem && !row.isInViewport ()) {
+				if (victim == -1 || row.rowStamp < rows [victim].rowStamp) victim = count;
+			}
+			count++;
+		}
+		for (int i = count; i < rowsCount; i++) {
+			rows [i] = null;
+		}
+		rowsCount = count;
+		if (victim != -1) {
+			TableItem row = rows [victim];
+			rows [victim] = rows [--rowsCount];
+			rows [rowsCount] = null;
+			if (row.notified) {
+				row.clear ();
+				row.rowStamp = -1;
+			} else {
+				items [row.getIndex ()] = null;
+				row.dispose (false);
+			}
+		} else if (rowsCount == rows.length) {
+			TableItem[] newRows = new TableItem [rows.length * 2];
+			System.arraycopy (rows, 0, newRows, 0, rowsCount);
+			rows = newRows;
+		}
+	}
+	item.rowStamp = ++rowStamp;
+	rows [rowsCount++] = item;
+}
 /**
  * Adds the listener to the collection of listeners who will
  * be notified when the user changes the receiver's selection, by sending
@@ -254,12 +332,16 @@ boolean checkData (TableItem item, boolean redraw) {
 	if (item.cached) return true;
 	if ((style & SWT.VIRTUAL) != 0) {
 		item.cached = true;
-		Event event = new Event ();
-		event.item = item;
-		event.index = indexOf (item);
-		sendEvent (SWT.SetData, event);
+		if (rowProvider != null) {
+			fillRow (item);
+		} else {
+			Event event = new Event ();
+			event.item = item;
+			event.index = indexOf (item);
+			sendEvent (SWT.SetData, event);
+		}
 		if (isDisposed () || item.isDisposed ()) return false;
-		if (redraw) redrawItem (item.index, false);
+		if (redraw) redrawItem (item.getIndex (), false);
 	}
 	return true;
 }
@@ -308,10 +390,13 @@ protected void checkSubclass () {
 public void clear (int index) {
 	checkWidget ();
 	if (!(0 <= index && index < itemsCount)) error (SWT.ERROR_INVALID_RANGE);
-	Rectangle bounds = items [index].getBounds (false);
-	int oldRightX = bounds.x + bounds.width;
-	items [index].clear ();
-	if (columns.length == 0) updateHorizontalBar (0, -oldRightX);
+	TableItem item = items [index];
+	if (item != null) {
+		Rectangle bounds = item.getBounds (false);
+		int oldRightX = bounds.x + bounds.width;
+		item.clear ();
+		if (columns.length == 0) updateHorizontalBar (0, -oldRightX);
+	}
 	redrawItem (index, false);
 }
 /**
@@ -344,7 +429,7 @@ public void clear (int start, int end) {
 		error (SWT.ERROR_INVALID_RANGE);
 	}
 	for (int i = start; i <= end; i++) {
-		items [i].clear ();
+		if (items [i] != null) items [i].clear ();
 	}
 	updateHorizontalBar ();
 	redrawItems (start, end, false);
@@ -382,7 +467,8 @@ public void clear (int [] indices) {
 	}
 	
 	for (int i = 0; i < indices.length; i++) {
-		items [indices [i]].clear ();
+		TableItem item = items [indices [i]];
+		if (item != null) item.clear ();
 	}
 	updateHorizontalBar ();
 	for (int i = 0; i < indices.length; i++) {
@@ -431,6 +517,7 @@ public Point computeSize (int wHint, int hHint, boolean changed) {
 	} else {
 		if (columns.length == 0) {
 			for (int i = 0; i < itemsCount; i++) {
+				if (items [i] == null) continue;
 				Rectangle itemBounds = items [i].getBounds (false);
 				width = Math.max (width, itemBounds.x + itemBounds.width);
 			}
@@ -474,7 +561,7 @@ void createItem (TableColumn column, int index) {
 
 	/* allow all items to update their internal structures accordingly */
 	for (int i = 0; i < itemsCount; i++) {
-		items [i].addColumn (column);
+		if (items [i] != null) items [i].addColumn (column);
 	}
 
 	/* existing items become hidden when going from 0 to 1 column (0 width) */
@@ -501,11 +588,10 @@ void createItem (TableItem item) {
 	}
 	items [index] = item;
 	itemsCount++;
+	insertSelection (index);
 
-	/* update the index for items bumped down by this new item */
-	for (int i = index + 1; i < itemsCount; i++) {
-		items [i].index = i;
-	}
+	/* the items bumped down by this new item are renumbered lazily, see TableItem.getIndex() */
+	if (index + 1 < itemsCount) firstStaleIndex = Math.min (firstStaleIndex, index + 1);
 
 	/* update scrollbars */
 	updateVerticalBar ();
@@ -516,7 +602,7 @@ void createItem (TableItem item) {
 	 * If new item is above viewport then adjust topIndex and the vertical
 	 * scrollbar so that the current viewport items will not change.
 	 */
-	if (item.index < topIndex) {
+	if (item.getIndex () < topIndex) {
 		topIndex++;
 		ScrollBar vBar = getVerticalBar ();
 		if (vBar != null) vBar.setSelection (topIndex);
@@ -550,17 +636,11 @@ void createItem (TableItem item) {
 public void deselect (int index) {
 	checkWidget ();
 	if (!(0 <= index && index < itemsCount)) return;
-	TableItem item = items [index];
-	int selectIndex = getSelectionIndex (item);
-	if (selectIndex == -1) return;
-	
-	TableItem[] newSelectedItems = new TableItem [selectedItems.length - 1];
-	System.arraycopy (selectedItems, 0, newSelectedItems, 0, selectIndex);
-	System.arraycopy (selectedItems, selectIndex + 1, newSelectedItems, selectIndex, newSelectedItems.length - selectIndex);
-	selectedItems = newSelectedItems;
+	if (!isItemSelected (index)) return;
+	setItemSelected (index, false);
 	
 	if (hasFocus () || (style & SWT.HIDE_SELECTION) == 0) {
-		redrawItem (item.index, false);
+		redrawItem (index, false);
 	}
 }
 /**
@@ -625,26 +705,17 @@ public void deselect (int [] indices) {
  */
 public void deselectAll () {
 	checkWidget ();
-	TableItem[] oldSelection = selectedItems;
-	selectedItems = new TableItem [0];
+	long[] oldSelection = selection;
+	selection = new long [0];
+	selectionCount = 0;
 	if (hasFocus () || (style & SWT.HIDE_SELECTION) == 0) {
-		for (int i = 0; i < oldSelection.length; i++) {
-			redrawItem (oldSelection [i].index, true);
+		for (int i = nextSetBit (oldSelection, 0); i != -1; i = nextSetBit (oldSelection, i + 1)) {
+			redrawItem (i, true);
 		}
 	}
 }
 void deselectItem (TableItem item) {
-	int index = getSelectionIndex (item);
-	if (index == -1) return;
-	TableItem[] newSelectedItems = new TableItem [selectedItems.length - 1];
-	System.arraycopy (selectedItems, 0, newSelectedItems, 0, index);
-	System.arraycopy (
-		selectedItems,
-		index + 1,
-		newSelectedItems,
-		index,
-		newSelectedItems.length - index);
-	selectedItems = newSelectedItems;
+	setItemSelected (item.getIndex (), false);
 }
 void destroyItem (TableColumn column) {
 	headerHideToolTip ();
@@ -681,7 +752,7 @@ void destroyItem (TableColumn column) {
 
 	/* allow all items to update their internal structures accordingly */
 	for (int i = 0; i < itemsCount; i++) {
-		items [i].removeColumn (column, index);
+		if (items [i] != null) items [i].removeColumn (column, index);
 	}
 
 	/* update horizontal scrollbar */
@@ -723,7 +794,7 @@ void destroyItem (TableColumn column) {
 void destroyItem (TableItem item) {
 	if (item == focusItem) reassignFocus ();
 
-	int index = item.index;
+	int index = item.getIndex ();
 	Rectangle bounds = item.getBounds (false);
 	int rightX = bounds.x + bounds.width;
 
@@ -735,6 +806,8 @@ void destroyItem (TableItem item) {
 		items [index] = null;	/* last item, so no array copy needed */
 	}
 	itemsCount--;
+	removeSelection (index);
+	if (rows != null) removeRow (item);
 	
 	if (drawCount <= 0 && items.length - itemsCount == 4) {
 		/* shrink the items array */
@@ -743,10 +816,8 @@ void destroyItem (TableItem item) {
 		items = newItems;
 	}
 
-	/* update the index on affected items */
-	for (int i = index; i < itemsCount; i++) {
-		items [i].index = i;
-	}
+	/* the items that moved are renumbered lazily, see TableItem.getIndex() */
+	if (index < itemsCount) firstStaleIndex = Math.min (firstStaleIndex, index);
 	item.index = -1;
 
 	int oldTopIndex = topIndex;
@@ -762,19 +833,6 @@ void destroyItem (TableItem item) {
 		if (vBar != null) vBar.setSelection (topIndex);
 	}
 
-	/* selectedItems array */
-	if (item.isSelected ()) {
-		int selectionIndex = getSelectionIndex (item);
-		TableItem[] newSelectedItems = new TableItem [selectedItems.length - 1];
-		System.arraycopy (selectedItems, 0, newSelectedItems, 0, selectionIndex);
-		System.arraycopy (
-			selectedItems,
-			selectionIndex + 1,
-			newSelectedItems,
-			selectionIndex,
-			newSelectedItems.length - selectionIndex);
-		selectedItems = newSelectedItems;
-	}
 	if (item == anchorItem) anchorItem = null;
 	if (item == lastClickedItem) lastClickedItem = null;
 	/*
@@ -786,6 +844,25 @@ void destroyItem (TableItem item) {
 		return;
 	}
 }
+/*
+ * Sets the cells of the item from the row provider, see RowProvider.
+ */
+void fillRow (TableItem item) {
+	int index = indexOf (item);
+	int columnCount = Math.max (1, columns.length);
+	for (int i = 0; i < columnCount; i++) {
+		String text = rowProvider.getText (index, i);
+		if (text != null) item.setText (i, text);
+		Image image = rowProvider.getImage (index, i);
+		if (image != null) item.setImage (i, image);
+		Color foreground = rowProvider.getForeground (index, i);
+		if (foreground != null) item.setForeground (i, foreground);
+		Color background = rowProvider.getBackground (index, i);
+		if (background != null) item.setBackground (i, background);
+		Font font = rowProvider.getFont (index, i);
+		if (font != null) item.setFont (i, font);
+	}
+}
 Image getArrowDownImage () {
 	return (Image) display.getData (ID_ARROWDOWN);
 }
@@ -1023,7 +1100,7 @@ public boolean getHeaderVisible () {
 public TableItem getItem (int index) {
 	checkWidget ();
 	if (!(0 <= index && index < itemsCount)) error (SWT.ERROR_INVALID_RANGE);
-	return items [index];
+	return _getItem (index, false);
 }
 /**
  * Returns the item at the given point in the receiver
@@ -1053,7 +1130,7 @@ public TableItem getItem (Point point) {
 	if (point == null) error (SWT.ERROR_NULL_ARGUMENT);
 	int index = (point.y - getHeaderHeight ()) / itemHeight + topIndex;
 	if (!(0 <= index && index < itemsCount)) return null;		/* below the last item */
-	TableItem result = items [index];
+	TableItem result = _getItem (index, false);
 	if (!result.getHitBounds ().contains (point)) return null;	/* considers the x value */
 	return result;
 }
@@ -1105,14 +1182,16 @@ public int getItemHeight () {
 public TableItem[] getItems () {
 	checkWidget ();
 	TableItem[] result = new TableItem [itemsCount];
-	System.arraycopy (items, 0, result, 0, itemsCount);
+	for (int i = 0; i < itemsCount; i++) {
+		result [i] = _getItem (i, false);
+	}
 	return result;	
 }
 /*
  * Returns the current y-coordinate that the specified item should have. 
  */
 int getItemY (TableItem item) {
-	return (item.index - topIndex) * itemHeight + getHeaderHeight ();
+	return (item.getIndex () - topIndex) * itemHeight + getHeaderHeight ();
 }
 /**
  * Returns <code>true</code> if the receiver's lines are visible,
@@ -1158,9 +1237,11 @@ TableColumn[] getOrderedColumns () {
  */
 public TableItem[] getSelection () {
 	checkWidget ();
-	TableItem[] result = new TableItem [selectedItems.length];
-	System.arraycopy (selectedItems, 0, result, 0, selectedItems.length);
-	sortAscent (result);
+	TableItem[] result = new TableItem [selectionCount];
+	int index = 0;
+	for (int i = nextSetBit (selection, 0); i != -1; i = nextSetBit (selection, i + 1)) {
+		result [index++] = _getItem (i, false);
+	}
 	return result;
 }
 /**
@@ -1175,7 +1256,7 @@ public TableItem[] getSelection () {
  */
 public int getSelectionCount () {
 	checkWidget ();
-	return selectedItems.length;
+	return selectionCount;
 }
 /**
  * Returns the zero-relative index of the item which is currently
@@ -1190,18 +1271,7 @@ public int getSelectionCount () {
  */
 public int getSelectionIndex () {
 	checkWidget ();
-	if (selectedItems.length == 0) return -1;
-	return selectedItems [0].index;
-}
-/*
- * Returns the index of the argument in the receiver's array of currently-
- * selected items, or -1 if the item is not currently selected.
- */
-int getSelectionIndex (TableItem item) {
-	for (int i = 0; i < selectedItems.length; i++) {
-		if (selectedItems [i] == item) return i;
-	}
-	return -1;
+	return nextSetBit (selection, 0);
 }
 /**
  * Returns the zero-relative indices of the items which are currently
@@ -1221,11 +1291,11 @@ int getSelectionIndex (TableItem item) {
  */
 public int [] getSelectionIndices () {
 	checkWidget ();
-	int[] result = new int [selectedItems.length];
-	for (int i = 0; i < selectedItems.length; i++) {
-		result [i] = selectedItems [i].index;
+	int[] result = new int [selectionCount];
+	int index = 0;
+	for (int i = nextSetBit (selection, 0); i != -1; i = nextSetBit (selection, i + 1)) {
+		result [index++] = i;
 	}
-	sortAscent (result);
 	return result;
 }
 /**
@@ -1706,7 +1776,7 @@ public int indexOf (TableItem item) {
 	checkWidget ();
 	if (item == null) error (SWT.ERROR_NULL_ARGUMENT);
 	if (item.parent != this) return -1;
-	return item.index;
+	return item.getIndex ();
 }
 static void initImages (final Display display) {
 	PaletteData arrowPalette = new PaletteData (new RGB[] {
@@ -1772,6 +1842,24 @@ static void initImages (final Display display) {
 		}
 	});
 }
+/*
+ * Opens a cleared selection bit for an item inserted at the given index
+ * and shifts the bits of the following items up.
+ */
+void insertSelection (int index) {
+	int word = index >> 6;
+	if (selectionCount == 0 || word >= selection.length) return;
+	if ((selection [selection.length - 1] >>> 63) != 0) {
+		long[] newSelection = new long [selection.length + 1];
+		System.arraycopy (selection, 0, newSelection, 0, selection.length);
+		selection = newSelection;
+	}
+	for (int i = selection.length - 1; i > word; i--) {
+		selection [i] = (selection [i] << 1) | (selection [i - 1] >>> 63);
+	}
+	long bits = selection [word], lowBits = (1L << (index & 63)) - 1;
+	selection [word] = (bits & lowBits) | ((bits & ~lowBits) << 1);
+}
 /**
  * Returns <code>true</code> if the item is selected,
  * and <code>false</code> otherwise.  Indices out of
@@ -1788,19 +1876,43 @@ static void initImages (final Display display) {
 public boolean isSelected (int index) {
 	checkWidget ();
 	if (!(0 <= index && index < itemsCount)) return false;
-	return items [index].isSelected ();
+	return isItemSelected (index);
+}
+boolean isInViewport (int index) {
+	if (index < topIndex) return false;
+	int visibleCount = clientArea.height / itemHeight;
+	return index <= topIndex + visibleCount;
+}
+boolean isItemSelected (int index) {
+	int word = index >> 6;
+	if (index < 0 || word >= selection.length) return false;
+	return (selection [word] & (1L << (index & 63))) != 0;
+}
+/*
+ * Returns the index of the first bit set at or after the given index,
+ * or -1 if there is none.
+ */
+static int nextSetBit (long[] bits, int index) {
+	int word = index >> 6;
+	if (word >= bits.length) return -1;
+	long value = bits [word] & (-1L << (index & 63));
+	while (value == 0) {
+		if (++word == bits.length) return -1;
+		value = bits [word];
+	}
+	return (word << 6) + Long.numberOfTrailingZeros (value);
 }
 void onArrowDown (int stateMask) {
 	if ((stateMask & (SWT.SHIFT | SWT.CTRL)) == 0) {
 		/* Down Arrow with no modifiers */
-		int newFocusIndex = focusItem.index + 1;
+		int newFocusIndex = focusItem.getIndex () + 1;
 		if (newFocusIndex == itemsCount) return; 	/* at bottom */
-		selectItem (items [newFocusIndex], false);
-		setFocusItem (items [newFocusIndex], true);
+		selectItem (_getItem (newFocusIndex), false);
+		setFocusItem (_getItem (newFocusIndex), true);
 		redrawItem (newFocusIndex, true);
-		showItem (items [newFocusIndex]);
+		showItem (_getItem (newFocusIndex));
 		Event newEvent = new Event ();
-		newEvent.item = items [newFocusIndex];
+		newEvent.item = _getItem (newFocusIndex);
 		postEvent (SWT.Selection, newEvent);
 		return;
 	}
@@ -1822,14 +1934,14 @@ void onArrowDown (int stateMask) {
 			return;
 		}
 		/* Shift+Down Arrow */
-		int newFocusIndex = focusItem.index + 1;
+		int newFocusIndex = focusItem.getIndex () + 1;
 		if (newFocusIndex == itemsCount) return; 	/* at bottom */
-		selectItem (items [newFocusIndex], false);
-		setFocusItem (items [newFocusIndex], true);
+		selectItem (_getItem (newFocusIndex), false);
+		setFocusItem (_getItem (newFocusIndex), true);
 		redrawItem (newFocusIndex, true);
-		showItem (items [newFocusIndex]);
+		showItem (_getItem (newFocusIndex));
 		Event newEvent = new Event ();
-		newEvent.item = items [newFocusIndex];
+		newEvent.item = _getItem (newFocusIndex);
 		postEvent (SWT.Selection, newEvent);
 		return;
 	}
@@ -1852,28 +1964,28 @@ void onArrowDown (int stateMask) {
 			return;
 		}
 		/* CTRL+Down Arrow */
-		int focusIndex = focusItem.index; 
+		int focusIndex = focusItem.getIndex (); 
 		if (focusIndex == itemsCount - 1) return;	/* at bottom */
-		TableItem newFocusItem = items [focusIndex + 1];
+		TableItem newFocusItem = _getItem (focusIndex + 1);
 		setFocusItem (newFocusItem, true);
-		redrawItem (newFocusItem.index, true);
+		redrawItem (newFocusItem.getIndex (), true);
 		showItem (newFocusItem);
 		return;
 	}
 	/* Shift+Down Arrow */
-	int newFocusIndex = focusItem.index + 1;
+	int newFocusIndex = focusItem.getIndex () + 1;
 	if (newFocusIndex == itemsCount) return; 	/* at bottom */
 	if (anchorItem == null) anchorItem = focusItem;
-	if (focusItem.index < anchorItem.index) {
+	if (focusItem.getIndex () < anchorItem.getIndex ()) {
 		deselectItem (focusItem);
-		redrawItem (focusItem.index, true);
+		redrawItem (focusItem.getIndex (), true);
 	}
-	selectItem (items [newFocusIndex], true);
-	setFocusItem (items [newFocusIndex], true);
+	selectItem (_getItem (newFocusIndex), true);
+	setFocusItem (_getItem (newFocusIndex), true);
 	redrawItem (newFocusIndex, true);
-	showItem (items [newFocusIndex]);
+	showItem (_getItem (newFocusIndex));
 	Event newEvent = new Event ();
-	newEvent.item = items [newFocusIndex];
+	newEvent.item = _getItem (newFocusIndex);
 	postEvent (SWT.Selection, newEvent);
 }
 void onArrowLeft (int stateMask) {
@@ -1931,9 +2043,9 @@ void onArrowRight (int stateMask) {
 void onArrowUp (int stateMask) {
 	if ((stateMask & (SWT.SHIFT | SWT.CTRL)) == 0) {
 		/* Up Arrow with no modifiers */
-		int newFocusIndex = focusItem.index - 1;
+		int newFocusIndex = focusItem.getIndex () - 1;
 		if (newFocusIndex < 0) return; 		/* at top */
-		TableItem item = items [newFocusIndex];
+		TableItem item = _getItem (newFocusIndex);
 		selectItem (item, false);
 		setFocusItem (item, true);
 		redrawItem (newFocusIndex, true);
@@ -1960,9 +2072,9 @@ void onArrowUp (int stateMask) {
 			return;
 		}
 		/* Shift+Up Arrow */
-		int newFocusIndex = focusItem.index - 1;
+		int newFocusIndex = focusItem.getIndex () - 1;
 		if (newFocusIndex < 0) return; 	/* at top */
-		TableItem item = items [newFocusIndex];
+		TableItem item = _getItem (newFocusIndex);
 		selectItem (item, false);
 		setFocusItem (item, true);
 		redrawItem (newFocusIndex, true);
@@ -1990,23 +2102,23 @@ void onArrowUp (int stateMask) {
 			return;
 		}
 		/* CTRL+Up Arrow */
-		int focusIndex = focusItem.index; 
+		int focusIndex = focusItem.getIndex (); 
 		if (focusIndex == 0) return;	/* at top */
-		TableItem newFocusItem = items [focusIndex - 1];
+		TableItem newFocusItem = _getItem (focusIndex - 1);
 		setFocusItem (newFocusItem, true);
 		showItem (newFocusItem);
-		redrawItem (newFocusItem.index, true);
+		redrawItem (newFocusItem.getIndex (), true);
 		return;
 	}
 	/* Shift+Up Arrow */
-	int newFocusIndex = focusItem.index - 1;
+	int newFocusIndex = focusItem.getIndex () - 1;
 	if (newFocusIndex < 0) return; 		/* at top */
 	if (anchorItem == null) anchorItem = focusItem;
-	if (anchorItem.index < focusItem.index) {
+	if (anchorItem.getIndex () < focusItem.getIndex ()) {
 		deselectItem (focusItem);
-		redrawItem (focusItem.index, true);
+		redrawItem (focusItem.getIndex (), true);
 	}
-	TableItem item = items [newFocusIndex];
+	TableItem item = _getItem (newFocusIndex);
 	selectItem (item, true);
 	setFocusItem (item, true);
 	redrawItem (newFocusIndex, true);
@@ -2028,7 +2140,7 @@ void onDispose (Event event) {
 	notifyListeners(SWT.Dispose, event);
 	event.type = SWT.None;
 	for (int i = 0; i < itemsCount; i++) {
-		items [i].dispose (false);
+		if (items [i] != null) items [i].dispose (false);
 	}
 	for (int i = 0; i < columns.length; i++) {
 		columns [i].dispose (false);
@@ -2040,7 +2152,9 @@ void onDispose (Event event) {
 	}
 	toolTipListener = null;
 	itemsCount = topIndex = horizontalOffset = 0;
-	items = selectedItems = null;
+	items = rows = null;
+	rowProvider = null;
+	selection = null;
 	columns = orderedColumns = null;
 	focusItem = anchorItem = lastClickedItem = null;
 	lastSelectionEvent = null;
@@ -2052,8 +2166,8 @@ void onEnd (int stateMask) {
 	int lastAvailableIndex = itemsCount - 1;
 	if ((stateMask & (SWT.CTRL | SWT.SHIFT)) == 0) {
 		/* End with no modifiers */
-		if (focusItem.index == lastAvailableIndex) return; 	/* at bottom */
-		TableItem item = items [lastAvailableIndex]; 
+		if (focusItem.getIndex () == lastAvailableIndex) return; 	/* at bottom */
+		TableItem item = _getItem (lastAvailableIndex); 
 		selectItem (item, false);
 		setFocusItem (item, true);
 		redrawItem (lastAvailableIndex, true);
@@ -2071,8 +2185,8 @@ void onEnd (int stateMask) {
 			return;
 		}
 		/* Shift+End */
-		if (focusItem.index == lastAvailableIndex) return; /* at bottom */
-		TableItem item = items [lastAvailableIndex]; 
+		if (focusItem.getIndex () == lastAvailableIndex) return; /* at bottom */
+		TableItem item = _getItem (lastAvailableIndex); 
 		selectItem (item, false);
 		setFocusItem (item, true);
 		redrawItem (lastAvailableIndex, true);
@@ -2086,29 +2200,24 @@ void onEnd (int stateMask) {
 	if ((stateMask & SWT.CTRL) != 0) {
 		if ((stateMask & SWT.SHIFT) != 0) {
 			/* CTRL+Shift+End */
-			showItem (items [lastAvailableIndex]);
+			showItem (_getItem (lastAvailableIndex));
 			return;
 		}
 		/* CTRL+End */
-		if (focusItem.index == lastAvailableIndex) return; /* at bottom */
-		TableItem item = items [lastAvailableIndex];
+		if (focusItem.getIndex () == lastAvailableIndex) return; /* at bottom */
+		TableItem item = _getItem (lastAvailableIndex);
 		setFocusItem (item, true);
 		showItem (item);
-		redrawItem (item.index, true);
+		redrawItem (item.getIndex (), true);
 		return;
 	}
 	/* Shift+End */
 	if (anchorItem == null) anchorItem = focusItem;
-	TableItem selectedItem = items [lastAvailableIndex];
+	TableItem selectedItem = _getItem (lastAvailableIndex);
 	if (selectedItem == focusItem && selectedItem.isSelected ()) return;
-	int anchorIndex = anchorItem.index;
-	int selectIndex = selectedItem.index;
-	TableItem[] newSelection = new TableItem [selectIndex - anchorIndex + 1];
-	int writeIndex = 0;
-	for (int i = anchorIndex; i <= selectIndex; i++) {
-		newSelection [writeIndex++] = items [i];
-	}
-	setSelection (newSelection, false);
+	int anchorIndex = anchorItem.getIndex ();
+	int selectIndex = selectedItem.getIndex ();
+	selectRange (anchorIndex, selectIndex);
 	setFocusItem (selectedItem, true);
 	redrawItems (anchorIndex, selectIndex, true);
 	showItem (selectedItem);
@@ -2123,23 +2232,23 @@ void onFocusIn () {
 		return;
 	}
 	if ((style & (SWT.HIDE_SELECTION | SWT.MULTI)) == (SWT.HIDE_SELECTION | SWT.MULTI)) {
-		for (int i = 0; i < selectedItems.length; i++) {
-			redrawItem (selectedItems [i].index, true);
+		for (int i = nextSetBit (selection, 0); i != -1; i = nextSetBit (selection, i + 1)) {
+			redrawItem (i, true);
 		}
 	}
 	if (focusItem != null) {
-		redrawItem (focusItem.index, true);
+		redrawItem (focusItem.getIndex (), true);
 		return;
 	}
 	/* an initial focus item must be selected */
 	TableItem initialFocus;
-	if (selectedItems.length > 0) {
-		initialFocus = selectedItems [0];
+	if (selectionCount > 0) {
+		initialFocus = _getItem (nextSetBit (selection, 0));
 	} else {
-		initialFocus = items [topIndex];
+		initialFocus = _getItem (topIndex);
 	}
 	setFocusItem (initialFocus, false);
-	redrawItem (initialFocus.index, true);
+	redrawItem (initialFocus.getIndex (), true);
 	return;
 }
 void onFocusOut () {
@@ -2149,19 +2258,19 @@ void onFocusOut () {
 		return;
 	}
 	if (focusItem != null) {
-		redrawItem (focusItem.index, true);
+		redrawItem (focusItem.getIndex (), true);
 	}
 	if ((style & (SWT.HIDE_SELECTION | SWT.MULTI)) == (SWT.HIDE_SELECTION | SWT.MULTI)) {
-		for (int i = 0; i < selectedItems.length; i++) {
-			redrawItem (selectedItems [i].index, true);
+		for (int i = nextSetBit (selection, 0); i != -1; i = nextSetBit (selection, i + 1)) {
+			redrawItem (i, true);
 		}
 	}
 }
 void onHome (int stateMask) {
 	if ((stateMask & (SWT.CTRL | SWT.SHIFT)) == 0) {
 		/* Home with no modifiers */
-		if (focusItem.index == 0) return; 		/* at top */
-		TableItem item = items [0];
+		if (focusItem.getIndex () == 0) return; 		/* at top */
+		TableItem item = _getItem (0);
 		selectItem (item, false);
 		setFocusItem (item, true);
 		redrawItem (0, true);
@@ -2178,8 +2287,8 @@ void onHome (int stateMask) {
 			return;
 		}
 		/* Shift+Home */
-		if (focusItem.index == 0) return; 		/* at top */
-		TableItem item = items [0];
+		if (focusItem.getIndex () == 0) return; 		/* at top */
+		TableItem item = _getItem (0);
 		selectItem (item, false);
 		setFocusItem (item, true);
 		redrawItem (0, true);
@@ -2197,25 +2306,20 @@ void onHome (int stateMask) {
 			return;
 		}
 		/* CTRL+Home */
-		if (focusItem.index == 0) return; /* at top */
-		TableItem item = items [0];
+		if (focusItem.getIndex () == 0) return; /* at top */
+		TableItem item = _getItem (0);
 		setFocusItem (item, true);
 		showItem (item);
-		redrawItem (item.index, true);
+		redrawItem (item.getIndex (), true);
 		return;
 	}
 	/* Shift+Home */
 	if (anchorItem == null) anchorItem = focusItem;
-	TableItem selectedItem = items [0];
+	TableItem selectedItem = _getItem (0);
 	if (selectedItem == focusItem && selectedItem.isSelected ()) return;
-	int anchorIndex = anchorItem.index;
-	int selectIndex = selectedItem.index;
-	TableItem[] newSelection = new TableItem [anchorIndex + 1];
-	int writeIndex = 0;
-	for (int i = anchorIndex; i >= 0; i--) {
-		newSelection [writeIndex++] = items [i];
-	}
-	setSelection (newSelection, false);
+	int anchorIndex = anchorItem.getIndex ();
+	int selectIndex = selectedItem.getIndex ();
+	selectRange (anchorIndex, selectIndex);
 	setFocusItem (selectedItem, true);
 	redrawItems (anchorIndex, selectIndex, true);
 	showItem (selectedItem);
@@ -2272,11 +2376,12 @@ void onKeyDown (Event event) {
 	}
 	if ((event.stateMask & SWT.CTRL) != 0) return;
 	
-	int initialIndex = focusItem.index;
+	int initialIndex = focusItem.getIndex ();
 	char character = Character.toLowerCase (event.character);
 	/* check available items from current focus item to bottom */
 	for (int i = initialIndex + 1; i < itemsCount; i++) {
 		TableItem item = items [i];
+		if (item == null) continue;	/* row that has not been requested yet */
 		String text = item.getText (0, false);
 		if (text.length () > 0) {
 			if (Character.toLowerCase (text.charAt (0)) == character) {
@@ -2294,6 +2399,7 @@ void onKeyDown (Event event) {
 	/* check available items from top to current focus item */
 	for (int i = 0; i < initialIndex; i++) {
 		TableItem item = items [i];
+		if (item == null) continue;	/* row that has not been requested yet */
 		String text = item.getText (0, false);
 		if (text.length () > 0) {
 			if (Character.toLowerCase (text.charAt (0)) == character) {
@@ -2313,7 +2419,7 @@ void onMouseDoubleClick (Event event) {
 	if (!isFocusControl ()) setFocus ();
 	int index = (event.y - getHeaderHeight ()) / itemHeight + topIndex;
 	if  (!(0 <= index && index < itemsCount)) return;	/* not on an available item */
-	TableItem selectedItem = items [index];
+	TableItem selectedItem = _getItem (index);
 	
 	/* 
 	 * If the two clicks of the double click did not occur over the same item then do not
@@ -2331,7 +2437,7 @@ void onMouseDown (Event event) {
 	if (!isFocusControl ()) forceFocus ();
 	int index = (event.y - getHeaderHeight ()) / itemHeight + topIndex;
 	if (!(0 <= index && index < itemsCount)) return;	/* not on an available item */
-	TableItem selectedItem = items [index];
+	TableItem selectedItem = _getItem (index);
 	
 	/* if click was in checkbox */
 	if ((style & SWT.CHECK) != 0 && selectedItem.getCheckboxBounds ().contains (event.x, event.y)) {
@@ -2367,7 +2473,7 @@ void onMouseDown (Event event) {
 			if (event.button == 1) {
 				selectItem (selectedItem, false);
 				setFocusItem (selectedItem, true);
-				redrawItem (selectedItem.index, true);
+				redrawItem (selectedItem.getIndex (), true);
 				if (sendSelection) {
 					Event newEvent = new Event ();
 					newEvent.item = selectedItem;
@@ -2378,7 +2484,7 @@ void onMouseDown (Event event) {
 			if ((event.stateMask & (SWT.CTRL | SWT.SHIFT)) == 0) {
 				selectItem (selectedItem, false);
 				setFocusItem (selectedItem, true);
-				redrawItem (selectedItem.index, true);
+				redrawItem (selectedItem.getIndex (), true);
 				if (sendSelection) {
 					Event newEvent = new Event ();
 					newEvent.item = selectedItem;
@@ -2403,16 +2509,9 @@ void onMouseDown (Event event) {
 		if (event.button == 1) {
 			if ((event.stateMask & (SWT.CTRL | SWT.SHIFT)) == SWT.SHIFT) {
 				if (anchorItem == null) anchorItem = focusItem;
-				int anchorIndex = anchorItem.index;
-				int selectIndex = selectedItem.index;
-				TableItem[] newSelection = new TableItem [Math.abs (anchorIndex - selectIndex) + 1];
-				int step = anchorIndex < selectIndex ? 1 : -1;
-				int writeIndex = 0;
-				for (int i = anchorIndex; i != selectIndex; i += step) {
-					newSelection [writeIndex++] = items [i];
-				}
-				newSelection [writeIndex] = items [selectIndex];
-				setSelection (newSelection, false);
+				int anchorIndex = anchorItem.getIndex ();
+				int selectIndex = selectedItem.getIndex ();
+				selectRange (anchorIndex, selectIndex);
 				setFocusItem (selectedItem, true);
 				redrawItems (
 					Math.min (anchorIndex, selectIndex),
@@ -2427,7 +2526,7 @@ void onMouseDown (Event event) {
 			}
 			selectItem (selectedItem, (event.stateMask & SWT.CTRL) != 0);
 			setFocusItem (selectedItem, true);
-			redrawItem (selectedItem.index, true);
+			redrawItem (selectedItem.getIndex (), true);
 			if (sendSelection) {
 				Event newEvent = new Event ();
 				newEvent.item = selectedItem;
@@ -2439,7 +2538,7 @@ void onMouseDown (Event event) {
 		if ((event.stateMask & (SWT.CTRL | SWT.SHIFT)) == 0) {
 			selectItem (selectedItem, false);
 			setFocusItem (selectedItem, true);
-			redrawItem (selectedItem.index, true);
+			redrawItem (selectedItem.getIndex (), true);
 			if (sendSelection) {
 				Event newEvent = new Event ();
 				newEvent.item = selectedItem;
@@ -2451,9 +2550,9 @@ void onMouseDown (Event event) {
 	/* item is selected */
 	if (event.button != 1) return;
 	if ((event.stateMask & SWT.CTRL) != 0) {
-		removeSelectedItem (getSelectionIndex (selectedItem));
+		deselectItem (selectedItem);
 		setFocusItem (selectedItem, true);
-		redrawItem (selectedItem.index, true);
+		redrawItem (selectedItem.getIndex (), true);
 		if (sendSelection) {
 			Event newEvent = new Event ();
 			newEvent.item = selectedItem;
@@ -2463,16 +2562,9 @@ void onMouseDown (Event event) {
 	}
 	if ((event.stateMask & SWT.SHIFT) != 0) {
 		if (anchorItem == null) anchorItem = focusItem;
-		int anchorIndex = anchorItem.index;
-		int selectIndex = selectedItem.index;
-		TableItem[] newSelection = new TableItem [Math.abs (anchorIndex - selectIndex) + 1];
-		int step = anchorIndex < selectIndex ? 1 : -1;
-		int writeIndex = 0;
-		for (int i = anchorIndex; i != selectIndex; i += step) {
-			newSelection [writeIndex++] = items [i];
-		}
-		newSelection [writeIndex] = items [selectIndex];
-		setSelection (newSelection, false);
+		int anchorIndex = anchorItem.getIndex ();
+		int selectIndex = selectedItem.getIndex ();
+		selectRange (anchorIndex, selectIndex);
 		setFocusItem (selectedItem, true);
 		redrawItems (
 			Math.min (anchorIndex, selectIndex),
@@ -2487,7 +2579,7 @@ void onMouseDown (Event event) {
 	}
 	selectItem (selectedItem, false);
 	setFocusItem (selectedItem, true);
-	redrawItem (selectedItem.index, true);
+	redrawItem (selectedItem.getIndex (), true);
 	if (sendSelection) {
 		Event newEvent = new Event ();
 		newEvent.item = selectedItem;
@@ -2497,20 +2589,20 @@ void onMouseDown (Event event) {
 void onMouseUp (Event event) {
 	int index = (event.y - getHeaderHeight ()) / itemHeight + topIndex;
 	if (!(0 <= index && index < itemsCount)) return;	/* not on an available item */
-	lastClickedItem = items [index];
+	lastClickedItem = _getItem (index);
 }
 void onPageDown (int stateMask) {
 	int visibleItemCount = (clientArea.height - getHeaderHeight ()) / itemHeight;
 	if ((stateMask & (SWT.CTRL | SWT.SHIFT)) == 0) {
 		/* PageDown with no modifiers */
-		int newFocusIndex = focusItem.index + visibleItemCount - 1;
+		int newFocusIndex = focusItem.getIndex () + visibleItemCount - 1;
 		newFocusIndex = Math.min (newFocusIndex, itemsCount - 1);
-		if (newFocusIndex == focusItem.index) return;
-		TableItem item = items [newFocusIndex];
+		if (newFocusIndex == focusItem.getIndex ()) return;
+		TableItem item = _getItem (newFocusIndex);
 		selectItem (item, false);
 		setFocusItem (item, true);
 		showItem (item);
-		redrawItem (item.index, true);
+		redrawItem (item.getIndex (), true);
 		return;
 	}
 	if ((stateMask & (SWT.CTRL | SWT.SHIFT)) == (SWT.CTRL | SWT.SHIFT)) {
@@ -2524,14 +2616,14 @@ void onPageDown (int stateMask) {
 	if ((style & SWT.SINGLE) != 0) {
 		if ((stateMask & SWT.SHIFT) != 0) {
 			/* Shift+PageDown */
-			int newFocusIndex = focusItem.index + visibleItemCount - 1;
+			int newFocusIndex = focusItem.getIndex () + visibleItemCount - 1;
 			newFocusIndex = Math.min (newFocusIndex, itemsCount - 1);
-			if (newFocusIndex == focusItem.index) return;
-			TableItem item = items [newFocusIndex];
+			if (newFocusIndex == focusItem.getIndex ()) return;
+			TableItem item = _getItem (newFocusIndex);
 			selectItem (item, false);
 			setFocusItem (item, true);
 			showItem (item);
-			redrawItem (item.index, true);
+			redrawItem (item.getIndex (), true);
 			return;
 		}
 		/* CTRL+PageDown */
@@ -2545,42 +2637,35 @@ void onPageDown (int stateMask) {
 	if ((stateMask & SWT.CTRL) != 0) {
 		/* CTRL+PageDown */
 		int bottomIndex = Math.min (topIndex + visibleItemCount - 1, itemsCount - 1);
-		if (focusItem.index != bottomIndex) {
+		if (focusItem.getIndex () != bottomIndex) {
 			/* move focus to bottom item in viewport */
-			setFocusItem (items [bottomIndex], true);
+			setFocusItem (_getItem (bottomIndex), true);
 			redrawItem (bottomIndex, true);
 		} else {
 			/* at bottom of viewport, so set focus to bottom item one page down */
 			int newFocusIndex = Math.min (itemsCount - 1, bottomIndex + visibleItemCount);
-			if (newFocusIndex == focusItem.index) return;
-			setFocusItem (items [newFocusIndex], true);
-			showItem (items [newFocusIndex]);
+			if (newFocusIndex == focusItem.getIndex ()) return;
+			setFocusItem (_getItem (newFocusIndex), true);
+			showItem (_getItem (newFocusIndex));
 			redrawItem (newFocusIndex, true);
 		}
 		return;
 	}
 	/* Shift+PageDown */
 	if (anchorItem == null) anchorItem = focusItem;
-	int anchorIndex = anchorItem.index;
+	int anchorIndex = anchorItem.getIndex ();
 	int bottomIndex = Math.min (topIndex + visibleItemCount - 1, itemsCount - 1);
 	int selectIndex;
-	if (focusItem.index != bottomIndex) {
+	if (focusItem.getIndex () != bottomIndex) {
 		/* select from focus to bottom item in viewport */
 		selectIndex = bottomIndex;
 	} else {
 		/* already at bottom of viewport, so select to bottom of one page down */
 		selectIndex = Math.min (itemsCount - 1, bottomIndex + visibleItemCount);
-		if (selectIndex == focusItem.index && focusItem.isSelected ()) return;
+		if (selectIndex == focusItem.getIndex () && focusItem.isSelected ()) return;
 	}
-	TableItem selectedItem = items [selectIndex];
-	TableItem[] newSelection = new TableItem [Math.abs (anchorIndex - selectIndex) + 1];
-	int step = anchorIndex < selectIndex ? 1 : -1;
-	int writeIndex = 0;
-	for (int i = anchorIndex; i != selectIndex; i += step) {
-		newSelection [writeIndex++] = items [i];
-	}
-	newSelection [writeIndex] = items [selectIndex];
-	setSelection (newSelection, false);
+	TableItem selectedItem = _getItem (selectIndex);
+	selectRange (anchorIndex, selectIndex);
 	setFocusItem (selectedItem, true);
 	showItem (selectedItem);
 	Event newEvent = new Event ();
@@ -2591,13 +2676,13 @@ void onPageUp (int stateMask) {
 	int visibleItemCount = (clientArea.height - getHeaderHeight ()) / itemHeight;
 	if ((stateMask & (SWT.CTRL | SWT.SHIFT)) == 0) {
 		/* PageUp with no modifiers */
-		int newFocusIndex = Math.max (0, focusItem.index - visibleItemCount + 1);
-		if (newFocusIndex == focusItem.index) return;
-		TableItem item = items [newFocusIndex];
+		int newFocusIndex = Math.max (0, focusItem.getIndex () - visibleItemCount + 1);
+		if (newFocusIndex == focusItem.getIndex ()) return;
+		TableItem item = _getItem (newFocusIndex);
 		selectItem (item, false);
 		setFocusItem (item, true);
 		showItem (item);
-		redrawItem (item.index, true);
+		redrawItem (item.getIndex (), true);
 		return;
 	}
 	if ((stateMask & (SWT.CTRL | SWT.SHIFT)) == (SWT.CTRL | SWT.SHIFT)) {
@@ -2610,13 +2695,13 @@ void onPageUp (int stateMask) {
 	if ((style & SWT.SINGLE) != 0) {
 		if ((stateMask & SWT.SHIFT) != 0) {
 			/* Shift+PageUp */
-			int newFocusIndex = Math.max (0, focusItem.index - visibleItemCount + 1);
-			if (newFocusIndex == focusItem.index) return;
-			TableItem item = items [newFocusIndex];
+			int newFocusIndex = Math.max (0, focusItem.getIndex () - visibleItemCount + 1);
+			if (newFocusIndex == focusItem.getIndex ()) return;
+			TableItem item = _getItem (newFocusIndex);
 			selectItem (item, false);
 			setFocusItem (item, true);
 			showItem (item);
-			redrawItem (item.index, true);
+			redrawItem (item.getIndex (), true);
 			return;
 		}
 		/* CTRL+PageUp */
@@ -2628,41 +2713,34 @@ void onPageUp (int stateMask) {
 	/* SWT.MULTI */
 	if ((stateMask & SWT.CTRL) != 0) {
 		/* CTRL+PageUp */
-		if (focusItem.index != topIndex) {
+		if (focusItem.getIndex () != topIndex) {
 			/* move focus to top item in viewport */
-			setFocusItem (items [topIndex], true);
+			setFocusItem (_getItem (topIndex), true);
 			redrawItem (topIndex, true);
 		} else {
 			/* at top of viewport, so set focus to top item one page up */
-			int newFocusIndex = Math.max (0, focusItem.index - visibleItemCount);
-			if (newFocusIndex == focusItem.index) return;
-			setFocusItem (items [newFocusIndex], true);
-			showItem (items [newFocusIndex]);
+			int newFocusIndex = Math.max (0, focusItem.getIndex () - visibleItemCount);
+			if (newFocusIndex == focusItem.getIndex ()) return;
+			setFocusItem (_getItem (newFocusIndex), true);
+			showItem (_getItem (newFocusIndex));
 			redrawItem (newFocusIndex, true);
 		}
 		return;
 	}
 	/* Shift+PageUp */
 	if (anchorItem == null) anchorItem = focusItem;
-	int anchorIndex = anchorItem.index;
+	int anchorIndex = anchorItem.getIndex ();
 	int selectIndex;
-	if (focusItem.index != topIndex) {
+	if (focusItem.getIndex () != topIndex) {
 		/* select from focus to top item in viewport */
 		selectIndex = topIndex;
 	} else {
 		/* already at top of viewport, so select to top of one page up */
 		selectIndex = Math.max (0, topIndex - visibleItemCount);
-		if (selectIndex == focusItem.index && focusItem.isSelected ()) return;
-	}
-	TableItem selectedItem = items [selectIndex];
-	TableItem[] newSelection = new TableItem [Math.abs (anchorIndex - selectIndex) + 1];
-	int step = anchorIndex < selectIndex ? 1 : -1;
-	int writeIndex = 0;
-	for (int i = anchorIndex; i != selectIndex; i += step) {
-		newSelection [writeIndex++] = items [i];
+		if (selectIndex == focusItem.getIndex () && focusItem.isSelected ()) return;
 	}
-	newSelection [writeIndex] = items [selectIndex];
-	setSelection (newSelection, false);
+	TableItem selectedItem = _getItem (selectIndex);
+	selectRange (anchorIndex, selectIndex);
 	setFocusItem (selectedItem, true);
 	showItem (selectedItem);
 	Event newEvent = new Event ();
@@ -2699,7 +2777,7 @@ void onPaint (Event event) {
 	cachedBackground = getBackground ();
 	gc.setBackground (cachedBackground);
 	gc.setClipping (clipping);
-	int bottomY = endIndex >= 0 ? getItemY (items [endIndex]) + itemHeight : 0;
+	int bottomY = endIndex >= 0 ? (endIndex - topIndex) * itemHeight + getHeaderHeight () + itemHeight : 0;
 	int fillHeight = Math.max (0, clientArea.height - bottomY);
 	if (fillHeight > 0) {	/* space below bottom item */
 		drawBackground (gc, 0, bottomY, clientArea.width, fillHeight, 0, 0);
@@ -2718,7 +2796,7 @@ void onPaint (Event event) {
 	int lineWidth = gc.getLineWidth ();
 	cachedForeground = getForeground ();
 	for (int i = startIndex; i <= Math.min (endIndex, itemsCount - 1); i++) {
-		TableItem item = items [i];
+		TableItem item = _getItem (i);
 		if (!item.isDisposed ()) {	/* ensure that item was not disposed in a callback */
 			if (startColumn == -1) {
 				/* indicates that region to paint is to the right of the last column */
@@ -2883,7 +2961,7 @@ void onSpace () {
 	if (focusItem == null) return;
 	if (!focusItem.isSelected ()) {
 		selectItem (focusItem, (style & SWT.MULTI) != 0);
-		redrawItem (focusItem.index, true);
+		redrawItem (focusItem.getIndex (), true);
 	}
 	if ((style & SWT.CHECK) != 0) {
 		focusItem.setChecked (!focusItem.checked);
@@ -2910,14 +2988,14 @@ void reassignFocus () {
 	 * reassign to the previous root-level item if there is one, or the next
 	 * root-level item otherwise
 	 */
-	int index = focusItem.index;
+	int index = focusItem.getIndex ();
 	if (index != 0) {
 		index--;
 	} else {
 		index++;
 	}
 	if (index < itemsCount) {
-		TableItem item = items [index];
+		TableItem item = _getItem (index);
 		setFocusItem (item, false);
 		showItem (item);
 	} else {
@@ -2946,7 +3024,7 @@ void redrawFromItemDownwards (int index) {
  * beyond the last available item.
  */
 void redrawItem (int itemIndex, boolean focusBoundsOnly) {
-	if (itemIndex < itemsCount && !items [itemIndex].isInViewport ()) return;
+	if (itemIndex < itemsCount && !isInViewport (itemIndex)) return;
 	redrawItems (itemIndex, itemIndex, focusBoundsOnly);
 }
 /*
@@ -2973,8 +3051,8 @@ void redrawItems (int startIndex, int endIndex, boolean focusBoundsOnly) {
 		}
 		endIndex = Math.min (endIndex, itemsCount - 1);
 		for (int i = startIndex; i <= endIndex; i++) {
-			TableItem item = items [i];
-			if (item.isInViewport ()) {
+			if (isInViewport (i)) {
+				TableItem item = _getItem (i);
 				/* if custom painting is being done then repaint the full item */
 				if (custom) {
 					redraw (0, getItemY (item), clientArea.width, itemHeight, false);
@@ -3006,7 +3084,7 @@ void redrawItems (int startIndex, int endIndex, boolean focusBoundsOnly) {
 public void remove (int index) {
 	checkWidget ();
 	if (!(0 <= index && index < itemsCount)) error (SWT.ERROR_INVALID_RANGE);
-	items [index].dispose ();
+	_getItem (index).dispose ();
 }
 /**
  * Removes the items from the receiver which are
@@ -3034,7 +3112,7 @@ public void remove (int start, int end) {
 		removeAll ();
 	} else {
 		for (int i = end; i >= start; i--) {
-			items [i].dispose ();
+			_getItem (i).dispose ();
 		}
 	}
 }
@@ -3067,7 +3145,7 @@ public void remove (int [] indices) {
 	int lastRemovedIndex = -1;
 	for (int i = 0; i < newIndices.length; i++) {
 		if (newIndices [i] != lastRemovedIndex) {
-			items [newIndices [i]].dispose ();
+			_getItem (newIndices [i]).dispose ();
 			lastRemovedIndex = newIndices [i];
 		}
 	}
@@ -3087,11 +3165,14 @@ public void removeAll () {
 
 	setFocusItem (null, false);
 	for (int i = 0; i < itemsCount; i++) {
-		items [i].dispose (false);
+		if (items [i] != null) items [i].dispose (false);
 	}
 	items = new TableItem [0];
-	selectedItems = new TableItem [0];
-	itemsCount = topIndex = 0;
+	selection = new long [0];
+	selectionCount = 0;
+	firstStaleIndex = Integer.MAX_VALUE;
+	if (rows != null) rows = new TableItem [rows.length];
+	itemsCount = rowsCount = topIndex = 0;
 	anchorItem = lastClickedItem = null;
 	lastSelectionEvent = null;
 	ScrollBar vBar = getVerticalBar ();
@@ -3127,11 +3208,44 @@ String removeMnemonics (String string) {
 	if (i == j) return string;
 	return new String (chars, 0, j);
 }
-void removeSelectedItem (int index) {
-	TableItem[] newSelectedItems = new TableItem [selectedItems.length - 1];
-	System.arraycopy (selectedItems, 0, newSelectedItems, 0, index);
-	System.arraycopy (selectedItems, index + 1, newSelectedItems, index, newSelectedItems.length - index);
-	selectedItems = newSelectedItems;
+/*
+ * Removes the selection bit of a destroyed item and shifts
+ * the bits of the following items down.
+ */
+void removeSelection (int index) {
+	int word = index >> 6;
+	if (selectionCount == 0 || word >= selection.length) return;
+	long bits = selection [word], bit = 1L << (index & 63), lowBits = bit - 1;
+	if ((bits & bit) != 0) selectionCount--;
+	selection [word] = (bits & lowBits) | ((bits >>> 1) & ~lowBits);
+	for (int i = word + 1; i < selection.length; i++) {
+		selection [i - 1] |= selection [i] << 63;
+		selection [i] >>>= 1;
+	}
+}
+/*
+ * Removes the items that were disposed from the row cache.
+ */
+void removeDisposedRows () {
+	if (rows == null) return;
+	int count = 0;
+	for (int i = 0; i < rowsCount; i++) {
+		if (!rows [i].isDisposed ()) rows [count++] = rows [i];
+	}
+	for (int i = count; i < rowsCount; i++) {
+		rows [i] = null;
+	}
+	rowsCount = count;
+}
+void removeRow (TableItem item) {
+	if (item.rowStamp <= 0) return;
+	for (int i = 0; i < rowsCount; i++) {
+		if (rows [i] == item) {
+			rows [i] = rows [--rowsCount];
+			rows [rowsCount] = null;
+			return;
+		}
+	}
 }
 /**
  * Removes the listener from the collection of listeners who will
@@ -3186,7 +3300,7 @@ void reskinChildren (int flags) {
 public void select (int index) {
 	checkWidget ();
 	if (!(0 <= index && index < itemsCount)) return;
-	selectItem (items [index], (style & SWT.MULTI) != 0);
+	selectItem (index, (style & SWT.MULTI) != 0);
 	if (hasFocus () || (style & SWT.HIDE_SELECTION) == 0) {
 		redrawItem (index, false);
 	}
@@ -3221,7 +3335,7 @@ public void select (int start, int end) {
 	start = Math.max (start, 0);
 	end = Math.min (end, itemsCount - 1);
 	for (int i = start; i <= end; i++) {
-		selectItem (items [i], (style & SWT.MULTI) != 0);
+		selectItem (i, (style & SWT.MULTI) != 0);
 	}
 	if (hasFocus () || (style & SWT.HIDE_SELECTION) == 0) {
 		redrawItems (start, end, false);
@@ -3257,7 +3371,7 @@ public void select (int [] indices) {
 
 	for (int i = 0; i < indices.length; i++) {
 		if (0 <= indices [i] && indices [i] < itemsCount) {
-			selectItem (items [indices [i]], (style & SWT.MULTI) != 0);
+			selectItem (indices [i], (style & SWT.MULTI) != 0);
 		}
 	}
 	if (hasFocus () || (style & SWT.HIDE_SELECTION) == 0) {
@@ -3282,29 +3396,78 @@ public void select (int [] indices) {
 public void selectAll () {
 	checkWidget ();
 	if ((style & SWT.SINGLE) != 0) return;
-	selectedItems = new TableItem [itemsCount];
-	System.arraycopy (items, 0, selectedItems, 0, itemsCount);
+	selection = new long [(itemsCount + 63) >> 6];
+	for (int i = 0; i < selection.length; i++) {
+		selection [i] = -1;
+	}
+	if ((itemsCount & 63) != 0) {
+		selection [selection.length - 1] = (1L << (itemsCount & 63)) - 1;
+	}
+	selectionCount = itemsCount;
 	if (hasFocus () || (style & SWT.HIDE_SELECTION) == 0) {
 		redraw ();
 	}
 }
 void selectItem (TableItem item, boolean addToSelection) {
-	TableItem[] oldSelectedItems = selectedItems;
+	selectItem (item.getIndex (), addToSelection);
+}
+/*
+ * Replaces the selection with the items between the given indices
+ * inclusive, without creating the items of the range.
+ */
+void selectRange (int start, int end) {
+	if (start > end) {
+		int swap = start;
+		start = end;
+		end = swap;
+	}
+	long[] oldSelection = selection;
+	selection = new long [(end >> 6) + 1];
+	selectionCount = 0;
+	for (int i = start; i <= end; i++) {
+		setItemSelected (i, true);
+	}
+	if (hasFocus () || (style & SWT.HIDE_SELECTION) == 0) {
+		for (int i = nextSetBit (oldSelection, 0); i != -1; i = nextSetBit (oldSelection, i + 1)) {
+			if (!isItemSelected (i)) redrawItem (i, true);
+		}
+		redrawItems (start, end, true);
+	}
+}
+void selectItem (int index, boolean addToSelection) {
 	if (!addToSelection || (style & SWT.SINGLE) != 0) {
-		selectedItems = new TableItem[] {item};
+		long[] oldSelection = selection;
+		selection = new long [0];
+		selectionCount = 0;
+		setItemSelected (index, true);
 		if (hasFocus () || (style & SWT.HIDE_SELECTION) == 0) {
-			for (int i = 0; i < oldSelectedItems.length; i++) {
-				if (oldSelectedItems [i] != item) {
-					redrawItem (oldSelectedItems [i].index, true);
-				}
+			for (int i = nextSetBit (oldSelection, 0); i != -1; i = nextSetBit (oldSelection, i + 1)) {
+				if (i != index) redrawItem (i, true);
 			}
 		}
 	} else {
-		if (item.isSelected ()) return;
-		selectedItems = new TableItem [selectedItems.length + 1];
-		System.arraycopy (oldSelectedItems, 0, selectedItems, 0, oldSelectedItems.length);
-		selectedItems [selectedItems.length - 1] = item;
+		setItemSelected (index, true);
+	}
+}
+void sendEvent (int eventType, Event event, boolean send) {
+	if (rows != null && event != null && event.item instanceof TableItem && (hooks (eventType) || display.filters (eventType))) {
+		TableItem item = (TableItem) event.item;
+		if (item.parent == this && !item.isDisposed ()) {
+			switch (eventType) {
+				/* the item is only lent to the listener, the row cache may clear it */
+				case SWT.SetData:
+				case SWT.MeasureItem:
+				case SWT.EraseItem:
+				case SWT.PaintItem:
+					item.notified = true;
+					break;
+				/* the row cache keeps the items of other events, like the ones of getItem(int) */
+				default:
+					_getItem (item.getIndex (), false);
+			}
+		}
 	}
+	super.sendEvent (eventType, event, send);
 }
 public void setBackground (Color color) {
 	checkWidget ();
@@ -3378,12 +3541,42 @@ public void setColumnOrder (int [] order) {
 	redraw ();
 	if (drawCount <= 0 && header.isVisible ()) header.redraw ();
 }
+/*
+ * Setting the data of the internal key ROW_CACHE_KEY to the number of items
+ * to keep enables the row cache of an SWT.VIRTUAL table, typically before
+ * setItemCount(int) is called. The items are then only created when they are
+ * painted or requested and are filled by the SetData event, or by the row
+ * provider installed with RowProvider.KEY. The items that are returned by the
+ * API or passed in a selection event are kept until they are removed. See
+ * addRow(TableItem) for the other ones.
+ */
+public void setData (String key, Object value) {
+	super.setData (key, value);
+	if (RowProvider.KEY.equals (key)) {
+		rowProvider = value instanceof RowProvider ? (RowProvider) value : null;
+		return;
+	}
+	if (!ROW_CACHE_KEY.equals (key) || (style & SWT.VIRTUAL) == 0) return;
+	int size = value instanceof Integer ? ((Integer) value).intValue () : 0;
+	if (size <= 0) {
+		/* the rows that were already created are kept */
+		for (int i = 0; i < rowsCount; i++) {
+			rows [i].rowStamp = 0;
+		}
+		rows = null;
+		rowsCount = 0;
+		return;
+	}
+	TableItem[] newRows = new TableItem [Math.max (size, rowsCount)];
+	if (rows != null) System.arraycopy (rows, 0, newRows, 0, rowsCount);
+	rows = newRows;
+}
 void setFocusItem (TableItem item, boolean redrawOldFocus) {
 	if (item == focusItem) return;
 	TableItem oldFocusItem = focusItem;
 	focusItem = item;
 	if (redrawOldFocus && oldFocusItem != null) {
-		redrawItem (oldFocusItem.index, true);
+		redrawItem (oldFocusItem.getIndex (), true);
 	}
 }
 public void setFont (Font value) {
@@ -3413,7 +3606,7 @@ public void setFont (Font value) {
 		columns [i].updateFont (gc);
 	}
 	for (int i = 0; i < itemsCount; i++) {
-		items [i].updateFont (gc);
+		if (items [i] != null) items [i].updateFont (gc);
 	}
 	
 	gc.dispose ();
@@ -3477,6 +3670,26 @@ void setImageHeight (int value) {
 	imageHeight = value;
 	setItemHeight (Math.max (fontHeight, imageHeight) + 2 * getCellPadding ());
 }
+void setItemSelected (int index, boolean selected) {
+	int word = index >> 6;
+	long bit = 1L << (index & 63);
+	if (!selected) {
+		if (word < selection.length && (selection [word] & bit) != 0) {
+			selection [word] &= ~bit;
+			selectionCount--;
+		}
+		return;
+	}
+	if (word >= selection.length) {
+		long[] newSelection = new long [Math.max (word + 1, (itemsCount + 63) >> 6)];
+		System.arraycopy (selection, 0, newSelection, 0, selection.length);
+		selection = newSelection;
+	}
+	if ((selection [word] & bit) == 0) {
+		selection [word] |= bit;
+		selectionCount++;
+	}
+}
 /**
  * Sets the number of items contained in the receiver.
  *
@@ -3501,30 +3714,19 @@ public void setItemCount (int count) {
 		redrawStart = count;
 		redrawEnd = itemsCount - 1;
 		for (int i = count; i < itemsCount; i++) {
-			items [i].dispose (false);
+			if (items [i] != null) items [i].dispose (false);
 		}
+		removeDisposedRows ();
 
-		int newSelectedCount = 0;
-		for (int i = 0; i < selectedItems.length; i++) {
-			if (!selectedItems [i].isDisposed ()) newSelectedCount++;
-		}
-		if (newSelectedCount != selectedItems.length) {
-			/* one or more selected items have been disposed */
-			TableItem[] newSelectedItems = new TableItem [newSelectedCount];
-			int pos = 0;
-			for (int i = 0; i < selectedItems.length; i++) {
-				TableItem item = selectedItems [i];
-				if (!item.isDisposed ()) {
-					newSelectedItems [pos++] = item;
-				}
-			}
-			selectedItems = newSelectedItems;
+		/* one or more selected items may have been disposed */
+		for (int i = nextSetBit (selection, count); i != -1; i = nextSetBit (selection, i + 1)) {
+			setItemSelected (i, false);
 		}
 
 		if (anchorItem != null && anchorItem.isDisposed ()) anchorItem = null;
 		if (lastClickedItem != null && lastClickedItem.isDisposed ()) lastClickedItem = null;
 		if (focusItem != null && focusItem.isDisposed ()) {
-			TableItem newFocusItem = count > 0 ? items [count - 1] : null; 
+			TableItem newFocusItem = count > 0 ? _getItem (count - 1) : null; 
 			setFocusItem (newFocusItem, false);
 		}
 		itemsCount = count;
@@ -3535,11 +3737,16 @@ public void setItemCount (int count) {
 		TableItem[] newItems = new TableItem [count];
 		System.arraycopy (items, 0, newItems, 0, itemsCount);
 		items = newItems;
-		for (int i = itemsCount; i < count; i++) {
-			items [i] = new TableItem (this, SWT.NONE, i, false);
-			itemsCount++;
+		if (rows == null) {
+			for (int i = itemsCount; i < count; i++) {
+				items [i] = new TableItem (this, SWT.NONE, i, false);
+				itemsCount++;
+			}
+		} else {
+			/* the rows are created on demand, see _getItem(int) */
+			itemsCount = count;
 		}
-		if (oldCount == 0) focusItem = items [0];
+		if (oldCount == 0) focusItem = _getItem (0);
 	}
 
 	updateVerticalBar ();
@@ -3662,41 +3869,38 @@ void setSelection (TableItem[] items, boolean updateViewport) {
 		deselectAll ();
 		return;
 	}
-	TableItem[] oldSelection = selectedItems;
+	long[] oldSelection = selection;
+	int oldSelectionCount = selectionCount;
 	
-	/* remove null and duplicate items */
-	int index = 0;
-	selectedItems = new TableItem [items.length];	/* assume all valid items */
+	/* ignore null, foreign and duplicate items */
+	TableItem firstItem = null;
+	selection = new long [0];
+	selectionCount = 0;
 	for (int i = 0; i < items.length; i++) {
 		TableItem item = items [i];
-		if (item != null && item.parent == this && !item.isSelected ()) {
-			selectedItems [index++] = item;
+		if (item != null && item.parent == this) {
+			setItemSelected (item.getIndex (), true);
+			if (firstItem == null) firstItem = item;
 		}
 	}
-	if (index != items.length) {
-		/* an invalid item was provided so resize the array accordingly */
-		TableItem[] temp = new TableItem [index];
-		System.arraycopy (selectedItems, 0, temp, 0, index);
-		selectedItems = temp;
-	}
-	if (selectedItems.length == 0) {	/* no valid items */
+	if (firstItem == null) {	/* no valid items */
+		selection = oldSelection;
+		selectionCount = oldSelectionCount;
 		deselectAll ();
 		return;
 	}
 
 	if (hasFocus () || (style & SWT.HIDE_SELECTION) == 0) {
-		for (int i = 0; i < oldSelection.length; i++) {
-			if (!oldSelection [i].isSelected ()) {
-				redrawItem (oldSelection [i].index, true);
-			}
+		for (int i = nextSetBit (oldSelection, 0); i != -1; i = nextSetBit (oldSelection, i + 1)) {
+			if (!isItemSelected (i)) redrawItem (i, true);
 		}
-		for (int i = 0; i < selectedItems.length; i++) {
-			redrawItem (selectedItems [i].index, true);
+		for (int i = nextSetBit (selection, 0); i != -1; i = nextSetBit (selection, i + 1)) {
+			redrawItem (i, true);
 		}
 	}
 	if (updateViewport) {
-		showItem (selectedItems [0]);
-		setFocusItem (selectedItems [0], true);
+		showItem (firstItem);
+		setFocusItem (firstItem, true);
 	}
 }
 /**
@@ -3766,8 +3970,8 @@ public void setSelection (int index) {
 	checkWidget ();
 	deselectAll ();
 	if (!(0 <= index && index < itemsCount)) return;
-	selectItem (items [index], false);
-	setFocusItem (items [index], true);
+	selectItem (index, false);
+	setFocusItem (_getItem (index), true);
 	redrawItem (index, true);
 	showSelection ();
 }
@@ -3801,7 +4005,7 @@ public void setSelection (int start, int end) {
 	start = Math.max (0, start);
 	end = Math.min (end, itemsCount - 1);
 	select (start, end);
-	setFocusItem (items [start], true);
+	setFocusItem (_getItem (start), true);
 	showSelection ();
 }
 /**
@@ -3839,7 +4043,7 @@ public void setSelection (int [] indices) {
 			focusIndex = indices [i];
 		}
 	}
-	if (focusIndex != -1) setFocusItem (items [focusIndex], true);
+	if (focusIndex != -1) setFocusItem (_getItem (focusIndex), true);
 	showSelection ();
 }
 /**
@@ -3941,14 +4145,14 @@ public void showItem (TableItem item) {
 	if (item.isDisposed ()) error (SWT.ERROR_INVALID_ARGUMENT);
 	if (item.parent != this) return;
 	
-	int index = item.index;
+	int index = item.getIndex ();
 	int visibleItemCount = (clientArea.height - getHeaderHeight ()) / itemHeight;
 	/* nothing to do if item is already in viewport */
 	if (topIndex <= index && index < topIndex + visibleItemCount) return;
 	
 	if (index <= topIndex) {
 		/* item is above current viewport, so show on top */
-		setTopIndex (item.index);
+		setTopIndex (item.getIndex ());
 	} else {
 		/* item is below current viewport, so show on bottom */
 		visibleItemCount = Math.max (visibleItemCount, 1);	/* item to show should be top item */
@@ -3969,8 +4173,8 @@ public void showItem (TableItem item) {
  */
 public void showSelection () {
 	checkWidget ();
-	if (selectedItems.length == 0) return;
-	showItem (selectedItems [0]);
+	if (selectionCount == 0) return;
+	showItem (_getItem (nextSetBit (selection, 0)));
 }
 void sortDescent (int [] items) {
 	/* Shell Sort from K&R, pg 108 */
@@ -3987,35 +4191,15 @@ void sortDescent (int [] items) {
 		}
 	}
 }
-void sortAscent (int [] items) {
-	/* Shell Sort from K&R, pg 108 */
-	int length = items.length;
-	for (int gap = length / 2; gap > 0; gap /= 2) {
-		for (int i = gap; i < length; i++) {
-			for (int j = i - gap; j >= 0; j -= gap) {
-				if (items [j] >= items [j + gap]) {
-					int swap = items [j];
-					items [j] = items [j + gap];
-					items [j + gap] = swap;
-				}
-			}
-		}
-	}
-}
-void sortAscent (TableItem [] items) {
-	/* Shell Sort from K&R, pg 108 */
-	int length = items.length;
-	for (int gap = length / 2; gap > 0; gap /= 2) {
-		for (int i = gap; i < length; i++) {
-			for (int j = i - gap; j >= 0; j -= gap) {
-				if (items [j].index >= items [j + gap].index) {
-					TableItem swap = items [j];
-					items [j] = items [j + gap];
-					items [j + gap] = swap;
-				}
-			}
-		}
+/*
+ * Renumbers the items that were moved by insertions and removals
+ * since the last time an index was requested.
+ */
+void updateItemIndices () {
+	for (int i = firstStaleIndex; i < itemsCount; i++) {
+		if (items [i] != null) items [i].index = i;
 	}
+	firstStaleIndex = Integer.MAX_VALUE;
 }
 void updateColumnWidth (TableColumn column, int width) {
 	headerHideToolTip ();
@@ -4036,7 +4220,7 @@ void updateColumnWidth (TableColumn column, int width) {
 		redraw (clientArea.width - change, 0, change, clientArea.height, false);
 	}
 	/* the focus box must be repainted because its stipple may become shifted as a result of its new width */
-	if (focusItem != null) redrawItem (focusItem.index, true);
+	if (focusItem != null) redrawItem (focusItem.getIndex (), true);
 
 	GC headerGC = new GC (header);
 	if (drawCount <= 0 && header.getVisible ()) {
@@ -4063,7 +4247,7 @@ void updateColumnWidth (TableColumn column, int width) {
 	column.updateWidth (headerGC);
 	headerGC.dispose ();
 	for (int i = 0; i < itemsCount; i++) {
-		items [i].updateColumnWidth (column, gc);
+		if (items [i] != null) items [i].updateColumnWidth (column, gc);
 	}
 	gc.dispose ();
 
@@ -4113,6 +4297,7 @@ void updateHorizontalBar () {
 		}
 	} else {
 		for (int i = 0; i < itemsCount; i++) {
+			if (items [i] == null) continue;
 			Rectangle itemBounds = items [i].getCellBounds (0);
 			maxX = Math.max (maxX, itemBounds.x + itemBounds.width + horizontalOffset);
 		}
@@ -33,7 +33,9 @@ import org.eclipse.swt.graphics.*;
 public class TableItem extends Item {
 	Table parent;
 	int index = -1;
+	int rowStamp;						/* last use of a row in the row cache of the parent, -1 once cleared by it */
 	boolean checked, grayed, cached;
+	boolean notified;					/* passed to a listener of the parent, see Table.addRow(TableItem) */
 
 	String[] texts;
 	int[] textWidths = new int [1];	/* cached string measurements */
@@ -370,7 +372,7 @@ void computeTextWidths (GC gc) {
 public void dispose () {
 	if (isDisposed ()) return;
 	Table parent = this.parent;
-	int startIndex = index;
+	int startIndex = getIndex ();
 	int endIndex = parent.itemsCount - 1;
 	dispose (true);
 	parent.redrawItems (startIndex, endIndex, false);
@@ -760,6 +762,17 @@ public boolean getGrayed () {
 	if (!parent.checkData (this, true)) error (SWT.ERROR_WIDGET_DISPOSED);
 	return grayed;
 }
+/*
+ * Returns the index of the receiver in its parent. The parent does not
+ * renumber the items moved by an insertion or a removal, the stored index
+ * is known to be valid when it still designates the receiver.
+ */
+int getIndex () {
+	if (index < 0 || parent == null) return index;
+	if (index < parent.itemsCount && parent.items [index] == this) return index;
+	parent.updateItemIndices ();
+	return index;
+}
 /*
  * Returns the bounds representing the clickable region that should select the receiver.
  */
@@ -1049,13 +1062,10 @@ int getTextX (int columnIndex) {
  * viewport of the parent.
  */
 boolean isInViewport () {
-	int topIndex = parent.topIndex;
-	if (index < topIndex) return false;
-	int visibleCount = parent.clientArea.height / parent.itemHeight;
-	return index <= topIndex + visibleCount;
+	return parent.isInViewport (getIndex ());
 }
 boolean isSelected () {
-	return parent.getSelectionIndex (this) != -1;
+	return parent.isItemSelected (getIndex ());
 }
 /*
  * The backgroundOnly argument indicates whether the item should only
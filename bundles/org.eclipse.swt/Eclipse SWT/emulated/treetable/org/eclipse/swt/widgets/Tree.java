@@ -77,13 +77,16 @@ public class Tree extends Composite {
 	TreeColumn[] columns = new TreeColumn [0];
 	TreeColumn[] orderedColumns;
 	TreeItem[] items = NO_ITEMS;
-	TreeItem[] availableItems = NO_ITEMS;
+	TreeItem availableRoot;	/* root of the treap of the available items, see getAvailableItem(int) */
 	TreeItem[] selectedItems = NO_ITEMS;
+	TreeItem[] cachedItems;	/* items filled by SetData, see addCachedItem(TreeItem) */
+	int cachedItemsCount, cacheStamp;
 	TreeItem focusItem, anchorItem, insertMarkItem;
 	TreeItem lastClickedItem;
 	Color cachedBackground, cachedForeground;
 	Event lastSelectionEvent;
 	int availableItemsCount = 0;
+	int rowSeed = 0x2545F491;
 	boolean insertMarkPrecedes = false;
 	boolean linesVisible, ignoreKey, ignoreDispose, customHeightSet;
 	int topIndex = 0, horizontalOffset = 0;
@@ -121,6 +124,7 @@ public class Tree extends Composite {
 	static final String ID_CONNECTOR_COLOR = "CONNECTOR_COLOR";	//$NON-NLS-1$
 	static final String ID_ARROWUP = "ARROWUP";				//$NON-NLS-1$
 	static final String ID_ARROWDOWN = "ARROWDOWN";			//$NON-NLS-1$
+	static final String ROW_CACHE_KEY = "org.eclipse.swt.internal.tree.rowCache";	//$NON-NLS-1$
 
 //	TEMPORARY CODE
 boolean hasFocus;
@@ -232,6 +236,46 @@ public Tree (Composite parent, int style) {
 		vBar.addListener (SWT.Selection, listener);
 	}
 }
+/*
+ * Adds an item that was filled by the SetData event to the row cache. When
+ * the cache is full, the least recently used item that is not visible and is
+ * neither the focus, the anchor nor the last clicked item is cleared, so that
+ * the cell data is only kept for a bounded number of rows. The items carry
+ * the structure of the tree and are never disposed; a cleared item is filled
+ * again by SetData when it is needed, as after clear(int, boolean). The cache
+ * grows when every item in it is in use.
+ */
+void addCachedItem (TreeItem item) {
+	if (cachedItemsCount == cachedItems.length) {
+		int victim = -1, count = 0;
+		for (int i = 0; i < cachedItemsCount; i++) {
+			TreeItem cachedItem = cachedItems [i];
+			if (cachedItem.cacheStamp == 0 || cachedItem.isDisposed ()) continue;
+			cachedItems [count] = cachedItem;
+			if (cachedItem != focusItem && cachedItem != anchorItem && cachedItem != lastClickedItem && !cachedItem.isInViewport ()) {
+				if (victim == -1 || cachedItem.cacheStamp < cachedItems [victim].cacheStamp) victim = count;
+			}
+			count++;
+		}
+		for (int i = count; i < cachedItemsCount; i++) {
+			cachedItems [i] = null;
+		}
+		cachedItemsCount = count;
+		if (victim != -1) {
+			TreeItem cachedItem = cachedItems [victim];
+			cachedItems [victim] = cachedItems [--cachedItemsCount];
+			cachedItems [cachedItemsCount] = null;
+			cachedItem.cacheStamp = 0;
+			cachedItem.clear ();
+		} else if (cachedItemsCount == cachedItems.length) {
+			TreeItem[] newCachedItems = new TreeItem [cachedItems.length * 2];
+			System.arraycopy (cachedItems, 0, newCachedItems, 0, cachedItemsCount);
+			cachedItems = newCachedItems;
+		}
+	}
+	item.cacheStamp = ++cacheStamp;
+	cachedItems [cachedItemsCount++] = item;
+}
 /**
  * Adds the listener to the collection of listeners who will
  * be notified when the user changes the receiver's selection, by sending
@@ -293,7 +337,10 @@ public void addTreeListener (TreeListener listener) {
 	addListener (SWT.Collapse, typedListener);
 }
 boolean checkData (TreeItem item, boolean redraw) {
-	if (item.cached) return true;
+	if (item.cached) {
+		if (item.cacheStamp != 0) item.cacheStamp = ++cacheStamp;
+		return true;
+	}
 	if ((style & SWT.VIRTUAL) != 0) {
 		item.cached = true;
 		Event event = new Event ();
@@ -302,7 +349,8 @@ boolean checkData (TreeItem item, boolean redraw) {
 		event.index = parentItem == null ? indexOf (item) : parentItem.indexOf (item);
 		sendEvent (SWT.SetData, event);
 		if (isDisposed () || item.isDisposed ()) return false;
-		if (redraw) redrawItem (item.availableIndex, false);
+		if (cachedItems != null && item.cacheStamp == 0) addCachedItem (item);
+		if (redraw) redrawItem (item.getAvailableIndex (), false);
 	}
 	return true;
 }
@@ -397,9 +445,9 @@ public void clear (int index, boolean recursive) {
 		int descendentCount = availableDescendents == null ?
 			item.computeAvailableDescendentCount () :
 			availableDescendents.length;
-		redrawItems (item.availableIndex, item.availableIndex + descendentCount - 1, false);
+		redrawItems (item.getAvailableIndex (), item.getAvailableIndex () + descendentCount - 1, false);
 	} else {
-		redrawItem (item.availableIndex, false);
+		redrawItem (item.getAvailableIndex (), false);
 	}
 }
 /**
@@ -460,7 +508,7 @@ public void clearAll (boolean recursive) {
 		redrawItems (0, availableItemsCount - 1, false);
 	} else {
 		for (int i = 0; i < items.length; i++) {
-			redrawItem (items [i].availableIndex, false);
+			redrawItem (items [i].getAvailableIndex (), false);
 		}
 	}
 }
@@ -485,6 +533,7 @@ public Point computeSize (int wHint, int hHint, boolean changed) {
 		width = wHint;
 	} else {
 		if (columns.length == 0) {
+			TreeItem[] availableItems = getAvailableItems ();
 			for (int i = 0; i < availableItemsCount; i++) {
 				Rectangle itemBounds = availableItems [i].getBounds (false);
 				width = Math.max (width, itemBounds.x + itemBounds.width);
@@ -560,31 +609,9 @@ void createItem (TreeItem item, int index) {
 	if (index == items.length - 1) {
 		startIndex = availableItemsCount;		/* last item */
 	} else {
-		startIndex = items [index + 1].availableIndex;
-	}
-
-	if (availableItemsCount == availableItems.length) {
-		int grow = drawCount <= 0 ? 4 : Math.max (4, availableItems.length * 3 / 2);
-		TreeItem[] newAvailableItems = new TreeItem [availableItems.length + grow];
-		System.arraycopy (availableItems, 0, newAvailableItems, 0, availableItems.length);
-		availableItems = newAvailableItems;
-	}
-	if (startIndex != availableItemsCount) {
-		/* new item is not at end of list, so shift other items right to create space for it */
-		System.arraycopy (
-			availableItems,
-			startIndex,
-			availableItems,
-			startIndex + 1,
-			availableItemsCount - startIndex);
-	}
-	availableItems [startIndex] = item;
-	availableItemsCount++;
-
-	/* update the availableIndex for items bumped down by this new item */
-	for (int i = startIndex; i < availableItemsCount; i++) {
-		availableItems [i].availableIndex = i;
+		startIndex = items [index + 1].getAvailableIndex ();
 	}
+	insertAvailableItems (startIndex, new TreeItem[] {item}, 0, 1);
 
 	/* update scrollbars */
 	updateVerticalBar ();
@@ -595,7 +622,7 @@ void createItem (TreeItem item, int index) {
 	 * If new item is above viewport then adjust topIndex and the vertical
 	 * scrollbar so that the current viewport items will not change.
 	 */
-	if (item.availableIndex < topIndex) {
+	if (item.getAvailableIndex () < topIndex) {
 		topIndex++;
 		ScrollBar vBar = getVerticalBar ();
 		if (vBar != null) vBar.setSelection (topIndex);
@@ -612,7 +639,7 @@ void createItem (TreeItem item, int index) {
 	}
 	int redrawIndex = index;
 	if (redrawIndex > 0 && item.isLastChild ()) redrawIndex--;
-	redrawFromItemDownwards (items [redrawIndex].availableIndex);
+	redrawFromItemDownwards (items [redrawIndex].getAvailableIndex ());
 }
 /**
  * Deselects an item in the receiver.  If the item was already
@@ -636,7 +663,7 @@ public void deselect (TreeItem item) {
 	if (item == null) error (SWT.ERROR_NULL_ARGUMENT);
 	if (item.isDisposed ()) error (SWT.ERROR_INVALID_ARGUMENT);
 	deselectItem (item);
-	redrawItem (item.availableIndex, true);
+	redrawItem (item.getAvailableIndex (), true);
 }
 /**
  * Deselects all selected items in the receiver.
@@ -651,7 +678,7 @@ public void deselectAll () {
 	TreeItem[] oldSelection = selectedItems;
 	selectedItems = NO_ITEMS;
 	for (int i = 0; i < oldSelection.length; i++) {
-		redrawItem (oldSelection [i].availableIndex, true);
+		redrawItem (oldSelection [i].getAvailableIndex (), true);
 	}
 }
 void deselectItem (TreeItem item) {
@@ -742,38 +769,12 @@ void destroyItem (TreeColumn column) {
 void destroyItem (TreeItem item) {
 	if (item == focusItem) reassignFocus ();
 
-	/* availableItems array */
-	int availableIndex = item.availableIndex; 
+	/* available items */
+	int availableIndex = item.getAvailableIndex (); 
 	if (availableIndex != -1) {
 		Rectangle bounds = item.getBounds (false);
 		int rightX = bounds.x + bounds.width;
-
-		if (availableIndex != availableItemsCount - 1) {
-			/* item is not at end of available items list, so must shift items left to reclaim its slot */
-			System.arraycopy (
-				availableItems,
-				availableIndex + 1,
-				availableItems,
-				availableIndex,
-				availableItemsCount - availableIndex - 1);
-			availableItems [availableItemsCount - 1] = null;
-		} else {
-			availableItems [availableIndex] = null;	/* last item, so no array copy needed */
-		}
-		availableItemsCount--;
-
-		if (drawCount <= 0 && availableItems.length - availableItemsCount == 4) {
-			/* shrink the available items array */
-			TreeItem[] newAvailableItems = new TreeItem [availableItemsCount];
-			System.arraycopy (availableItems, 0, newAvailableItems, 0, newAvailableItems.length);
-			availableItems = newAvailableItems;
-		}
-
-		/* update the availableIndex on affected items */
-		for (int i = availableIndex; i < availableItemsCount; i++) {
-			availableItems [i].availableIndex = i;
-		}
-		item.availableIndex = -1;
+		removeAvailableItems (availableIndex, 1);
 		int oldTopIndex = topIndex;
 		updateVerticalBar ();
 		updateHorizontalBar (0, -rightX);
@@ -826,6 +827,46 @@ Image getArrowDownImage () {
 Image getArrowUpImage () {
 	return (Image) display.getData (ID_ARROWUP);
 }
+/*
+ * Returns the available item at the given index.
+ */
+TreeItem getAvailableItem (int index) {
+	TreeItem node = availableRoot;
+	while (true) {
+		int leftCount = rowCount (node.rowLeft);
+		if (index == leftCount) return node;
+		if (index < leftCount) {
+			node = node.rowLeft;
+		} else {
+			index -= leftCount + 1;
+			node = node.rowRight;
+		}
+	}
+}
+/*
+ * Returns the available items in the order in which they are displayed.
+ */
+TreeItem[] getAvailableItems () {
+	TreeItem[] result = new TreeItem [availableItemsCount];
+	TreeItem[] stack = new TreeItem [32];
+	int top = 0, index = 0;
+	TreeItem node = availableRoot;
+	while (node != null || top > 0) {
+		while (node != null) {
+			if (top == stack.length) {
+				TreeItem[] newStack = new TreeItem [stack.length * 2];
+				System.arraycopy (stack, 0, newStack, 0, top);
+				stack = newStack;
+			}
+			stack [top++] = node;
+			node = node.rowLeft;
+		}
+		node = stack [--top];
+		result [index++] = node;
+		node = node.rowRight;
+	}
+	return result;
+}
 public Color getBackground () {
 	checkWidget ();
 	if (cachedBackground != null) return cachedBackground;
@@ -1086,7 +1127,7 @@ public TreeItem getItem (Point point) {
 	if (point == null) error (SWT.ERROR_NULL_ARGUMENT);
 	int index = (point.y - getHeaderHeight ()) / itemHeight + topIndex;
 	if (!(0 <= index && index < availableItemsCount)) return null;		/* below the last item */
-	TreeItem result = availableItems [index];
+	TreeItem result = getAvailableItem (index);
 	if (!result.getHitBounds ().contains (point)) return null;	/* considers the x value */
 	return result;
 }
@@ -1171,7 +1212,7 @@ public TreeItem[] getItems () {
  * Returns the current y-coordinate that the specified item should have. 
  */
 int getItemY (TreeItem item) {
-	int index = item.availableIndex;
+	int index = item.getAvailableIndex ();
 	if (index == -1) return -1;
 	return (index - topIndex) * itemHeight + getHeaderHeight ();
 }
@@ -1339,7 +1380,7 @@ public int getSortDirection () {
 public TreeItem getTopItem () {
 	checkWidget ();
 	if (availableItemsCount == 0) return null;
-	return availableItems [topIndex];
+	return getAvailableItem (topIndex);
 }
 Image getUncheckedImage () {
 	return (Image) display.getData (ID_UNCHECKED);
@@ -1890,6 +1931,114 @@ static void initImages (final Display display) {
 		}
 	});
 }
+/*
+ * The available items are kept in a treap, a binary tree that is ordered by
+ * the position of the items and balanced by random priorities. The items are
+ * the nodes and each node counts the items of its subtree, so that finding an
+ * item from its index, or an index from its item, takes O(log n), and that the
+ * descendents of an expanded or collapsed item are inserted or removed at once.
+ */
+void insertAvailableItems (int index, TreeItem[] items, int start, int count) {
+	if (count == 0) return;
+	/* build the treap of the new items in linear time, keeping the right spine in a stack */
+	TreeItem[] stack = new TreeItem [count];
+	int top = 0;
+	for (int i = start; i < start + count; i++) {
+		TreeItem node = items [i];
+		node.rowPriority = nextRowPriority ();
+		node.rowLeft = node.rowRight = node.rowParent = null;
+		node.rowCount = 1;
+		TreeItem last = null;
+		while (top > 0 && stack [top - 1].rowPriority < node.rowPriority) {
+			last = stack [--top];
+			updateRowCount (last);
+		}
+		node.rowLeft = last;
+		if (top > 0) stack [top - 1].rowRight = node;
+		stack [top++] = node;
+	}
+	while (top > 0) {
+		updateRowCount (stack [--top]);
+	}
+	TreeItem[] result = new TreeItem [2];
+	splitRows (availableRoot, index, result);
+	availableRoot = mergeRows (mergeRows (result [0], stack [0]), result [1]);
+	availableRoot.rowParent = null;
+	availableItemsCount += count;
+}
+void removeAvailableItems (int index, int count) {
+	if (count == 0) return;
+	TreeItem[] result = new TreeItem [2];
+	splitRows (availableRoot, index, result);
+	TreeItem left = result [0];
+	splitRows (result [1], count, result);
+	TreeItem removed = result [0];
+	availableRoot = mergeRows (left, result [1]);
+	if (availableRoot != null) availableRoot.rowParent = null;
+	availableItemsCount -= count;
+	clearRows (removed);
+}
+static void clearRows (TreeItem node) {
+	while (node != null) {
+		clearRows (node.rowLeft);
+		TreeItem right = node.rowRight;
+		node.rowLeft = node.rowRight = node.rowParent = null;
+		node.rowCount = 0;
+		node = right;
+	}
+}
+static TreeItem mergeRows (TreeItem left, TreeItem right) {
+	if (left == null) return right;
+	if (right == null) return left;
+	if (left.rowPriority > right.rowPriority) {
+		left.rowRight = mergeRows (left.rowRight, right);
+		updateRowCount (left);
+		return left;
+	}
+	right.rowLeft = mergeRows (left, right.rowLeft);
+	updateRowCount (right);
+	return right;
+}
+int nextRowPriority () {
+	/* xorshift generator */
+	int seed = rowSeed;
+	seed ^= seed << 13;
+	seed ^= seed >>> 17;
+	seed ^= seed << 5;
+	return rowSeed = seed;
+}
+static int rowCount (TreeItem node) {
+	return node == null ? 0 : node.rowCount;
+}
+/*
+ * Splits the treap rooted at node into the treap of its first count items,
+ * returned in result [0], and the treap of the remaining ones, in result [1].
+ */
+static void splitRows (TreeItem node, int count, TreeItem[] result) {
+	if (node == null) {
+		result [0] = result [1] = null;
+		return;
+	}
+	int leftCount = rowCount (node.rowLeft);
+	if (count <= leftCount) {
+		splitRows (node.rowLeft, count, result);
+		node.rowLeft = result [1];
+		updateRowCount (node);
+		result [1] = node;
+	} else {
+		splitRows (node.rowRight, count - leftCount - 1, result);
+		node.rowRight = result [0];
+		updateRowCount (node);
+		result [0] = node;
+	}
+	if (result [0] != null) result [0].rowParent = null;
+	if (result [1] != null) result [1].rowParent = null;
+}
+static void updateRowCount (TreeItem node) {
+	node.rowCount = 1 + rowCount (node.rowLeft) + rowCount (node.rowRight);
+	if (node.rowLeft != null) node.rowLeft.rowParent = node;
+	if (node.rowRight != null) node.rowRight.rowParent = node;
+}
 /*
  * Important: Assumes that item just became available (ie.- was either created
  * or the parent item was expanded) and the parent is available.
@@ -1898,7 +2047,7 @@ void makeAvailable (TreeItem item) {
 	int parentItemCount = item.parentItem.items.length; 
 	int index = 0;
 	if (parentItemCount == 1) {		/* this is the only child of parentItem */
-		index = item.parentItem.availableIndex + 1;
+		index = item.parentItem.getAvailableIndex () + 1;
 	} else {
 		/* determine this item's index in its parent */
 		int itemIndex = 0;
@@ -1910,30 +2059,13 @@ void makeAvailable (TreeItem item) {
 			}
 		}
 		if (itemIndex != parentItemCount - 1) {	/* this is not the last child */
-			index = items [itemIndex + 1].availableIndex;
+			index = items [itemIndex + 1].getAvailableIndex ();
 		} else {	/* this is the last child */
 			TreeItem previousItem = items [itemIndex - 1];
-			index = previousItem.availableIndex + previousItem.computeAvailableDescendentCount ();
+			index = previousItem.getAvailableIndex () + previousItem.computeAvailableDescendentCount ();
 		}
 	}
-
-	if (availableItemsCount == availableItems.length) {
-		int grow = drawCount <= 0 ? 4 : Math.max (4, availableItems.length * 3 / 2);
-		TreeItem[] newAvailableItems = new TreeItem [availableItems.length + grow];
-		System.arraycopy (availableItems, 0, newAvailableItems, 0, availableItems.length);
-		availableItems = newAvailableItems;
-	}
-	if (index != availableItemsCount) {
-		/* new item is not at end of list, so shift other items right to create space for it */
-		System.arraycopy (availableItems, index, availableItems, index + 1, availableItemsCount - index);
-	}
-	availableItems [index] = item;
-	availableItemsCount++;
-
-	/* update availableIndex as needed */
-	for (int i = index; i < availableItemsCount; i++) {
-		availableItems [i].availableIndex = i;
-	}
+	insertAvailableItems (index, new TreeItem[] {item}, 0, 1);
 }
 
 /*
@@ -1941,25 +2073,8 @@ void makeAvailable (TreeItem item) {
  * available (ie.- they were either created or the item was expanded).
  */
 void makeDescendentsAvailable (TreeItem item, TreeItem[] descendents) {
-	int itemAvailableIndex = item.availableIndex;
-	TreeItem[] newAvailableItems = new TreeItem [availableItemsCount + descendents.length - 1];
-	
-	System.arraycopy (availableItems, 0, newAvailableItems, 0, itemAvailableIndex);
-	System.arraycopy (descendents, 0, newAvailableItems, itemAvailableIndex, descendents.length);
-	int startIndex = itemAvailableIndex + 1;
-	System.arraycopy (
-		availableItems,
-		startIndex,
-		newAvailableItems,
-		itemAvailableIndex + descendents.length,
-		availableItemsCount - startIndex);
-	availableItems = newAvailableItems;
-	availableItemsCount = availableItems.length;
-	
-	/* update availableIndex as needed */
-	for (int i = itemAvailableIndex; i < availableItemsCount; i++) {
-		availableItems [i].availableIndex = i;
-	}
+	/* the first descendent is the item being expanded, which is already available */
+	insertAvailableItems (item.getAvailableIndex () + 1, descendents, 1, descendents.length - 1);
 }
 
 /*
@@ -1967,28 +2082,8 @@ void makeDescendentsAvailable (TreeItem item, TreeItem[] descendents) {
  * unavailable (ie.- they were either disposed or the item was collapsed).
  */
 void makeDescendentsUnavailable (TreeItem item, TreeItem[] descendents) {
-	int descendentsLength = descendents.length;
-	TreeItem[] newAvailableItems = new TreeItem [availableItemsCount - descendentsLength + 1];
-	
-	System.arraycopy (availableItems, 0, newAvailableItems, 0, item.availableIndex + 1);
-	int startIndex = item.availableIndex + descendentsLength;
-	System.arraycopy (
-		availableItems,
-		startIndex,
-		newAvailableItems,
-		item.availableIndex + 1,
-		availableItemsCount - startIndex);
-	availableItems = newAvailableItems;
-	availableItemsCount = availableItems.length;
-	
-	/* update availableIndexes */
-	for (int i = 1; i < descendents.length; i++) {
-		/* skip the first descendent since this is the item being collapsed */
-		descendents [i].availableIndex = -1;
-	}
-	for (int i = item.availableIndex; i < availableItemsCount; i++) {
-		availableItems [i].availableIndex = i;
-	}
+	/* the first descendent is the item being collapsed, which stays available */
+	removeAvailableItems (item.getAvailableIndex () + 1, descendents.length - 1);
 	
 	/* remove the selection from all descendents */
 	for (int i = selectedItems.length - 1; i >= 0; i--) {
@@ -2005,14 +2100,14 @@ void makeDescendentsUnavailable (TreeItem item, TreeItem[] descendents) {
 void onArrowDown (int stateMask) {
 	if ((stateMask & (SWT.SHIFT | SWT.CTRL)) == 0) {
 		/* Down Arrow with no modifiers */
-		int newFocusIndex = focusItem.availableIndex + 1;
+		int newFocusIndex = focusItem.getAvailableIndex () + 1;
 		if (newFocusIndex == availableItemsCount) return; 	/* at bottom */
-		selectItem (availableItems [newFocusIndex], false);
-		setFocusItem (availableItems [newFocusIndex], true);
+		selectItem (getAvailableItem (newFocusIndex), false);
+		setFocusItem (getAvailableItem (newFocusIndex), true);
 		redrawItem (newFocusIndex, true);
-		showItem (availableItems [newFocusIndex]);
+		showItem (getAvailableItem (newFocusIndex));
 		Event newEvent = new Event ();
-		newEvent.item = availableItems [newFocusIndex];
+		newEvent.item = getAvailableItem (newFocusIndex);
 		postEvent (SWT.Selection, newEvent);
 		return;
 	}
@@ -2034,14 +2129,14 @@ void onArrowDown (int stateMask) {
 			return;
 		}
 		/* Shift+Down Arrow */
-		int newFocusIndex = focusItem.availableIndex + 1;
+		int newFocusIndex = focusItem.getAvailableIndex () + 1;
 		if (newFocusIndex == availableItemsCount) return; 	/* at bottom */
-		selectItem (availableItems [newFocusIndex], false);
-		setFocusItem (availableItems [newFocusIndex], true);
+		selectItem (getAvailableItem (newFocusIndex), false);
+		setFocusItem (getAvailableItem (newFocusIndex), true);
 		redrawItem (newFocusIndex, true);
-		showItem (availableItems [newFocusIndex]);
+		showItem (getAvailableItem (newFocusIndex));
 		Event newEvent = new Event ();
-		newEvent.item = availableItems [newFocusIndex];
+		newEvent.item = getAvailableItem (newFocusIndex);
 		postEvent (SWT.Selection, newEvent);
 		return;
 	}
@@ -2064,28 +2159,28 @@ void onArrowDown (int stateMask) {
 			return;
 		}
 		/* CTRL+Down Arrow */
-		int focusIndex = focusItem.availableIndex; 
+		int focusIndex = focusItem.getAvailableIndex (); 
 		if (focusIndex == availableItemsCount - 1) return;	/* at bottom */
-		TreeItem newFocusItem = availableItems [focusIndex + 1];
+		TreeItem newFocusItem = getAvailableItem (focusIndex + 1);
 		setFocusItem (newFocusItem, true);
-		redrawItem (newFocusItem.availableIndex, true);
+		redrawItem (newFocusItem.getAvailableIndex (), true);
 		showItem (newFocusItem);
 		return;
 	}
 	/* Shift+Down Arrow */
-	int newFocusIndex = focusItem.availableIndex + 1;
+	int newFocusIndex = focusItem.getAvailableIndex () + 1;
 	if (newFocusIndex == availableItemsCount) return; 	/* at bottom */
 	if (anchorItem == null) anchorItem = focusItem;
-	if (focusItem.availableIndex < anchorItem.availableIndex) {
+	if (focusItem.getAvailableIndex () < anchorItem.getAvailableIndex ()) {
 		deselectItem (focusItem);
-		redrawItem (focusItem.availableIndex, true);
+		redrawItem (focusItem.getAvailableIndex (), true);
 	}
-	selectItem (availableItems [newFocusIndex], true);
-	setFocusItem (availableItems [newFocusIndex], true);
+	selectItem (getAvailableItem (newFocusIndex), true);
+	setFocusItem (getAvailableItem (newFocusIndex), true);
 	redrawItem (newFocusIndex, true);
-	showItem (availableItems [newFocusIndex]);
+	showItem (getAvailableItem (newFocusIndex));
 	Event newEvent = new Event ();
-	newEvent.item = availableItems [newFocusIndex];
+	newEvent.item = getAvailableItem (newFocusIndex);
 	postEvent (SWT.Selection, newEvent);
 }
 void onArrowLeft (int stateMask) {
@@ -2128,7 +2223,7 @@ void onArrowLeft (int stateMask) {
 	
 	selectItem (parentItem, false);
 	setFocusItem (parentItem, true);
-	redrawItem (parentItem.availableIndex, true);
+	redrawItem (parentItem.getAvailableIndex (), true);
 	showItem (parentItem);
 	Event newEvent = new Event ();
 	newEvent.item = parentItem;
@@ -2184,7 +2279,7 @@ void onArrowRight (int stateMask) {
 	}
 	selectItem (children [0], false);
 	setFocusItem (children [0], true);
-	redrawItem (children [0].availableIndex, true);
+	redrawItem (children [0].getAvailableIndex (), true);
 	showItem (children [0]);
 	Event newEvent = new Event ();
 	newEvent.item = children [0];
@@ -2193,9 +2288,9 @@ void onArrowRight (int stateMask) {
 void onArrowUp (int stateMask) {
 	if ((stateMask & (SWT.SHIFT | SWT.CTRL)) == 0) {
 		/* Up Arrow with no modifiers */
-		int newFocusIndex = focusItem.availableIndex - 1;
+		int newFocusIndex = focusItem.getAvailableIndex () - 1;
 		if (newFocusIndex < 0) return; 		/* at top */
-		TreeItem item = availableItems [newFocusIndex];
+		TreeItem item = getAvailableItem (newFocusIndex);
 		selectItem (item, false);
 		setFocusItem (item, true);
 		redrawItem (newFocusIndex, true);
@@ -2222,9 +2317,9 @@ void onArrowUp (int stateMask) {
 			return;
 		}
 		/* Shift+Up Arrow */
-		int newFocusIndex = focusItem.availableIndex - 1;
+		int newFocusIndex = focusItem.getAvailableIndex () - 1;
 		if (newFocusIndex < 0) return; 	/* at top */
-		TreeItem item = availableItems [newFocusIndex];
+		TreeItem item = getAvailableItem (newFocusIndex);
 		selectItem (item, false);
 		setFocusItem (item, true);
 		redrawItem (newFocusIndex, true);
@@ -2252,23 +2347,23 @@ void onArrowUp (int stateMask) {
 			return;
 		}
 		/* CTRL+Up Arrow */
-		int focusIndex = focusItem.availableIndex; 
+		int focusIndex = focusItem.getAvailableIndex (); 
 		if (focusIndex == 0) return;	/* at top */
-		TreeItem newFocusItem = availableItems [focusIndex - 1];
+		TreeItem newFocusItem = getAvailableItem (focusIndex - 1);
 		setFocusItem (newFocusItem, true);
 		showItem (newFocusItem);
-		redrawItem (newFocusItem.availableIndex, true);
+		redrawItem (newFocusItem.getAvailableIndex (), true);
 		return;
 	}
 	/* Shift+Up Arrow */
-	int newFocusIndex = focusItem.availableIndex - 1;
+	int newFocusIndex = focusItem.getAvailableIndex () - 1;
 	if (newFocusIndex < 0) return; 		/* at top */
 	if (anchorItem == null) anchorItem = focusItem;
-	if (anchorItem.availableIndex < focusItem.availableIndex) {
+	if (anchorItem.getAvailableIndex () < focusItem.getAvailableIndex ()) {
 		deselectItem (focusItem);
-		redrawItem (focusItem.availableIndex, true);
+		redrawItem (focusItem.getAvailableIndex (), true);
 	}
-	TreeItem item = availableItems [newFocusIndex];
+	TreeItem item = getAvailableItem (newFocusIndex);
 	selectItem (item, true);
 	setFocusItem (item, true);
 	redrawItem (newFocusIndex, true);
@@ -2302,7 +2397,8 @@ void onDispose (Event event) {
 	}
 	toolTipListener = null;
 	topIndex = availableItemsCount = horizontalOffset = 0;
-	availableItems = items = selectedItems = null;
+	items = selectedItems = cachedItems = null;
+	availableRoot = null;
 	columns = orderedColumns = null;
 	focusItem = anchorItem = insertMarkItem = lastClickedItem = null;
 	lastSelectionEvent = null;
@@ -2315,8 +2411,8 @@ void onEnd (int stateMask) {
 	int lastAvailableIndex = availableItemsCount - 1;
 	if ((stateMask & (SWT.CTRL | SWT.SHIFT)) == 0) {
 		/* End with no modifiers */
-		if (focusItem.availableIndex == lastAvailableIndex) return; 	/* at bottom */
-		TreeItem item = availableItems [lastAvailableIndex]; 
+		if (focusItem.getAvailableIndex () == lastAvailableIndex) return; 	/* at bottom */
+		TreeItem item = getAvailableItem (lastAvailableIndex); 
 		selectItem (item, false);
 		setFocusItem (item, true);
 		redrawItem (lastAvailableIndex, true);
@@ -2330,12 +2426,12 @@ void onEnd (int stateMask) {
 		if ((stateMask & SWT.CTRL) != 0) {
 			/* CTRL+End, CTRL+Shift+End */
 			int visibleItemCount = (clientArea.height - getHeaderHeight ()) / itemHeight;
-			setTopItem (availableItems [availableItemsCount - visibleItemCount]);
+			setTopItem (getAvailableItem (availableItemsCount - visibleItemCount));
 			return;
 		}
 		/* Shift+End */
-		if (focusItem.availableIndex == lastAvailableIndex) return; /* at bottom */
-		TreeItem item = availableItems [lastAvailableIndex]; 
+		if (focusItem.getAvailableIndex () == lastAvailableIndex) return; /* at bottom */
+		TreeItem item = getAvailableItem (lastAvailableIndex); 
 		selectItem (item, false);
 		setFocusItem (item, true);
 		redrawItem (lastAvailableIndex, true);
@@ -2349,27 +2445,27 @@ void onEnd (int stateMask) {
 	if ((stateMask & SWT.CTRL) != 0) {
 		if ((stateMask & SWT.SHIFT) != 0) {
 			/* CTRL+Shift+End */
-			showItem (availableItems [lastAvailableIndex]);
+			showItem (getAvailableItem (lastAvailableIndex));
 			return;
 		}
 		/* CTRL+End */
-		if (focusItem.availableIndex == lastAvailableIndex) return; /* at bottom */
-		TreeItem item = availableItems [lastAvailableIndex];
+		if (focusItem.getAvailableIndex () == lastAvailableIndex) return; /* at bottom */
+		TreeItem item = getAvailableItem (lastAvailableIndex);
 		setFocusItem (item, true);
 		showItem (item);
-		redrawItem (item.availableIndex, true);
+		redrawItem (item.getAvailableIndex (), true);
 		return;
 	}
 	/* Shift+End */
 	if (anchorItem == null) anchorItem = focusItem;
-	TreeItem selectedItem = availableItems [lastAvailableIndex];
+	TreeItem selectedItem = getAvailableItem (lastAvailableIndex);
 	if (selectedItem == focusItem && selectedItem.isSelected ()) return;
-	int anchorIndex = anchorItem.availableIndex;
-	int selectIndex = selectedItem.availableIndex;
+	int anchorIndex = anchorItem.getAvailableIndex ();
+	int selectIndex = selectedItem.getAvailableIndex ();
 	TreeItem[] newSelection = new TreeItem [selectIndex - anchorIndex + 1];
 	int writeIndex = 0;
 	for (int i = anchorIndex; i <= selectIndex; i++) {
-		newSelection [writeIndex++] = availableItems [i];
+		newSelection [writeIndex++] = getAvailableItem (i);
 	}
 	setSelection (newSelection, false);
 	setFocusItem (selectedItem, true);
@@ -2387,7 +2483,7 @@ void onFocusIn () {
 		return;
 	}
 	if (focusItem != null) {
-		redrawItem (focusItem.availableIndex, true);
+		redrawItem (focusItem.getAvailableIndex (), true);
 		return;
 	}
 	/* an initial focus item must be selected */
@@ -2400,13 +2496,13 @@ void onFocusIn () {
 		}
 		if (initialFocus == null) {
 			/* none of the selected items are available */
-			initialFocus = availableItems [topIndex];
+			initialFocus = getAvailableItem (topIndex);
 		}
 	} else {
-		initialFocus = availableItems [topIndex];
+		initialFocus = getAvailableItem (topIndex);
 	}
 	setFocusItem (initialFocus, false);
-	redrawItem (initialFocus.availableIndex, true);
+	redrawItem (initialFocus.getAvailableIndex (), true);
 	return;
 }
 void onFocusOut () {
@@ -2418,14 +2514,14 @@ void onFocusOut () {
 	}	
 
 	if (focusItem != null) {
-		redrawItem (focusItem.availableIndex, true);
+		redrawItem (focusItem.getAvailableIndex (), true);
 	}
 }
 void onHome (int stateMask) {
 	if ((stateMask & (SWT.CTRL | SWT.SHIFT)) == 0) {
 		/* Home with no modifiers */
-		if (focusItem.availableIndex == 0) return; 		/* at top */
-		TreeItem item = availableItems [0];
+		if (focusItem.getAvailableIndex () == 0) return; 		/* at top */
+		TreeItem item = getAvailableItem (0);
 		selectItem (item, false);
 		setFocusItem (item, true);
 		redrawItem (0, true);
@@ -2438,12 +2534,12 @@ void onHome (int stateMask) {
 	if ((style & SWT.SINGLE) != 0) {
 		if ((stateMask & SWT.CTRL) != 0) {
 			/* CTRL+Home, CTRL+Shift+Home */
-			setTopItem (availableItems [0]);
+			setTopItem (getAvailableItem (0));
 			return;
 		}
 		/* Shift+Home */
-		if (focusItem.availableIndex == 0) return; 		/* at top */
-		TreeItem item = availableItems [0];
+		if (focusItem.getAvailableIndex () == 0) return; 		/* at top */
+		TreeItem item = getAvailableItem (0);
 		selectItem (item, false);
 		setFocusItem (item, true);
 		redrawItem (0, true);
@@ -2457,27 +2553,27 @@ void onHome (int stateMask) {
 	if ((stateMask & SWT.CTRL) != 0) {
 		if ((stateMask & SWT.SHIFT) != 0) {
 			/* CTRL+Shift+Home */
-			setTopItem (availableItems [0]);
+			setTopItem (getAvailableItem (0));
 			return;
 		}
 		/* CTRL+Home */
-		if (focusItem.availableIndex == 0) return; /* at top */
-		TreeItem item = availableItems [0];
+		if (focusItem.getAvailableIndex () == 0) return; /* at top */
+		TreeItem item = getAvailableItem (0);
 		setFocusItem (item, true);
 		showItem (item);
-		redrawItem (item.availableIndex, true);
+		redrawItem (item.getAvailableIndex (), true);
 		return;
 	}
 	/* Shift+Home */
 	if (anchorItem == null) anchorItem = focusItem;
-	TreeItem selectedItem = availableItems [0];
+	TreeItem selectedItem = getAvailableItem (0);
 	if (selectedItem == focusItem && selectedItem.isSelected ()) return;
-	int anchorIndex = anchorItem.availableIndex;
-	int selectIndex = selectedItem.availableIndex;
+	int anchorIndex = anchorItem.getAvailableIndex ();
+	int selectIndex = selectedItem.getAvailableIndex ();
 	TreeItem[] newSelection = new TreeItem [anchorIndex + 1];
 	int writeIndex = 0;
 	for (int i = anchorIndex; i >= 0; i--) {
-		newSelection [writeIndex++] = availableItems [i];
+		newSelection [writeIndex++] = getAvailableItem (i);
 	}
 	setSelection (newSelection, false);
 	setFocusItem (selectedItem, true);
@@ -2536,8 +2632,9 @@ void onKeyDown (Event event) {
 	}
 	if ((event.stateMask & SWT.CTRL) != 0) return;
 
-	int initialIndex = focusItem.availableIndex;
+	int initialIndex = focusItem.getAvailableIndex ();
 	char character = Character.toLowerCase (event.character);
+	TreeItem[] availableItems = getAvailableItems ();
 	/* check available items from current focus item to bottom */
 	for (int i = initialIndex + 1; i < availableItemsCount; i++) {
 		TreeItem item = availableItems [i];
@@ -2577,7 +2674,7 @@ void onMouseDoubleClick (Event event) {
 	if (!isFocusControl ()) setFocus ();
 	int index = (event.y - getHeaderHeight ()) / itemHeight + topIndex;
 	if  (!(0 <= index && index < availableItemsCount)) return;	/* not on an available item */
-	TreeItem selectedItem = availableItems [index];
+	TreeItem selectedItem = getAvailableItem (index);
 	
 	/* 
 	 * If the two clicks of the double click did not occur over the same item then do not
@@ -2600,7 +2697,7 @@ void onMouseDown (Event event) {
 	if (!isFocusControl ()) forceFocus ();
 	int index = (event.y - getHeaderHeight ()) / itemHeight + topIndex;
 	if (!(0 <= index && index < availableItemsCount)) return;	/* not on an available item */
-	TreeItem selectedItem = availableItems [index];
+	TreeItem selectedItem = getAvailableItem (index);
 	
 	/* if click was in expander box */
 	if (selectedItem.items.length > 0 && selectedItem.getExpanderBounds ().contains (event.x, event.y)) {
@@ -2656,7 +2753,7 @@ void onMouseDown (Event event) {
 			if (event.button == 1) {
 				selectItem (selectedItem, false);
 				setFocusItem (selectedItem, true);
-				redrawItem (selectedItem.availableIndex, true);
+				redrawItem (selectedItem.getAvailableIndex (), true);
 				if (sendSelection) {
 					Event newEvent = new Event ();
 					newEvent.item = selectedItem;
@@ -2667,7 +2764,7 @@ void onMouseDown (Event event) {
 			if ((event.stateMask & (SWT.CTRL | SWT.SHIFT)) == 0) {
 				selectItem (selectedItem, false);
 				setFocusItem (selectedItem, true);
-				redrawItem (selectedItem.availableIndex, true);
+				redrawItem (selectedItem.getAvailableIndex (), true);
 				if (sendSelection) {
 					Event newEvent = new Event ();
 					newEvent.item = selectedItem;
@@ -2692,15 +2789,15 @@ void onMouseDown (Event event) {
 		if (event.button == 1) {
 			if ((event.stateMask & (SWT.CTRL | SWT.SHIFT)) == SWT.SHIFT) {
 				if (anchorItem == null) anchorItem = focusItem;
-				int anchorIndex = anchorItem.availableIndex;
-				int selectIndex = selectedItem.availableIndex;
+				int anchorIndex = anchorItem.getAvailableIndex ();
+				int selectIndex = selectedItem.getAvailableIndex ();
 				TreeItem[] newSelection = new TreeItem [Math.abs (anchorIndex - selectIndex) + 1];
 				int step = anchorIndex < selectIndex ? 1 : -1;
 				int writeIndex = 0;
 				for (int i = anchorIndex; i != selectIndex; i += step) {
-					newSelection [writeIndex++] = availableItems [i];
+					newSelection [writeIndex++] = getAvailableItem (i);
 				}
-				newSelection [writeIndex] = availableItems [selectIndex];
+				newSelection [writeIndex] = getAvailableItem (selectIndex);
 				setSelection (newSelection, false);
 				setFocusItem (selectedItem, true);
 				redrawItems (
@@ -2716,7 +2813,7 @@ void onMouseDown (Event event) {
 			}
 			selectItem (selectedItem, (event.stateMask & SWT.CTRL) != 0);
 			setFocusItem (selectedItem, true);
-			redrawItem (selectedItem.availableIndex, true);
+			redrawItem (selectedItem.getAvailableIndex (), true);
 			if (sendSelection) {
 				Event newEvent = new Event ();
 				newEvent.item = selectedItem;
@@ -2728,7 +2825,7 @@ void onMouseDown (Event event) {
 		if ((event.stateMask & (SWT.CTRL | SWT.SHIFT)) == 0) {
 			selectItem (selectedItem, false);
 			setFocusItem (selectedItem, true);
-			redrawItem (selectedItem.availableIndex, true);
+			redrawItem (selectedItem.getAvailableIndex (), true);
 			if (sendSelection) {
 				Event newEvent = new Event ();
 				newEvent.item = selectedItem;
@@ -2742,7 +2839,7 @@ void onMouseDown (Event event) {
 	if ((event.stateMask & SWT.CTRL) != 0) {
 		removeSelectedItem (getSelectionIndex (selectedItem));
 		setFocusItem (selectedItem, true);
-		redrawItem (selectedItem.availableIndex, true);
+		redrawItem (selectedItem.getAvailableIndex (), true);
 		if (sendSelection) {
 			Event newEvent = new Event ();
 			newEvent.item = selectedItem;
@@ -2752,15 +2849,15 @@ void onMouseDown (Event event) {
 	}
 	if ((event.stateMask & SWT.SHIFT) != 0) {
 		if (anchorItem == null) anchorItem = focusItem;
-		int anchorIndex = anchorItem.availableIndex;
-		int selectIndex = selectedItem.availableIndex;
+		int anchorIndex = anchorItem.getAvailableIndex ();
+		int selectIndex = selectedItem.getAvailableIndex ();
 		TreeItem[] newSelection = new TreeItem [Math.abs (anchorIndex - selectIndex) + 1];
 		int step = anchorIndex < selectIndex ? 1 : -1;
 		int writeIndex = 0;
 		for (int i = anchorIndex; i != selectIndex; i += step) {
-			newSelection [writeIndex++] = availableItems [i];
+			newSelection [writeIndex++] = getAvailableItem (i);
 		}
-		newSelection [writeIndex] = availableItems [selectIndex];
+		newSelection [writeIndex] = getAvailableItem (selectIndex);
 		setSelection (newSelection, false);
 		setFocusItem (selectedItem, true);
 		redrawItems (
@@ -2776,7 +2873,7 @@ void onMouseDown (Event event) {
 	}
 	selectItem (selectedItem, false);
 	setFocusItem (selectedItem, true);
-	redrawItem (selectedItem.availableIndex, true);
+	redrawItem (selectedItem.getAvailableIndex (), true);
 	if (sendSelection) {
 		Event newEvent = new Event ();
 		newEvent.item = selectedItem;
@@ -2786,20 +2883,20 @@ void onMouseDown (Event event) {
 void onMouseUp (Event event) {
 	int index = (event.y - getHeaderHeight ()) / itemHeight + topIndex;
 	if (!(0 <= index && index < availableItemsCount)) return;	/* not on an available item */
-	lastClickedItem = availableItems [index];
+	lastClickedItem = getAvailableItem (index);
 }
 void onPageDown (int stateMask) {
 	int visibleItemCount = (clientArea.height - getHeaderHeight ()) / itemHeight;
 	if ((stateMask & (SWT.CTRL | SWT.SHIFT)) == 0) {
 		/* PageDown with no modifiers */
-		int newFocusIndex = focusItem.availableIndex + visibleItemCount - 1;
+		int newFocusIndex = focusItem.getAvailableIndex () + visibleItemCount - 1;
 		newFocusIndex = Math.min (newFocusIndex, availableItemsCount - 1);
-		if (newFocusIndex == focusItem.availableIndex) return;
-		TreeItem item = availableItems [newFocusIndex];
+		if (newFocusIndex == focusItem.getAvailableIndex ()) return;
+		TreeItem item = getAvailableItem (newFocusIndex);
 		selectItem (item, false);
 		setFocusItem (item, true);
 		showItem (item);
-		redrawItem (item.availableIndex, true);
+		redrawItem (item.getAvailableIndex (), true);
 		return;
 	}
 	if ((stateMask & (SWT.CTRL | SWT.SHIFT)) == (SWT.CTRL | SWT.SHIFT)) {
@@ -2807,68 +2904,68 @@ void onPageDown (int stateMask) {
 		int newTopIndex = topIndex + visibleItemCount;
 		newTopIndex = Math.min (newTopIndex, availableItemsCount - visibleItemCount);
 		if (newTopIndex == topIndex) return;
-		setTopItem (availableItems [newTopIndex]);
+		setTopItem (getAvailableItem (newTopIndex));
 		return;
 	}
 	if ((style & SWT.SINGLE) != 0) {
 		if ((stateMask & SWT.SHIFT) != 0) {
 			/* Shift+PageDown */
-			int newFocusIndex = focusItem.availableIndex + visibleItemCount - 1;
+			int newFocusIndex = focusItem.getAvailableIndex () + visibleItemCount - 1;
 			newFocusIndex = Math.min (newFocusIndex, availableItemsCount - 1);
-			if (newFocusIndex == focusItem.availableIndex) return;
-			TreeItem item = availableItems [newFocusIndex];
+			if (newFocusIndex == focusItem.getAvailableIndex ()) return;
+			TreeItem item = getAvailableItem (newFocusIndex);
 			selectItem (item, false);
 			setFocusItem (item, true);
 			showItem (item);
-			redrawItem (item.availableIndex, true);
+			redrawItem (item.getAvailableIndex (), true);
 			return;
 		}
 		/* CTRL+PageDown */
 		int newTopIndex = topIndex + visibleItemCount;
 		newTopIndex = Math.min (newTopIndex, availableItemsCount - visibleItemCount);
 		if (newTopIndex == topIndex) return;
-		setTopItem (availableItems [newTopIndex]);
+		setTopItem (getAvailableItem (newTopIndex));
 		return;
 	}
 	/* SWT.MULTI */
 	if ((stateMask & SWT.CTRL) != 0) {
 		/* CTRL+PageDown */
 		int bottomIndex = Math.min (topIndex + visibleItemCount - 1, availableItemsCount - 1);
-		if (focusItem.availableIndex != bottomIndex) {
+		if (focusItem.getAvailableIndex () != bottomIndex) {
 			/* move focus to bottom item in viewport */
-			setFocusItem (availableItems [bottomIndex], true);
+			setFocusItem (getAvailableItem (bottomIndex), true);
 			redrawItem (bottomIndex, true);
 		} else {
 			/* at bottom of viewport, so set focus to bottom item one page down */
 			int newFocusIndex = Math.min (availableItemsCount - 1, bottomIndex + visibleItemCount);
-			if (newFocusIndex == focusItem.availableIndex) return;
-			setFocusItem (availableItems [newFocusIndex], true);
-			showItem (availableItems [newFocusIndex]);
+			if (newFocusIndex == focusItem.getAvailableIndex ()) return;
+			setFocusItem (getAvailableItem (newFocusIndex), true);
+			showItem (getAvailableItem (newFocusIndex));
 			redrawItem (newFocusIndex, true);
 		}
 		return;
 	}
 	/* Shift+PageDown */
 	if (anchorItem == null) anchorItem = focusItem;
-	int anchorIndex = anchorItem.availableIndex;
+	int anchorIndex = anchorItem.getAvailableIndex ();
 	int bottomIndex = Math.min (topIndex + visibleItemCount - 1, availableItemsCount - 1);
 	int selectIndex;
-	if (focusItem.availableIndex != bottomIndex) {
+	if (focusItem.getAvailableIndex () != bottomIndex) {
 		/* select from focus to bottom item in viewport */
 		selectIndex = bottomIndex;
 	} else {
 		/* already at bottom of viewport, so select to bottom of one page down */
 		selectIndex = Math.min (availableItemsCount - 1, bottomIndex + visibleItemCount);
-		if (selectIndex == focusItem.availableIndex && focusItem.isSelected ()) return;
+		if (selectIndex == focusItem.getAvailableIndex () && focusItem.isSelected ()) return;
 	}
-	TreeItem selectedItem = availableItems [selectIndex];
+	TreeItem selectedItem = getAvailableItem (selectIndex);
 	TreeItem[] newSelection = new TreeItem [Math.abs (anchorIndex - selectIndex) + 1];
 	int step = anchorIndex < selectIndex ? 1 : -1;
 	int writeIndex = 0;
 	for (int i = anchorIndex; i != selectIndex; i += step) {
-		newSelection [writeIndex++] = availableItems [i];
+		newSelection [writeIndex++] = getAvailableItem (i);
 	}
-	newSelection [writeIndex] = availableItems [selectIndex];
+	newSelection [writeIndex] = getAvailableItem (selectIndex);
 	setSelection (newSelection, false);
 	setFocusItem (selectedItem, true);
 	showItem (selectedItem);
@@ -2880,77 +2977,77 @@ void onPageUp (int stateMask) {
 	int visibleItemCount = (clientArea.height - getHeaderHeight ()) / itemHeight;
 	if ((stateMask & (SWT.CTRL | SWT.SHIFT)) == 0) {
 		/* PageUp with no modifiers */
-		int newFocusIndex = Math.max (0, focusItem.availableIndex - visibleItemCount + 1);
-		if (newFocusIndex == focusItem.availableIndex) return;
-		TreeItem item = availableItems [newFocusIndex];
+		int newFocusIndex = Math.max (0, focusItem.getAvailableIndex () - visibleItemCount + 1);
+		if (newFocusIndex == focusItem.getAvailableIndex ()) return;
+		TreeItem item = getAvailableItem (newFocusIndex);
 		selectItem (item, false);
 		setFocusItem (item, true);
 		showItem (item);
-		redrawItem (item.availableIndex, true);
+		redrawItem (item.getAvailableIndex (), true);
 		return;
 	}
 	if ((stateMask & (SWT.CTRL | SWT.SHIFT)) == (SWT.CTRL | SWT.SHIFT)) {
 		/* CTRL+Shift+PageUp */
 		int newTopIndex = Math.max (0, topIndex - visibleItemCount);
 		if (newTopIndex == topIndex) return;
-		setTopItem (availableItems [newTopIndex]);
+		setTopItem (getAvailableItem (newTopIndex));
 		return;
 	}
 	if ((style & SWT.SINGLE) != 0) {
 		if ((stateMask & SWT.SHIFT) != 0) {
 			/* Shift+PageUp */
-			int newFocusIndex = Math.max (0, focusItem.availableIndex - visibleItemCount + 1);
-			if (newFocusIndex == focusItem.availableIndex) return;
-			TreeItem item = availableItems [newFocusIndex];
+			int newFocusIndex = Math.max (0, focusItem.getAvailableIndex () - visibleItemCount + 1);
+			if (newFocusIndex == focusItem.getAvailableIndex ()) return;
+			TreeItem item = getAvailableItem (newFocusIndex);
 			selectItem (item, false);
 			setFocusItem (item, true);
 			showItem (item);
-			redrawItem (item.availableIndex, true);
+			redrawItem (item.getAvailableIndex (), true);
 			return;
 		}
 		/* CTRL+PageUp */
 		int newTopIndex = Math.max (0, topIndex - visibleItemCount);
 		if (newTopIndex == topIndex) return;
-		setTopItem (availableItems [newTopIndex]);
+		setTopItem (getAvailableItem (newTopIndex));
 		return;
 	}
 	/* SWT.MULTI */
 	if ((stateMask & SWT.CTRL) != 0) {
 		/* CTRL+PageUp */
-		if (focusItem.availableIndex != topIndex) {
+		if (focusItem.getAvailableIndex () != topIndex) {
 			/* move focus to top item in viewport */
-			setFocusItem (availableItems [topIndex], true);
+			setFocusItem (getAvailableItem (topIndex), true);
 			redrawItem (topIndex, true);
 		} else {
 			/* at top of viewport, so set focus to top item one page up */
-			int newFocusIndex = Math.max (0, focusItem.availableIndex - visibleItemCount);
-			if (newFocusIndex == focusItem.availableIndex) return;
-			setFocusItem (availableItems [newFocusIndex], true);
-			showItem (availableItems [newFocusIndex]);
+			int newFocusIndex = Math.max (0, focusItem.getAvailableIndex () - visibleItemCount);
+			if (newFocusIndex == focusItem.getAvailableIndex ()) return;
+			setFocusItem (getAvailableItem (newFocusIndex), true);
+			showItem (getAvailableItem (newFocusIndex));
 			redrawItem (newFocusIndex, true);
 		}
 		return;
 	}
 	/* Shift+PageUp */
 	if (anchorItem == null) anchorItem = focusItem;
-	int anchorIndex = anchorItem.availableIndex;
+	int anchorIndex = anchorItem.getAvailableIndex ();
 	int selectIndex;
-	if (focusItem.availableIndex != topIndex) {
+	if (focusItem.getAvailableIndex () != topIndex) {
 		/* select from focus to top item in viewport */
 		selectIndex = topIndex;
 	} else {
 		/* already at top of viewport, so select to top of one page up */
 		selectIndex = Math.max (0, topIndex - visibleItemCount);
-		if (selectIndex == focusItem.availableIndex && focusItem.isSelected ()) return;
+		if (selectIndex == focusItem.getAvailableIndex () && focusItem.isSelected ()) return;
 	}
-	TreeItem selectedItem = availableItems [selectIndex];
+	TreeItem selectedItem = getAvailableItem (selectIndex);
 	TreeItem[] newSelection = new TreeItem [Math.abs (anchorIndex - selectIndex) + 1];
 	int step = anchorIndex < selectIndex ? 1 : -1;
 	int writeIndex = 0;
 	for (int i = anchorIndex; i != selectIndex; i += step) {
-		newSelection [writeIndex++] = availableItems [i];
+		newSelection [writeIndex++] = getAvailableItem (i);
 	}
-	newSelection [writeIndex] = availableItems [selectIndex];
+	newSelection [writeIndex] = getAvailableItem (selectIndex);
 	setSelection (newSelection, false);
 	setFocusItem (selectedItem, true);
 	showItem (selectedItem);
@@ -2988,7 +3085,7 @@ void onPaint (Event event) {
 	cachedBackground = getBackground ();
 	gc.setBackground (cachedBackground);
 	gc.setClipping (clipping);
-	int bottomY = endIndex >= 0 ? getItemY (availableItems [endIndex]) + itemHeight : 0;
+	int bottomY = endIndex >= 0 ? (endIndex - topIndex) * itemHeight + getHeaderHeight () + itemHeight : 0;
 	int fillHeight = Math.max (0, clientArea.height - bottomY);
 	if (fillHeight > 0) {	/* space below bottom item */
 		drawBackground (gc, 0, bottomY, clientArea.width, fillHeight, 0, 0);
@@ -3007,7 +3104,7 @@ void onPaint (Event event) {
 	int lineWidth = gc.getLineWidth ();
 	cachedForeground = getForeground ();
 	for (int i = startIndex; i <= Math.min (endIndex, availableItemsCount - 1); i++) {
-		TreeItem item = availableItems [i];
+		TreeItem item = getAvailableItem (i);
 		if (!item.isDisposed ()) {	/* ensure that item was not disposed in a callback */
 			if (startColumn == -1) {
 				/* indicates that region to paint is to the right of the last column */
@@ -3186,7 +3283,7 @@ void onSpace () {
 	if (focusItem == null) return;
 	if (!focusItem.isSelected ()) {
 		selectItem (focusItem, (style & SWT.MULTI) != 0);
-		redrawItem (focusItem.availableIndex, true);
+		redrawItem (focusItem.getAvailableIndex (), true);
 	}
 	if ((style & SWT.CHECK) != 0) {
 		focusItem.setChecked (!focusItem.checked);
@@ -3258,7 +3355,7 @@ void redrawFromItemDownwards (int index) {
  */
 void redrawItem (int itemIndex, boolean focusBoundsOnly) {
 	if (itemIndex == -1) return;
-	if (itemIndex < availableItemsCount && !availableItems [itemIndex].isInViewport ()) return;
+	if (itemIndex < availableItemsCount && !getAvailableItem (itemIndex).isInViewport ()) return;
 	redrawItems (itemIndex, itemIndex, focusBoundsOnly);
 }
 /*
@@ -3285,7 +3382,7 @@ void redrawItems (int startIndex, int endIndex, boolean focusBoundsOnly) {
 		}
 		endIndex = Math.min (endIndex, availableItemsCount - 1);
 		for (int i = startIndex; i <= endIndex; i++) {
-			TreeItem item = availableItems [i];
+			TreeItem item = getAvailableItem (i);
 			if (item.isInViewport ()) {
 				/* if custom painting is being done then repaint the full item */
 				if (custom) {
@@ -3318,8 +3415,11 @@ public void removeAll () {
 	for (int i = 0; i < items.length; i++) {
 		items [i].dispose (false);
 	}
-	items = availableItems = selectedItems = NO_ITEMS;
+	items = selectedItems = NO_ITEMS;
+	availableRoot = null;
 	availableItemsCount = topIndex = 0;
+	if (cachedItems != null) cachedItems = new TreeItem [cachedItems.length];
+	cachedItemsCount = 0;
 	anchorItem = lastClickedItem = insertMarkItem = null;
 	lastSelectionEvent = null;
 	inExpand = false;
@@ -3445,7 +3545,7 @@ public void select (TreeItem item) {
 	if (item == null) error (SWT.ERROR_NULL_ARGUMENT);
 	if (item.isDisposed ()) error (SWT.ERROR_INVALID_ARGUMENT);
 	selectItem (item, (style & SWT.MULTI) != 0);
-	redrawItem (item.availableIndex, true);
+	redrawItem (item.getAvailableIndex (), true);
 }
 /**
  * Selects all of the items in the receiver.
@@ -3461,8 +3561,7 @@ public void select (TreeItem item) {
 public void selectAll () {
 	checkWidget ();
 	if ((style & SWT.SINGLE) != 0) return;
-	selectedItems = new TreeItem [availableItemsCount];
-	System.arraycopy (availableItems, 0, selectedItems, 0, availableItemsCount);
+	selectedItems = getAvailableItems ();
 	redraw ();
 }
 void selectItem (TreeItem item, boolean addToSelection) {
@@ -3471,7 +3570,7 @@ void selectItem (TreeItem item, boolean addToSelection) {
 		selectedItems = new TreeItem[] {item};
 		for (int i = 0; i < oldSelectedItems.length; i++) {
 			if (oldSelectedItems [i] != item) {
-				redrawItem (oldSelectedItems [i].availableIndex, true);
+				redrawItem (oldSelectedItems [i].getAvailableIndex (), true);
 			}
 		}
 	} else {
@@ -3567,12 +3666,34 @@ public void setColumnOrder (int [] order) {
 	redraw ();
 	if (drawCount <= 0 && header.isVisible ()) header.redraw ();
 }
+/*
+ * Setting the data of the internal key ROW_CACHE_KEY to a number of items
+ * enables the row cache of an SWT.VIRTUAL tree. The cell data that SetData
+ * sets is then only kept for that many items, see addCachedItem(TreeItem).
+ */
+public void setData (String key, Object value) {
+	super.setData (key, value);
+	if (!ROW_CACHE_KEY.equals (key) || (style & SWT.VIRTUAL) == 0) return;
+	int size = value instanceof Integer ? ((Integer) value).intValue () : 0;
+	if (size <= 0) {
+		/* the items that were already filled are kept */
+		for (int i = 0; i < cachedItemsCount; i++) {
+			cachedItems [i].cacheStamp = 0;
+		}
+		cachedItems = null;
+		cachedItemsCount = 0;
+		return;
+	}
+	TreeItem[] newCachedItems = new TreeItem [Math.max (size, cachedItemsCount)];
+	if (cachedItems != null) System.arraycopy (cachedItems, 0, newCachedItems, 0, cachedItemsCount);
+	cachedItems = newCachedItems;
+}
 void setFocusItem (TreeItem item, boolean redrawOldFocus) {
 	if (item == focusItem) return;
 	TreeItem oldFocusItem = focusItem;
 	focusItem = item;
 	if (redrawOldFocus && oldFocusItem != null) {
-		redrawItem (oldFocusItem.availableIndex, true);
+		redrawItem (oldFocusItem.getAvailableIndex (), true);
 	}
 }
 public void setFont (Font value) {
@@ -3696,11 +3817,11 @@ public void setInsertMark (TreeItem item, boolean before) {
 	TreeItem oldInsertItem = insertMarkItem;
 	insertMarkItem = item;
 	insertMarkPrecedes = before;
-	if (oldInsertItem != null && oldInsertItem.availableIndex != -1) {
-		redrawItem (oldInsertItem.availableIndex, true);
+	if (oldInsertItem != null && oldInsertItem.getAvailableIndex () != -1) {
+		redrawItem (oldInsertItem.getAvailableIndex (), true);
 	}
-	if (item != null && item != oldInsertItem && item.availableIndex != -1) {
-		redrawItem (item.availableIndex, true);
+	if (item != null && item != oldInsertItem && item.getAvailableIndex () != -1) {
+		redrawItem (item.getAvailableIndex (), true);
 	}
 }
 /**
@@ -3724,9 +3845,10 @@ public void setItemCount (int count) {
 
 	/* if the new item count is less than the current count then remove all excess items from the end */
 	if (count < items.length) {
-		redrawStart = count > 0 ? items [count - 1].availableIndex : 0;
+		redrawStart = count > 0 ? items [count - 1].getAvailableIndex () : 0;
 		redrawEnd = availableItemsCount - 1;
-		availableItemsCount = items [count].availableIndex;
+		int start = items [count].getAvailableIndex ();
+		removeAvailableItems (start, availableItemsCount - start);
 		for (int i = count; i < items.length; i++) {
 			items [i].dispose (false);
 		}
@@ -3765,23 +3887,16 @@ public void setItemCount (int count) {
 		if (columns.length == 0) updateHorizontalBar ();
 	} else {
 		int grow = count - items.length;
-		redrawStart = items.length == 0 ? 0 : items [items.length - 1].availableIndex;
+		redrawStart = items.length == 0 ? 0 : items [items.length - 1].getAvailableIndex ();
 		redrawEnd = availableItemsCount + grow - 1;
 		TreeItem[] newItems = new TreeItem [count];
 		System.arraycopy (items, 0, newItems, 0, items.length);
 		items = newItems;
-		if (availableItems.length < availableItemsCount + grow) {
-			TreeItem[] newAvailableItems = new TreeItem [availableItemsCount + grow];
-			System.arraycopy (availableItems, 0, newAvailableItems, 0, availableItemsCount);
-			availableItems = newAvailableItems;
-		}
 		for (int i = items.length - grow; i < count; i++) {
-			TreeItem newItem = new TreeItem (this, SWT.NONE, i, false);
-			items [i] = newItem;
-			items [i].availableIndex = availableItemsCount;
-			availableItems [availableItemsCount++] = newItem;
+			items [i] = new TreeItem (this, SWT.NONE, i, false);
 		}
-		if (oldCount == 0) focusItem = availableItems [0];
+		insertAvailableItems (availableItemsCount, items, items.length - grow, grow);
+		if (oldCount == 0) focusItem = getAvailableItem (0);
 	}
 
 	updateVerticalBar ();
@@ -3833,11 +3948,6 @@ public void setRedraw (boolean value) {
 	checkWidget();
 	if (value) {
 		if (--drawCount == 0) {
-			if (availableItems.length - availableItemsCount > 3) {
-				TreeItem[] newAvailableItems = new TreeItem [availableItemsCount];
-				System.arraycopy (availableItems, 0, newAvailableItems, 0, availableItemsCount);
-				availableItems = newAvailableItems;
-			}
 			updateVerticalBar ();
 			updateHorizontalBar ();
 		}
@@ -3929,7 +4039,7 @@ void setSelection (TreeItem[] items, boolean updateViewport) {
 
 	for (int i = 0; i < oldSelection.length; i++) {
 		if (!oldSelection [i].isSelected ()) {
-			int availableIndex = oldSelection [i].availableIndex;
+			int availableIndex = oldSelection [i].getAvailableIndex ();
 			if (availableIndex != -1) {
 				redrawItem (availableIndex, true);
 			}
@@ -3940,7 +4050,7 @@ void setSelection (TreeItem[] items, boolean updateViewport) {
 		setFocusItem (selectedItems [0], true);
 	}
 	for (int i = 0; i < selectedItems.length; i++) {
-		int availableIndex = selectedItems [i].availableIndex;
+		int availableIndex = selectedItems [i].getAvailableIndex ();
 		if (availableIndex != -1) {
 			redrawItem (availableIndex, true);
 		}
@@ -4026,7 +4136,7 @@ public void setTopItem (TreeItem item) {
 
 	int visibleItemCount = (clientArea.height - getHeaderHeight ()) / itemHeight;
 	if (availableItemsCount < visibleItemCount) return;
-	int index = Math.min (item.availableIndex, availableItemsCount - visibleItemCount);
+	int index = Math.min (item.getAvailableIndex (), availableItemsCount - visibleItemCount);
 	if (topIndex == index) return;
 
 	update ();
@@ -4111,7 +4221,7 @@ public void showItem (TreeItem item) {
 	/* item must be available */
 	if (!item.isAvailable ()) item.parentItem.expandAncestors ();
 	
-	int index = item.availableIndex;
+	int index = item.getAvailableIndex ();
 	int visibleItemCount = (clientArea.height - getHeaderHeight ()) / itemHeight;
 	/* nothing to do if item is already in viewport */
 	if (topIndex <= index && index < topIndex + visibleItemCount) return;
@@ -4122,7 +4232,7 @@ public void showItem (TreeItem item) {
 	} else {
 		/* item is below current viewport, so show on bottom */
 		visibleItemCount = Math.max (visibleItemCount, 1);	/* item to show should be top item */
-		setTopItem (availableItems [Math.min (index - visibleItemCount + 1, availableItemsCount - 1)]);
+		setTopItem (getAvailableItem (Math.min (index - visibleItemCount + 1, availableItemsCount - 1)));
 	}
 }
 /**
@@ -4161,7 +4271,7 @@ void updateColumnWidth (TreeColumn column, int width) {
 		redraw (clientArea.width - change, 0, change, clientArea.height, false);
 	}
 	/* the focus box must be repainted because its stipple may become shifted as a result of its new width */
-	if (focusItem != null) redrawItem (focusItem.availableIndex, true);
+	if (focusItem != null) redrawItem (focusItem.getAvailableIndex (), true);
 
 	GC headerGC = new GC (header);
 	if (drawCount <= 0 && header.getVisible ()) {
@@ -4237,6 +4347,7 @@ void updateHorizontalBar () {
 			maxX += columns [i].width;
 		}
 	} else {
+		TreeItem[] availableItems = getAvailableItems ();
 		for (int i = 0; i < availableItemsCount; i++) {
 			Rectangle itemBounds = availableItems [i].getCellBounds (0);
 			maxX = Math.max (maxX, itemBounds.x + itemBounds.width + horizontalOffset);
@@ -476,10 +476,10 @@ void paint (GC gc) {
  */
 public void pack () {
 	checkWidget ();
-	TreeItem[] availableItems = parent.availableItems;
+	TreeItem[] availableItems = parent.getAvailableItems ();
 	int index = getIndex ();
 	int newWidth = getPreferredWidth ();
-	for (int i = 0; i < parent.availableItemsCount; i++) {
+	for (int i = 0; i < availableItems.length; i++) {
 		int width = availableItems [i].getPreferredWidth (index);
 		/* ensure that receiver and parent were not disposed in a callback */
 		if (parent.isDisposed () || isDisposed ()) return;
@@ -36,8 +36,10 @@ public class TreeItem extends Item {
 	Tree parent;
 	TreeItem parentItem;
 	TreeItem[] items = Tree.NO_ITEMS;
-	int availableIndex = -1;	/* index in parent's flat list of available (though not necessarily within viewport) items */
+	TreeItem rowLeft, rowRight, rowParent;	/* links in the parent's treap of available (though not necessarily within viewport) items */
+	int rowCount, rowPriority;				/* available items in the treap rooted at the receiver, 0 if not available */
 	int depth = 0;				/* cached for performance, does not change after instantiation */
+	int cacheStamp;				/* last use of the cell data in the row cache of the parent, 0 if not in it */
 	boolean checked, grayed, expanded, cached;
 
 	String[] texts;
@@ -353,14 +355,14 @@ void addItem (TreeItem item, int index) {
 	 * If new item is above viewport then adjust topIndex and the vertical scrollbar
 	 * so that the current viewport items will not change. 
 	 */
-	if (item.availableIndex < parent.topIndex) {
+	if (item.getAvailableIndex () < parent.topIndex) {
 		parent.topIndex++;
 		ScrollBar vBar = parent.getVerticalBar ();
 		if (vBar != null) vBar.setSelection (parent.topIndex);
 		return;
 	}
 	
-	parent.redrawFromItemDownwards (availableIndex);
+	parent.redrawFromItemDownwards (getAvailableIndex ());
 }
 static Tree checkNull (Tree tree) {
 	if (tree == null) SWT.error (SWT.ERROR_NULL_ARGUMENT);
@@ -430,7 +432,7 @@ public void clear (int index, boolean recursive) {
 	/* if there are no columns then the horizontal scrollbar may need adjusting */
 	TreeItem[] availableDescendents = null;
 	int oldRightX = 0;
-	if (item.availableIndex != -1 && parent.columns.length == 0) {
+	if (item.getAvailableIndex () != -1 && parent.columns.length == 0) {
 		if (recursive) {
 			availableDescendents = item.computeAvailableDescendents ();
 			for (int i = 0; i < availableDescendents.length; i++) {
@@ -448,7 +450,7 @@ public void clear (int index, boolean recursive) {
 	if (recursive) {
 		item.clearAll (true, false);
 	}
-	if (item.availableIndex == -1) return;	/* no visual update needed */
+	if (item.getAvailableIndex () == -1) return;	/* no visual update needed */
 
 	/* adjust the horizontal scrollbar if needed */
 	if (parent.columns.length == 0) {
@@ -470,9 +472,9 @@ public void clear (int index, boolean recursive) {
 		int descendentCount = availableDescendents == null ?
 			item.computeAvailableDescendentCount () :
 			availableDescendents.length;
-		parent.redrawItems (item.availableIndex, item.availableIndex + descendentCount - 1, false);
+		parent.redrawItems (item.getAvailableIndex (), item.getAvailableIndex () + descendentCount - 1, false);
 	} else {
-		parent.redrawItem (item.availableIndex, false);
+		parent.redrawItem (item.getAvailableIndex (), false);
 	}
 }
 /**
@@ -504,7 +506,7 @@ void clearAll (boolean recursive, boolean doVisualUpdate) {
 	/* if there are no columns then the horizontal scrollbar may need adjusting */
 	TreeItem[] availableDescendents = null;
 	int oldRightX = 0;
-	if (doVisualUpdate && availableIndex != -1 && expanded && parent.columns.length == 0) {
+	if (doVisualUpdate && getAvailableIndex () != -1 && expanded && parent.columns.length == 0) {
 		if (recursive) {
 			availableDescendents = computeAvailableDescendents ();
 			/*
@@ -529,7 +531,7 @@ void clearAll (boolean recursive, boolean doVisualUpdate) {
 		if (recursive) items [i].clearAll (true, false);
 	}
 
-	if (!doVisualUpdate || availableIndex == -1 || !expanded) return;	/* no visual update needed */
+	if (!doVisualUpdate || getAvailableIndex () == -1 || !expanded) return;	/* no visual update needed */
 
 	/* adjust the horizontal scrollbar if needed */
 	if (parent.columns.length == 0) {
@@ -556,13 +558,13 @@ void clearAll (boolean recursive, boolean doVisualUpdate) {
 
 	/* redraw the item(s) */
 	if (recursive) {
-		int startIndex = items [0].availableIndex;
+		int startIndex = items [0].getAvailableIndex ();
 		TreeItem lastChild = items [items.length - 1]; 
-		int endIndex = lastChild.availableIndex + lastChild.computeAvailableDescendentCount () - 1;
+		int endIndex = lastChild.getAvailableIndex () + lastChild.computeAvailableDescendentCount () - 1;
 		parent.redrawItems (startIndex, endIndex, false);
 	} else {
 		for (int i = 0; i < items.length; i++) {
-			parent.redrawItem (items [i].availableIndex, false);
+			parent.redrawItem (items [i].getAvailableIndex (), false);
 		}
 	}
 }
@@ -742,12 +744,12 @@ public void dispose () {
 		if (isLastChild () && index > 0) {
 			/* vertical connector lines no longer needed for this item */
 			if (parentItem != null) {
-				startIndex = parentItem.items [index - 1].availableIndex;
+				startIndex = parentItem.items [index - 1].getAvailableIndex ();
 			} else {
-				startIndex = parent.items [index - 1].availableIndex;
+				startIndex = parent.items [index - 1].getAvailableIndex ();
 			}
 		} else {
-			startIndex = availableIndex;
+			startIndex = getAvailableIndex ();
 		}
 		endIndex = parent.availableItemsCount - 1;
 	}
@@ -759,7 +761,7 @@ public void dispose () {
 		parent.reassignFocus ();
 		focusItem = parent.focusItem;
 		if (focusItem != null) {
-			parent.redrawItem (focusItem.availableIndex, true);
+			parent.redrawItem (focusItem.getAvailableIndex (), true);
 		}
 	}
 	if (parentItem != null) parentItem.removeItem (this, index);
@@ -785,6 +787,8 @@ void dispose (boolean notifyParent) {
 	parent = null;
 	parentItem = null;
 	items = null;
+	rowLeft = rowRight = rowParent = null;
+	rowCount = 0;
 }
 /*
  * Ensure that all ancestors of the receiver are expanded
@@ -802,6 +806,18 @@ void expandAncestors () {
 		expanded = false;
 	}
 }
+/*
+ * Returns the index of the receiver in the available items of the parent,
+ * or -1 if the receiver is not available.
+ */
+int getAvailableIndex () {
+	if (rowCount == 0) return -1;
+	int index = Tree.rowCount (rowLeft);
+	for (TreeItem node = this; node.rowParent != null; node = node.rowParent) {
+		if (node.rowParent.rowRight == node) index += Tree.rowCount (node.rowParent.rowLeft) + 1;
+	}
+	return index;
+}
 /**
  * Returns the receiver's background color.
  *
@@ -1637,6 +1653,7 @@ boolean isAvailable () {
  * viewport of the parent.
  */
 boolean isInViewport () {
+	int availableIndex = getAvailableIndex ();
 	if (availableIndex == -1) return false;
 	int topIndex = parent.topIndex;
 	if (availableIndex < topIndex) return false;
@@ -2151,7 +2168,7 @@ public void removeAll () {
 	items = Tree.NO_ITEMS;
 	expanded = false;
 	if (isAvailable ()) {
-		parent.redrawItems (availableIndex, lastAvailableIndex, false);
+		parent.redrawItems (getAvailableIndex (), lastAvailableIndex, false);
 	}
 }
 /*
@@ -2291,6 +2308,7 @@ public void setExpanded (boolean value) {
 	if ((parent.style & SWT.VIRTUAL) != 0) cached = true;
 	if (value) {
 		expanded = value;
+		int availableIndex = getAvailableIndex ();
 		if (availableIndex == -1) return;
 
 		TreeItem[] availableDescendents = computeAvailableDescendents ();
@@ -2339,6 +2357,7 @@ public void setExpanded (boolean value) {
 	} else {
 		TreeItem[] descendents = computeAvailableDescendents ();
 		expanded = value;
+		int availableIndex = getAvailableIndex ();
 		if (availableIndex == -1) return;
 		Rectangle clientArea = parent.clientArea;
 
@@ -2384,7 +2403,7 @@ public void setExpanded (boolean value) {
 			parent.sendEvent (SWT.Selection, newEvent);
 			if (isDisposed ()) return;
 			parent.showItem (this);
-			parent.redrawItem (availableIndex, true);
+			parent.redrawItem (getAvailableIndex (), true);
 		}
 	}
 	/* redraw the receiver's expander box */
@@ -2754,10 +2773,11 @@ public void setItemCount (int count) {
 	count = Math.max (0, count);
 	if (count == items.length) return;
 	int redrawStart, redrawEnd;
+	int availableIndex = getAvailableIndex ();
 
 	/* if the new item count is less than the current count then remove all excess items from the end */
 	if (count < items.length) {
-		redrawStart = count > 0 ? items [count - 1].availableIndex : availableIndex;
+		redrawStart = count > 0 ? items [count - 1].getAvailableIndex () : availableIndex;
 		redrawEnd = parent.availableItemsCount - 1;
 		for (int i = count; i < items.length; i++) {
 			items [i].dispose (true);
@@ -2773,7 +2793,7 @@ public void setItemCount (int count) {
 	} else {
 		int oldAvailableDescendentCount = computeAvailableDescendentCount ();
 		int grow = count - items.length;
-		redrawStart = items.length == 0 ? availableIndex : items [items.length - 1].availableIndex;
+		redrawStart = items.length == 0 ? availableIndex : items [items.length - 1].getAvailableIndex ();
 		redrawEnd = expanded && isAvailable () ? parent.availableItemsCount + grow  - 1: redrawStart;
 		TreeItem[] newItems = new TreeItem [count];
 		System.arraycopy (items, 0, newItems, 0, items.length);
@@ -2783,33 +2803,7 @@ public void setItemCount (int count) {
 		}
 		
 		if (expanded && availableIndex != -1) {
-			/* expand the availableItems array if necessary */
-			if (parent.availableItems.length < parent.availableItemsCount + grow) {
-				TreeItem[] newAvailableItems = new TreeItem [parent.availableItemsCount + grow];
-				System.arraycopy (parent.availableItems, 0, newAvailableItems, 0, parent.availableItemsCount);
-				parent.availableItems = newAvailableItems;
-			}
-			TreeItem[] availableItems = parent.availableItems;
-			/* shift items right to create space for the new available items */
-			int dest = availableIndex + oldAvailableDescendentCount + grow;
-			System.arraycopy (
-				availableItems,
-				availableIndex + oldAvailableDescendentCount,
-				availableItems,
-				dest,
-				availableItems.length - dest);
-			parent.availableItemsCount += grow;
-			/* copy new items in */
-			System.arraycopy (
-				items,
-				items.length - grow,
-				availableItems,
-				availableIndex + oldAvailableDescendentCount,
-				grow);
-			/* update availableIndex for all affected items */
-			for (int i = availableIndex + oldAvailableDescendentCount; i < parent.availableItemsCount; i++) {
-				availableItems [i].availableIndex = i;
-			}
+			parent.insertAvailableItems (availableIndex + oldAvailableDescendentCount, items, items.length - grow, grow);
 		}
 	}
 
@@ -2896,7 +2890,7 @@ public void setText (int columnIndex, String value) {
 	gc.setFont (getFont (columnIndex, false));
 	computeDisplayText (columnIndex, gc);
 	gc.dispose ();
-	if (availableIndex == -1) return;
+	if (getAvailableIndex () == -1) return;
 	if (parent.columns.length == 0) {
 		Rectangle bounds = getBounds (false);
 		int rightX = bounds.x + bounds.width;
@@ -412,6 +412,10 @@ void checkGC (int mask) {
 	}
 }
 
+static void checkRange(int length, int offset, int count, int stride) {
+	if (offset < 0 || count < 0 || offset > length || count > (length - offset) / stride) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+}
+
 long /*int*/ convertRgn(long /*int*/ rgn, double[] matrix) {
 	long /*int*/ newRgn = OS.gdk_region_new();
 	if (isIdentity(matrix)) {
@@ -1259,6 +1263,98 @@ public void drawLine(int x1, int y1, int x2, int y2) {
 	OS.gdk_draw_line (data.drawable, handle, x1, y1, x2, y2);
 }
 
+/**
+ * Draws a line, using the foreground color, between the points
+ * (<code>x1</code>, <code>y1</code>) and (<code>x2</code>, <code>y2</code>)
+ * given in floating point coordinates.
+ * <p>
+ * Platforms that cannot draw at sub-pixel positions round the
+ * coordinates to the nearest integer.
+ * </p>
+ *
+ * @param x1 the first point's x coordinate
+ * @param y1 the first point's y coordinate
+ * @param x2 the second point's x coordinate
+ * @param y2 the second point's y coordinate
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawLine(int, int, int, int)
+ *
+ * @since 3.104
+ */
+public void drawLine(float x1, float y1, float x2, float y2) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	long /*int*/ cairo = data.cairo;
+	if (cairo == 0) {
+		drawLine(Math.round(x1), Math.round(y1), Math.round(x2), Math.round(y2));
+		return;
+	}
+	checkGC(DRAW);
+	double xOffset = data.cairoXoffset, yOffset = data.cairoYoffset;
+	Cairo.cairo_move_to(cairo, x1 + xOffset, y1 + yOffset);
+	Cairo.cairo_line_to(cairo, x2 + xOffset, y2 + yOffset);
+	Cairo.cairo_stroke(cairo);
+}
+
+/**
+ * Draws the connected lines which are defined by <code>count</code>
+ * points of the specified array of integer coordinates, starting at
+ * <code>offset</code>, using the receiver's foreground color. The array
+ * contains alternating x and y values. Lines are drawn between each
+ * consecutive pair of points, but not between the last and the first.
+ * <p>
+ * The lines honour the receiver's line attributes, alpha and transform
+ * just like <code>drawPolyline</code> does. Platforms that draw them as a
+ * single path do not accumulate a translucent foreground where the lines
+ * cross each other.
+ * </p>
+ *
+ * @param pointArray an array of alternating x and y values
+ * @param offset the index of the x coordinate of the first point
+ * @param count the number of points
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the point array is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if offset or count are negative or the range is outside of the array</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawPolyline(int[])
+ *
+ * @since 3.104
+ */
+public void drawLines(int[] pointArray, int offset, int count) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (pointArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	checkRange(pointArray.length, offset, count, 2);
+	if (count == 0) return;
+	checkGC(DRAW);
+	long /*int*/ cairo = data.cairo;
+	if (cairo != 0) {
+		CairoPathBuffer buffer = new CairoPathBuffer(cairo, count * 2);
+		appendPolyline(buffer, pointArray, offset, count);
+		buffer.dispose();
+		Cairo.cairo_stroke(cairo);
+		return;
+	}
+	for (int i = offset + 2, end = offset + count * 2; i < end; i += 2) {
+		OS.gdk_draw_line(data.drawable, handle, pointArray[i - 2], pointArray[i - 1], pointArray[i], pointArray[i + 1]);
+	}
+}
+
+void appendPolyline(CairoPathBuffer buffer, int[] pointArray, int offset, int count) {
+	double xOffset = data.cairoXoffset, yOffset = data.cairoYoffset;
+	buffer.moveTo(pointArray[offset] + xOffset, pointArray[offset + 1] + yOffset);
+	for (int i = offset + 2, end = offset + count * 2; i < end; i += 2) {
+		buffer.lineTo(pointArray[i] + xOffset, pointArray[i + 1] + yOffset);
+	}
+}
+
 /**
  * Draws the outline of an oval, using the foreground color,
  * within the specified rectangular area.
@@ -1309,6 +1405,57 @@ public void drawOval(int x, int y, int width, int height) {
 	OS.gdk_draw_arc(data.drawable, handle, 0, x, y, width, height, 0, 23040);
 }
 
+/**
+ * Draws the outline of an oval, using the foreground color,
+ * within the rectangular area specified in floating point
+ * coordinates.
+ * <p>
+ * Platforms that cannot draw at sub-pixel positions round the
+ * coordinates to the nearest integer.
+ * </p>
+ *
+ * @param x the x coordinate of the upper left corner of the oval to be drawn
+ * @param y the y coordinate of the upper left corner of the oval to be drawn
+ * @param width the width of the oval to be drawn
+ * @param height the height of the oval to be drawn
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawOval(int, int, int, int)
+ *
+ * @since 3.104
+ */
+public void drawOval(float x, float y, float width, float height) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	long /*int*/ cairo = data.cairo;
+	if (cairo == 0) {
+		drawOval(Math.round(x), Math.round(y), Math.round(width), Math.round(height));
+		return;
+	}
+	checkGC(DRAW);
+	if (width < 0) {
+		x = x + width;
+		width = -width;
+	}
+	if (height < 0) {
+		y = y + height;
+		height = -height;
+	}
+	double xOffset = data.cairoXoffset, yOffset = data.cairoYoffset;
+	if (width == height) {
+		Cairo.cairo_arc_negative(cairo, x + xOffset + width / 2f, y + yOffset + height / 2f, width / 2f, 0, -2 * (float)Compatibility.PI);
+	} else if (width != 0 && height != 0) {
+		Cairo.cairo_save(cairo);
+		Cairo.cairo_translate(cairo, x + xOffset + width / 2f, y + yOffset + height / 2f);
+		Cairo.cairo_scale(cairo, width / 2f, height / 2f);
+		Cairo.cairo_arc_negative(cairo, 0, 0, 1, 0, -2 * (float)Compatibility.PI);
+		Cairo.cairo_restore(cairo);
+	}
+	Cairo.cairo_stroke(cairo);
+}
+
 /**
  * Draws the path described by the parameter.
  * <p>
@@ -1379,6 +1526,52 @@ public void drawPoint (int x, int y) {
 	OS.gdk_draw_point(data.drawable, handle, x, y);
 }
 
+/**
+ * Draws <code>count</code> pixels, using the foreground color, at the
+ * points of the specified array of integer coordinates starting at
+ * <code>offset</code>. The array contains alternating x and y values.
+ * <p>
+ * Note that the receiver's line attributes do not affect this
+ * operation.
+ * </p>
+ *
+ * @param pointArray an array of alternating x and y values
+ * @param offset the index of the x coordinate of the first point
+ * @param count the number of points
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the point array is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if offset or count are negative or the range is outside of the array</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawPoint(int, int)
+ *
+ * @since 3.104
+ */
+public void drawPoints(int[] pointArray, int offset, int count) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (pointArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	checkRange(pointArray.length, offset, count, 2);
+	if (count == 0) return;
+	checkGC(DRAW);
+	long /*int*/ cairo = data.cairo;
+	if (cairo != 0) {
+		CairoPathBuffer buffer = new CairoPathBuffer(cairo, count * 9);
+		for (int i = offset, end = offset + count * 2; i < end; i += 2) {
+			buffer.rectangle(pointArray[i], pointArray[i + 1], 1, 1);
+		}
+		buffer.dispose();
+		fillWinding(cairo);
+		return;
+	}
+	for (int i = offset, end = offset + count * 2; i < end; i += 2) {
+		OS.gdk_draw_point(data.drawable, handle, pointArray[i], pointArray[i + 1]);
+	}
+}
+
 /**
  * Draws the closed polygon which is defined by the specified array
  * of integer coordinates, using the receiver's foreground color. The array
@@ -1439,6 +1632,65 @@ public void drawPolyline(int[] pointArray) {
 	OS.gdk_draw_lines(data.drawable, handle, pointArray, pointArray.length / 2);
 }
 
+/**
+ * Draws the polyline which is defined by the specified array
+ * of floating point coordinates, using the receiver's foreground color.
+ * The array contains alternating x and y values which are considered to
+ * represent points which are the corners of the polyline. Lines are drawn
+ * between each consecutive pair, but not between the first pair and last
+ * pair in the array.
+ * <p>
+ * Platforms that cannot draw at sub-pixel positions round the
+ * coordinates to the nearest integer.
+ * </p>
+ *
+ * @param pointArray an array of alternating x and y values which are the corners of the polyline
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the point array is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawPolyline(int[])
+ *
+ * @since 3.104
+ */
+public void drawPolyline(float[] pointArray) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (pointArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	long /*int*/ cairo = data.cairo;
+	if (cairo == 0) {
+		drawPolyline(round(pointArray));
+		return;
+	}
+	checkGC(DRAW);
+	drawPolyline(cairo, pointArray, false);
+	Cairo.cairo_stroke(cairo);
+}
+
+void drawPolyline(long /*int*/ cairo, float[] pointArray, boolean close) {
+	int count = pointArray.length / 2;
+	if (count == 0) return;
+	CairoPathBuffer buffer = new CairoPathBuffer(cairo, count * 2 + 1);
+	double xOffset = data.cairoXoffset, yOffset = data.cairoYoffset;
+	buffer.moveTo(pointArray[0] + xOffset, pointArray[1] + yOffset);
+	for (int i = 1, j = 2; i < count; i++, j += 2) {
+		buffer.lineTo(pointArray[j] + xOffset, pointArray[j + 1] + yOffset);
+	}
+	if (close) buffer.closePath();
+	buffer.dispose();
+}
+
+static int[] round(float[] pointArray) {
+	int[] result = new int[pointArray.length];
+	for (int i = 0; i < result.length; i++) {
+		result[i] = Math.round(pointArray[i]);
+	}
+	return result;
+}
+
 void drawPolyline(long /*int*/ cairo, int[] pointArray, boolean close) {
 	int count = pointArray.length / 2;
 	if (count == 0) return;
@@ -1450,6 +1702,64 @@ void drawPolyline(long /*int*/ cairo, int[] pointArray, boolean close) {
 	if (close) Cairo.cairo_close_path(cairo);
 }
 
+/**
+ * Draws <code>count</code> polylines whose corners are stored one after
+ * the other in the specified array of integer coordinates, using the
+ * receiver's foreground color. The array contains alternating x and y
+ * values. The corners of the polyline at index <code>i</code> are the
+ * values from <code>offsets[i]</code> inclusive to <code>offsets[i + 1]</code>
+ * exclusive, so <code>offsets</code> holds at least <code>count + 1</code>
+ * indices.
+ * <p>
+ * The polylines honour the receiver's line attributes, alpha and transform
+ * just like <code>drawPolyline</code> does. Platforms that draw them as a
+ * single path do not accumulate a translucent foreground where they cross.
+ * </p>
+ *
+ * @param pointArray an array of alternating x and y values
+ * @param offsets the start index of each polyline in the point array, followed by the end index of the last one
+ * @param count the number of polylines
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the point array or the offsets are null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if count is negative, an offset is out of order or outside of the point array</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawPolyline(int[])
+ *
+ * @since 3.104
+ */
+public void drawPolylines(int[] pointArray, int[] offsets, int count) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (pointArray == null || offsets == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (count < 0 || count >= offsets.length) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	for (int i = 0; i < count; i++) {
+		int start = offsets[i], end = offsets[i + 1];
+		if (start < 0 || end < start || end > pointArray.length) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	}
+	if (count == 0) return;
+	checkGC(DRAW);
+	long /*int*/ cairo = data.cairo;
+	if (cairo != 0) {
+		CairoPathBuffer buffer = new CairoPathBuffer(cairo, offsets[count] - offsets[0]);
+		for (int i = 0; i < count; i++) {
+			int points = (offsets[i + 1] - offsets[i]) / 2;
+			if (points > 0) appendPolyline(buffer, pointArray, offsets[i], points);
+		}
+		buffer.dispose();
+		Cairo.cairo_stroke(cairo);
+		return;
+	}
+	for (int i = 0; i < count; i++) {
+		for (int j = offsets[i] + 2, end = offsets[i] + (offsets[i + 1] - offsets[i]) / 2 * 2; j < end; j += 2) {
+			OS.gdk_draw_line(data.drawable, handle, pointArray[j - 2], pointArray[j - 1], pointArray[j], pointArray[j + 1]);
+		}
+	}
+}
+
 /**
  * Draws the outline of the rectangle specified by the arguments,
  * using the receiver's foreground color. The left and right edges
@@ -1486,6 +1796,51 @@ public void drawRectangle(int x, int y, int width, int height) {
 	OS.gdk_draw_rectangle(data.drawable, handle, 0, x, y, width, height);
 }
 
+/**
+ * Draws the outline of the rectangle specified by the arguments
+ * in floating point coordinates, using the receiver's foreground
+ * color. The left and right edges of the rectangle are at
+ * <code>x</code> and <code>x + width</code>. The top and bottom
+ * edges are at <code>y</code> and <code>y + height</code>.
+ * <p>
+ * Platforms that cannot draw at sub-pixel positions round the
+ * coordinates to the nearest integer.
+ * </p>
+ *
+ * @param x the x coordinate of the rectangle to be drawn
+ * @param y the y coordinate of the rectangle to be drawn
+ * @param width the width of the rectangle to be drawn
+ * @param height the height of the rectangle to be drawn
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawRectangle(int, int, int, int)
+ *
+ * @since 3.104
+ */
+public void drawRectangle(float x, float y, float width, float height) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	long /*int*/ cairo = data.cairo;
+	if (cairo == 0) {
+		drawRectangle(Math.round(x), Math.round(y), Math.round(width), Math.round(height));
+		return;
+	}
+	checkGC(DRAW);
+	if (width < 0) {
+		x = x + width;
+		width = -width;
+	}
+	if (height < 0) {
+		y = y + height;
+		height = -height;
+	}
+	double xOffset = data.cairoXoffset, yOffset = data.cairoYoffset;
+	Cairo.cairo_rectangle(cairo, x + xOffset, y + yOffset, width, height);
+	Cairo.cairo_stroke(cairo);
+}
+
 /**
  * Draws the outline of the specified rectangle, using the receiver's
  * foreground color. The left and right edges of the rectangle are at
@@ -1506,6 +1861,74 @@ public void drawRectangle(Rectangle rect) {
 	if (rect == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
 	drawRectangle (rect.x, rect.y, rect.width, rect.height);
 }
+
+/**
+ * Draws the outlines of <code>count</code> rectangles stored in the
+ * specified array of integer values starting at <code>offset</code>,
+ * using the receiver's foreground color. Each rectangle is described
+ * by four consecutive values: x, y, width and height, with the same
+ * meaning as the arguments of <code>drawRectangle(int, int, int, int)</code>.
+ * <p>
+ * The rectangles honour the receiver's line attributes, alpha and transform.
+ * Platforms that draw them as a single path do not accumulate a translucent
+ * foreground where they overlap.
+ * </p>
+ *
+ * @param rectArray an array of x, y, width and height values
+ * @param offset the index of the x coordinate of the first rectangle
+ * @param count the number of rectangles
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the rectangle array is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if offset or count are negative or the range is outside of the array</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawRectangle(int, int, int, int)
+ *
+ * @since 3.104
+ */
+public void drawRectangles(int[] rectArray, int offset, int count) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (rectArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	checkRange(rectArray.length, offset, count, 4);
+	if (count == 0) return;
+	checkGC(DRAW);
+	long /*int*/ cairo = data.cairo;
+	if (cairo != 0) {
+		double xOffset = data.cairoXoffset, yOffset = data.cairoYoffset;
+		CairoPathBuffer buffer = new CairoPathBuffer(cairo, count * 9);
+		for (int i = offset, end = offset + count * 4; i < end; i += 4) {
+			int x = rectArray[i], y = rectArray[i + 1], width = rectArray[i + 2], height = rectArray[i + 3];
+			if (width < 0) {
+				x = x + width;
+				width = -width;
+			}
+			if (height < 0) {
+				y = y + height;
+				height = -height;
+			}
+			buffer.rectangle(x + xOffset, y + yOffset, width, height);
+		}
+		buffer.dispose();
+		Cairo.cairo_stroke(cairo);
+		return;
+	}
+	for (int i = offset, end = offset + count * 4; i < end; i += 4) {
+		int x = rectArray[i], y = rectArray[i + 1], width = rectArray[i + 2], height = rectArray[i + 3];
+		if (width < 0) {
+			x = x + width;
+			width = -width;
+		}
+		if (height < 0) {
+			y = y + height;
+			height = -height;
+		}
+		OS.gdk_draw_rectangle(data.drawable, handle, 0, x, y, width, height);
+	}
+}
 /**
  * Draws the outline of the round-cornered rectangle specified by
  * the arguments, using the receiver's foreground color. The left and
@@ -1601,6 +2024,57 @@ public void drawRoundRectangle(int x, int y, int width, int height, int arcWidth
 	}
 }
 
+/**
+ * Draws <code>count</code> unconnected line segments stored in the
+ * specified array of integer coordinates starting at <code>offset</code>,
+ * using the receiver's foreground color. Each segment is described by
+ * four consecutive values: x1, y1, x2 and y2, with the same meaning as
+ * the arguments of <code>drawLine(int, int, int, int)</code>.
+ * <p>
+ * The segments honour the receiver's line attributes, alpha and transform.
+ * Platforms that draw them as a single path do not accumulate a translucent
+ * foreground where they cross.
+ * </p>
+ *
+ * @param segmentArray an array of x1, y1, x2 and y2 values
+ * @param offset the index of the first coordinate of the first segment
+ * @param count the number of segments
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the segment array is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if offset or count are negative or the range is outside of the array</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawLine(int, int, int, int)
+ *
+ * @since 3.104
+ */
+public void drawSegments(int[] segmentArray, int offset, int count) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (segmentArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	checkRange(segmentArray.length, offset, count, 4);
+	if (count == 0) return;
+	checkGC(DRAW);
+	long /*int*/ cairo = data.cairo;
+	if (cairo != 0) {
+		double xOffset = data.cairoXoffset, yOffset = data.cairoYoffset;
+		CairoPathBuffer buffer = new CairoPathBuffer(cairo, count * 4);
+		for (int i = offset, end = offset + count * 4; i < end; i += 4) {
+			buffer.moveTo(segmentArray[i] + xOffset, segmentArray[i + 1] + yOffset);
+			buffer.lineTo(segmentArray[i + 2] + xOffset, segmentArray[i + 3] + yOffset);
+		}
+		buffer.dispose();
+		Cairo.cairo_stroke(cairo);
+		return;
+	}
+	for (int i = offset, end = offset + count * 4; i < end; i += 4) {
+		OS.gdk_draw_line(data.drawable, handle, segmentArray[i], segmentArray[i + 1], segmentArray[i + 2], segmentArray[i + 3]);
+	}
+}
+
 /**
  * Draws the given string, using the receiver's current font and
  * foreground color. No tab expansion or carriage return processing
@@ -2062,6 +2536,44 @@ public void fillPolygon(int[] pointArray) {
 	OS.gdk_draw_polygon(data.drawable, handle, 1, pointArray, pointArray.length / 2);
 }
 
+/**
+ * Fills the interior of the closed polygon which is defined by the
+ * specified array of floating point coordinates, using the receiver's
+ * background color. The array contains alternating x and y values which
+ * are considered to represent points which are the vertices of the
+ * polygon. Lines are drawn between each consecutive pair, and between
+ * the first pair and last pair in the array.
+ * <p>
+ * Platforms that cannot draw at sub-pixel positions round the
+ * coordinates to the nearest integer.
+ * </p>
+ *
+ * @param pointArray an array of alternating x and y values which are the vertices of the polygon
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT if pointArray is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #fillPolygon(int[])
+ *
+ * @since 3.104
+ */
+public void fillPolygon(float[] pointArray) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (pointArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	long /*int*/ cairo = data.cairo;
+	if (cairo == 0) {
+		fillPolygon(round(pointArray));
+		return;
+	}
+	checkGC(FILL);
+	drawPolyline(cairo, pointArray, true);
+	Cairo.cairo_fill(cairo);
+}
+
 /**
  * Fills the interior of the rectangle specified by the arguments,
  * using the receiver's background color.
@@ -2118,6 +2630,83 @@ public void fillRectangle(Rectangle rect) {
 	fillRectangle(rect.x, rect.y, rect.width, rect.height);
 }
 
+/**
+ * Fills the interiors of <code>count</code> rectangles stored in the
+ * specified array of integer values starting at <code>offset</code>,
+ * using the receiver's background color. Each rectangle is described
+ * by four consecutive values: x, y, width and height, with the same
+ * meaning as the arguments of <code>fillRectangle(int, int, int, int)</code>.
+ * <p>
+ * Platforms that fill the rectangles as a single path do not accumulate a
+ * translucent background where they overlap.
+ * </p>
+ *
+ * @param rectArray an array of x, y, width and height values
+ * @param offset the index of the x coordinate of the first rectangle
+ * @param count the number of rectangles
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the rectangle array is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if offset or count are negative or the range is outside of the array</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #fillRectangle(int, int, int, int)
+ *
+ * @since 3.104
+ */
+public void fillRectangles(int[] rectArray, int offset, int count) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (rectArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	checkRange(rectArray.length, offset, count, 4);
+	if (count == 0) return;
+	checkGC(FILL);
+	long /*int*/ cairo = data.cairo;
+	if (cairo != 0) {
+		CairoPathBuffer buffer = new CairoPathBuffer(cairo, count * 9);
+		for (int i = offset, end = offset + count * 4; i < end; i += 4) {
+			int x = rectArray[i], y = rectArray[i + 1], width = rectArray[i + 2], height = rectArray[i + 3];
+			if (width < 0) {
+				x = x + width;
+				width = -width;
+			}
+			if (height < 0) {
+				y = y + height;
+				height = -height;
+			}
+			buffer.rectangle(x, y, width, height);
+		}
+		buffer.dispose();
+		fillWinding(cairo);
+		return;
+	}
+	for (int i = offset, end = offset + count * 4; i < end; i += 4) {
+		int x = rectArray[i], y = rectArray[i + 1], width = rectArray[i + 2], height = rectArray[i + 3];
+		if (width < 0) {
+			x = x + width;
+			width = -width;
+		}
+		if (height < 0) {
+			y = y + height;
+			height = -height;
+		}
+		OS.gdk_draw_rectangle(data.drawable, handle, 1, x, y, width, height);
+	}
+}
+
+void fillWinding(long /*int*/ cairo) {
+	/*
+	* The rectangles of a batch all have the same orientation, so filling
+	* them with the winding rule paints their union even where they overlap.
+	*/
+	int fillRule = Cairo.cairo_get_fill_rule(cairo);
+	if (fillRule != Cairo.CAIRO_FILL_RULE_WINDING) Cairo.cairo_set_fill_rule(cairo, Cairo.CAIRO_FILL_RULE_WINDING);
+	Cairo.cairo_fill(cairo);
+	if (fillRule != Cairo.CAIRO_FILL_RULE_WINDING) Cairo.cairo_set_fill_rule(cairo, fillRule);
+}
+
 /**
  * Fills the interior of the round-cornered rectangle specified by
  * the arguments, using the receiver's background color.
@@ -2487,6 +3076,7 @@ public void getClipping(Region region) {
 		OS.gdk_region_union(clipping, rgn);
 		OS.gdk_region_destroy(rgn);
 	}
+	region.loadRectangles();
 }
 
 /**
@@ -3457,7 +4047,7 @@ public void setClipping(Rectangle rect) {
 public void setClipping(Region region) {
 	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 	if (region != null && region.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-	setClipping(region != null ? region.handle : 0);
+	setClipping(region != null ? region.gtk_handle() : 0);
 }
 
 /**
@@ -11,6 +11,7 @@
 package org.eclipse.swt.graphics;
 
 
+import org.eclipse.swt.internal.*;
 import org.eclipse.swt.internal.cairo.*;
 import org.eclipse.swt.internal.gtk.*;
 import org.eclipse.swt.*;
@@ -43,6 +44,14 @@ public final class Region extends Resource {
 	 */
 	public long /*int*/ handle;
 
+	/*
+	* The area of the region is kept in Java so that containment tests
+	* and rectangle operations do not cross into native code. The native
+	* region is only brought up to date when it is handed to the platform.
+	*/
+	BandedRegion bands;
+	boolean nativeDirty;
+
 /**
  * Constructs a new empty region.
  *
@@ -77,12 +86,15 @@ public Region(Device device) {
 	super(device);
 	handle = OS.gdk_region_new();
 	if (handle == 0) SWT.error(SWT.ERROR_NO_HANDLES);
+	bands = new BandedRegion();
 	init();
 }
 
 Region(Device device, long /*int*/ handle) {
 	super(device);
 	this.handle = handle;
+	bands = new BandedRegion();
+	loadRectangles();
 }
 
 static long /*int*/ gdk_region_polygon(int[] pointArray, int npoints, int fill_rule) {
@@ -162,8 +174,9 @@ public void add (int[] pointArray) {
 	*/
 	if (pointArray.length < 6) return;
 	long /*int*/ polyRgn = gdk_region_polygon(pointArray, pointArray.length / 2, OS.GDK_EVEN_ODD_RULE);
-	OS.gdk_region_union(handle, polyRgn);
+	OS.gdk_region_union(gtk_handle(), polyRgn);
 	OS.gdk_region_destroy(polyRgn);
+	loadRectangles();
 }
 
 /**
@@ -207,12 +220,8 @@ public void add(Rectangle rect) {
 public void add(int x, int y, int width, int height) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 	if (width < 0 || height < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-	GdkRectangle gdkRect = new GdkRectangle();
-	gdkRect.x = x;
-	gdkRect.y = y;
-	gdkRect.width = width;
-	gdkRect.height = height;
-	OS.gdk_region_union_with_rect(handle, gdkRect);
+	bands.add(x, y, width, height);
+	nativeDirty = true;
 }
 
 /**
@@ -234,7 +243,8 @@ public void add(Region region) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 	if (region == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
 	if (region.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-	OS.gdk_region_union(handle, region.handle);
+	bands.add(region.bands);
+	nativeDirty = true;
 }
 
 /**
@@ -252,7 +262,7 @@ public void add(Region region) {
  */
 public boolean contains(int x, int y) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
-	return OS.gdk_region_point_in(handle, x, y);
+	return bands.contains(x, y);
 }
 
 /**
@@ -279,6 +289,7 @@ public boolean contains(Point pt) {
 void destroy() {
 	OS.gdk_region_destroy(handle);
 	handle = 0;
+	bands = null;
 }
 
 /**
@@ -314,9 +325,9 @@ public boolean equals(Object object) {
  */
 public Rectangle getBounds() {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
-	GdkRectangle gdkRect = new GdkRectangle();
-	OS.gdk_region_get_clipbox(handle, gdkRect);
-	return new Rectangle(gdkRect.x, gdkRect.y, gdkRect.width, gdkRect.height);
+	int[] bounds = new int[4];
+	bands.getBounds(bounds);
+	return new Rectangle(bounds[0], bounds[1], bounds[2], bounds[3]);
 }
 
 /**
@@ -339,6 +350,42 @@ public static Region gtk_new(Device device, long /*int*/ handle) {
 	return new Region(device, handle);
 }
 
+/**
+ * Returns the native region of the receiver, bringing it up to date
+ * with the area of the receiver first.
+ * <p>
+ * <b>IMPORTANT:</b> This method is <em>not</em> part of the public
+ * API for <code>Region</code>. It is marked public only so that it
+ * can be shared within the packages provided by SWT. It is not
+ * available on all platforms, and should never be called from
+ * application code.
+ * </p>
+ *
+ * @return the native region
+ *
+ * @noreference This method is not intended to be referenced by clients.
+ */
+public long /*int*/ gtk_handle() {
+	if (nativeDirty) {
+		OS.gdk_region_subtract(handle, handle);
+		int count = bands.getRectangleCount();
+		if (count > 0) {
+			int[] rects = new int[count * 4];
+			bands.getRectangles(rects);
+			GdkRectangle gdkRect = new GdkRectangle();
+			for (int i = 0; i < rects.length; i += 4) {
+				gdkRect.x = rects[i];
+				gdkRect.y = rects[i + 1];
+				gdkRect.width = rects[i + 2];
+				gdkRect.height = rects[i + 3];
+				OS.gdk_region_union_with_rect(handle, gdkRect);
+			}
+		}
+		nativeDirty = false;
+	}
+	return handle;
+}
+
 /**
  * Returns an integer hash code for the receiver. Any two
  * objects that return <code>true</code> when passed to
@@ -397,14 +444,8 @@ public void intersect(Rectangle rect) {
 public void intersect(int x, int y, int width, int height) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 	if (width < 0 || height < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-	GdkRectangle gdkRect = new GdkRectangle();
-	gdkRect.x = x;
-	gdkRect.y = y;
-	gdkRect.width = width;
-	gdkRect.height = height;
-	long /*int*/ rectRgn = OS.gdk_region_rectangle(gdkRect);
-	OS.gdk_region_intersect(handle, rectRgn);
-	OS.gdk_region_destroy(rectRgn);
+	bands.intersect(x, y, width, height);
+	nativeDirty = true;
 }
 
 /**
@@ -428,7 +469,8 @@ public void intersect(Region region) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 	if (region == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
 	if (region.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-	OS.gdk_region_intersect(handle, region.handle);
+	bands.intersect(region.bands);
+	nativeDirty = true;
 }
 
 /**
@@ -450,12 +492,7 @@ public void intersect(Region region) {
  */
 public boolean intersects (int x, int y, int width, int height) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
-	GdkRectangle gdkRect = new GdkRectangle();
-	gdkRect.x = x;
-	gdkRect.y = y;
-	gdkRect.width = width;
-	gdkRect.height = height;
-	return OS.gdk_region_rect_in(handle, gdkRect) != OS.GDK_OVERLAP_RECTANGLE_OUT;
+	return bands.intersects(x, y, width, height);
 }
 /**
  * Returns <code>true</code> if the given rectangle intersects
@@ -507,7 +544,29 @@ public boolean isDisposed() {
  */
 public boolean isEmpty() {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
-	return OS.gdk_region_empty(handle);
+	return bands.isEmpty();
+}
+
+/*
+* Rebuilds the area of the receiver from the native region, after
+* it was modified in native code.
+*/
+void loadRectangles() {
+	int[] nRects = new int[1];
+	long /*int*/[] rects = new long /*int*/[1];
+	gdk_region_get_rectangles(handle, rects, nRects);
+	int[] rectangles = new int[nRects[0] * 4];
+	GdkRectangle gdkRect = new GdkRectangle();
+	for (int i = 0; i < nRects[0]; i++) {
+		OS.memmove(gdkRect, rects[0] + (i * GdkRectangle.sizeof), GdkRectangle.sizeof);
+		rectangles[i * 4] = gdkRect.x;
+		rectangles[i * 4 + 1] = gdkRect.y;
+		rectangles[i * 4 + 2] = gdkRect.width;
+		rectangles[i * 4 + 3] = gdkRect.height;
+	}
+	if (rects[0] != 0) OS.g_free(rects[0]);
+	bands.setRectangles(rectangles, nRects[0]);
+	nativeDirty = false;
 }
 
 /**
@@ -535,8 +594,9 @@ public void subtract (int[] pointArray) {
 	*/
 	if (pointArray.length < 6) return;
 	long /*int*/ polyRgn = gdk_region_polygon(pointArray, pointArray.length / 2, OS.GDK_EVEN_ODD_RULE);
-	OS.gdk_region_subtract(handle, polyRgn);
+	OS.gdk_region_subtract(gtk_handle(), polyRgn);
 	OS.gdk_region_destroy(polyRgn);
+	loadRectangles();
 }
 
 /**
@@ -582,14 +642,8 @@ public void subtract(Rectangle rect) {
 public void subtract(int x, int y, int width, int height) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 	if (width < 0 || height < 0) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-	GdkRectangle gdkRect = new GdkRectangle();
-	gdkRect.x = x;
-	gdkRect.y = y;
-	gdkRect.width = width;
-	gdkRect.height = height;
-	long /*int*/ rectRgn = OS.gdk_region_rectangle(gdkRect);
-	OS.gdk_region_subtract(handle, rectRgn);
-	OS.gdk_region_destroy(rectRgn);
+	bands.subtract(x, y, width, height);
+	nativeDirty = true;
 }
 
 /**
@@ -613,7 +667,8 @@ public void subtract(Region region) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
 	if (region == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
 	if (region.isDisposed()) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
-	OS.gdk_region_subtract(handle, region.handle);
+	bands.subtract(region.bands);
+	nativeDirty = true;
 }
 
 /**
@@ -631,7 +686,8 @@ public void subtract(Region region) {
  */
 public void translate (int x, int y) {
 	if (isDisposed()) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
-	OS.gdk_region_offset (handle, x, y);
+	bands.translate (x, y);
+	nativeDirty = true;
 }
 
 /**
@@ -12,6 +12,7 @@ package org.eclipse.swt.widgets;
 
 
 import org.eclipse.swt.*;
+import org.eclipse.swt.internal.*;
 import org.eclipse.swt.internal.cairo.*;
 import org.eclipse.swt.internal.gtk.*;
 import org.eclipse.swt.graphics.*;
@@ -63,7 +64,14 @@ public class Composite extends Scrollable {
 	long /*int*/ imHandle, socketHandle;
 	Layout layout;
 	Control[] tabList;
+	/* Children of the parenting handle in stacking order, null when they need to be fetched from GTK */
+	Control[] cachedChildren;
 	int layoutCount, backgroundMode;
+	/* wHint, hHint, width, height and layout generation of the last sizes computed by the layout */
+	int[] sizeMemo;
+	int layoutGeneration, sizeMemoIndex, sizeMemoEpoch;
+
+	static final int SIZE_MEMO_ENTRIES = 4;
 
 	static final String NO_INPUT_METHOD = "org.eclipse.swt.internal.gtk.noInputMethod"; //$NON-NLS-1$
 
@@ -118,9 +126,14 @@ static int checkStyle (int style) {
 //Containers such as Tabfolder have two sets of children,
 //e.g TabItems and actual widget children.
 //thus we need to pass in different parenting handles depending on which children we want.
+//The list of the parenting handle is cached until a child is created, disposed,
+//restacked or reparented, so callers must not modify the returned array.
 Control [] _getChildren () {
-	long /*int*/ parentHandle = parentingHandle ();
-	return _getChildren (parentHandle);
+	if (cachedChildren == null) {
+		long /*int*/ parentHandle = parentingHandle ();
+		cachedChildren = _getChildren (parentHandle);
+	}
+	return cachedChildren;
 }
 
 Control [] _getChildren (long /*int*/ parentHandle) {
@@ -203,6 +216,7 @@ public void changed (Control[] changed) {
 	}
 	for (int i=0; i<changed.length; i++) {
 		Control child = changed [i];
+		child.invalidateSize ();
 		Composite composite = child.parent;
 		while (child != this) {
 			if (composite.layout == null || !composite.layout.flushCache (child)) {
@@ -239,11 +253,34 @@ public Point computeSize (int wHint, int hHint, boolean changed) {
 	display.runSkin();
 	if (wHint != SWT.DEFAULT && wHint < 0) wHint = 0;
 	if (hHint != SWT.DEFAULT && hHint < 0) hHint = 0;
+	boolean memoize = display.memoizeLayout && layout != null;
+	if (memoize && sizeMemo != null && sizeMemoEpoch == display.memoizeLayoutEpoch) {
+		/*
+		* The size only depends on the subtree, which has not been marked
+		* dirty while the generation is the same, so ignore the changed flag.
+		*/
+		for (int i = 0; i < sizeMemo.length; i += 5) {
+			if (sizeMemo [i + 4] == layoutGeneration && sizeMemo [i] == wHint && sizeMemo [i + 1] == hHint) {
+				if (LayoutListener.listener != null) LayoutListener.listener.hit (this);
+				return new Point (sizeMemo [i + 2], sizeMemo [i + 3]);
+			}
+		}
+	}
 	Point size;
 	if (layout != null) {
 		if (wHint == SWT.DEFAULT || hHint == SWT.DEFAULT) {
 			changed |= (state & LAYOUT_CHANGED) != 0;
-			size = layout.computeSize (this, wHint, hHint, changed);
+			LayoutListener listener = LayoutListener.listener;
+			if (listener != null) {
+				long start = listener.enter ();
+				try {
+					size = layout.computeSize (this, wHint, hHint, changed);
+				} finally {
+					listener.exit (LayoutListener.LAYOUT_SIZE, this, start);
+				}
+			} else {
+				size = layout.computeSize (this, wHint, hHint, changed);
+			}
 			state &= ~LAYOUT_CHANGED;
 		} else {
 			size = new Point (wHint, hHint);
@@ -256,6 +293,23 @@ public Point computeSize (int wHint, int hHint, boolean changed) {
 	if (wHint != SWT.DEFAULT) size.x = wHint;
 	if (hHint != SWT.DEFAULT) size.y = hHint;
 	Rectangle trim = computeTrim (0, 0, size.x, size.y);
+	if (memoize) {
+		if (sizeMemo == null || sizeMemoEpoch != display.memoizeLayoutEpoch) {
+			sizeMemo = new int [SIZE_MEMO_ENTRIES * 5];
+			sizeMemoEpoch = display.memoizeLayoutEpoch;
+			sizeMemoIndex = 0;
+			for (int i = 0; i < sizeMemo.length; i += 5) {
+				sizeMemo [i + 4] = layoutGeneration - 1;
+			}
+		}
+		int index = sizeMemoIndex * 5;
+		sizeMemo [index] = wHint;
+		sizeMemo [index + 1] = hHint;
+		sizeMemo [index + 2] = trim.width;
+		sizeMemo [index + 3] = trim.height;
+		sizeMemo [index + 4] = layoutGeneration;
+		sizeMemoIndex = (sizeMemoIndex + 1) % SIZE_MEMO_ENTRIES;
+	}
 	return new Point (trim.width, trim.height);
 }
 
@@ -619,7 +673,10 @@ public int getBackgroundMode () {
  */
 public Control [] getChildren () {
 	checkWidget();
-	return _getChildren ();
+	Control [] children = _getChildren ();
+	Control [] result = new Control [children.length];
+	System.arraycopy (children, 0, result, 0, children.length);
+	return result;
 }
 
 int getChildrenCount () {
@@ -1119,6 +1176,7 @@ public void layout (Control [] changed, int flags) {
 		Composite [] update = new Composite [16];
 		for (int i=0; i<changed.length; i++) {
 			Control child = changed [i];
+			child.invalidateSize ();
 			Composite composite = child.parent;
 			while (child != this) {
 				if (composite.layout != null) {
@@ -1160,6 +1218,7 @@ void markLayout (boolean changed, boolean all) {
 		state |= LAYOUT_NEEDED;
 		if (changed) state |= LAYOUT_CHANGED;
 	}
+	if (changed) invalidateSize ();
 	if (all) {
 		Control [] children = _getChildren ();
 		for (int i=0; i<children.length; i++) {
@@ -1168,8 +1227,29 @@ void markLayout (boolean changed, boolean all) {
 	}
 }
 
+void invalidateChildren () {
+	cachedChildren = null;
+	invalidateSize ();
+}
+
+/*
+* Marks the sizes computed by the layouts of the receiver and of its
+* ancestors as stale. A composite is only sized by its parent, so the
+* walk stops at the shell.
+*/
+@Override
+void invalidateSize () {
+	Composite composite = this;
+	while (composite != null) {
+		composite.layoutGeneration++;
+		if (composite instanceof Shell) break;
+		composite = composite.parent;
+	}
+}
+
 void moveAbove (long /*int*/ child, long /*int*/ sibling) {
 	if (child == sibling) return;
+	cachedChildren = null;
 	long /*int*/ parentHandle = parentingHandle ();
 	if (OS.GTK3) {
 		OS.swt_fixed_restack (parentHandle, child, sibling, true);
@@ -1211,6 +1291,7 @@ void moveAbove (long /*int*/ child, long /*int*/ sibling) {
 
 void moveBelow (long /*int*/ child, long /*int*/ sibling) {
 	if (child == sibling) return;
+	cachedChildren = null;
 	long /*int*/ parentHandle = parentingHandle ();
 	if (sibling == 0 && parentHandle == fixedHandle) {
 		moveAbove (child, scrolledHandle != 0  ? scrolledHandle : handle);
@@ -1382,6 +1463,7 @@ void releaseWidget () {
 }
 
 void removeControl (Control control) {
+	cachedChildren = null;
 	fixTabList (control);
 }
 
@@ -1468,6 +1550,7 @@ public boolean setFocus () {
 public void setLayout (Layout layout) {
 	checkWidget();
 	this.layout = layout;
+	invalidateSize ();
 }
 
 /**
@@ -1652,7 +1735,17 @@ void updateLayout (boolean all) {
 		boolean changed = (state & LAYOUT_CHANGED) != 0;
 		state &= ~(LAYOUT_NEEDED | LAYOUT_CHANGED);
 		display.runSkin();
-		layout.layout (this, changed);
+		LayoutListener listener = LayoutListener.listener;
+		if (listener != null) {
+			long start = listener.enter ();
+			try {
+				layout.layout (this, changed);
+			} finally {
+				listener.exit (LayoutListener.LAYOUT, this, start);
+			}
+		} else {
+			layout.layout (this, changed);
+		}
 	}
 	if (all) {
 		state &= ~LAYOUT_CHILD;
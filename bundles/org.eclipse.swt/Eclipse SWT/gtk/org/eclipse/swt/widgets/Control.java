@@ -57,6 +57,11 @@ public abstract class Control extends Widget implements Drawable {
 	Object layoutData;
 	Accessible accessible;
 	Control labelRelation;
+	BandedRegion damage;
+	boolean damageAll, damageChildren;
+
+	/* Pending damage made of more rectangles is redrawn as its bounds */
+	static final int MAX_DAMAGE_RECTANGLES = 16;
 
 Control () {
 }
@@ -104,6 +109,7 @@ Font defaultFont () {
 @Override
 void deregister () {
 	super.deregister ();
+	if (parent != null) parent.invalidateChildren ();
 	if (fixedHandle != 0) display.removeWidget (fixedHandle);
 	long /*int*/ imHandle = imHandle ();
 	if (imHandle != 0) display.removeWidget (imHandle);
@@ -891,7 +897,7 @@ void modifyStyle (long /*int*/ handle, long /*int*/ style) {
 	* has had a region set on it, the region is lost.  The
 	* fix is to set the region again.
 	*/
-	if (region != null) OS.gdk_window_shape_combine_region (gtk_widget_get_window (topHandle ()), region.handle, 0, 0);
+	if (region != null) OS.gdk_window_shape_combine_region (gtk_widget_get_window (topHandle ()), region.gtk_handle (), 0, 0);
 }
 
 void moveHandle (int x, int y) {
@@ -1180,7 +1186,7 @@ public void setRegion (Region region) {
 	checkWidget ();
 	if (region != null && region.isDisposed()) error (SWT.ERROR_INVALID_ARGUMENT);
 	long /*int*/ window = gtk_widget_get_window (topHandle ());
-	long /*int*/ shape_region = (region == null) ? 0 : region.handle;
+	long /*int*/ shape_region = (region == null) ? 0 : region.gtk_handle ();
 	OS.gdk_window_shape_combine_region (window, shape_region, 0, 0);
 	this.region = region;
 }
@@ -1365,6 +1371,7 @@ public void pack (boolean changed) {
 public void setLayoutData (Object layoutData) {
 	checkWidget();
 	this.layoutData = layoutData;
+	if (parent != null) parent.invalidateSize ();
 }
 
 /**
@@ -3722,6 +3729,7 @@ boolean mnemonicMatch (char key) {
 @Override
 void register () {
 	super.register ();
+	if (parent != null) parent.invalidateChildren ();
 	if (fixedHandle != 0) display.addWidget (fixedHandle, this);
 	long /*int*/ imHandle = imHandle ();
 	if (imHandle != 0) display.addWidget (imHandle, this);
@@ -3748,6 +3756,14 @@ void register () {
  */
 public void redraw () {
 	checkWidget();
+	/* A hidden or empty control paints nothing, the redraw is neither paced nor counted */
+	if (!isShowing ()) return;
+	if (display.redrawInterval > 0) {
+		addDamage (0, 0, 0, 0, true, false);
+		return;
+	}
+	display.redrawRequests++;
+	display.redrawsExecuted++;
 	redraw (false);
 }
 
@@ -3790,13 +3806,69 @@ void redraw (boolean all) {
 public void redraw (int x, int y, int width, int height, boolean all) {
 	checkWidget();
 	if (!gtk_widget_get_visible (topHandle ())) return;
+	if (!isShowing ()) return;
 	if ((style & SWT.MIRRORED) != 0) x = getClientWidth () - width - x;
+	if (display.redrawInterval > 0) {
+		addDamage (x, y, width, height, false, all);
+		return;
+	}
+	display.redrawRequests++;
+	display.redrawsExecuted++;
 	redrawWidget (x, y, width, height, false, all, false);
 }
 
 void redrawChildren () {
 }
 
+void invalidateSize () {
+	if (parent != null) parent.invalidateSize ();
+}
+
+/*
+* Records a redraw request while the display paces redraws. The
+* damage is accumulated until the display flushes the frame.
+*/
+void addDamage (int x, int y, int width, int height, boolean redrawAll, boolean all) {
+	display.redrawRequests++;
+	if (damage == null) {
+		damage = new BandedRegion ();
+		display.addDamagedControl (this);
+	}
+	if (redrawAll) {
+		damageAll = true;
+	} else if (!damageAll) {
+		damage.add (x, y, Math.max (0, width), Math.max (0, height));
+	}
+	if (all) damageChildren = true;
+}
+
+void flushDamage () {
+	BandedRegion damage = this.damage;
+	if (damage == null) return;
+	boolean redrawAll = damageAll, all = damageChildren;
+	this.damage = null;
+	damageAll = damageChildren = false;
+	if (!redrawAll && damage.isEmpty ()) return;
+	if (!isShowing ()) return;
+	display.redrawsExecuted++;
+	if (redrawAll) {
+		redrawWidget (0, 0, 0, 0, true, all, false);
+		return;
+	}
+	int count = damage.getRectangleCount ();
+	if (count > MAX_DAMAGE_RECTANGLES) {
+		int [] bounds = new int [4];
+		damage.getBounds (bounds);
+		redrawWidget (bounds [0], bounds [1], bounds [2], bounds [3], false, all, false);
+		return;
+	}
+	int [] rects = new int [count * 4];
+	damage.getRectangles (rects);
+	for (int i = 0; i < rects.length; i += 4) {
+		redrawWidget (rects [i], rects [i + 1], rects [i + 2], rects [i + 3], false, all, false);
+	}
+}
+
 void redrawWidget (int x, int y, int width, int height, boolean redrawAll, boolean all, boolean trim) {
 	if (!gtk_widget_get_realized(handle)) return;
 	long /*int*/ window = paintWindow ();
@@ -3868,6 +3940,7 @@ void releaseWidget () {
 		enableWindow = 0;
 	}
 	redrawWindow = 0;
+	damage = null;
 	if (menu != null && !menu.isDisposed ()) {
 		menu.dispose ();
 	}
@@ -4638,6 +4711,7 @@ public boolean setParent (Composite parent) {
 	}
 	long /*int*/ newParent = parent.parentingHandle();
 	OS.gtk_widget_reparent(topHandle, newParent);
+	parent.invalidateChildren ();
 	if (OS.GTK3) {
 		OS.swt_fixed_move (newParent, topHandle, x, y);
 	} else {
@@ -5064,6 +5138,7 @@ void showWidget () {
 	long /*int*/ parentHandle = parent.parentingHandle ();
 	parent.setParentWindow (topHandle);
 	OS.gtk_container_add (parentHandle, topHandle);
+	parent.invalidateChildren ();
 	if (handle != 0 && handle != topHandle) OS.gtk_widget_show (handle);
 	if ((state & (ZERO_WIDTH | ZERO_HEIGHT)) == 0) {
 		if (fixedHandle != 0) OS.gtk_widget_show (fixedHandle);
@@ -5503,6 +5578,7 @@ void update (boolean all, boolean flush) {
 //	checkWidget();
 	if (!gtk_widget_get_visible (topHandle ())) return;
 	if (!gtk_widget_get_realized (handle)) return;
+	if (display.damagedCount != 0) display.flushDamage ();
 	long /*int*/ window = paintWindow ();
 	if (flush) display.flushExposes (window, all);
 	OS.gdk_window_process_updates (window, all);
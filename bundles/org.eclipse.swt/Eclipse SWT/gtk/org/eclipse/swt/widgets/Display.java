@@ -127,14 +127,39 @@ public class Display extends Device {
 	long /*int*/ lastHandle;
 	Widget lastWidget;
 	Widget [] widgetTable;
+	int widgetCount, widgetPeak, widgetTableGrowCount;
 	final static int GROW_SIZE = 1024;
-	static final int SWT_OBJECT_INDEX;
+	/* Diagnostics: table capacity, live widgets, peak, grow count, handle table capacity, shells */
+	static final String GET_WIDGET_TABLE_STATS_KEY = "org.eclipse.swt.internal.gtk.widgetTableStats"; //$NON-NLS-1$
+
+	/* Frame paced redraws */
+	int redrawInterval, redrawRequests, redrawsExecuted, damagedCount;
+	long lastDamageFlush;
+	boolean damageFlushPending;
+	Control [] damagedControls;
+	Runnable damageFlush = new Runnable () {
+		public void run () {
+			flushDamage ();
+		}
+	};
+	/* Milliseconds between redraw flushes as an Integer, null or zero redraws immediately */
+	static final String REDRAW_INTERVAL_KEY = "org.eclipse.swt.internal.gtk.redrawInterval"; //$NON-NLS-1$
+	/* Diagnostics: redraws requested, repaints executed, controls waiting for the next flush */
+	static final String GET_REDRAW_STATS_KEY = "org.eclipse.swt.internal.gtk.redrawStats"; //$NON-NLS-1$
+
+	/* Layout size memoization */
+	boolean memoizeLayout;
+	int memoizeLayoutEpoch;
+	/*
+	* Boolean, when true composites reuse the sizes computed by their layout until
+	* they or their descendants are marked dirty. Content changes of controls must
+	* then be reported with Composite.layout(Control[]) or layout(true, true).
+	*/
+	static final String MEMOIZE_LAYOUT_KEY = "org.eclipse.swt.internal.gtk.memoizeLayout"; //$NON-NLS-1$
 	static final int SWT_OBJECT_INDEX1;
 	static final int SWT_OBJECT_INDEX2;
 	static {
-		byte [] buffer = Converter.wcsToMbcs (null, "SWT_OBJECT_INDEX", true); //$NON-NLS-1$
-		SWT_OBJECT_INDEX = OS.g_quark_from_string (buffer);
-		buffer = Converter.wcsToMbcs (null, "SWT_OBJECT_INDEX1", true); //$NON-NLS-1$
+		byte [] buffer = Converter.wcsToMbcs (null, "SWT_OBJECT_INDEX1", true); //$NON-NLS-1$
 		SWT_OBJECT_INDEX1 = OS.g_quark_from_string (buffer);
 		buffer = Converter.wcsToMbcs (null, "SWT_OBJECT_INDEX2", true); //$NON-NLS-1$
 		SWT_OBJECT_INDEX2 = OS.g_quark_from_string (buffer);
@@ -146,6 +171,20 @@ public class Display extends Device {
 	static final String GET_MODAL_DIALOG = "org.eclipse.swt.internal.gtk.getModalDialog"; //$NON-NLS-1$
 	static final String SET_MODAL_DIALOG = "org.eclipse.swt.internal.gtk.setModalDialog"; //$NON-NLS-1$
 
+	/*
+	* Handle Table.  Maps a native handle to its slot in the widget
+	* table using open addressing, so that looking up the widget for
+	* a signal does not need a g_object_get_qdata() call.  A key of
+	* zero marks an empty entry.
+	*/
+	long /*int*/ [] handleKeys;
+	int [] handleSlots;
+	int handleCount;
+
+	/* Shell Table */
+	Shell [] shellTable;
+	int shellCount;
+
 	/* Focus */
 	int focusEvent;
 	Control focusControl;
@@ -643,6 +682,22 @@ long /*int*/ allChildrenProc (long /*int*/ widget, long /*int*/ recurse) {
 	return 0;
 }
 
+void addDamagedControl (Control control) {
+	if (damagedControls == null) damagedControls = new Control [16];
+	if (damagedCount == damagedControls.length) {
+		Control [] newControls = new Control [damagedControls.length * 2];
+		System.arraycopy (damagedControls, 0, newControls, 0, damagedCount);
+		damagedControls = newControls;
+	}
+	damagedControls [damagedCount++] = control;
+	if (!damageFlushPending) {
+		/* Flush at most once per interval, right away when the last flush is old enough */
+		damageFlushPending = true;
+		long elapsed = System.currentTimeMillis () - lastDamageFlush;
+		timerExec ((int) Math.max (0, Math.min (redrawInterval, redrawInterval - elapsed)), damageFlush);
+	}
+}
+
 void addMouseHoverTimeout (long /*int*/ handle) {
 	if (mouseHoverId != 0) OS.g_source_remove (mouseHoverId);
 	mouseHoverId = OS.g_timeout_add (400, mouseHoverProc, handle);
@@ -677,8 +732,26 @@ void addSkinnableWidget (Widget widget) {
 	skinList [skinCount++] = widget;
 }
 
+void addShell (Shell shell) {
+	for (int i = 0; i < shellCount; i++) {
+		if (shellTable [i] == shell) return;
+	}
+	if (shellCount == shellTable.length) {
+		Shell [] newShellTable = new Shell [shellCount + 16];
+		System.arraycopy (shellTable, 0, newShellTable, 0, shellCount);
+		shellTable = newShellTable;
+	}
+	shellTable [shellCount++] = shell;
+}
+
 void addWidget (long /*int*/ handle, Widget widget) {
 	if (handle == 0) return;
+	int entry = findHandle (handle);
+	if (entry != -1) {
+		widgetTable [handleSlots [entry]] = widget;
+		if (lastHandle == handle) lastWidget = null;
+		return;
+	}
 	if (freeSlot == -1) {
 		int length = (freeSlot = indexTable.length) + GROW_SIZE;
 		int[] newIndexTable = new int[length];
@@ -691,13 +764,14 @@ void addWidget (long /*int*/ handle, Widget widget) {
 		newIndexTable[length - 1] = -1;
 		indexTable = newIndexTable;
 		widgetTable = newWidgetTable;
+		widgetTableGrowCount++;
 	}
-	int index = freeSlot + 1;
-	OS.g_object_set_qdata (handle, SWT_OBJECT_INDEX, index);
 	int oldSlot = freeSlot;
 	freeSlot = indexTable[oldSlot];
 	indexTable [oldSlot] = -2;
 	widgetTable [oldSlot] = widget;
+	putHandle (handle, oldSlot);
+	if (++widgetCount > widgetPeak) widgetPeak = widgetCount;
 }
 
 /**
@@ -1398,6 +1472,23 @@ static long /*int*/ rendererRenderProc (long /*int*/ cell, long /*int*/ window,
 	return 0;
 }
 
+void flushDamage () {
+	if (damageFlushPending) {
+		damageFlushPending = false;
+		timerExec (-1, damageFlush);
+	}
+	lastDamageFlush = System.currentTimeMillis ();
+	if (damagedCount == 0) return;
+	Control [] controls = damagedControls;
+	int count = damagedCount;
+	damagedControls = null;
+	damagedCount = 0;
+	for (int i = 0; i < count; i++) {
+		Control control = controls [i];
+		if (!control.isDisposed ()) control.flushDamage ();
+	}
+}
+
 void flushExposes (long /*int*/ window, boolean all) {
 	OS.gdk_flush ();
 	OS.gdk_flush ();
@@ -1661,6 +1752,21 @@ public Object getData (String key) {
 	if (key.equals (GET_EMISSION_PROC_KEY)) {
 		return new LONG (emissionProc);
 	}
+	if (key.equals (GET_WIDGET_TABLE_STATS_KEY)) {
+		return new int [] {widgetTable.length, widgetCount, widgetPeak, widgetTableGrowCount, handleKeys.length, shellCount};
+	}
+	if (key.equals (REDRAW_INTERVAL_KEY)) {
+		return redrawInterval > 0 ? Integer.valueOf (redrawInterval) : null;
+	}
+	if (key.equals (GET_REDRAW_STATS_KEY)) {
+		return new int [] {redrawRequests, redrawsExecuted, damagedCount};
+	}
+	if (key.equals (MEMOIZE_LAYOUT_KEY)) {
+		return memoizeLayout ? Boolean.TRUE : null;
+	}
+	if (key.equals (LayoutListener.KEY)) {
+		return LayoutListener.listener;
+	}
 	if (keys == null) return null;
 	for (int i=0; i<keys.length; i++) {
 		if (keys [i].equals (key)) return values [i];
@@ -2045,30 +2151,9 @@ public Monitor getPrimaryMonitor () {
  */
 public Shell [] getShells () {
 	checkDevice ();
-	int index = 0;
-	Shell [] result = new Shell [16];
-	for (int i = 0; i < widgetTable.length; i++) {
-		Widget widget = widgetTable [i];
-		if (widget != null && widget instanceof Shell) {
-			int j = 0;
-			while (j < index) {
-				if (result [j] == widget) break;
-				j++;
-			}
-			if (j == index) {
-				if (index == result.length) {
-					Shell [] newResult = new Shell [index + 16];
-					System.arraycopy (result, 0, newResult, 0, index);
-					result = newResult;
-				}
-				result [index++] = (Shell) widget;
-			}
-		}
-	}
-	if (index == result.length) return result;
-	Shell [] newResult = new Shell [index];
-	System.arraycopy (result, 0, newResult, 0, index);
-	return newResult;
+	Shell [] result = new Shell [shellCount];
+	System.arraycopy (shellTable, 0, result, 0, shellCount);
+	return result;
 }
 
 /**
@@ -2565,14 +2650,77 @@ public boolean getTouchEnabled() {
 Widget getWidget (long /*int*/ handle) {
 	if (handle == 0) return null;
 	if (lastWidget != null && lastHandle == handle) return lastWidget;
-	long /*int*/ index = OS.g_object_get_qdata (handle, SWT_OBJECT_INDEX) - 1;
-	if (0 <= index && index < widgetTable.length) {
+	int entry = findHandle (handle);
+	if (entry != -1) {
 		lastHandle = handle;
-		return lastWidget = widgetTable [(int)/*64*/index];
+		return lastWidget = widgetTable [handleSlots [entry]];
 	}
 	return null;
 }
 
+int findHandle (long /*int*/ handle) {
+	int mask = handleKeys.length - 1;
+	int index = hashHandle (handle, mask);
+	long /*int*/ key;
+	while ((key = handleKeys [index]) != 0) {
+		if (key == handle) return index;
+		index = (index + 1) & mask;
+	}
+	return -1;
+}
+
+static int hashHandle (long /*int*/ handle, int mask) {
+	/* Handles are aligned pointers, spread the bits before masking */
+	long hash = handle * 0x9E3779B97F4A7C15L;
+	return (int) (hash ^ (hash >>> 32)) & mask;
+}
+
+void putHandle (long /*int*/ handle, int slot) {
+	if ((handleCount + 1) * 2 > handleKeys.length) {
+		long /*int*/ [] oldKeys = handleKeys;
+		int [] oldSlots = handleSlots;
+		handleKeys = new long /*int*/ [oldKeys.length * 2];
+		handleSlots = new int [oldKeys.length * 2];
+		int mask = handleKeys.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			long /*int*/ key = oldKeys [i];
+			if (key == 0) continue;
+			int index = hashHandle (key, mask);
+			while (handleKeys [index] != 0) index = (index + 1) & mask;
+			handleKeys [index] = key;
+			handleSlots [index] = oldSlots [i];
+		}
+	}
+	int mask = handleKeys.length - 1;
+	int index = hashHandle (handle, mask);
+	while (handleKeys [index] != 0) index = (index + 1) & mask;
+	handleKeys [index] = handle;
+	handleSlots [index] = slot;
+	handleCount++;
+}
+
+void removeHandle (int index) {
+	/*
+	* Shift back the entries that follow in the same probe sequence
+	* so that no tombstones are needed.
+	*/
+	int mask = handleKeys.length - 1;
+	int next = index;
+	while (true) {
+		next = (next + 1) & mask;
+		long /*int*/ key = handleKeys [next];
+		if (key == 0) break;
+		int home = hashHandle (key, mask);
+		if (index <= next ? (index < home && home <= next) : (index < home || home <= next)) continue;
+		handleKeys [index] = key;
+		handleSlots [index] = handleSlots [next];
+		index = next;
+	}
+	handleKeys [index] = 0;
+	handleSlots [index] = 0;
+	handleCount--;
+}
+
 long /*int*/ idleProc (long /*int*/ data) {
 	boolean result = runAsyncMessages (false);
 	if (!result) {
@@ -2876,6 +3024,9 @@ void initializeWidgetTable () {
 	widgetTable = new Widget [GROW_SIZE];
 	for (int i=0; i<GROW_SIZE-1; i++) indexTable [i] = i + 1;
 	indexTable [GROW_SIZE - 1] = -1;
+	handleKeys = new long /*int*/ [GROW_SIZE * 2];
+	handleSlots = new int [GROW_SIZE * 2];
+	shellTable = new Shell [16];
 }
 
 void initializeWindowManager () {
@@ -3489,6 +3640,7 @@ protected void release () {
 	disposeList = null;
 	synchronizer.releaseSynchronizer ();
 	synchronizer = null;
+	if (memoizeLayout) memoizeLayout = LayoutMemoization.enabled = false;
 	releaseDisplay ();
 	super.release ();
 }
@@ -3662,8 +3814,9 @@ void releaseDisplay () {
 	thread = null;
 	lastWidget = activeShell = null;
 	flushData = closures = null;
-	indexTable = signalIds = null;
-	widgetTable = modalShells = null;
+	indexTable = signalIds = handleSlots = null;
+	widgetTable = modalShells = shellTable = null;
+	handleKeys = null;
 	data = null;
 	values = keys = null;
 	windowManager = null;
@@ -3774,17 +3927,29 @@ void removePopup (Menu menu) {
 	}
 }
 
+void removeShell (Shell shell) {
+	for (int i = 0; i < shellCount; i++) {
+		if (shellTable [i] == shell) {
+			System.arraycopy (shellTable, i + 1, shellTable, i, --shellCount - i);
+			shellTable [shellCount] = null;
+			return;
+		}
+	}
+}
+
 Widget removeWidget (long /*int*/ handle) {
 	if (handle == 0) return null;
 	lastWidget = null;
 	Widget widget = null;
-	int index = (int)/*64*/ OS.g_object_get_qdata (handle, SWT_OBJECT_INDEX) - 1;
-	if (0 <= index && index < widgetTable.length) {
+	int entry = findHandle (handle);
+	if (entry != -1) {
+		int index = handleSlots [entry];
+		removeHandle (entry);
 		widget = widgetTable [index];
 		widgetTable [index] = null;
 		indexTable [index] = freeSlot;
 		freeSlot = index;
-		OS.g_object_set_qdata (handle, SWT_OBJECT_INDEX, 0);
+		widgetCount--;
 	}
 	return widget;
 }
@@ -4072,6 +4237,28 @@ public void setData (String key, Object value) {
 		removeIdleProc ();
 		return;
 	}
+	if (key.equals (LayoutListener.KEY)) {
+		if (value == null || value instanceof LayoutListener) {
+			LayoutListener.listener = (LayoutListener) value;
+			return;
+		}
+	}
+	if (key.equals (MEMOIZE_LAYOUT_KEY)) {
+		if (value == null || value instanceof Boolean) {
+			boolean memoize = value != null && ((Boolean) value).booleanValue ();
+			/* Sizes remembered before the mode was last enabled may be stale */
+			if (memoize && !memoizeLayout) memoizeLayoutEpoch++;
+			memoizeLayout = LayoutMemoization.enabled = memoize;
+			return;
+		}
+	}
+	if (key.equals (REDRAW_INTERVAL_KEY)) {
+		if (value == null || value instanceof Integer) {
+			redrawInterval = value != null ? Math.max (0, ((Integer) value).intValue ()) : 0;
+			if (redrawInterval == 0) flushDamage ();
+			return;
+		}
+	}
 
 	/* Remove the key/value pair */
 	if (value == null) {
@@ -885,6 +885,7 @@ public boolean isVisible () {
 void register () {
 	super.register ();
 	display.addWidget (shellHandle, this);
+	display.addShell (this);
 }
 
 @Override
@@ -2161,7 +2162,7 @@ static Region mirrorRegion (Region region) {
 
 	Region mirrored = new Region (region.getDevice ());
 
-	long /*int*/ rgn = region.handle;
+	long /*int*/ rgn = region.gtk_handle ();
 	int [] nRects = new int [1];
 	long /*int*/ [] rects = new long /*int*/ [1];
 	gdk_region_get_rectangles (rgn, rects, nRects);
@@ -2169,8 +2170,7 @@ static Region mirrorRegion (Region region) {
 	GdkRectangle rect = new GdkRectangle ();
 	for (int i = 0; i < nRects [0]; i++) {
 		OS.memmove (rect, rects[0] + (i * GdkRectangle.sizeof), GdkRectangle.sizeof);
-		rect.x = bounds.x + bounds.width - rect.x - rect.width;
-		OS.gdk_region_union_with_rect (mirrored.handle, rect);
+		mirrored.add (bounds.x + bounds.width - rect.x - rect.width, rect.y, rect.width, rect.height);
 	}
 	if (rects [0] != 0) OS.g_free (rects [0]);
 	return mirrored;
@@ -2533,6 +2533,7 @@ void updateMinimized (boolean minimized) {
 void deregister () {
 	super.deregister ();
 	display.removeWidget (shellHandle);
+	display.removeShell (this);
 }
 
 @Override
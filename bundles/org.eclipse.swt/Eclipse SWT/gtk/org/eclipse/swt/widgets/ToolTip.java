@@ -253,10 +253,10 @@ void configure () {
 	Region region = new Region (display);
 	region.add(polyline);
 	if (OS.GTK3) {
-		OS.gtk_widget_shape_combine_region (handle, region.handle);
+		OS.gtk_widget_shape_combine_region (handle, region.gtk_handle ());
 	} else {
 		long /*int*/ window = gtk_widget_get_window (handle);
-		OS.gdk_window_shape_combine_region (window, region.handle, 0, 0);
+		OS.gdk_window_shape_combine_region (window, region.gtk_handle (), 0, 0);
 	 }
 	region.dispose ();
 }
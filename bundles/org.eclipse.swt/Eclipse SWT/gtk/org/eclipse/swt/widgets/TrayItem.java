@@ -314,7 +314,7 @@ long /*int*/ gtk_size_allocate (long /*int*/ widget, long /*int*/ allocation) {
 			}
 			OS.gtk_widget_realize (handle);
 			long /*int*/ window = gtk_widget_get_window (handle);
-			OS.gdk_window_shape_combine_region (window, region.handle, 0, 0);
+			OS.gdk_window_shape_combine_region (window, region.gtk_handle (), 0, 0);
 			region.dispose ();
 		}
 	}
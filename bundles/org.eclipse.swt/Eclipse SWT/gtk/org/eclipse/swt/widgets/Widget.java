@@ -983,6 +983,7 @@ void gtk_widget_reparent (Control control, long /*int*/ newParent) {
 	long /*int*/ widget = control.topHandle ();
 	long /*int*/ oldParent = control.parent.topHandle ();
 	gtk_widget_reparent(widget, oldParent, newParent);
+	control.parent.invalidateChildren ();
 }
 
 /**
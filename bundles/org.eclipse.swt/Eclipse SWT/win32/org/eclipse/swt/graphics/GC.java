@@ -429,6 +429,10 @@ void checkGC(int mask) {
 	}
 }
 
+static void checkRange(int length, int offset, int count, int stride) {
+	if (offset < 0 || count < 0 || offset > length || count > (length - offset) / stride) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+}
+
 /**
  * Copies a rectangular area of the receiver at the specified
  * position into the image, which must be of type <code>SWT.BITMAP</code>.
@@ -1701,6 +1705,72 @@ public void drawLine (int x1, int y1, int x2, int y2) {
 	}
 }
 
+/**
+ * Draws a line, using the foreground color, between the points
+ * (<code>x1</code>, <code>y1</code>) and (<code>x2</code>, <code>y2</code>)
+ * given in floating point coordinates.
+ * <p>
+ * Platforms that cannot draw at sub-pixel positions round the
+ * coordinates to the nearest integer.
+ * </p>
+ *
+ * @param x1 the first point's x coordinate
+ * @param y1 the first point's y coordinate
+ * @param x2 the second point's x coordinate
+ * @param y2 the second point's y coordinate
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawLine(int, int, int, int)
+ *
+ * @since 3.104
+ */
+public void drawLine(float x1, float y1, float x2, float y2) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	drawLine(Math.round(x1), Math.round(y1), Math.round(x2), Math.round(y2));
+}
+
+/**
+ * Draws the connected lines which are defined by <code>count</code>
+ * points of the specified array of integer coordinates, starting at
+ * <code>offset</code>, using the receiver's foreground color. The array
+ * contains alternating x and y values. Lines are drawn between each
+ * consecutive pair of points, but not between the last and the first.
+ * <p>
+ * The lines honour the receiver's line attributes, alpha and transform
+ * just like <code>drawPolyline</code> does. Platforms that draw them as a
+ * single path do not accumulate a translucent foreground where the lines
+ * cross each other.
+ * </p>
+ *
+ * @param pointArray an array of alternating x and y values
+ * @param offset the index of the x coordinate of the first point
+ * @param count the number of points
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the point array is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if offset or count are negative or the range is outside of the array</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawPolyline(int[])
+ *
+ * @since 3.104
+ */
+public void drawLines(int[] pointArray, int offset, int count) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (pointArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	checkRange(pointArray.length, offset, count, 2);
+	if (count == 0) return;
+	int[] points = new int[count * 2];
+	System.arraycopy(pointArray, offset, points, 0, points.length);
+	drawPolyline(points);
+}
+
 /** 
  * Draws the outline of an oval, using the foreground color,
  * within the specified rectangular area.
@@ -1738,6 +1808,33 @@ public void drawOval (int x, int y, int width, int height) {
 	OS.Ellipse(handle, x, y, x + width + 1, y + height + 1);
 }
 
+/**
+ * Draws the outline of an oval, using the foreground color,
+ * within the rectangular area specified in floating point
+ * coordinates.
+ * <p>
+ * Platforms that cannot draw at sub-pixel positions round the
+ * coordinates to the nearest integer.
+ * </p>
+ *
+ * @param x the x coordinate of the upper left corner of the oval to be drawn
+ * @param y the y coordinate of the upper left corner of the oval to be drawn
+ * @param width the width of the oval to be drawn
+ * @param height the height of the oval to be drawn
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawOval(int, int, int, int)
+ *
+ * @since 3.104
+ */
+public void drawOval(float x, float y, float width, float height) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	drawOval(Math.round(x), Math.round(y), Math.round(width), Math.round(height));
+}
+
 /** 
  * Draws the path described by the parameter.
  * <p>
@@ -1800,6 +1897,40 @@ public void drawPoint (int x, int y) {
 	OS.SetPixel (handle, x, y, data.foreground);
 }
 
+/**
+ * Draws <code>count</code> pixels, using the foreground color, at the
+ * points of the specified array of integer coordinates starting at
+ * <code>offset</code>. The array contains alternating x and y values.
+ * <p>
+ * Note that the receiver's line attributes do not affect this
+ * operation.
+ * </p>
+ *
+ * @param pointArray an array of alternating x and y values
+ * @param offset the index of the x coordinate of the first point
+ * @param count the number of points
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the point array is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if offset or count are negative or the range is outside of the array</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawPoint(int, int)
+ *
+ * @since 3.104
+ */
+public void drawPoints(int[] pointArray, int offset, int count) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (pointArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	checkRange(pointArray.length, offset, count, 2);
+	for (int i = offset, end = offset + count * 2; i < end; i += 2) {
+		drawPoint(pointArray[i], pointArray[i + 1]);
+	}
+}
+
 /** 
  * Draws the closed polygon which is defined by the specified array
  * of integer coordinates, using the receiver's foreground color. The array 
@@ -1896,6 +2027,90 @@ public void drawPolyline(int[] pointArray) {
 	}
 }
 
+/**
+ * Draws the polyline which is defined by the specified array
+ * of floating point coordinates, using the receiver's foreground color.
+ * The array contains alternating x and y values which are considered to
+ * represent points which are the corners of the polyline. Lines are drawn
+ * between each consecutive pair, but not between the first pair and last
+ * pair in the array.
+ * <p>
+ * Platforms that cannot draw at sub-pixel positions round the
+ * coordinates to the nearest integer.
+ * </p>
+ *
+ * @param pointArray an array of alternating x and y values which are the corners of the polyline
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the point array is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawPolyline(int[])
+ *
+ * @since 3.104
+ */
+public void drawPolyline(float[] pointArray) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (pointArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	drawPolyline(round(pointArray));
+}
+
+static int[] round(float[] pointArray) {
+	int[] result = new int[pointArray.length];
+	for (int i = 0; i < result.length; i++) {
+		result[i] = Math.round(pointArray[i]);
+	}
+	return result;
+}
+
+/**
+ * Draws <code>count</code> polylines whose corners are stored one after
+ * the other in the specified array of integer coordinates, using the
+ * receiver's foreground color. The array contains alternating x and y
+ * values. The corners of the polyline at index <code>i</code> are the
+ * values from <code>offsets[i]</code> inclusive to <code>offsets[i + 1]</code>
+ * exclusive, so <code>offsets</code> holds at least <code>count + 1</code>
+ * indices.
+ * <p>
+ * The polylines honour the receiver's line attributes, alpha and transform
+ * just like <code>drawPolyline</code> does. Platforms that draw them as a
+ * single path do not accumulate a translucent foreground where they cross.
+ * </p>
+ *
+ * @param pointArray an array of alternating x and y values
+ * @param offsets the start index of each polyline in the point array, followed by the end index of the last one
+ * @param count the number of polylines
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the point array or the offsets are null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if count is negative, an offset is out of order or outside of the point array</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawPolyline(int[])
+ *
+ * @since 3.104
+ */
+public void drawPolylines(int[] pointArray, int[] offsets, int count) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (pointArray == null || offsets == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	if (count < 0 || count >= offsets.length) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	for (int i = 0; i < count; i++) {
+		int start = offsets[i], end = offsets[i + 1];
+		if (start < 0 || end < start || end > pointArray.length) SWT.error(SWT.ERROR_INVALID_ARGUMENT);
+	}
+	for (int i = 0; i < count; i++) {
+		int[] points = new int[(offsets[i + 1] - offsets[i]) / 2 * 2];
+		System.arraycopy(pointArray, offsets[i], points, 0, points.length);
+		drawPolyline(points);
+	}
+}
+
 /** 
  * Draws the outline of the rectangle specified by the arguments,
  * using the receiver's foreground color. The left and right edges
@@ -1945,6 +2160,35 @@ public void drawRectangle (int x, int y, int width, int height) {
 	OS.Rectangle (handle, x, y, x + width + 1, y + height + 1);
 }
 
+/**
+ * Draws the outline of the rectangle specified by the arguments
+ * in floating point coordinates, using the receiver's foreground
+ * color. The left and right edges of the rectangle are at
+ * <code>x</code> and <code>x + width</code>. The top and bottom
+ * edges are at <code>y</code> and <code>y + height</code>.
+ * <p>
+ * Platforms that cannot draw at sub-pixel positions round the
+ * coordinates to the nearest integer.
+ * </p>
+ *
+ * @param x the x coordinate of the rectangle to be drawn
+ * @param y the y coordinate of the rectangle to be drawn
+ * @param width the width of the rectangle to be drawn
+ * @param height the height of the rectangle to be drawn
+ *
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawRectangle(int, int, int, int)
+ *
+ * @since 3.104
+ */
+public void drawRectangle(float x, float y, float width, float height) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	drawRectangle(Math.round(x), Math.round(y), Math.round(width), Math.round(height));
+}
+
 /** 
  * Draws the outline of the specified rectangle, using the receiver's
  * foreground color. The left and right edges of the rectangle are at
@@ -1966,6 +2210,43 @@ public void drawRectangle (Rectangle rect) {
 	drawRectangle (rect.x, rect.y, rect.width, rect.height);
 }
 
+/**
+ * Draws the outlines of <code>count</code> rectangles stored in the
+ * specified array of integer values starting at <code>offset</code>,
+ * using the receiver's foreground color. Each rectangle is described
+ * by four consecutive values: x, y, width and height, with the same
+ * meaning as the arguments of <code>drawRectangle(int, int, int, int)</code>.
+ * <p>
+ * The rectangles honour the receiver's line attributes, alpha and transform.
+ * Platforms that draw them as a single path do not accumulate a translucent
+ * foreground where they overlap.
+ * </p>
+ *
+ * @param rectArray an array of x, y, width and height values
+ * @param offset the index of the x coordinate of the first rectangle
+ * @param count the number of rectangles
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the rectangle array is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if offset or count are negative or the range is outside of the array</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawRectangle(int, int, int, int)
+ *
+ * @since 3.104
+ */
+public void drawRectangles(int[] rectArray, int offset, int count) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (rectArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	checkRange(rectArray.length, offset, count, 4);
+	for (int i = offset, end = offset + count * 4; i < end; i += 4) {
+		drawRectangle(rectArray[i], rectArray[i + 1], rectArray[i + 2], rectArray[i + 3]);
+	}
+}
+
 /** 
  * Draws the outline of the round-cornered rectangle specified by 
  * the arguments, using the receiver's foreground color. The left and
@@ -2092,6 +2373,43 @@ void drawRoundRectangleGdip (long /*int*/ gdipGraphics, long /*int*/ pen, int x,
 	Gdip.Graphics_TranslateTransform(gdipGraphics, -data.gdipXOffset, -data.gdipYOffset, Gdip.MatrixOrderPrepend);
 }
 
+/**
+ * Draws <code>count</code> unconnected line segments stored in the
+ * specified array of integer coordinates starting at <code>offset</code>,
+ * using the receiver's foreground color. Each segment is described by
+ * four consecutive values: x1, y1, x2 and y2, with the same meaning as
+ * the arguments of <code>drawLine(int, int, int, int)</code>.
+ * <p>
+ * The segments honour the receiver's line attributes, alpha and transform.
+ * Platforms that draw them as a single path do not accumulate a translucent
+ * foreground where they cross.
+ * </p>
+ *
+ * @param segmentArray an array of x1, y1, x2 and y2 values
+ * @param offset the index of the first coordinate of the first segment
+ * @param count the number of segments
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the segment array is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if offset or count are negative or the range is outside of the array</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #drawLine(int, int, int, int)
+ *
+ * @since 3.104
+ */
+public void drawSegments(int[] segmentArray, int offset, int count) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (segmentArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	checkRange(segmentArray.length, offset, count, 4);
+	for (int i = offset, end = offset + count * 4; i < end; i += 4) {
+		drawLine(segmentArray[i], segmentArray[i + 1], segmentArray[i + 2], segmentArray[i + 3]);
+	}
+}
+
 /** 
  * Draws the given string, using the receiver's current font and
  * foreground color. No tab expansion or carriage return processing
@@ -2995,6 +3313,37 @@ public void fillPolygon(int[] pointArray) {
 	}
 }
 
+/**
+ * Fills the interior of the closed polygon which is defined by the
+ * specified array of floating point coordinates, using the receiver's
+ * background color. The array contains alternating x and y values which
+ * are considered to represent points which are the vertices of the
+ * polygon. Lines are drawn between each consecutive pair, and between
+ * the first pair and last pair in the array.
+ * <p>
+ * Platforms that cannot draw at sub-pixel positions round the
+ * coordinates to the nearest integer.
+ * </p>
+ *
+ * @param pointArray an array of alternating x and y values which are the vertices of the polygon
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT if pointArray is null</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #fillPolygon(int[])
+ *
+ * @since 3.104
+ */
+public void fillPolygon(float[] pointArray) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (pointArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	fillPolygon(round(pointArray));
+}
+
 /** 
  * Fills the interior of the rectangle specified by the arguments,
  * using the receiver's background color. 
@@ -3056,6 +3405,42 @@ public void fillRectangle (Rectangle rect) {
 	fillRectangle (rect.x, rect.y, rect.width, rect.height);
 }
 
+/**
+ * Fills the interiors of <code>count</code> rectangles stored in the
+ * specified array of integer values starting at <code>offset</code>,
+ * using the receiver's background color. Each rectangle is described
+ * by four consecutive values: x, y, width and height, with the same
+ * meaning as the arguments of <code>fillRectangle(int, int, int, int)</code>.
+ * <p>
+ * Platforms that fill the rectangles as a single path do not accumulate a
+ * translucent background where they overlap.
+ * </p>
+ *
+ * @param rectArray an array of x, y, width and height values
+ * @param offset the index of the x coordinate of the first rectangle
+ * @param count the number of rectangles
+ *
+ * @exception IllegalArgumentException <ul>
+ *    <li>ERROR_NULL_ARGUMENT - if the rectangle array is null</li>
+ *    <li>ERROR_INVALID_ARGUMENT - if offset or count are negative or the range is outside of the array</li>
+ * </ul>
+ * @exception SWTException <ul>
+ *    <li>ERROR_GRAPHIC_DISPOSED - if the receiver has been disposed</li>
+ * </ul>
+ *
+ * @see #fillRectangle(int, int, int, int)
+ *
+ * @since 3.104
+ */
+public void fillRectangles(int[] rectArray, int offset, int count) {
+	if (handle == 0) SWT.error(SWT.ERROR_GRAPHIC_DISPOSED);
+	if (rectArray == null) SWT.error(SWT.ERROR_NULL_ARGUMENT);
+	checkRange(rectArray.length, offset, count, 4);
+	for (int i = offset, end = offset + count * 4; i < end; i += 4) {
+		fillRectangle(rectArray[i], rectArray[i + 1], rectArray[i + 2], rectArray[i + 3]);
+	}
+}
+
 /** 
  * Fills the interior of the round-cornered rectangle specified by 
  * the arguments, using the receiver's background color. 
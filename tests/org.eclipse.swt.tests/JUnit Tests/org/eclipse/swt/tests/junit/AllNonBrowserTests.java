@@ -83,6 +83,8 @@ public AllNonBrowserTests() {
 
 	addTestSuite(Test_org_eclipse_swt_program_Program.class);
 
+	addTestSuite(Test_org_eclipse_swt_dnd_Clipboard.class);
+
 	addTestSuite(Test_org_eclipse_swt_accessibility_Accessible.class);
 	addTestSuite(Test_org_eclipse_swt_accessibility_AccessibleControlEvent.class);
 	addTestSuite(Test_org_eclipse_swt_accessibility_AccessibleEvent.class);
@@ -10,9 +10,14 @@
  *******************************************************************************/
 package org.eclipse.swt.tests.junit;
 
+import static org.junit.Assert.assertArrayEquals;
+
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.SWTException;
 import org.eclipse.swt.browser.Browser;
+import org.eclipse.swt.browser.BrowserFunction;
 import org.eclipse.swt.browser.CloseWindowListener;
+import org.eclipse.swt.browser.EvaluateCallback;
 import org.eclipse.swt.browser.LocationEvent;
 import org.eclipse.swt.browser.LocationListener;
 import org.eclipse.swt.browser.OpenWindowListener;
@@ -209,6 +214,88 @@ public void test_executeLjava_lang_String() {
 	 */
 }
 
+public void test_evaluate$Ljava_lang_String() {
+	shell.setText("test_evaluate$Ljava_lang_String");
+	try {
+		browser.evaluate((String[])null);
+		fail("No exception thrown for scripts == null");
+	}
+	catch (IllegalArgumentException e) {
+	}
+	try {
+		browser.evaluate(new String[] {"return 1;", null});
+		fail("No exception thrown for script == null");
+	}
+	catch (IllegalArgumentException e) {
+	}
+
+	browser.setText("<HTML><BODY>SWT</BODY></HTML>");
+	runLoopTimer(2);
+	Object[] results = browser.evaluate(new String[] {"return 1 + 1;", "return document.body.innerHTML;", "var i = 0;"});
+	assertEquals(3, results.length);
+	assertEquals(new Double(2), results[0]);
+	assertEquals("SWT", results[1]);
+	assertNull(results[2]);
+	try {
+		browser.evaluate(new String[] {"return 1;", "throw 'error';"});
+		fail("No exception thrown for failing script");
+	}
+	catch (SWTException e) {
+		assertEquals(SWT.ERROR_FAILED_EVALUATE, e.code);
+	}
+}
+
+public void test_evaluateAsyncLjava_lang_StringLorg_eclipse_swt_browser_EvaluateCallback() {
+	shell.setText("test_evaluateAsyncLjava_lang_StringLorg_eclipse_swt_browser_EvaluateCallback");
+	final Object[] result = new Object[1];
+	EvaluateCallback callback = new EvaluateCallback() {
+		public void completed(Object value) {
+			result[0] = value;
+		}
+		public void failed(SWTException exception) {
+			result[0] = exception;
+		}
+	};
+	try {
+		browser.evaluateAsync(null, callback);
+		fail("No exception thrown for script == null");
+	}
+	catch (IllegalArgumentException e) {
+	}
+	try {
+		browser.evaluateAsync("return 1;", null);
+		fail("No exception thrown for callback == null");
+	}
+	catch (IllegalArgumentException e) {
+	}
+
+	browser.setText("<HTML><BODY>SWT</BODY></HTML>");
+	runLoopTimer(2);
+	browser.evaluateAsync("return document.body.innerHTML;", callback);
+	/* the script only runs after evaluateAsync has returned */
+	assertNull(result[0]);
+	runLoopTimer(1);
+	assertEquals("SWT", result[0]);
+	browser.evaluateAsync("throw 'error';", callback);
+	runLoopTimer(1);
+	assertTrue(result[0] instanceof SWTException);
+	result[0] = null;
+	browser.evaluateAsync("return 'a\\\\b\\n' + \"'\";", callback);
+	runLoopTimer(1);
+	assertEquals("a\\b\n'", result[0]);
+	result[0] = null;
+	browser.evaluateAsync("return (;", callback);
+	runLoopTimer(1);
+	assertTrue(result[0] instanceof SWTException);
+
+	/* the callback is notified even if the page changes before the script has run */
+	result[0] = null;
+	browser.evaluateAsync("return 1;", callback);
+	browser.setText("<HTML><BODY>SWT2</BODY></HTML>");
+	runLoopTimer(2);
+	assertNotNull(result[0]);
+}
+
 public void test_forward() {
 	shell.setText("test_forward");
 	for (int i = 0; i < 10; i++) {
@@ -220,6 +307,66 @@ public void test_forward() {
 	assertFalse(result);
 }
 
+public void test_functionArguments() {
+	shell.setText("test_functionArguments");
+	final Object[][] result = new Object[1][];
+	browser.setText("<HTML><BODY>SWT</BODY></HTML>");
+	runLoopTimer(2);
+	BrowserFunction function = new BrowserFunction(browser, "swtFunction") {
+		@Override
+		public Object function(Object[] arguments) {
+			result[0] = arguments;
+			return null;
+		}
+	};
+	/* arrays of eight or more elements are converted in one step, shorter ones element by element */
+	assertTrue(browser.execute("swtFunction([1, -2.5, 1e21, 'a\"b\\\\c\\n\\u00e9', true, false, null, [1, 2, [3]], ['x', [true]], 12345678901234567]);"));
+	Object[] array = (Object[])result[0][0];
+	assertEquals(10, array.length);
+	assertEquals(new Double(1), array[0]);
+	assertEquals(new Double(-2.5), array[1]);
+	assertEquals(new Double(1e21), array[2]);
+	assertEquals("a\"b\\c\n\u00e9", array[3]);
+	assertEquals(Boolean.TRUE, array[4]);
+	assertEquals(Boolean.FALSE, array[5]);
+	assertNull(array[6]);
+	assertArrayEquals(new Object[] {new Double(1), new Double(2), new Object[] {new Double(3)}}, (Object[])array[7]);
+	assertArrayEquals(new Object[] {"x", new Object[] {Boolean.TRUE}}, (Object[])array[8]);
+	assertEquals(new Double(12345678901234567d), array[9]);
+
+	/* objects, including those JSON would convert with toJSON(), are null in both conversions */
+	String[] scripts = {"swtFunction([{a: 1}, new Date(0), Infinity, -0]);", "swtFunction([{a: 1}, new Date(0), Infinity, -0, 5, 6, 7, 8]);"};
+	for (int i = 0; i < scripts.length; i++) {
+		assertTrue(browser.execute(scripts[i]));
+		array = (Object[])result[0][0];
+		assertNull(array[0]);
+		assertNull(array[1]);
+		assertEquals(new Double(Double.POSITIVE_INFINITY), array[2]);
+		assertEquals(new Double(-0.0), array[3]);
+	}
+
+	/* nested arrays of numbers are double[] when primitive arrays are requested */
+	if (SwtTestUtil.isGTK) {
+		browser.setData("org.eclipse.swt.internal.browser.primitiveArrays", Boolean.TRUE);
+		scripts = new String[] {"swtFunction([[1, 2, 3, 4, 5, 6, 7, 8], [1, 2], ['a', 1], []]);", "swtFunction([[1, 2, 3, 4, 5, 6, 7, 8], [1, 2], ['a', 1], [], 5, 6, 7, 8]);"};
+		for (int i = 0; i < scripts.length; i++) {
+			assertTrue(browser.execute(scripts[i]));
+			array = (Object[])result[0][0];
+			assertTrue(array[0] instanceof double[]);
+			assertEquals(8, ((double[])array[0]).length);
+			assertEquals(8.0, ((double[])array[0])[7], 0);
+			assertTrue(array[1] instanceof double[]);
+			assertArrayEquals(new Object[] {"a", new Double(1)}, (Object[])array[2]);
+			assertArrayEquals(new Object[0], (Object[])array[3]);
+		}
+		assertTrue(browser.execute("swtFunction(1, 2, 3, 4, 5, 6, 7, 8);"));
+		assertEquals(8, result[0].length);
+		assertEquals(new Double(1), result[0][0]);
+		browser.setData("org.eclipse.swt.internal.browser.primitiveArrays", null);
+	}
+	function.dispose();
+}
+
 public void test_getUrl() {
 	shell.setText("test_getUrl");
 	String string = browser.getUrl();
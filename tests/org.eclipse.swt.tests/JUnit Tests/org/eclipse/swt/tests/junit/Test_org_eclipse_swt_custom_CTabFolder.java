@@ -11,11 +11,19 @@
 package org.eclipse.swt.tests.junit;
 
 
+import static org.junit.Assert.assertArrayEquals;
+
+import java.lang.reflect.Field;
 import java.util.Vector;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.CTabFolder;
+import org.eclipse.swt.custom.CTabFolderRenderer;
 import org.eclipse.swt.custom.CTabItem;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.widgets.Text;
 
 /**
@@ -62,6 +70,8 @@ public void test_setFontLorg_eclipse_swt_graphics_Font() {
 /* custom */
 protected CTabFolder ctabFolder;
 
+static final String TAB_AREA_CACHE_KEY = "org.eclipse.swt.internal.ctabfolder.tabAreaCache";
+
 private void makeCleanEnvironment() {
 // this method must be private or protected so the auto-gen tool keeps it
 	ctabFolder = new CTabFolder(shell, 0);
@@ -123,4 +133,99 @@ public void test_consistency_DragDetect () {
     consistencyEvent(50, 5, 70, 10, ConsistencyUtility.MOUSE_DRAG, events);
 }
 
+public void test_itemWidthFollowsText() {
+	makeCleanEnvironment();
+	ctabFolder.setSize(400, 200);
+	CTabItem item = new CTabItem(ctabFolder, SWT.NONE);
+	item.setText("Tab");
+	new CTabItem(ctabFolder, SWT.NONE).setText("Other");
+	int width = item.getBounds().width;
+	item.setText("A much longer tab text");
+	assertTrue(item.getBounds().width > width);
+	item.setText("Tab");
+	assertEquals(width, item.getBounds().width);
+}
+
+public void test_tabAreaCache() {
+	makeCleanEnvironment();
+	ctabFolder.setSize(400, 200);
+	for (int i = 0; i < 10; i++) {
+		new CTabItem(ctabFolder, SWT.NONE).setText("CTabItem " + i);
+	}
+	ctabFolder.setSelection(0);
+	shell.open();
+
+	/* the cached tab area is kept across paints */
+	ImageData cached = captureTabArea(true);
+	Image image = getTabAreaImage();
+	assertNotNull(image);
+	assertTabAreaEquals(cached, captureTabArea(true));
+	assertSame(image, getTabAreaImage());
+	assertTabAreaEquals(cached, captureTabArea(false));
+	/* the cache is dropped when the key is cleared */
+	assertNull(getTabAreaImage());
+	assertTrue(image.isDisposed());
+
+	/* the cached tab area is drawn again when the size changes */
+	captureTabArea(true);
+	image = getTabAreaImage();
+	ctabFolder.setSize(300, 150);
+	cached = captureTabArea(true);
+	assertNotSame(image, getTabAreaImage());
+	assertTrue(image.isDisposed());
+	assertEquals(300, getTabAreaImage().getBounds().width);
+	assertTabAreaEquals(cached, captureTabArea(false));
+
+	/* the cached tab area is drawn again when the tab position changes */
+	captureTabArea(true);
+	image = getTabAreaImage();
+	ctabFolder.setTabPosition(SWT.BOTTOM);
+	cached = captureTabArea(true);
+	assertNotSame(image, getTabAreaImage());
+	assertTrue(image.isDisposed());
+	assertTabAreaEquals(cached, captureTabArea(false));
+
+	ctabFolder.setSimple(false);
+	assertTabAreaEquals(captureTabArea(true), captureTabArea(false));
+	assertNull(getTabAreaImage());
+}
+
+/* Paints the folder into an image, with or without the tab area cache */
+private ImageData captureTabArea(boolean cached) {
+	ctabFolder.setData(TAB_AREA_CACHE_KEY, cached ? Boolean.TRUE : null);
+	Point size = ctabFolder.getSize();
+	Image image = new Image(ctabFolder.getDisplay(), size.x, size.y);
+	GC gc = new GC(image);
+	ctabFolder.print(gc);
+	gc.dispose();
+	ImageData data = image.getImageData();
+	image.dispose();
+	return data;
+}
+
+/* Compares the rows of the tab strip of two captures */
+private void assertTabAreaEquals(ImageData expected, ImageData actual) {
+	assertEquals(expected.width, actual.width);
+	assertEquals(expected.height, actual.height);
+	int height = Math.min(ctabFolder.getTabHeight() + 4, expected.height);
+	int y = ctabFolder.getTabPosition() == SWT.BOTTOM ? expected.height - height : 0;
+	int[] expectedRow = new int[expected.width], actualRow = new int[actual.width];
+	for (int i = y; i < y + height; i++) {
+		expected.getPixels(0, i, expected.width, expectedRow, 0);
+		actual.getPixels(0, i, actual.width, actualRow, 0);
+		assertArrayEquals("row " + i, expectedRow, actualRow);
+	}
+}
+
+private Image getTabAreaImage() {
+	try {
+		Field field = CTabFolderRenderer.class.getDeclaredField("tabAreaImage");
+		field.setAccessible(true);
+		return (Image)field.get(ctabFolder.getRenderer());
+	} catch (Exception e) {
+		fail(e.toString());
+		return null;
+	}
+}
+
 }
@@ -15,6 +15,7 @@ import static org.junit.Assert.assertArrayEquals;
 
 import java.util.Enumeration;
 import java.util.Hashtable;
+import java.util.regex.Pattern;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.BidiSegmentEvent;
@@ -29,6 +30,11 @@ import org.eclipse.swt.custom.ST;
 import org.eclipse.swt.custom.StyleRange;
 import org.eclipse.swt.custom.StyledText;
 import org.eclipse.swt.custom.StyledTextContent;
+import org.eclipse.swt.custom.StyledTextContentExtended;
+import org.eclipse.swt.custom.StyledTextPrintListener;
+import org.eclipse.swt.custom.StyledTextPrintOptions;
+import org.eclipse.swt.custom.StyledTextSearch;
+import org.eclipse.swt.custom.StyledTextSearchListener;
 import org.eclipse.swt.custom.TextChangeListener;
 import org.eclipse.swt.custom.VerifyKeyListener;
 import org.eclipse.swt.dnd.Clipboard;
@@ -49,6 +55,7 @@ import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.internal.BidiUtil;
 import org.eclipse.swt.printing.Printer;
+import org.eclipse.swt.printing.PrinterData;
 import org.eclipse.swt.widgets.Caret;
 import org.eclipse.swt.widgets.Display;
 
@@ -645,6 +652,57 @@ public void test_copy() {
 	clipboard.dispose();
 }
 
+public void test_copyLargeSelection() {
+	if (SwtTestUtil.isCocoa) {
+		// TODO Fix Cocoa failure.
+		if (SwtTestUtil.verbose) {
+			System.out
+					.println("Excluded test_copyLargeSelection(org.eclipse.swt.tests.junit.Test_org_eclipse_swt_custom_StyledText).");
+		}
+		return;
+	}
+	Clipboard clipboard = new Clipboard(text.getDisplay());
+	String delimiter = SwtTestUtil.isWindows ? "\r\n" : "\n";
+	StringBuffer buffer = new StringBuffer();
+	StringBuffer expected = new StringBuffer();
+	String[] delimiters = {"\r", "\n", "\r\n"};
+	for (int i = 0; i < 10000; i++) {
+		buffer.append("Line" + i);
+		buffer.append(delimiters[i % delimiters.length]);
+		expected.append("Line" + i);
+		expected.append(delimiter);
+	}
+	text.setText(buffer.toString());
+	text.setStyleRange(new StyleRange(buffer.indexOf("Line5000"), 8, null, null, SWT.BOLD));
+	text.setSelectionRange(0, text.getCharCount());
+	text.copy();
+	// the clipboard keeps the text of the copy when the content changes
+	text.replaceTextRange(0, text.getCharCount() / 2, "");
+	String clipboardText = (String) clipboard.getContents(TextTransfer.getInstance());
+	assertEquals(expected.toString(), clipboardText);
+	String rtfText = (String) clipboard.getContents(RTFTransfer.getInstance());
+	assertTrue(rtfText.startsWith("{\\rtf1"));
+	assertTrue(rtfText.indexOf("\\b Line5000\\b0}") != -1);
+	assertTrue(rtfText.indexOf("Line9999") != -1);
+	// the text is written after the widget and the colors of its styles are disposed
+	StyledText styledText = new StyledText(text.getParent(), SWT.NONE);
+	Color foreground = new Color(text.getDisplay(), 1, 2, 3);
+	Color background = new Color(text.getDisplay(), 4, 5, 6);
+	styledText.setText(buffer.toString());
+	styledText.setStyleRange(new StyleRange(0, 5, foreground, null));
+	styledText.setLineBackground(1, 1, background);
+	styledText.setSelectionRange(0, styledText.getCharCount());
+	styledText.copy();
+	styledText.dispose();
+	foreground.dispose();
+	background.dispose();
+	assertEquals(expected.toString(), clipboard.getContents(TextTransfer.getInstance()));
+	rtfText = (String) clipboard.getContents(RTFTransfer.getInstance());
+	assertTrue(rtfText.indexOf("\\red1\\green2\\blue3;") != -1);
+	assertTrue(rtfText.indexOf("\\red4\\green5\\blue6;") != -1);
+	clipboard.dispose();
+}
+
 public void test_cut() {
 	if (SwtTestUtil.isCocoa) {
 		// TODO Fix Cocoa failure.
@@ -711,6 +769,74 @@ public void test_cut() {
 	clipboard.dispose();
 }
 
+public void test_findLjava_util_regex_PatternI() {
+	Pattern pattern = Pattern.compile("b+");
+	assertNull(text.find(pattern, 0));
+	text.setText("abba abbba");
+	assertEquals(new Point(1, 3), text.find(pattern, 0));
+	assertEquals(new Point(2, 3), text.find(pattern, 2));
+	assertEquals(new Point(6, 9), text.find(pattern, 3));
+	assertNull(text.find(pattern, 9));
+	text.replaceTextRange(1, 2, "c");
+	assertEquals(new Point(5, 8), text.find(pattern, 0));
+	try {
+		text.find(pattern, text.getCharCount() + 1);
+		fail("No exception thrown for start out of range");
+	} catch (IllegalArgumentException e) {
+	}
+	try {
+		text.find(null, 0);
+		fail("No exception thrown for null pattern");
+	} catch (IllegalArgumentException e) {
+	}
+}
+
+public void test_findAllLjava_util_regex_PatternLorg_eclipse_swt_custom_StyledTextSearchListener() {
+	final int[] found = new int[1];
+	StyledTextSearchListener listener = new StyledTextSearchListener() {
+		public void matchesFound(StyledTextSearch search, int count) {
+			found[0] += count;
+		}
+	};
+	StringBuffer buffer = new StringBuffer();
+	for (int i = 0; i < 1000; i++) {
+		buffer.append("line ").append(i).append(" match\n");
+	}
+	text.setText(buffer.toString());
+	StyledTextSearch search = text.findAll(Pattern.compile("match"), listener);
+	// the change is made while the search may still be running
+	text.replaceTextRange(0, 0, "inserted ");
+	Display display = text.getDisplay();
+	while (!search.isDone()) {
+		if (!display.readAndDispatch()) display.sleep();
+	}
+	assertEquals(1000, search.getMatchCount());
+	assertEquals(1000, found[0]);
+	int[] matches = search.getMatches();
+	String content = text.getText();
+	for (int i = 0; i < matches.length; i += 2) {
+		assertEquals("match", content.substring(matches[i], matches[i] + matches[i + 1]));
+	}
+	int[] first = search.getMatches(0, text.getOffsetAtLine(1));
+	assertEquals(2, first.length);
+	assertEquals(text.getText().indexOf("match"), first[0]);
+	
+	// matches that overlap a change are removed, the following ones are moved
+	text.replaceTextRange(first[0] + 1, 1, "");
+	assertEquals(999, search.getMatchCount());
+	matches = search.getMatches();
+	content = text.getText();
+	assertEquals("match", content.substring(matches[0], matches[0] + matches[1]));
+	
+	search.cancel();
+	text.replaceTextRange(0, 0, "moved ");
+	assertEquals(matches[0], search.getMatches()[0]);
+	
+	search = text.findAll(Pattern.compile("line"), null);
+	text.setText("");
+	assertTrue(search.isDone());
+}
+
 public void test_getCaretOffset() {
 	assertTrue(":a:", text.getCaretOffset() == 0);
 	text.setText("Line0\r\n");
@@ -771,6 +897,32 @@ public void test_getContent() {
 	assertEquals(content, text.getContent());
 }
 
+public void test_getContentExtended() {
+	StyledTextContent content = text.getContent();
+	assertTrue(content instanceof StyledTextContentExtended);
+	StyledTextContentExtended extended = (StyledTextContentExtended) content;
+	text.setText("Line0\r\nLine1");
+	// moves the gap of the default content inside the text
+	text.replaceTextRange(3, 1, "");
+	text.replaceTextRange(3, 0, "X");
+	assertEquals("LinX0\r\nLine1", extended.subSequence(0, content.getCharCount()).toString());
+	assertEquals("nX0", extended.subSequence(2, 5).toString());
+	assertEquals('X', extended.subSequence(2, 5).charAt(1));
+	char[] chars = new char[6];
+	extended.getChars(1, 5, chars, 1);
+	assertEquals("inX0", new String(chars, 1, 4));
+	try {
+		extended.getChars(0, content.getCharCount() + 1, new char[20], 0);
+		fail("No exception thrown for end out of range");
+	} catch (IllegalArgumentException e) {
+	}
+	try {
+		extended.subSequence(3, 2);
+		fail("No exception thrown for start after end");
+	} catch (IllegalArgumentException e) {
+	}
+}
+
 public void test_getDoubleClickEnabled() {
 	assertTrue(":a:", text.getDoubleClickEnabled() == true);
 	text.setDoubleClickEnabled(true);
@@ -1115,6 +1267,65 @@ void test_getLinePixel(StyledText text) {
 	assertEquals(lineHeight, text.getLinePixel(10));
 }
 
+public void test_getLinePixelVariableHeight() {
+	FontData fontData = text.getFont().getFontData()[0];
+	Font font = new Font(text.getDisplay(), fontData.getName(), 20, fontData.getStyle());
+	StringBuffer buffer = new StringBuffer();
+	for (int i = 0; i < 200; i++) {
+		if (i > 0) buffer.append('\n');
+		buffer.append("Line");
+		buffer.append(i);
+	}
+	text.setText(buffer.toString());
+	text.setSize(400, 200);
+	for (int i = 0; i < 200; i += 7) {
+		StyleRange style = new StyleRange();
+		style.start = text.getOffsetAtLine(i);
+		style.length = 4;
+		style.font = font;
+		text.setStyleRange(style);
+	}
+	checkLinePixels(text);
+	text.setTopPixel(text.getLinePixel(150) - text.getLinePixel(0));
+	assertEquals(150, text.getTopIndex());
+	checkLinePixels(text);
+	text.setTopPixel(text.getTopPixel() - 3 * text.getLineHeight());
+	checkLinePixels(text);
+	text.replaceTextRange(text.getOffsetAtLine(20), 0, "New\nLines\n");
+	checkLinePixels(text);
+	/* the line heights stay exact after every kind of change to the lines */
+	text.replaceTextRange(text.getOffsetAtLine(35) + 1, 2, "Changed");
+	checkLinePixels(text);
+	text.replaceTextRange(text.getOffsetAtLine(63), text.getOffsetAtLine(70) - text.getOffsetAtLine(63), "");
+	checkLinePixels(text);
+	text.replaceTextRange(text.getOffsetAtLine(1) + 2, 0, "A\nB\nC");
+	checkLinePixels(text);
+	text.replaceTextRange(text.getOffsetAtLine(5) + 1, text.getOffsetAtLine(9) - text.getOffsetAtLine(5), "D\nE");
+	checkLinePixels(text);
+	text.append("\nLast");
+	checkLinePixels(text);
+	text.replaceTextRange(0, text.getOffsetAtLine(3), "");
+	checkLinePixels(text);
+	text.setTopPixel(0);
+	assertEquals(0, text.getTopIndex());
+	checkLinePixels(text);
+	text.setStyleRange(null);
+	font.dispose();
+}
+
+void checkLinePixels(StyledText text) {
+	int lineCount = text.getLineCount();
+	int y = text.getLinePixel(0);
+	for (int i = 0; i < lineCount; i++) {
+		int lineHeight = text.getLineHeight(text.getOffsetAtLine(i));
+		assertEquals(y, text.getLinePixel(i));
+		assertEquals(i, text.getLineIndex(y));
+		assertEquals(i, text.getLineIndex(y + lineHeight - 1));
+		y += lineHeight;
+	}
+	assertEquals(y, text.getLinePixel(lineCount));
+}
+
 public void test_getLocationAtOffsetI(){
 	// copy from StyledText, has to match value used by StyledText
 	final int XINSET = isBidiCaret() ? 2 : 0;
@@ -2234,6 +2445,38 @@ public void test_printLorg_eclipse_swt_printing_Printer() {
 	printer.dispose();
 }
 
+public void test_printLorg_eclipse_swt_printing_PrinterLorg_eclipse_swt_custom_StyledTextPrintOptions() {
+	// if there aren't any printers, don't do this test
+	if (Printer.getDefaultPrinterData() == null) return;
+
+	StringBuffer buffer = new StringBuffer();
+	for (int i = 0; i < 1000; i++) {
+		buffer.append("Line" + i + "\n");
+	}
+	text.setText(buffer.toString());
+	/* pages before the start of the page range are only paginated, so no paper is wasted */
+	PrinterData data = Printer.getDefaultPrinterData();
+	data.scope = PrinterData.PAGE_RANGE;
+	data.startPage = data.endPage = 10000;
+	Printer printer = new Printer(data);
+	final int[] pages = new int[1];
+	final int[] lines = new int[1];
+	StyledTextPrintOptions options = new StyledTextPrintOptions();
+	options.listener = new StyledTextPrintListener() {
+		public boolean pageCompleted(int page, int linesCompleted, int lineCount) {
+			assertEquals(pages[0] + 1, page);
+			assertTrue(linesCompleted > lines[0]);
+			assertEquals(text.getLineCount(), lineCount);
+			pages[0] = page;
+			lines[0] = linesCompleted;
+			return page < 2;
+		}
+	};
+	text.print(printer, options).run();
+	assertEquals("print job not cancelled", 2, pages[0]);
+	printer.dispose();
+}
+
 @Override
 public void test_redraw() {
 	// inherited test is sufficient
@@ -4472,6 +4715,91 @@ public void test_setTopPixelI(){
 	text.setTopPixel(2 * lineHeight);
 	assertTrue(":i:", text.getTopPixel() == 0);
 }
+public void test_setUndoLimitI(){
+	boolean exceptionThrown = false;
+
+	assertEquals(":a:", 0, text.getUndoLimit());
+	text.setText("Line1");
+	text.replaceTextRange(0, 0, "x");
+	assertFalse(":b:", text.canUndo());
+	text.undo();
+	assertEquals(":c:", "xLine1", text.getText());
+
+	text.setUndoLimit(100);
+	assertEquals(":d:", 100, text.getUndoLimit());
+	// typing at the same place is undone at once
+	text.replaceTextRange(6, 0, "a");
+	text.replaceTextRange(7, 0, "b");
+	text.replaceTextRange(8, 0, "c");
+	text.replaceTextRange(0, 1, "");
+	assertEquals(":e:", "Line1abc", text.getText());
+	assertTrue(":f:", text.canUndo());
+	assertFalse(":g:", text.canRedo());
+	text.undo();
+	assertEquals(":h:", "xLine1abc", text.getText());
+	assertEquals(":i:", 1, text.getCaretOffset());
+	text.undo();
+	assertEquals(":j:", "xLine1", text.getText());
+	assertFalse(":k:", text.canUndo());
+	text.redo();
+	assertEquals(":l:", "xLine1abc", text.getText());
+	assertEquals(":m:", 9, text.getCaretOffset());
+	text.replaceTextRange(0, 0, "y");
+	assertFalse(":n:", text.canRedo());
+	text.undo();
+	text.undo();
+	assertEquals(":o:", "xLine1", text.getText());
+
+	// backspacing is undone at once
+	text.setText("Line1");
+	assertFalse(":p:", text.canUndo());
+	text.replaceTextRange(4, 1, "");
+	text.replaceTextRange(3, 1, "");
+	text.replaceTextRange(2, 1, "");
+	assertEquals(":q:", "Li", text.getText());
+	text.undo();
+	assertEquals(":r:", "Line1", text.getText());
+
+	// edits that exceed the limit are discarded
+	text.setUndoLimit(10);
+	text.replaceTextRange(0, 0, "12345");
+	text.replaceTextRange(0, 0, "67890");
+	text.replaceTextRange(0, 0, "abc");
+	text.undo();
+	text.undo();
+	assertFalse(":s:", text.canUndo());
+	assertEquals(":t:", "12345Line1", text.getText());
+	text.replaceTextRange(0, 0, "12345678901");
+	assertFalse(":u:", text.canUndo());
+
+	// undo follows the verify listener
+	text.setText("Line1");
+	text.replaceTextRange(0, 0, "a");
+	VerifyListener listener = new VerifyListener() {
+		public void verifyText(VerifyEvent event) {
+			event.doit = false;
+		}
+	};
+	text.addVerifyListener(listener);
+	text.undo();
+	assertEquals(":v:", "aLine1", text.getText());
+	assertTrue(":w:", text.canUndo());
+	text.removeVerifyListener(listener);
+	text.invokeAction(ST.UNDO);
+	assertEquals(":x:", "Line1", text.getText());
+	text.invokeAction(ST.REDO);
+	assertEquals(":y:", "aLine1", text.getText());
+
+	text.setUndoLimit(0);
+	assertFalse(":z:", text.canUndo());
+	try {
+		text.setUndoLimit(-1);
+	}
+	catch (IllegalArgumentException e) {
+		exceptionThrown = true;
+	}
+	assertTrue(":aa:", exceptionThrown);
+}
 public void test_setWordWrapZ(){
 	String testString = "Line1\nLine2";
 	
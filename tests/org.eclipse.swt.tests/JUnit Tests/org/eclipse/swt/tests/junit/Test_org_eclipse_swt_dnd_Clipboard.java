@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2015 IBM Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.swt.tests.junit;
+
+import junit.framework.TestCase;
+
+import org.eclipse.swt.dnd.Clipboard;
+import org.eclipse.swt.dnd.ClipboardCallback;
+import org.eclipse.swt.dnd.DND;
+import org.eclipse.swt.dnd.ImageTransfer;
+import org.eclipse.swt.dnd.RTFTransfer;
+import org.eclipse.swt.dnd.TextTransfer;
+import org.eclipse.swt.dnd.Transfer;
+import org.eclipse.swt.dnd.TransferData;
+import org.eclipse.swt.graphics.ImageData;
+import org.eclipse.swt.graphics.PaletteData;
+import org.eclipse.swt.graphics.RGB;
+import org.eclipse.swt.widgets.Display;
+
+/**
+ * Automated Test Suite for class org.eclipse.swt.dnd.Clipboard
+ *
+ * @see org.eclipse.swt.dnd.Clipboard
+ */
+public class Test_org_eclipse_swt_dnd_Clipboard extends TestCase {
+	Display display;
+	Clipboard clipboard;
+
+@Override
+protected void setUp() {
+	display = Display.getDefault();
+	clipboard = new Clipboard(display);
+}
+
+@Override
+protected void tearDown() {
+	clipboard.dispose();
+}
+
+ImageData createImageData(int width, int height, RGB rgb) {
+	PaletteData palette = new PaletteData(0xFF0000, 0xFF00, 0xFF);
+	ImageData data = new ImageData(width, height, 24, palette);
+	int pixel = palette.getPixel(rgb);
+	for (int y = 0; y < height; y++) {
+		for (int x = 0; x < width; x++) {
+			data.setPixel(x, y, pixel);
+		}
+	}
+	return data;
+}
+
+void assertImage(int width, int height, RGB rgb, Object contents) {
+	assertTrue(contents instanceof ImageData);
+	ImageData data = (ImageData)contents;
+	assertEquals(width, data.width);
+	assertEquals(height, data.height);
+	assertEquals(rgb, data.palette.getRGB(data.getPixel(width / 2, height / 2)));
+}
+
+boolean isAvailable(Transfer transfer, int clipboards) {
+	TransferData[] types = clipboard.getAvailableTypes(clipboards);
+	for (int i = 0; i < types.length; i++) {
+		if (transfer.isSupportedType(types[i])) return true;
+	}
+	return false;
+}
+
+Object[] getContentsAsync(Transfer transfer, int clipboards) {
+	final Object[] result = new Object[2];
+	clipboard.getContentsAsync(transfer, clipboards, new ClipboardCallback() {
+		public void contentsReceived(Object contents) {
+			result[0] = Boolean.TRUE;
+			result[1] = contents;
+		}
+	});
+	/* the callback is never notified before getContentsAsync returns */
+	assertNull(result[0]);
+	long end = System.currentTimeMillis() + 5000;
+	while (result[0] == null && System.currentTimeMillis() < end) {
+		if (!display.readAndDispatch()) display.sleep();
+	}
+	assertNotNull("callback not notified", result[0]);
+	return result;
+}
+
+public void test_getAvailableTypesI() {
+	/* the available types follow every change of the contents */
+	clipboard.setContents(new Object[] {"text"}, new Transfer[] {TextTransfer.getInstance()});
+	assertTrue(isAvailable(TextTransfer.getInstance(), DND.CLIPBOARD));
+	assertFalse(isAvailable(RTFTransfer.getInstance(), DND.CLIPBOARD));
+	assertEquals("text", clipboard.getContents(TextTransfer.getInstance()));
+	assertNull(clipboard.getContents(RTFTransfer.getInstance()));
+
+	clipboard.setContents(new Object[] {"text2", "{\\rtf1 text2}"}, new Transfer[] {TextTransfer.getInstance(), RTFTransfer.getInstance()});
+	assertTrue(isAvailable(TextTransfer.getInstance(), DND.CLIPBOARD));
+	assertTrue(isAvailable(RTFTransfer.getInstance(), DND.CLIPBOARD));
+	assertEquals("text2", clipboard.getContents(TextTransfer.getInstance()));
+	assertEquals("{\\rtf1 text2}", clipboard.getContents(RTFTransfer.getInstance()));
+
+	clipboard.setContents(new Object[] {"{\\rtf1 text3}"}, new Transfer[] {RTFTransfer.getInstance()});
+	assertFalse(isAvailable(TextTransfer.getInstance(), DND.CLIPBOARD));
+	assertNull(clipboard.getContents(TextTransfer.getInstance()));
+	assertEquals("{\\rtf1 text3}", clipboard.getContents(RTFTransfer.getInstance()));
+
+	clipboard.clearContents();
+	assertFalse(isAvailable(RTFTransfer.getInstance(), DND.CLIPBOARD));
+	assertNull(clipboard.getContents(RTFTransfer.getInstance()));
+
+	/* a clipboard that was not changed keeps its types */
+	clipboard.setContents(new Object[] {"text4"}, new Transfer[] {TextTransfer.getInstance()}, DND.CLIPBOARD);
+	clipboard.setContents(new Object[] {"selection"}, new Transfer[] {TextTransfer.getInstance()}, DND.SELECTION_CLIPBOARD);
+	assertEquals("text4", clipboard.getContents(TextTransfer.getInstance(), DND.CLIPBOARD));
+	clipboard.clearContents(DND.SELECTION_CLIPBOARD);
+	assertEquals("text4", clipboard.getContents(TextTransfer.getInstance(), DND.CLIPBOARD));
+	assertTrue(isAvailable(TextTransfer.getInstance(), DND.CLIPBOARD));
+}
+
+public void test_getContentsAsyncLorg_eclipse_swt_dnd_TransferLorg_eclipse_swt_dnd_ClipboardCallback() {
+	ClipboardCallback callback = new ClipboardCallback() {
+		public void contentsReceived(Object contents) {
+		}
+	};
+	try {
+		clipboard.getContentsAsync(null, callback);
+		fail("No exception thrown for transfer == null");
+	} catch (IllegalArgumentException e) {
+	}
+	try {
+		clipboard.getContentsAsync(TextTransfer.getInstance(), null);
+		fail("No exception thrown for callback == null");
+	} catch (IllegalArgumentException e) {
+	}
+
+	clipboard.setContents(new Object[] {"async"}, new Transfer[] {TextTransfer.getInstance()});
+	assertEquals("async", getContentsAsync(TextTransfer.getInstance(), DND.CLIPBOARD)[1]);
+	/* a type that is not offered is answered with null */
+	assertNull(getContentsAsync(RTFTransfer.getInstance(), DND.CLIPBOARD)[1]);
+
+	/* the request that follows a change sees the new contents */
+	clipboard.setContents(new Object[] {"{\\rtf1 async}"}, new Transfer[] {RTFTransfer.getInstance()});
+	assertEquals("{\\rtf1 async}", getContentsAsync(RTFTransfer.getInstance(), DND.CLIPBOARD)[1]);
+	assertNull(getContentsAsync(TextTransfer.getInstance(), DND.CLIPBOARD)[1]);
+
+	clipboard.clearContents();
+	assertNull(getContentsAsync(RTFTransfer.getInstance(), DND.CLIPBOARD)[1]);
+}
+
+public void test_getContentsAsyncLorg_eclipse_swt_dnd_TransferILorg_eclipse_swt_dnd_ClipboardCallback() {
+	clipboard.setContents(new Object[] {"clipboard"}, new Transfer[] {TextTransfer.getInstance()}, DND.CLIPBOARD);
+	clipboard.setContents(new Object[] {"selection"}, new Transfer[] {TextTransfer.getInstance()}, DND.SELECTION_CLIPBOARD);
+	assertEquals("clipboard", getContentsAsync(TextTransfer.getInstance(), DND.CLIPBOARD)[1]);
+	/* the selection clipboard only exists on some platforms */
+	Object selection = getContentsAsync(TextTransfer.getInstance(), DND.SELECTION_CLIPBOARD)[1];
+	if (selection != null) assertEquals("selection", selection);
+
+	/* several requests are answered independently */
+	final Object[] results = new Object[2];
+	clipboard.getContentsAsync(TextTransfer.getInstance(), DND.CLIPBOARD, new ClipboardCallback() {
+		public void contentsReceived(Object contents) {
+			results[0] = contents;
+		}
+	});
+	clipboard.getContentsAsync(TextTransfer.getInstance(), DND.CLIPBOARD, new ClipboardCallback() {
+		public void contentsReceived(Object contents) {
+			results[1] = contents;
+		}
+	});
+	long end = System.currentTimeMillis() + 5000;
+	while ((results[0] == null || results[1] == null) && System.currentTimeMillis() < end) {
+		if (!display.readAndDispatch()) display.sleep();
+	}
+	assertEquals("clipboard", results[0]);
+	assertEquals("clipboard", results[1]);
+}
+
+public void test_getContentsLorg_eclipse_swt_dnd_ImageTransfer() {
+	RGB red = new RGB(255, 0, 0), blue = new RGB(0, 0, 255);
+	ImageData image = createImageData(20, 10, red);
+	clipboard.setContents(new Object[] {image}, new Transfer[] {ImageTransfer.getInstance()});
+	assertTrue(isAvailable(ImageTransfer.getInstance(), DND.CLIPBOARD));
+	/* every paste answers the same image, the second one from the encoded forms that were kept */
+	assertImage(20, 10, red, clipboard.getContents(ImageTransfer.getInstance()));
+	assertImage(20, 10, red, clipboard.getContents(ImageTransfer.getInstance()));
+	assertImage(20, 10, red, getContentsAsync(ImageTransfer.getInstance(), DND.CLIPBOARD)[1]);
+
+	/* the encoded forms of replaced contents are not answered */
+	clipboard.setContents(new Object[] {createImageData(8, 16, blue)}, new Transfer[] {ImageTransfer.getInstance()});
+	assertImage(8, 16, blue, clipboard.getContents(ImageTransfer.getInstance()));
+	clipboard.setContents(new Object[] {image}, new Transfer[] {ImageTransfer.getInstance()});
+	assertImage(20, 10, red, clipboard.getContents(ImageTransfer.getInstance()));
+
+	/* each clipboard keeps the encoded forms of its own image */
+	clipboard.setContents(new Object[] {createImageData(4, 6, blue)}, new Transfer[] {ImageTransfer.getInstance()}, DND.SELECTION_CLIPBOARD);
+	Object selection = clipboard.getContents(ImageTransfer.getInstance(), DND.SELECTION_CLIPBOARD);
+	/* the selection clipboard only exists on some platforms */
+	if (selection != null) assertImage(4, 6, blue, selection);
+	assertImage(20, 10, red, clipboard.getContents(ImageTransfer.getInstance(), DND.CLIPBOARD));
+	clipboard.clearContents(DND.SELECTION_CLIPBOARD);
+	assertNull(clipboard.getContents(ImageTransfer.getInstance(), DND.SELECTION_CLIPBOARD));
+	assertImage(20, 10, red, clipboard.getContents(ImageTransfer.getInstance(), DND.CLIPBOARD));
+
+	clipboard.clearContents();
+	assertNull(clipboard.getContents(ImageTransfer.getInstance()));
+}
+}
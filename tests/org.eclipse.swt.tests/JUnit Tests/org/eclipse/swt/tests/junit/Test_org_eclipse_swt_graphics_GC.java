@@ -262,14 +262,51 @@ public void test_drawLineIIII() {
 	gc.drawLine(0,0,0,20);
 }
 
+public void test_drawLineFFFF() {
+	gc.drawLine(0.5f, 0.25f, 10.75f, 20f);
+	gc.drawLine(3f, 3f, 3f, 3f);
+}
+
+public void test_drawLines$III() {
+	gc.drawLines(new int[] {0,0, 5,10, 0,20, 30,30}, 2, 3);
+	gc.drawLines(new int[] {0,0}, 0, 1);
+	gc.drawLines(new int[] {}, 0, 0);
+	try {
+		gc.drawLines(null, 0, 0);
+		fail("No exception thrown for null point array");
+	} catch (IllegalArgumentException e) {
+	}
+	try {
+		gc.drawLines(new int[] {0,0, 5,10}, 2, 2);
+		fail("No exception thrown for range outside of the array");
+	} catch (IllegalArgumentException e) {
+	}
+}
+
 public void test_drawOvalIIII() {
 	gc.drawOval(10, 0, 20, 30);				
 }
 
+public void test_drawOvalFFFF() {
+	gc.drawOval(10.5f, 0.5f, 20f, 30.25f);
+	gc.drawOval(-1f, -1f, -1f, -1f);
+	gc.drawOval(0f, 0f, 0f, 0f);
+}
+
 public void test_drawPointII() {
 	gc.drawPoint(10, 10);
 }
 
+public void test_drawPoints$III() {
+	gc.drawPoints(new int[] {0,0, 5,10, 0,20}, 0, 3);
+	gc.drawPoints(new int[] {0,0, 5,10, 0,20}, 4, 1);
+	try {
+		gc.drawPoints(new int[] {0,0}, -1, 1);
+		fail("No exception thrown for negative offset");
+	} catch (IllegalArgumentException e) {
+	}
+}
+
 public void test_drawPolygon$I() {
 	gc.drawPolygon(new int[] {0,0, 5,10, 0,20});				
 	gc.drawPolygon(new int[] {0,0});				
@@ -280,21 +317,68 @@ public void test_drawPolyline$I() {
 	gc.drawPolyline(new int[] {0,0});				
 }
 
+public void test_drawPolyline$F() {
+	gc.drawPolyline(new float[] {0.5f,0.5f, 5.25f,10f, 0f,20.75f});
+	gc.drawPolyline(new float[] {0f,0f});
+	try {
+		gc.drawPolyline((float[])null);
+		fail("No exception thrown for null point array");
+	} catch (IllegalArgumentException e) {
+	}
+}
+
+public void test_drawPolylines$I$II() {
+	int[] points = new int[] {0,0, 5,10, 0,20, 10,10, 20,20};
+	gc.drawPolylines(points, new int[] {0, 6, 10}, 2);
+	gc.drawPolylines(points, new int[] {0, 0}, 1);
+	gc.drawPolylines(points, new int[] {0}, 0);
+	try {
+		gc.drawPolylines(points, null, 0);
+		fail("No exception thrown for null offsets");
+	} catch (IllegalArgumentException e) {
+	}
+	try {
+		gc.drawPolylines(points, new int[] {6, 0}, 1);
+		fail("No exception thrown for offsets out of order");
+	} catch (IllegalArgumentException e) {
+	}
+}
+
 public void test_drawRectangleIIII() {
 	gc.drawRectangle(10, 0, 20, 30);				
 	gc.drawRectangle(0, 0, 0, 0);				
 }
 
+public void test_drawRectangleFFFF() {
+	gc.drawRectangle(10.5f, 0.5f, 20f, 30.5f);
+	gc.drawRectangle(0f, 0f, 0f, 0f);
+}
+
 public void test_drawRectangleLorg_eclipse_swt_graphics_Rectangle() {
 	gc.drawRectangle(new Rectangle(10, 0, 20, 30));				
 	gc.drawRectangle(new Rectangle(0, 0, 0, 0));				
 }
 
+public void test_drawRectangles$III() {
+	gc.drawRectangles(new int[] {10,0,20,30, 0,0,0,0, 40,40,-5,-5}, 0, 3);
+	gc.drawRectangles(new int[] {10,0,20,30}, 4, 0);
+}
+
 public void test_drawRoundRectangleIIIIII() {
 	gc.drawRoundRectangle(10, 0, 20, 30, 3, 3);				
 	gc.drawRoundRectangle(0, 0, 0, 0, 0, 0);				
 }
 
+public void test_drawSegments$III() {
+	gc.drawSegments(new int[] {0,0,10,10, 10,0,0,10}, 0, 2);
+	gc.drawSegments(new int[] {0,0,10,10, 10,0,0,10}, 4, 1);
+	try {
+		gc.drawSegments(new int[] {0,0,10,10}, 0, 2);
+		fail("No exception thrown for range outside of the array");
+	} catch (IllegalArgumentException e) {
+	}
+}
+
 public void test_drawStringLjava_lang_StringII() {
 	gc.drawString("test", 5, 5);				
 }
@@ -369,6 +453,16 @@ public void test_fillPolygon$I() {
 	gc.fillPolygon(new int[] {-1, -1});				
 }
 
+public void test_fillPolygon$F() {
+	gc.fillPolygon(new float[] {0f,0f, 5.5f,10.5f, 0f,20f});
+	gc.fillPolygon(new float[] {0f,0f});
+	try {
+		gc.fillPolygon((float[])null);
+		fail("No exception thrown for null point array");
+	} catch (IllegalArgumentException e) {
+	}
+}
+
 public void test_fillRectangleIIII() {
 	gc.fillRectangle(new Rectangle(10, 0, 20, 30));				
 	gc.fillRectangle(new Rectangle(0, 0, 0, 0));				
@@ -380,6 +474,21 @@ public void test_fillRectangleLorg_eclipse_swt_graphics_Rectangle() {
 	gc.fillRectangle(0, 0, 0, 0);				
 }
 
+public void test_fillRectangles$III() {
+	Color red = display.getSystemColor(SWT.COLOR_RED);
+	gc.setBackground(display.getSystemColor(SWT.COLOR_WHITE));
+	gc.fillRectangle(0, 0, 200, 200);
+	gc.setBackground(red);
+	gc.fillRectangles(new int[] {0,0,20,20, 10,10,20,20, 50,50,-10,-10}, 0, 3);
+	ImageData imageData = image.getImageData();
+	RGB rgb = imageData.palette.getRGB(imageData.getPixel(15, 15));
+	assertEquals(red.getRGB(), rgb);
+	rgb = imageData.palette.getRGB(imageData.getPixel(45, 45));
+	assertEquals(red.getRGB(), rgb);
+	rgb = imageData.palette.getRGB(imageData.getPixel(25, 5));
+	assertEquals(new RGB(0xFF, 0xFF, 0xFF), rgb);
+}
+
 public void test_fillRoundRectangleIIIIII() {
 	gc.fillRoundRectangle(10, 0, 20, 30, 3, 3);				
 	gc.fillRoundRectangle(0, 0, 0, 0, 0, 0);				
@@ -12,8 +12,13 @@ package org.eclipse.swt.tests.junit;
 
 import junit.framework.TestCase;
 
+import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.GC;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.graphics.ImageData;
 import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.RGB;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.graphics.Region;
 import org.eclipse.swt.widgets.Display;
@@ -912,6 +917,73 @@ public void test_add_intArray() {
 	reg6.dispose();
 }
 
+public void test_containsAfterOperations() {
+	Region reg = new Region(display);
+	for (int i = 0; i < 100; i++) {
+		reg.add(i * 20, i * 10, 10, 10);
+	}
+	reg.subtract(500, 0, 1000, 600);
+	reg.translate(5, 5);
+	assertEquals(new Rectangle(5, 5, 1990, 1000), reg.getBounds());
+	for (int i = 0; i < 100; i++) {
+		int x = i * 20 + 5, y = i * 10 + 5;
+		boolean removed = i >= 25 && i < 60;
+		assertEquals(!removed, reg.contains(x, y));
+		assertEquals(!removed, reg.contains(x + 9, y + 9));
+		assertFalse(reg.contains(x + 10, y));
+		assertFalse(reg.contains(x - 1, y));
+	}
+
+	Region hole = new Region(display);
+	hole.add(0, 0, 30, 30);
+	hole.subtract(10, 10, 10, 10);
+	assertTrue(hole.contains(5, 15));
+	assertFalse(hole.contains(15, 15));
+	assertTrue(hole.intersects(12, 12, 10, 2));
+	assertFalse(hole.intersects(11, 11, 8, 8));
+	hole.add(new int[] {10, 10, 20, 10, 20, 20, 10, 20});
+	assertTrue(hole.contains(15, 15));
+	hole.add(40, 0, 10, 10);
+	/* only the first two squares of reg lie in the hole area */
+	hole.intersect(reg);
+	assertFalse(hole.isEmpty());
+	assertEquals(new Rectangle(5, 5, 25, 20), hole.getBounds());
+	assertTrue(hole.contains(7, 7));
+	assertTrue(hole.contains(12, 12));
+	assertTrue(hole.contains(27, 20));
+	assertFalse(hole.contains(2, 2));
+	assertFalse(hole.contains(20, 10));
+	assertFalse(hole.contains(32, 20));
+	assertFalse(hole.contains(45, 5));
+	reg.dispose();
+	hole.dispose();
+}
+
+public void test_setClippingWithHole() {
+	Image image = new Image(display, 40, 40);
+	GC gc = new GC(image);
+	Region reg = new Region(display);
+	reg.add(0, 0, 30, 30);
+	reg.subtract(10, 10, 10, 10);
+	gc.setClipping(reg);
+	gc.setBackground(display.getSystemColor(SWT.COLOR_RED));
+	gc.fillRectangle(0, 0, 40, 40);
+	Region clipping = new Region(display);
+	gc.getClipping(clipping);
+	assertTrue(clipping.contains(5, 5));
+	assertFalse(clipping.contains(15, 15));
+	assertFalse(clipping.contains(35, 35));
+	gc.dispose();
+	ImageData data = image.getImageData();
+	RGB red = display.getSystemColor(SWT.COLOR_RED).getRGB();
+	assertEquals(red, data.palette.getRGB(data.getPixel(5, 5)));
+	assertFalse(red.equals(data.palette.getRGB(data.getPixel(15, 15))));
+	assertFalse(red.equals(data.palette.getRGB(data.getPixel(35, 35))));
+	clipping.dispose();
+	reg.dispose();
+	image.dispose();
+}
+
 /* custom */
 	Display display;
 }
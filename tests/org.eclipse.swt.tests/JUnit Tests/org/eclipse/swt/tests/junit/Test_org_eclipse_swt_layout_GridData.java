@@ -14,7 +14,13 @@ package org.eclipse.swt.tests.junit;
 import junit.framework.TestCase;
 
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.layout.GridData;
+import org.eclipse.swt.layout.GridLayout;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Layout;
+import org.eclipse.swt.widgets.Shell;
 
 /**
  * Automated Test Suite for class org.eclipse.swt.layout.GridData
@@ -52,4 +58,43 @@ public void test_ConstructorII() {
 	assertTrue(data.widthHint == 100);
 	assertTrue(data.heightHint == 100);
 }
+
+public void test_computeSizeNotFlushed() {
+	final int[] count = new int[1];
+	Shell shell = new Shell(Display.getDefault());
+	try {
+		shell.setLayout(new GridLayout());
+		Composite child = new Composite(shell, SWT.NONE);
+		child.setLayout(new Layout() {
+			@Override
+			protected Point computeSize(Composite composite, int wHint, int hHint, boolean flushCache) {
+				count[0]++;
+				return new Point(10, 10);
+			}
+			@Override
+			protected void layout(Composite composite, boolean flushCache) {
+			}
+		});
+		child.setLayoutData(new GridData(SWT.FILL, SWT.FILL, true, false));
+		shell.setSize(200, 100);
+		shell.layout(true);
+		/* a layout that is not flushed reuses the sizes of the default hints and of the last width */
+		shell.setSize(300, 100);
+		shell.layout(false);
+		int computed = count[0];
+		shell.layout(false);
+		assertEquals(computed, count[0]);
+		/* the size for an earlier width is computed again */
+		shell.setSize(200, 100);
+		shell.layout(false);
+		assertTrue(count[0] > computed);
+		computed = count[0];
+		shell.layout(false);
+		assertEquals(computed, count[0]);
+		shell.layout(true);
+		assertTrue(count[0] > computed);
+	} finally {
+		shell.dispose();
+	}
+}
 }
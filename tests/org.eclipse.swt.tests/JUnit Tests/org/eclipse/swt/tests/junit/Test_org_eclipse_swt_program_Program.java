@@ -157,6 +157,33 @@ public void test_getPrograms() {
 	}
 }
 
+public void test_getProgramsReturnsCopy() {
+	Program[] programs = Program.getPrograms();
+	assertNotNull(programs);
+	if (programs.length == 0) return;
+	Program first = programs[0];
+	programs[0] = null;
+	Program[] programs2 = Program.getPrograms();
+	assertEquals(first, programs2[0]);
+}
+
+public void test_getExtensionsReturnsCopy() {
+	String[] extensions = Program.getExtensions();
+	assertNotNull(extensions);
+	if (extensions.length == 0) return;
+	String first = extensions[0];
+	extensions[0] = null;
+	String[] extensions2 = Program.getExtensions();
+	assertEquals(first, extensions2[0]);
+	for (int i=0; i<extensions2.length && i<20; i++) {
+		// repeated lookups answer the same program
+		Program program = Program.findProgram(extensions2[i]);
+		if (program != null) {
+			assertEquals(program, Program.findProgram(extensions2[i]));
+		}
+	}
+}
+
 public void test_launchLjava_lang_String() {
 
 	// This test is incomplete because a true test of launch would open
@@ -14,9 +14,14 @@ package org.eclipse.swt.tests.junit;
 import static org.junit.Assert.assertArrayEquals;
 
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.internal.LayoutListener;
+import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Button;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+import org.eclipse.swt.widgets.Layout;
 import org.eclipse.swt.widgets.List;
 import org.eclipse.swt.widgets.Widget;
 
@@ -75,6 +80,106 @@ public void test_getChildren() {
 	assertArrayEquals(":f:", new Control[]{}, composite.getChildren());
 }
 
+public void test_getChildren_order() {
+	Button c1 = new Button(composite, 0);
+	Button c2 = new Button(composite, 0);
+	Button c3 = new Button(composite, 0);
+	Control[] children = composite.getChildren();
+	children[0] = null;
+	assertArrayEquals(":a:", new Control[]{c1, c2, c3}, composite.getChildren());
+
+	c3.moveAbove(c1);
+	assertArrayEquals(":b:", new Control[]{c3, c1, c2}, composite.getChildren());
+	c3.moveBelow(null);
+	assertArrayEquals(":c:", new Control[]{c1, c2, c3}, composite.getChildren());
+
+	Composite other = new Composite(shell, 0);
+	if (c2.setParent(other)) {
+		assertArrayEquals(":d:", new Control[]{c1, c3}, composite.getChildren());
+		assertArrayEquals(":e:", new Control[]{c2}, other.getChildren());
+	}
+	other.dispose();
+	c1.dispose();
+	c3.dispose();
+	assertArrayEquals(":f:", new Control[]{}, composite.getChildren());
+}
+
+
+public void test_computeSize_memoizeLayout() {
+	if (!SwtTestUtil.isGTK) return;
+	final int[] count = new int[1];
+	Composite inner = new Composite(composite, 0);
+	inner.setLayout(new Layout() {
+		@Override
+		protected Point computeSize(Composite c, int wHint, int hHint, boolean flushCache) {
+			count[0]++;
+			return new Point(10, 10);
+		}
+		@Override
+		protected void layout(Composite c, boolean flushCache) {
+		}
+	});
+	composite.setLayout(new GridLayout());
+	Display display = shell.getDisplay();
+	display.setData("org.eclipse.swt.internal.gtk.memoizeLayout", Boolean.TRUE);
+	int computed;
+	try {
+		composite.layout(true);
+		computed = count[0];
+		composite.layout(true);
+		composite.layout(true);
+		assertEquals(computed, count[0]);
+		assertEquals(new Point(10, 10), inner.computeSize(SWT.DEFAULT, SWT.DEFAULT, true));
+		assertEquals(computed, count[0]);
+
+		composite.layout(new Control[] {inner});
+		assertEquals(computed + 1, count[0]);
+		composite.layout(true, true);
+		assertEquals(computed + 2, count[0]);
+	} finally {
+		display.setData("org.eclipse.swt.internal.gtk.memoizeLayout", null);
+	}
+	composite.layout(true);
+	assertEquals(computed + 3, count[0]);
+}
+
+public void test_setData_layoutListener() {
+	if (!SwtTestUtil.isGTK) return;
+	final int[] events = new int[5];
+	final int[] maxDepth = new int[1];
+	LayoutListener listener = new LayoutListener() {
+		@Override
+		public void layoutEvent(int type, Object widget, int depth, long start, long duration) {
+			events[type]++;
+			maxDepth[0] = Math.max(maxDepth[0], depth);
+			assertTrue(duration >= 0);
+		}
+	};
+	Composite inner = new Composite(composite, 0);
+	inner.setLayout(new GridLayout());
+	new Button(inner, SWT.PUSH);
+	composite.setLayout(new GridLayout());
+	Display display = shell.getDisplay();
+	display.setData(LayoutListener.KEY, listener);
+	try {
+		assertSame(listener, display.getData(LayoutListener.KEY));
+		/* the sizes kept by the layout data are traced without layout memoization */
+		assertNull(display.getData("org.eclipse.swt.internal.gtk.memoizeLayout"));
+		composite.layout(true, true);
+		assertTrue(events[LayoutListener.LAYOUT] >= 2);
+		assertTrue(events[LayoutListener.CONTROL_SIZE] >= 1);
+		assertTrue(maxDepth[0] >= 1);
+		int hits = events[LayoutListener.CACHE_HIT];
+		composite.layout(false, true);
+		assertTrue(events[LayoutListener.CACHE_HIT] > hits);
+	} finally {
+		display.setData(LayoutListener.KEY, null);
+	}
+	assertNull(display.getData(LayoutListener.KEY));
+	int layouts = events[LayoutListener.LAYOUT];
+	composite.layout(true, true);
+	assertEquals(layouts, events[LayoutListener.LAYOUT]);
+}
 
 public void test_setTabList$Lorg_eclipse_swt_widgets_Control() {
 	Button button1 = new Button(composite, SWT.PUSH);
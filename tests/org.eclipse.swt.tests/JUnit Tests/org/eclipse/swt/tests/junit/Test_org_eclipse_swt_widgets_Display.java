@@ -20,6 +20,7 @@ import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.graphics.Point;
 import org.eclipse.swt.graphics.Rectangle;
 import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Canvas;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Listener;
@@ -343,8 +344,15 @@ public void test_getShells() {
 		Shell shell1 = new Shell(display);
 		Shell shell2 = new Shell(display);
 		assertTrue(display.getShells().length == 2);
+		Shell shell3 = new Shell(shell1);
+		assertTrue(display.getShells().length == 3);
 		shell1.dispose();
+		assertTrue(shell3.isDisposed());
+		Shell[] shells = display.getShells();
+		assertTrue(shells.length == 1);
+		assertTrue(shells[0] == shell2);
 		shell2.dispose();
+		assertTrue(display.getShells().length == 0);
 	} finally {
 		display.dispose();
 	}
@@ -1178,6 +1186,46 @@ public void test_setDataLjava_lang_StringLjava_lang_Object() {
 	}
 }
 
+public void test_setData_redrawInterval() {
+	if (!SwtTestUtil.isGTK) return;
+	Display display = new Display();
+	try {
+		Shell shell = new Shell(display);
+		Canvas canvas = new Canvas(shell, SWT.NONE);
+		canvas.setBounds(0, 0, 100, 100);
+		shell.open();
+		display.setData("org.eclipse.swt.internal.gtk.redrawInterval", new Integer(50));
+		int[] before = (int[])display.getData("org.eclipse.swt.internal.gtk.redrawStats");
+		for (int i = 0; i < 1000; i++) {
+			canvas.redraw(i % 100, i % 100, 1, 1, false);
+		}
+		int[] stats = (int[])display.getData("org.eclipse.swt.internal.gtk.redrawStats");
+		assertEquals(1000, stats[0] - before[0]);
+		assertEquals(0, stats[1] - before[1]);
+		assertEquals(1, stats[2]);
+		canvas.update();
+		stats = (int[])display.getData("org.eclipse.swt.internal.gtk.redrawStats");
+		assertEquals(1, stats[1] - before[1]);
+		assertEquals(0, stats[2]);
+		canvas.redraw();
+		display.setData("org.eclipse.swt.internal.gtk.redrawInterval", null);
+		assertNull(display.getData("org.eclipse.swt.internal.gtk.redrawInterval"));
+		stats = (int[])display.getData("org.eclipse.swt.internal.gtk.redrawStats");
+		assertEquals(2, stats[1] - before[1]);
+		assertEquals(0, stats[2]);
+		canvas.setVisible(false);
+		canvas.redraw();
+		canvas.setVisible(true);
+		canvas.setSize(0, 0);
+		canvas.redraw(0, 0, 1, 1, false);
+		int[] hidden = (int[])display.getData("org.eclipse.swt.internal.gtk.redrawStats");
+		assertEquals(stats[0], hidden[0]);
+		assertEquals(stats[1], hidden[1]);
+	} finally {
+		display.dispose();
+	}
+}
+
 public void test_setSynchronizerLorg_eclipse_swt_widgets_Synchronizer() {
 	final Display display = new Display();
 	final boolean[] asyncExecRan = new boolean[] {false};
@@ -17,6 +17,12 @@ import java.util.Vector;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.Image;
+import org.eclipse.swt.internal.RowProvider;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableColumn;
 import org.eclipse.swt.widgets.TableItem;
@@ -594,6 +600,39 @@ public void test_getSelectionIndices() {
 
 	table.setSelection(items);
 	assertArrayEquals(new int[]{}, table.getSelectionIndices());
+
+	// the selection moves with the items when items are inserted and removed
+	makeCleanEnvironment(false);
+	for (int i = 0; i < 200; i++)
+		new TableItem(table, 0);
+	table.select(new int[]{0, 63, 64, 127, 128, 199});
+	new TableItem(table, 0, 64);
+	assertArrayEquals(new int[]{0, 63, 65, 128, 129, 200}, table.getSelectionIndices());
+	new TableItem(table, 0, 0);
+	assertArrayEquals(new int[]{1, 64, 66, 129, 130, 201}, table.getSelectionIndices());
+	new TableItem(table, 0, table.getItemCount());
+	assertArrayEquals(new int[]{1, 64, 66, 129, 130, 201}, table.getSelectionIndices());
+	table.remove(64);
+	assertArrayEquals(new int[]{1, 65, 128, 129, 200}, table.getSelectionIndices());
+	table.remove(0, 1);
+	assertArrayEquals(new int[]{63, 126, 127, 198}, table.getSelectionIndices());
+	assertEquals(4, table.getSelectionCount());
+	assertFalse(table.isSelected(64));
+	assertTrue(table.isSelected(198));
+
+	table.selectAll();
+	table.deselect(10, 190);
+	assertEquals(10 + table.getItemCount() - 191, table.getSelectionCount());
+	new TableItem(table, 0, 5);
+	assertFalse(table.isSelected(5));
+	assertTrue(table.isSelected(4));
+	assertTrue(table.isSelected(10));
+	assertFalse(table.isSelected(11));
+	assertTrue(table.isSelected(table.getItemCount() - 1));
+	assertEquals(10 + table.getItemCount() - 192, table.getSelectionCount());
+	table.removeAll();
+	assertArrayEquals(new int[]{}, table.getSelectionIndices());
+	assertEquals(0, table.getSelectionCount());
 }
 
 public void test_indexOfLorg_eclipse_swt_widgets_TableItem() {
@@ -679,6 +718,23 @@ public void test_indexOfLorg_eclipse_swt_widgets_TableItem() {
 	for (int i = 0; i < number; i++) {
 		assertEquals("i=" + i, -1, table.indexOf(items_2[i]));
 	}
+
+	// the items are renumbered after items are inserted and removed
+	makeCleanEnvironment(false);
+	for (int i = 0; i < 100; i++)
+		new TableItem(table, 0);
+	int[][] changes = {{0, 1}, {50, 1}, {99, 0}, {0, 0}, {20, 1}, {20, 0}, {100, 1}};
+	for (int i = 0; i < changes.length; i++) {
+		if (changes[i][1] == 1) {
+			new TableItem(table, 0, changes[i][0]);
+		} else {
+			table.remove(changes[i][0]);
+		}
+		TableItem[] tableItems = table.getItems();
+		for (int j = tableItems.length - 1; j >= 0; j--) {
+			assertEquals("i=" + i + ", j=" + j, j, table.indexOf(tableItems[j]));
+		}
+	}
 }
 
 public void test_isSelectedI() {
@@ -1300,6 +1356,82 @@ public void test_setColumnOrder$I() {
 	} catch (SWTException ex) {}
 }
 
+public void test_setData_rowCache() {
+	table.dispose();
+	table = new Table(shell, SWT.VIRTUAL | SWT.MULTI);
+	setWidget(table);
+	final Vector<TableItem> setDataItems = new Vector<TableItem>();
+	table.addListener(SWT.SetData, new Listener() {
+		public void handleEvent(Event event) {
+			((TableItem) event.item).setText("Item " + event.index);
+			setDataItems.addElement((TableItem) event.item);
+		}
+	});
+	table.setData("org.eclipse.swt.internal.table.rowCache", new Integer(8));
+	table.setSize(200, 100);
+	table.setItemCount(1000);
+	assertEquals(1000, table.getItemCount());
+	shell.open();
+	TableItem first = table.getItem(0);
+	TableItem middle = table.getItem(500);
+	assertEquals("Item 500", middle.getText());
+	/* the items handed out stay valid while the rows are scrolled through the cache */
+	for (int i = 0; i < 1000; i += 10) {
+		table.setTopIndex(i);
+		table.update();
+	}
+	assertFalse(first.isDisposed());
+	assertFalse(middle.isDisposed());
+	assertSame(first, table.getItem(0));
+	assertSame(middle, table.getItem(500));
+	assertEquals("Item 0", first.getText());
+	assertEquals("Item 500", middle.getText());
+	for (int i = 0; i < setDataItems.size(); i++) {
+		TableItem item = setDataItems.elementAt(i);
+		assertFalse(item.isDisposed());
+		assertEquals("Item " + table.indexOf(item), item.getText());
+	}
+
+	/* the row provider fills the rows without SetData, the text is the same either way */
+	table.dispose();
+	table = new Table(shell, SWT.VIRTUAL | SWT.MULTI);
+	setWidget(table);
+	table.addListener(SWT.SetData, new Listener() {
+		public void handleEvent(Event event) {
+			((TableItem) event.item).setText("Row " + event.index);
+		}
+	});
+	table.setData(RowProvider.KEY, new RowProvider() {
+		public String getText(int row, int column) {
+			return "Row " + row;
+		}
+		public Image getImage(int row, int column) {
+			return null;
+		}
+		public Color getForeground(int row, int column) {
+			return null;
+		}
+		public Color getBackground(int row, int column) {
+			return null;
+		}
+		public Font getFont(int row, int column) {
+			return null;
+		}
+	});
+	table.setData("org.eclipse.swt.internal.table.rowCache", new Integer(8));
+	table.setSize(200, 100);
+	table.setItemCount(1000);
+	for (int i = 0; i < 1000; i += 10) {
+		table.setTopIndex(i);
+		table.update();
+	}
+	for (int i = 0; i < 1000; i += 99) {
+		assertEquals("Row " + i, table.getItem(i).getText());
+	}
+	table.setData(RowProvider.KEY, null);
+	table.setData("org.eclipse.swt.internal.table.rowCache", null);
+}
+
 @Override
 public void test_setFontLorg_eclipse_swt_graphics_Font() {
 }
@@ -15,6 +15,10 @@ import static org.junit.Assert.assertArrayEquals;
 import java.util.Vector;
 
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Event;
+import org.eclipse.swt.widgets.Listener;
 import org.eclipse.swt.widgets.Tree;
 import org.eclipse.swt.widgets.TreeColumn;
 import org.eclipse.swt.widgets.TreeItem;
@@ -181,6 +185,44 @@ public void test_getItemHeight() {
 	assertTrue(":b: Item height is 0", tree.getItemHeight() > 0);	
 }
 
+public void test_getItemLorg_eclipse_swt_graphics_Point() {
+	tree.removeAll();
+	TreeItem[] roots = new TreeItem[20];
+	for (int i = 0; i < roots.length; i++) {
+		roots[i] = new TreeItem(tree, 0);
+		roots[i].setText("Root " + i);
+		for (int j = 0; j < 5; j++) {
+			TreeItem child = new TreeItem(roots[i], 0);
+			child.setText("Child " + i + "." + j);
+			for (int k = 0; k < 3; k++) {
+				new TreeItem(child, 0).setText("Leaf " + i + "." + j + "." + k);
+			}
+		}
+	}
+	tree.setSize(200, 100);
+	shell.open();
+	assertVisibleItems();
+	/* the rows below an expanded or collapsed item move, the items keep answering their rows */
+	roots[0].setExpanded(true);
+	roots[5].setExpanded(true);
+	roots[19].setExpanded(true);
+	assertVisibleItems();
+	roots[5].getItem(2).setExpanded(true);
+	assertVisibleItems();
+	roots[5].setExpanded(false);
+	assertVisibleItems();
+	roots[5].setExpanded(true);
+	assertVisibleItems();
+	roots[0].setExpanded(false);
+	roots[19].getItem(0).setExpanded(true);
+	assertVisibleItems();
+	new TreeItem(roots[5], 0, 1).setText("Child 5.new");
+	roots[5].getItem(3).dispose();
+	assertVisibleItems();
+	roots[5].removeAll();
+	assertVisibleItems();
+}
+
 public void test_getItemI() {
 	int number = 15;
 	TreeItem[] items = new TreeItem[number];
@@ -337,6 +379,40 @@ public void test_selectAll() {
 	assertEquals(0, tree.getSelectionCount());
 }
 
+public void test_setData_rowCache() {
+	tree.dispose();
+	tree = new Tree(shell, SWT.VIRTUAL | SWT.MULTI);
+	setWidget(tree);
+	final Vector<TreeItem> setDataItems = new Vector<TreeItem>();
+	tree.addListener(SWT.SetData, new Listener() {
+		public void handleEvent(Event event) {
+			((TreeItem) event.item).setText("Node " + event.index);
+			setDataItems.addElement((TreeItem) event.item);
+		}
+	});
+	tree.setData("org.eclipse.swt.internal.tree.rowCache", new Integer(8));
+	tree.setSize(200, 100);
+	tree.setItemCount(1000);
+	assertEquals(1000, tree.getItemCount());
+	shell.open();
+	TreeItem middle = tree.getItem(500);
+	assertEquals("Node 500", middle.getText());
+	/* the cell data of the rows that were scrolled away is requested again, the items are kept */
+	for (int i = 0; i < 1000; i += 10) {
+		tree.setTopItem(tree.getItem(i));
+		tree.update();
+	}
+	assertFalse(middle.isDisposed());
+	assertSame(middle, tree.getItem(500));
+	assertEquals("Node 500", middle.getText());
+	for (int i = 0; i < setDataItems.size(); i++) {
+		TreeItem item = setDataItems.elementAt(i);
+		assertFalse(item.isDisposed());
+		assertEquals("Node " + tree.indexOf(item), item.getText());
+	}
+	tree.setData("org.eclipse.swt.internal.tree.rowCache", null);
+}
+
 public void test_setHeaderVisibleZ() {
 	assertFalse(tree.getHeaderVisible());
 	tree.setHeaderVisible(true);
@@ -639,6 +715,26 @@ public Tree tree;
  * @param single true if the new tree should be a single-selection one,
  * otherwise use multi-selection.
  */
+/* Checks that every visible item is answered for a point in its row */
+private void assertVisibleItems() {
+	Vector<TreeItem> visible = new Vector<TreeItem>();
+	addVisibleItems(tree.getItems(), visible);
+	for (int i = 0; i < visible.size(); i++) {
+		TreeItem item = visible.elementAt(i);
+		tree.showItem(item);
+		Rectangle bounds = item.getBounds();
+		assertTrue(item.getText(), bounds.height > 0);
+		assertSame(item.getText(), item, tree.getItem(new Point(bounds.x + 1, bounds.y + bounds.height / 2)));
+	}
+}
+
+private void addVisibleItems(TreeItem[] items, Vector<TreeItem> visible) {
+	for (int i = 0; i < items.length; i++) {
+		visible.addElement(items[i]);
+		if (items[i].getExpanded()) addVisibleItems(items[i].getItems(), visible);
+	}
+}
+
 private void makeCleanEnvironment(boolean single) {
 // this method must be private or protected so the auto-gen tool keeps it
 	if (tree != null) tree.dispose();
@@ -382,6 +382,43 @@ public void test_fastStringDrawing() {
 	disposeMeter(meter);
 }
 
+public void test_segmentDrawing() {
+	PerformanceMeter meter = createMeterWithoutSummary("Draw 1M segments using GC.drawSegments()");
+	int samples;
+
+	int width = 640;
+	int height = 480;
+	int count = 1000000;
+	int[] segments = new int[count * 4];
+	for (int i = 0, x = 0; i < segments.length; i += 4, x++) {
+		segments[i] = x % width;
+		segments[i + 1] = (x * 7) % height;
+		segments[i + 2] = (x + 1) % width;
+		segments[i + 3] = ((x + 1) * 7) % height;
+	}
+	for(samples = 0; samples < 10; samples++) {
+		Shell shell = new Shell(display);
+		shell.setLayout(new GridLayout());
+		Canvas c = new Canvas(shell, SWT.NONE);
+		GridData data = new GridData();
+		data.widthHint = width;
+		data.heightHint = height;
+		c.setLayoutData(data);
+		shell.pack();
+		shell.open();
+		while(display.readAndDispatch()){/*empty*/}
+		meter.start();
+		GC gc = new GC(c);
+		gc.setAlpha(128);
+		gc.drawSegments(segments, 0, count);
+		gc.dispose();
+		meter.stop();
+		shell.dispose();
+		while(display.readAndDispatch()){/*empty*/}
+	}
+	disposeMeter(meter);
+}
+
 public static Test suite() {
 	TestSuite suite = new TestSuite();
 	java.util.Vector<String> methodNames = methodNames();
@@ -399,6 +436,7 @@ public static java.util.Vector<String> methodNames() {
 	methodNames.addElement("test_windowDrawing");
 	methodNames.addElement("test_stringDrawing");
 	methodNames.addElement("test_fastStringDrawing");
+	methodNames.addElement("test_segmentDrawing");
 	methodNames.addElement("test_layout");
 	return methodNames;
 }
@@ -411,6 +449,7 @@ protected void runTest() throws Throwable {
 	else if (getName().equals("test_windowDrawing")) test_windowDrawing();
 	else if (getName().equals("test_stringDrawing")) test_stringDrawing();
 	else if (getName().equals("test_fastStringDrawing")) test_fastStringDrawing();
+	else if (getName().equals("test_segmentDrawing")) test_segmentDrawing();
 }
 
 /* custom */